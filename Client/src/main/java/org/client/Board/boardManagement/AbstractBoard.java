@@ -304,15 +304,33 @@ public abstract class AbstractBoard implements Board {
 
   /**
    * Processes a command to move a pawn from one cell to another.
+   * A move whose start cell is empty is ignored: it was already included in a board snapshot
+   * received after the server skipped messages this client read too slowly.
    *
    * @param command The command string specifying the move.
    */
   @Override
   public void handleCommand(String command) {
     int[] positions = decodeCommand(command);
-    Pawn pawn = cells[positions[0]][positions[1]].getPawn();
-    cells[positions[0]][positions[1]].pawnMoveOut();
-    cells[positions[2]][positions[3]].pawnMoveIn(pawn);
+    handleMove(positions[0], positions[1], positions[2], positions[3]);
+  }
+
+  /**
+   * Moves a pawn from one cell to another. A move whose start cell is empty is ignored.
+   *
+   * @param startRow The row of the start cell.
+   * @param startCol The column of the start cell.
+   * @param endRow   The row of the end cell.
+   * @param endCol   The column of the end cell.
+   */
+  @Override
+  public void handleMove(int startRow, int startCol, int endRow, int endCol) {
+    Pawn pawn = cells[startRow][startCol].getPawn();
+    if (pawn == null) {
+      return;
+    }
+    cells[startRow][startCol].pawnMoveOut();
+    cells[endRow][endCol].pawnMoveIn(pawn);
   }
 
   /**
@@ -323,10 +341,19 @@ public abstract class AbstractBoard implements Board {
   @Override
   public void handleCreate(String command) {
     int[] positions = decodeCommand(command);
-    int row = positions[0];
-    int col = positions[1];
-    int player = positions[2];
-    int numPlayers = positions[3];
+    handleCreate(positions[0], positions[1], positions[2], positions[3]);
+  }
+
+  /**
+   * Sets up a single cell of the board.
+   *
+   * @param row        The row of the cell.
+   * @param col        The column of the cell.
+   * @param player     The number of the player whose pawn stands on the cell, or 0.
+   * @param numPlayers The number of players in the game.
+   */
+  @Override
+  public void handleCreate(int row, int col, int player, int numPlayers) {
     System.out.println(
         "row: " + row
         + " col: " + col
@@ -334,6 +361,60 @@ public abstract class AbstractBoard implements Board {
         + " numPlayers: " + numPlayers
         + " color: " + Color.valueOf(ColorManager.getDefaultColorString(numPlayers,player))
     );
+    createAt(row, col, player, numPlayers);
+  }
+
+  /**
+   * Handles a board snapshot describing every cell of the board at once.
+   * Applies the same changes as one create command per cell. Pawns already on the board are
+   * removed first, so a snapshot also resynchronizes a board that fell behind the game.
+   *
+   * @param snapshot The snapshot message.
+   */
+  @Override
+  public void handleBoardSnapshot(String snapshot) {
+    String[] header = snapshot.split(" ", 5);
+    int numPlayers = Integer.parseInt(header[1]);
+    int height = Integer.parseInt(header[2]);
+    int width = Integer.parseInt(header[3]);
+    String digits = header[4];
+    int[] players = new int[height * width];
+    for (int i = 0; i < players.length; i++) {
+      players[i] = digits.charAt(i) - '0';
+    }
+    handleBoardSnapshot(numPlayers, height, width, players);
+  }
+
+  /**
+   * Handles a board snapshot describing every cell of the board at once.
+   * Pawns already on the board are removed first.
+   *
+   * @param numPlayers The number of players in the game.
+   * @param height     The height of the board.
+   * @param width      The width of the board.
+   * @param players    The number of the player whose pawn stands on each cell, or 0, row by row.
+   */
+  @Override
+  public void handleBoardSnapshot(int numPlayers, int height, int width, int[] players) {
+    for (int row = 0; row < height; row++) {
+      for (int col = 0; col < width; col++) {
+        if (cells[row][col].getPawn() != null) {
+          cells[row][col].pawnMoveOut();
+        }
+        createAt(row, col, players[row * width + col], numPlayers);
+      }
+    }
+  }
+
+  /**
+   * Sets up a single cell as described by a create command.
+   *
+   * @param row        The row of the cell.
+   * @param col        The column of the cell.
+   * @param player     The number of the player whose pawn stands on the cell, or 0.
+   * @param numPlayers The number of players in the game.
+   */
+  protected void createAt(int row, int col, int player, int numPlayers) {
     Color color = Color.valueOf(ColorManager.getDefaultColorString(numPlayers, player));
     setupPawn(player, color, cells[row][col]);
   }
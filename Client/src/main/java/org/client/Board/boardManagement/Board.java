@@ -16,6 +16,16 @@ public interface Board {
    */
   void handleCommand(String command);
 
+  /**
+   * Moves a pawn from one cell to another.
+   *
+   * @param startRow The row of the start cell.
+   * @param startCol The column of the start cell.
+   * @param endRow   The row of the end cell.
+   * @param endCol   The column of the end cell.
+   */
+  void handleMove(int startRow, int startCol, int endRow, int endCol);
+
   /**
    * Retrieves the constraint size for the board, used for validating game rules.
    *
@@ -58,6 +68,34 @@ public interface Board {
    */
   void handleCreate(String command);
 
+  /**
+   * Sets up a single cell of the board.
+   *
+   * @param row        The row of the cell.
+   * @param col        The column of the cell.
+   * @param player     The number of the player whose pawn stands on the cell, or 0.
+   * @param numPlayers The number of players in the game.
+   */
+  void handleCreate(int row, int col, int player, int numPlayers);
+
+  /**
+   * Handles a board snapshot describing every cell of the board at once.
+   *
+   * @param snapshot The snapshot message: the number of players, the board's height and width,
+   *                 and one digit per cell, row by row, with the number of the player whose pawn stands on it.
+   */
+  void handleBoardSnapshot(String snapshot);
+
+  /**
+   * Handles a board snapshot describing every cell of the board at once.
+   *
+   * @param numPlayers The number of players in the game.
+   * @param height     The height of the board.
+   * @param width      The width of the board.
+   * @param players    The number of the player whose pawn stands on each cell, or 0, row by row.
+   */
+  void handleBoardSnapshot(int numPlayers, int height, int width, int[] players);
+
   /**
    * Configures the cell with the pawn's properties.
    *
@@ -47,19 +47,17 @@ public class YinYangBoard extends AbstractBoard {
   }
 
   /**
-   * Handles a command to create game elements such as pawns or zones on the board.
+   * Sets up a single cell as described by a create command.
    * Modified compared to the abstract method in such a way that player zone colors are assigned alongside pawn creation
    * whereas in AbstractBoard those were assigned with zone creation
    *
-   * @param command The command string specifying creation instructions.
+   * @param row        The row of the cell.
+   * @param col        The column of the cell.
+   * @param player     The number of the player whose pawn stands on the cell, or 0.
+   * @param numPlayers The number of players in the game.
    */
   @Override
-  public void handleCreate(String command) {
-    int[] positions = decodeCommand(command);
-    int row = positions[0];
-    int col = positions[1];
-    int player = positions[2];
-    int numPlayers = positions[3];
+  protected void createAt(int row, int col, int player, int numPlayers) {
     Color color = Color.valueOf(ColorManager.getDefaultColorString(numPlayers, player));
     cells[row][col].setZoneColor(color);
     setupPawn(player, color, cells[row][col]);
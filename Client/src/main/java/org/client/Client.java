@@ -3,32 +3,59 @@ package org.client;
 
 import java.io.*;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Queue;
 import org.client.Board.boardManagement.Board;
+import org.protocol.MessageType;
+import org.protocol.WireCodec;
+import org.protocol.WireMessage;
+import org.protocol.WireReader;
 
 /**
  * Represents a client connecting to the server. Manages communication between
  * the client and server, including message handling and game board updates.
+ * Messages are text lines unless the client asks for the binary protocol when it connects
+ * and the server agrees; the messages are then exchanged as frames, see {@link WireCodec}.
  */
 public class Client {
   private Socket socket;
-  private BufferedReader bufferedReader;
-  private BufferedWriter bufferedWriter;
+  private WireReader reader;
+  private OutputStream outputStream;
   private ClientApp clientApp;
   private Board board;
-  private boolean setup =  false;
+  private volatile boolean setup =  false;
+  private volatile boolean binary = false;
+  private boolean awaitingProtocol = false;
+  private final Queue<WireMessage> earlyMessages = new ArrayDeque<>();
 
   /**
-   * Constructs a Client with the specified socket and GUI.
+   * Constructs a Client with the specified socket and GUI, using the text protocol.
    *
    * @param socket    The socket to connect to the server.
    * @param clientApp The GUI associated with this client.
    */
   public Client(Socket socket, ClientApp clientApp) {
+    this(socket, clientApp, false);
+  }
+
+  /**
+   * Constructs a Client with the specified socket and GUI.
+   *
+   * @param socket       The socket to connect to the server.
+   * @param clientApp    The GUI associated with this client.
+   * @param binaryProtocol Whether to ask the server for the binary protocol.
+   */
+  public Client(Socket socket, ClientApp clientApp, boolean binaryProtocol) {
     try {
       this.socket = socket;
-      this.bufferedReader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-      this.bufferedWriter = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
+      this.reader = new WireReader(socket.getInputStream());
+      this.outputStream = new BufferedOutputStream(socket.getOutputStream());
       this.clientApp = clientApp;
+      if (binaryProtocol) {
+        awaitingProtocol = true;
+        sendMessage(WireCodec.HELLO);
+      }
     } catch (IOException e) {
       closeEverything();
     }
@@ -39,12 +66,16 @@ public class Client {
    *
    * @param message The message to send.
    */
-  public void sendMessage(String message) {
+  public synchronized void sendMessage(String message) {
     try {
       if (socket.isConnected()) {
-        bufferedWriter.write(message);
-        bufferedWriter.newLine();
-        bufferedWriter.flush();
+        if (binary) {
+          outputStream.write(WireCodec.encode(message));
+        } else {
+          outputStream.write(message.getBytes(StandardCharsets.UTF_8));
+          outputStream.write('\n');
+        }
+        outputStream.flush();
       }
     } catch (IOException e) {
       e.printStackTrace();
@@ -61,26 +92,64 @@ public class Client {
     this.board = board;
   }
 
+  /**
+   * Returns whether the client exchanges messages with the server as binary frames.
+   *
+   * @return true if the binary protocol is used; false if text lines are used.
+   */
+  public boolean isBinary() {
+    return binary;
+  }
+
 
   /**
    * Retrieves the user's number assigned by the server upon connection.
    * This number uniquely identifies the player within the game.
+   * If the client asked for the binary protocol, also waits for the server's answer; messages
+   * received meanwhile are kept and handled once the client listens for messages.
    *
    * @return The user number assigned by the server.
    */
   public int getUserNumFromServer() {
     int userNum = -1;
-    if (socket.isConnected()) {
-      try {
-        String userNumString = bufferedReader.readLine();
-        userNum = Integer.parseInt(userNumString);
-      } catch (IOException e) {
-        closeEverything();
+    try {
+      while (userNum < 0 || awaitingProtocol) {
+        WireMessage message = readMessage();
+        if (message == null) {
+          closeEverything();
+          return -1;
+        }
+        if (awaitingProtocol && message.getType() == MessageType.TEXT
+            && (message.getText().equals(WireCodec.ACK_BINARY) || message.getText().equals(WireCodec.ACK_TEXT))) {
+          binary = message.getText().equals(WireCodec.ACK_BINARY);
+          awaitingProtocol = false;
+        } else if (userNum < 0 && message.getType() == MessageType.USER_NUM) {
+          userNum = message.getField(0);
+        } else {
+          earlyMessages.add(message);
+        }
       }
+    } catch (IOException e) {
+      closeEverything();
     }
     return userNum;
   }
 
+  /**
+   * Reads the next message from the server, as a frame or as a text line depending on the protocol.
+   * A text line is converted to its message, so both protocols are handled the same way.
+   *
+   * @return The message, or null if the server closed the connection.
+   * @throws IOException If an I/O error occurs.
+   */
+  private WireMessage readMessage() throws IOException {
+    if (binary) {
+      return reader.readFrame();
+    }
+    String line = reader.readLine();
+    return line == null ? null : WireCodec.parse(line);
+  }
+
 
   /**
    * Listens for messages from the server on a separate thread. Processes these
@@ -91,16 +160,23 @@ public class Client {
 
       @Override
       public void run() {
-        String messageFromServer;
+        while (!earlyMessages.isEmpty()) {
+          handleLogicCommand(earlyMessages.poll());
+        }
 
         while (socket.isConnected()) {
           try {
-            messageFromServer = bufferedReader.readLine();
+            WireMessage messageFromServer = readMessage();
+            if (messageFromServer == null) {
+              closeEverything();
+              return;
+            }
             synchronized (this) {
               handleLogicCommand(messageFromServer);
             }
           } catch (IOException e) {
             closeEverything();
+            return;
           }
         }
       }
@@ -112,18 +188,33 @@ public class Client {
   /**
    * Handles messages received from the server. Does a specific action (like
    * setting up the board) or delegates the message to the client app.
+   * Board updates are applied from the message's fields without parsing any text.
    *
    * @param messageFromServer The message received from the server.
    */
-  private void handleLogicCommand(String messageFromServer) {
-    if (messageFromServer.startsWith("[CMD]")) {
-      board.handleCommand(messageFromServer);
-    } else if (messageFromServer.startsWith("[CREATE]")) {
-      board.handleCreate(messageFromServer);
-    } else if (messageFromServer.equals("[SETUP]")) {
-      setup = true;
-    } else {
-      clientApp.handleMessageFromServer(messageFromServer);
+  private void handleLogicCommand(WireMessage messageFromServer) {
+    switch (messageFromServer.getType()) {
+      case CMD:
+        board.handleMove(messageFromServer.getField(0), messageFromServer.getField(1),
+            messageFromServer.getField(2), messageFromServer.getField(3));
+        break;
+      case BOARD:
+        int[] players = new int[messageFromServer.getFieldCount() - 3];
+        for (int i = 0; i < players.length; i++) {
+          players[i] = messageFromServer.getField(3 + i);
+        }
+        board.handleBoardSnapshot(messageFromServer.getField(0), messageFromServer.getField(1),
+            messageFromServer.getField(2), players);
+        break;
+      case CREATE:
+        board.handleCreate(messageFromServer.getField(0), messageFromServer.getField(1),
+            messageFromServer.getField(2), messageFromServer.getField(3));
+        break;
+      case SETUP_DONE:
+        setup = true;
+        break;
+      default:
+        clientApp.handleMessageFromServer(WireCodec.toText(messageFromServer));
     }
   }
 
@@ -135,8 +226,12 @@ public class Client {
   public void closeEverything() {
     try {
       socket.close();
-      bufferedReader.close();
-      bufferedWriter.close();
+      if (reader != null) {
+        reader.close();
+      }
+      if (outputStream != null) {
+        outputStream.close();
+      }
     } catch (IOException e) {
       e.printStackTrace();
     }
@@ -31,7 +31,7 @@ public class ClientApp extends Application {
 
     try {
       Socket socket = new Socket("localhost", 1234);
-      client = new Client(socket, this);
+      client = new Client(socket, this, "binary".equals(getParameters().getNamed().get("protocol")));
     } catch (IOException e) {
       client.closeEverything();
     }
@@ -65,10 +65,11 @@ public class ClientApp extends Application {
 
   /**
    * The main method to launch the JavaFX application.
+   * With --protocol=binary the client asks the server for the binary protocol.
    *
    * @param args Command-line arguments.
    */
   public static void main(String[] args) {
-    launch();
+    launch(args);
   }
 }
\ No newline at end of file
@@ -102,15 +102,22 @@ public class ClientGUIManager {
   /**
    * Configures the GUI to transition from the waiting phase to gameplay.
    * Parses game settings from the server message and initializes game components.
+   * A start received during the game resynchronizes it instead: the turn is reset and the finished
+   * players are cleared, to be resent by the server along with the whole board.
    *
    * @param message A message containing game configuration details from the server.
    */
   public void setGamePanes(String message) {
-    sideBox.getChildren().clear();
     serverMessageBox.getChildren().clear();
     String options = message.substring("START.".length());
     String[] optionsTable = options.split(",");
     currTurn = Integer.parseInt(optionsTable[2]);
+    if (gameViewManager != null) {
+      finishedPlayers.clear();
+      didIFinish = false;
+      return;
+    }
+    sideBox.getChildren().clear();
     numOfPlayers = Integer.parseInt(optionsTable[0]);
     gameViewManager = new GameViewManager(client, playerNum, boardBox, playerInfoBox, numOfPlayers, variant);
     gameViewManager.setGamePanes();
@@ -2,6 +2,7 @@ package org.client;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
 import javafx.scene.paint.Color;
 import org.client.Board.boardManagement.AbstractBoard;
 import org.client.Board.boardObjects.Cell;
@@ -75,6 +76,40 @@ class AbstractBoardTest {
     assertEquals(Color.BLACK, cell.getPawn().getColor());
   }
 
+  @Test
+  void testHandleBoardSnapshot() {
+    char[] players = new char[17 * 25];
+    Arrays.fill(players, '0');
+    players[6] = '1';
+    players[16 * 25 + 6] = '2';
+
+    orderBoard.handleBoardSnapshot("[BOARD] 2 17 25 " + new String(players));
+
+    assertEquals(1, orderBoard.getCell(0, 6).getPawn().getPlayerNum());
+    assertEquals(Color.BLACK, orderBoard.getCell(0, 6).getPawn().getColor());
+    assertEquals(2, orderBoard.getCell(16, 6).getPawn().getPlayerNum());
+    assertNull(orderBoard.getCell(8, 12).getPawn());
+
+    players[6] = '0';
+    orderBoard.handleBoardSnapshot("[BOARD] 2 17 25 " + new String(players));
+    assertNull(orderBoard.getCell(0, 6).getPawn(), "A later snapshot should remove pawns that moved away.");
+  }
+
+  @Test
+  void testHandleDecodedMessages() {
+    int[] players = new int[17 * 25];
+    players[6] = 1;
+    orderBoard.handleBoardSnapshot(2, 17, 25, players);
+    assertEquals(1, orderBoard.getCell(0, 6).getPawn().getPlayerNum());
+
+    orderBoard.handleMove(0, 6, 8, 6);
+    assertNull(orderBoard.getCell(0, 6).getPawn());
+    assertEquals(1, orderBoard.getCell(8, 6).getPawn().getPlayerNum());
+
+    orderBoard.handleMove(0, 6, 8, 7);
+    assertNull(orderBoard.getCell(8, 7).getPawn(), "A move from an empty cell should be ignored.");
+  }
+
   @Test
   void testCalculatePlayerZoneHeight() {
     assertEquals(4, orderBoard.calculatePlayerZoneHeight(10)); // Sum of 1 + 2 + 3 + 4 = 10
@@ -0,0 +1,83 @@
+package org.protocol;
+
+/**
+ * The messages of the binary protocol. Every message is sent as one frame: a two-byte big-endian
+ * length, a one-byte type code and the message's fields, one unsigned byte each.
+ * Messages without a binary form are sent as {@link #TEXT} frames holding the text line.
+ */
+public enum MessageType {
+  /** Any other message, as UTF-8 text: "Waiting for 2 more player(s).", "VARIANT order", game options... */
+  TEXT(0, -1),
+  /** The user number sent to a client when it joins: "3". */
+  USER_NUM(1, 1),
+  /** A move requested by a client: "startRow startCol startPlayer endRow endCol endPlayer". */
+  MOVE(2, 6),
+  /** A client skipping its turn: "SKIP". */
+  SKIP(3, 0),
+  /** A client that has set up its board: "SETUP userNum". */
+  SETUP(4, 1),
+  /** The server's acknowledgement of a client's setup: "[SETUP]". */
+  SETUP_DONE(5, 0),
+  /** A pawn moved on the board: "[CMD] startRow startCol endRow endCol". */
+  CMD(6, 4),
+  /** A cell of the board: "[CREATE] row col player numOfPlayers". */
+  CREATE(7, 4),
+  /** The whole board: "[BOARD] numOfPlayers height width" followed by one player number per cell. */
+  BOARD(8, -1),
+  /** Another player's move: "User number X moved: [CMD] startRow startCol endRow endCol". */
+  MOVED(9, 5),
+  /** The confirmation of the client's own move: "You just moved". */
+  YOU_MOVED(10, 0),
+  /** Another player skipped its turn: "Turn skipped by user: X". */
+  SKIPPED(11, 1),
+  /** The confirmation of the client's own skip: "You just skipped". */
+  YOU_SKIPPED(12, 0),
+  /** The game has started: "START.numOfPlayers,currTurn,turn". */
+  START(13, 2),
+  /** A player has reached its destination: "WIN.player". */
+  WIN(14, 1),
+  /** Every player has finished: "GAME FINISHED!". */
+  GAME_FINISHED(15, 0);
+
+  private static final MessageType[] BY_CODE = values();
+
+  private final int code;
+  private final int fieldCount;
+
+  MessageType(int code, int fieldCount) {
+    this.code = code;
+    this.fieldCount = fieldCount;
+  }
+
+  /**
+   * Returns the code identifying the message type in a frame.
+   *
+   * @return The type code.
+   */
+  public int getCode() {
+    return code;
+  }
+
+  /**
+   * Returns the number of one-byte fields of the message.
+   *
+   * @return The number of fields, or -1 if the message has a variable length.
+   */
+  public int getFieldCount() {
+    return fieldCount;
+  }
+
+  /**
+   * Returns the message type with the given code.
+   *
+   * @param code The type code read from a frame.
+   * @return The message type.
+   * @throws IllegalArgumentException If no message type has this code.
+   */
+  public static MessageType fromCode(int code) {
+    if (code < 0 || code >= BY_CODE.length) {
+      throw new IllegalArgumentException("Unknown message type " + code);
+    }
+    return BY_CODE[code];
+  }
+}
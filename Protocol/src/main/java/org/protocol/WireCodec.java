@@ -0,0 +1,337 @@
+package org.protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Converts the messages of the game between their text lines and the frames of the binary protocol.
+ * A frame is a two-byte big-endian length followed by that many bytes: a type code and the message's
+ * fixed-width fields, or the UTF-8 text of a {@link MessageType#TEXT} message.
+ *
+ * <p>Connections start with the text protocol. A client wanting the binary one sends {@link #HELLO}
+ * as a text line and sends nothing else until the server answers with {@link #ACK_BINARY} or
+ * {@link #ACK_TEXT}. After an {@link #ACK_BINARY} both sides only send frames; clients that never send
+ * the hello keep using text lines. Every message has exactly one text form, so a frame can always be
+ * turned back into the line an older peer would have received.
+ */
+public final class WireCodec {
+  /** The line a client sends to ask for the binary protocol. */
+  public static final String HELLO = "PROTOCOL BINARY 1";
+  /** The server's answer when both sides switch to the binary protocol after it. */
+  public static final String ACK_BINARY = "PROTOCOL BINARY";
+  /** The server's answer when the connection keeps the text protocol. */
+  public static final String ACK_TEXT = "PROTOCOL TEXT";
+  /** The longest frame body, in bytes. */
+  public static final int MAX_FRAME_LENGTH = 0xFFFF;
+
+  private static final String CMD = "[CMD] ";
+  private static final String CREATE = "[CREATE] ";
+  private static final String BOARD = "[BOARD] ";
+  private static final String SETUP = "SETUP ";
+  private static final String USER_NUMBER = "User number ";
+  private static final String MOVED = " moved: [CMD] ";
+  private static final String SKIPPED = "Turn skipped by user: ";
+  private static final String START = "START.";
+  private static final String START_TURN = ",currTurn,";
+  private static final String WIN = "WIN.";
+  private static final int BOARD_HEADER = 3;
+
+  private WireCodec() {
+  }
+
+  /**
+   * Encodes a text line as one frame.
+   *
+   * @param line The line, without a terminator.
+   * @return The frame, including its length prefix.
+   */
+  public static byte[] encode(String line) {
+    return encode(parse(line));
+  }
+
+  /**
+   * Encodes a message as one frame. A text message too long for a frame is cut at the maximum length.
+   *
+   * @param message The message.
+   * @return The frame, including its length prefix.
+   */
+  public static byte[] encode(WireMessage message) {
+    byte[] payload;
+    if (message.getType() == MessageType.TEXT) {
+      payload = message.getText().getBytes(StandardCharsets.UTF_8);
+      if (payload.length >= MAX_FRAME_LENGTH) {
+        payload = Arrays.copyOf(payload, MAX_FRAME_LENGTH - 1);
+      }
+    } else {
+      payload = new byte[message.getFieldCount()];
+      for (int i = 0; i < payload.length; i++) {
+        payload[i] = (byte) message.getField(i);
+      }
+    }
+    int length = payload.length + 1;
+    byte[] frame = new byte[length + 2];
+    frame[0] = (byte) (length >>> 8);
+    frame[1] = (byte) length;
+    frame[2] = (byte) message.getType().getCode();
+    System.arraycopy(payload, 0, frame, 3, payload.length);
+    return frame;
+  }
+
+  /**
+   * Decodes the body of a frame, that is the bytes following its length prefix.
+   *
+   * @param body   The array holding the body.
+   * @param offset The index of the body's first byte.
+   * @param length The length of the body.
+   * @return The decoded message.
+   * @throws IllegalArgumentException If the body is empty, has an unknown type or the wrong number of fields.
+   */
+  public static WireMessage decode(byte[] body, int offset, int length) {
+    if (length < 1) {
+      throw new IllegalArgumentException("Empty frame");
+    }
+    MessageType type = MessageType.fromCode(body[offset] & 0xFF);
+    if (type == MessageType.TEXT) {
+      return new WireMessage(new String(body, offset + 1, length - 1, StandardCharsets.UTF_8));
+    }
+    int fieldCount = length - 1;
+    if (type.getFieldCount() >= 0 ? fieldCount != type.getFieldCount()
+        : fieldCount < BOARD_HEADER
+            || fieldCount != BOARD_HEADER + (body[offset + 2] & 0xFF) * (body[offset + 3] & 0xFF)) {
+      throw new IllegalArgumentException("Frame of type " + type + " with " + fieldCount + " fields");
+    }
+    int[] fields = new int[fieldCount];
+    for (int i = 0; i < fieldCount; i++) {
+      fields[i] = body[offset + 1 + i] & 0xFF;
+    }
+    return new WireMessage(type, fields);
+  }
+
+  /**
+   * Converts a text line to a message, using the binary form of the line if it has one.
+   *
+   * @param line The line, without a terminator.
+   * @return The message; a text message if the line has no binary form.
+   */
+  public static WireMessage parse(String line) {
+    WireMessage message = parseFields(line);
+    if (message == null || !toText(message).equals(line)) {
+      return new WireMessage(line);
+    }
+    return message;
+  }
+
+  /**
+   * Recognizes the message a line holds, without checking that its text form is exactly the line.
+   *
+   * @param line The line.
+   * @return The message with fields, or null if the line is not one of the messages with fields.
+   */
+  private static WireMessage parseFields(String line) {
+    switch (line) {
+      case "SKIP":
+        return new WireMessage(MessageType.SKIP);
+      case "[SETUP]":
+        return new WireMessage(MessageType.SETUP_DONE);
+      case "You just moved":
+        return new WireMessage(MessageType.YOU_MOVED);
+      case "You just skipped":
+        return new WireMessage(MessageType.YOU_SKIPPED);
+      case "GAME FINISHED!":
+        return new WireMessage(MessageType.GAME_FINISHED);
+      default:
+        break;
+    }
+    if (line.startsWith(CMD)) {
+      return withFields(MessageType.CMD, numbers(line, CMD.length(), line.length(), ' '));
+    }
+    if (line.startsWith(CREATE)) {
+      return withFields(MessageType.CREATE, numbers(line, CREATE.length(), line.length(), ' '));
+    }
+    if (line.startsWith(BOARD)) {
+      return parseBoard(line);
+    }
+    if (line.startsWith(SETUP)) {
+      return withFields(MessageType.SETUP, numbers(line, SETUP.length(), line.length(), ' '));
+    }
+    if (line.startsWith(USER_NUMBER)) {
+      int moved = line.indexOf(MOVED);
+      if (moved < 0) {
+        return null;
+      }
+      int[] user = numbers(line, USER_NUMBER.length(), moved, ' ');
+      int[] move = numbers(line, moved + MOVED.length(), line.length(), ' ');
+      if (user == null || move == null) {
+        return null;
+      }
+      int[] fields = new int[1 + move.length];
+      fields[0] = user[0];
+      System.arraycopy(move, 0, fields, 1, move.length);
+      return withFields(MessageType.MOVED, fields);
+    }
+    if (line.startsWith(SKIPPED)) {
+      return withFields(MessageType.SKIPPED, numbers(line, SKIPPED.length(), line.length(), ' '));
+    }
+    if (line.startsWith(START)) {
+      int turn = line.indexOf(START_TURN);
+      if (turn < 0) {
+        return null;
+      }
+      int[] players = numbers(line, START.length(), turn, ',');
+      int[] currTurn = numbers(line, turn + START_TURN.length(), line.length(), ',');
+      if (players == null || currTurn == null) {
+        return null;
+      }
+      return withFields(MessageType.START, players[0], currTurn[0]);
+    }
+    if (line.startsWith(WIN)) {
+      return withFields(MessageType.WIN, numbers(line, WIN.length(), line.length(), '.'));
+    }
+    int[] fields = numbers(line, 0, line.length(), ' ');
+    if (fields != null && fields.length == MessageType.USER_NUM.getFieldCount()) {
+      return new WireMessage(MessageType.USER_NUM, fields);
+    }
+    return withFields(MessageType.MOVE, fields);
+  }
+
+  /**
+   * Recognizes a board snapshot line.
+   *
+   * @param line The line, starting with "[BOARD] ".
+   * @return The message, or null if the line is malformed.
+   */
+  private static WireMessage parseBoard(String line) {
+    int cellsStart = line.lastIndexOf(' ') + 1;
+    int[] header = numbers(line, BOARD.length(), cellsStart - 1, ' ');
+    if (header == null || header.length != BOARD_HEADER || header[1] * header[2] != line.length() - cellsStart) {
+      return null;
+    }
+    int[] fields = Arrays.copyOf(header, BOARD_HEADER + header[1] * header[2]);
+    for (int i = cellsStart; i < line.length(); i++) {
+      int digit = line.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return null;
+      }
+      fields[BOARD_HEADER + i - cellsStart] = digit;
+    }
+    return new WireMessage(MessageType.BOARD, fields);
+  }
+
+  /**
+   * Creates a message if the fields have the number the message type expects.
+   *
+   * @param type   The message type.
+   * @param fields The fields, or null.
+   * @return The message, or null if the fields are missing or their number is wrong.
+   */
+  private static WireMessage withFields(MessageType type, int... fields) {
+    if (fields == null || fields.length != type.getFieldCount()) {
+      return null;
+    }
+    return new WireMessage(type, fields);
+  }
+
+  /**
+   * Reads numbers between 0 and 255 separated by single separators.
+   *
+   * @param line      The line.
+   * @param from      The index of the first character.
+   * @param to        The index after the last character.
+   * @param separator The separator.
+   * @return The numbers, or null if the range holds anything else.
+   */
+  private static int[] numbers(String line, int from, int to, char separator) {
+    if (from >= to) {
+      return null;
+    }
+    int[] values = new int[8];
+    int count = 0;
+    int value = -1;
+    for (int i = from; i <= to; i++) {
+      char c = i < to ? line.charAt(i) : separator;
+      if (c == separator) {
+        if (value < 0 || count == values.length) {
+          return null;
+        }
+        values[count++] = value;
+        value = -1;
+      } else if (c >= '0' && c <= '9') {
+        value = (value < 0 ? 0 : value * 10) + (c - '0');
+        if (value > 255) {
+          return null;
+        }
+      } else {
+        return null;
+      }
+    }
+    return Arrays.copyOf(values, count);
+  }
+
+  /**
+   * Returns the text line of a message, as sent by the text protocol.
+   *
+   * @param message The message.
+   * @return The line, without a terminator.
+   */
+  public static String toText(WireMessage message) {
+    switch (message.getType()) {
+      case TEXT:
+        return message.getText();
+      case USER_NUM:
+        return String.valueOf(message.getField(0));
+      case MOVE:
+        return join(message, 0, 6);
+      case SKIP:
+        return "SKIP";
+      case SETUP:
+        return SETUP + message.getField(0);
+      case SETUP_DONE:
+        return "[SETUP]";
+      case CMD:
+        return CMD + join(message, 0, 4);
+      case CREATE:
+        return CREATE + join(message, 0, 4);
+      case BOARD:
+        StringBuilder board = new StringBuilder(BOARD).append(join(message, 0, BOARD_HEADER)).append(' ');
+        for (int i = BOARD_HEADER; i < message.getFieldCount(); i++) {
+          board.append((char) ('0' + message.getField(i)));
+        }
+        return board.toString();
+      case MOVED:
+        return USER_NUMBER + message.getField(0) + MOVED + join(message, 1, 5);
+      case YOU_MOVED:
+        return "You just moved";
+      case SKIPPED:
+        return SKIPPED + message.getField(0);
+      case YOU_SKIPPED:
+        return "You just skipped";
+      case START:
+        return START + message.getField(0) + START_TURN + message.getField(1);
+      case WIN:
+        return WIN + message.getField(0);
+      case GAME_FINISHED:
+        return "GAME FINISHED!";
+      default:
+        throw new IllegalArgumentException("Unknown message type " + message.getType());
+    }
+  }
+
+  /**
+   * Joins fields of a message with spaces.
+   *
+   * @param message The message.
+   * @param from    The index of the first field.
+   * @param to      The index after the last field.
+   * @return The joined fields.
+   */
+  private static String join(WireMessage message, int from, int to) {
+    StringBuilder joined = new StringBuilder();
+    for (int i = from; i < to; i++) {
+      if (i > from) {
+        joined.append(' ');
+      }
+      joined.append(message.getField(i));
+    }
+    return joined.toString();
+  }
+}
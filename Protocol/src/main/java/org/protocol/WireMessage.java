@@ -0,0 +1,92 @@
+package org.protocol;
+
+import java.util.Arrays;
+
+/**
+ * A decoded message of the binary protocol: its type and either its fields or, for
+ * {@link MessageType#TEXT} messages, its text. The fields of a {@link MessageType#BOARD} message are
+ * the number of players, the height and the width of the board followed by one player number per cell.
+ */
+public class WireMessage {
+  private final MessageType type;
+  private final int[] fields;
+  private final String text;
+
+  /**
+   * Constructs a message with fields.
+   *
+   * @param type   The message type.
+   * @param fields The fields, each between 0 and 255.
+   */
+  public WireMessage(MessageType type, int... fields) {
+    this.type = type;
+    this.fields = fields;
+    this.text = null;
+  }
+
+  /**
+   * Constructs a text message.
+   *
+   * @param text The text line, without a terminator.
+   */
+  public WireMessage(String text) {
+    this.type = MessageType.TEXT;
+    this.fields = new int[0];
+    this.text = text;
+  }
+
+  public MessageType getType() {
+    return type;
+  }
+
+  /**
+   * Returns a field of the message.
+   *
+   * @param index The index of the field.
+   * @return The field's value.
+   */
+  public int getField(int index) {
+    return fields[index];
+  }
+
+  /**
+   * Returns the number of fields of the message.
+   *
+   * @return The number of fields.
+   */
+  public int getFieldCount() {
+    return fields.length;
+  }
+
+  /**
+   * Returns the text of a text message.
+   *
+   * @return The text, or null if the message is not a text message.
+   */
+  public String getText() {
+    return text;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof WireMessage)) {
+      return false;
+    }
+    WireMessage other = (WireMessage) o;
+    return type == other.type && Arrays.equals(fields, other.fields)
+        && (text == null ? other.text == null : text.equals(other.text));
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * type.hashCode() + Arrays.hashCode(fields)) + (text == null ? 0 : text.hashCode());
+  }
+
+  @Override
+  public String toString() {
+    return WireCodec.toText(this);
+  }
+}
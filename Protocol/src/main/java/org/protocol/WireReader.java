@@ -0,0 +1,96 @@
+package org.protocol;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads text lines and binary frames from one blocking stream. Both come from the same buffer,
+ * so a connection can switch from lines to frames without losing bytes already read ahead.
+ * A reader belongs to a single thread.
+ */
+public class WireReader {
+  private final InputStream in;
+  private byte[] buffer;
+
+  /**
+   * Constructs a reader.
+   *
+   * @param in The stream to read from.
+   */
+  public WireReader(InputStream in) {
+    this.in = new BufferedInputStream(in);
+    this.buffer = new byte[256];
+  }
+
+  /**
+   * Reads one line terminated by '\n'; an optional preceding '\r' is dropped.
+   *
+   * @return The line without its terminator, or null at the end of the stream.
+   * @throws IOException If an I/O error occurs.
+   */
+  public String readLine() throws IOException {
+    int length = 0;
+    int b = in.read();
+    if (b < 0) {
+      return null;
+    }
+    while (b >= 0 && b != '\n') {
+      if (length == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+      buffer[length++] = (byte) b;
+      b = in.read();
+    }
+    if (length > 0 && buffer[length - 1] == '\r') {
+      length--;
+    }
+    return new String(buffer, 0, length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads one frame.
+   *
+   * @return The decoded message, or null at the end of the stream.
+   * @throws IOException If an I/O error occurs, the stream ends inside a frame or the frame is malformed.
+   */
+  public WireMessage readFrame() throws IOException {
+    int high = in.read();
+    if (high < 0) {
+      return null;
+    }
+    int low = in.read();
+    if (low < 0) {
+      throw new EOFException("Stream ended inside a frame");
+    }
+    int length = (high << 8) | low;
+    if (length > buffer.length) {
+      buffer = new byte[Math.max(length, buffer.length * 2)];
+    }
+    int read = 0;
+    while (read < length) {
+      int n = in.read(buffer, read, length - read);
+      if (n < 0) {
+        throw new EOFException("Stream ended inside a frame");
+      }
+      read += n;
+    }
+    try {
+      return WireCodec.decode(buffer, 0, length);
+    } catch (IllegalArgumentException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Closes the underlying stream.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  public void close() throws IOException {
+    in.close();
+  }
+}
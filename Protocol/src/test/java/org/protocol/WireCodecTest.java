@@ -0,0 +1,79 @@
+package org.protocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireCodecTest {
+
+  private static final String BOARD = "[BOARD] 2 3 4 " + "012000000210";
+
+  private static final List<String> MESSAGES = List.of("3", "4 12 1 5 11 0", "SKIP", "SETUP 2", "[SETUP]",
+      "[CMD] 4 12 5 11", "[CREATE] 4 12 1 2", BOARD, "User number 2 moved: [CMD] 4 12 5 11", "You just moved",
+      "Turn skipped by user: 3", "You just skipped", "START.2,currTurn,1", "WIN.2", "GAME FINISHED!");
+
+  @Test
+  void testEveryMessageHasBinaryFormAndSameText() {
+    for (String line : MESSAGES) {
+      WireMessage message = WireCodec.parse(line);
+      assertNotEquals(MessageType.TEXT, message.getType(), line);
+      assertEquals(line, WireCodec.toText(message));
+
+      byte[] frame = WireCodec.encode(line);
+      if (line.length() > 1) {
+        assertTrue(frame.length < line.length() + 1, "A frame should be smaller than the line: " + line);
+      }
+      assertEquals(message, WireCodec.decode(frame, 2, frame.length - 2));
+    }
+  }
+
+  @Test
+  void testMoveHasFixedWidthFields() {
+    WireMessage move = WireCodec.parse("[CMD] 4 12 5 11");
+
+    assertEquals(MessageType.CMD, move.getType());
+    assertEquals(12, move.getField(1));
+    assertEquals(11, move.getField(3));
+    assertEquals(7, WireCodec.encode(move).length, "Length, type and four one-byte fields.");
+  }
+
+  @Test
+  void testOtherLinesAreSentAsText() {
+    for (String line : List.of("Waiting for 2 more player(s).", "VARIANT order", "2,1,standard", "[CMD] 04 12 5 11",
+        "[CMD] 400 12 5 11", "SETUP", "WIN.", "zażółć")) {
+      WireMessage message = WireCodec.parse(line);
+      assertEquals(MessageType.TEXT, message.getType(), line);
+      byte[] frame = WireCodec.encode(line);
+      assertEquals(line, WireCodec.toText(WireCodec.decode(frame, 2, frame.length - 2)));
+    }
+  }
+
+  @Test
+  void testMalformedFrameIsRejected() {
+    byte[] tooShort = {(byte) MessageType.CMD.getCode(), 1, 2, 3};
+    byte[] unknownType = {(byte) 200};
+
+    assertThrows(IllegalArgumentException.class, () -> WireCodec.decode(tooShort, 0, tooShort.length));
+    assertThrows(IllegalArgumentException.class, () -> WireCodec.decode(unknownType, 0, unknownType.length));
+  }
+
+  @Test
+  void testReaderSwitchesFromLinesToFrames() throws IOException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    stream.write("1\nPROTOCOL BINARY\n".getBytes(StandardCharsets.UTF_8));
+    stream.write(WireCodec.encode("VARIANT order"));
+    stream.write(WireCodec.encode("[CMD] 4 12 5 11"));
+    WireReader reader = new WireReader(new ByteArrayInputStream(stream.toByteArray()));
+
+    assertEquals("1", reader.readLine());
+    assertEquals(WireCodec.ACK_BINARY, reader.readLine());
+    assertEquals("VARIANT order", reader.readFrame().getText());
+    assertEquals(MessageType.CMD, reader.readFrame().getType());
+    assertNull(reader.readFrame());
+  }
+}
@@ -0,0 +1,28 @@
+package org.server;
+
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exposing the games hosted by the server, with either storage backend.
+ */
+@RestController
+@RequestMapping("/games")
+public class GameController {
+
+  @Autowired
+  private GameRegistry gameRegistry;
+
+  /**
+   * Returns the number of running games and how long games stay in every state.
+   *
+   * @return The number of active games and the counters of every game state, by name.
+   */
+  @GetMapping("/lifecycle")
+  public Map<String, Number> getLifecycleMetrics() {
+    return gameRegistry.getMetrics();
+  }
+}
@@ -0,0 +1,165 @@
+package org.server;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * The lifecycle of one game: its current {@link GameState}, a future completed when each state is
+ * reached, and a timeout for every state. Transitions are driven by the game's commands and nothing
+ * waits for them: whoever needs to act on a state subscribes to {@link #reached(GameState)}, and
+ * a state that lasts too long is reported by a delayed command instead of a polling thread.
+ * Only the latest timeout is kept scheduled: the previous one is cancelled whenever a timeout is armed.
+ * Confined to the game's lane, like the rest of the game state; only the futures may be used from other threads.
+ */
+public class GameLifecycle {
+  private final BiFunction<Runnable, Long, Future<?>> scheduler;
+  private final ToLongFunction<GameState> timeouts;
+  private final Consumer<GameState> onTimeout;
+  private final Map<GameState, CompletableFuture<Void>> reached;
+  private volatile GameState state;
+  private long enteredAtNanos;
+  private int timeoutGeneration;
+  private Future<?> timeout;
+  private LifecycleMetrics metrics;
+  private boolean started;
+
+  /**
+   * Constructs a lifecycle in the LOBBY state. Timeouts are only armed once it is started.
+   *
+   * @param scheduler The function running a command on the game's lane after a delay in milliseconds,
+   *                  returning the future of the delayed command or null if it is not cancellable.
+   * @param timeouts  The timeout of every state, in milliseconds; 0 disables it.
+   * @param onTimeout The action run on the game's lane when the game stays in a state longer than its timeout.
+   */
+  public GameLifecycle(BiFunction<Runnable, Long, Future<?>> scheduler, ToLongFunction<GameState> timeouts,
+                       Consumer<GameState> onTimeout) {
+    this.scheduler = scheduler;
+    this.timeouts = timeouts;
+    this.onTimeout = onTimeout;
+    this.reached = new EnumMap<>(GameState.class);
+    for (GameState gameState : GameState.values()) {
+      reached.put(gameState, new CompletableFuture<>());
+    }
+    this.state = GameState.LOBBY;
+    this.enteredAtNanos = System.nanoTime();
+    reached.get(GameState.LOBBY).complete(null);
+  }
+
+  /**
+   * Starts recording the lifecycle and arms the timeout of the current state.
+   *
+   * @param metrics The metrics the transitions are recorded in, or null.
+   */
+  public void start(LifecycleMetrics metrics) {
+    this.metrics = metrics;
+    this.started = true;
+    if (metrics != null) {
+      metrics.recordEntered(state);
+    }
+    armTimeout();
+  }
+
+  /**
+   * Returns the current state.
+   *
+   * @return The current state.
+   */
+  public GameState getState() {
+    return state;
+  }
+
+  /**
+   * Checks whether the game is in one of the states from first to last, inclusive.
+   *
+   * @param first The first state of the range.
+   * @param last  The last state of the range.
+   * @return true if the current state is within the range; false otherwise.
+   */
+  public boolean isBetween(GameState first, GameState last) {
+    return state.compareTo(first) >= 0 && state.compareTo(last) <= 0;
+  }
+
+  /**
+   * Returns a future completed when the game reaches a state. If the game is archived without
+   * going through the state, the future completes exceptionally with a {@link CancellationException}.
+   * Dependent actions run on the game's lane, or on the caller if the state has already been reached.
+   *
+   * @param gameState The state.
+   * @return The future of the state.
+   */
+  public CompletableFuture<Void> reached(GameState gameState) {
+    return reached.get(gameState);
+  }
+
+  /**
+   * Moves the game to another state, records the time spent in the current one and arms the timeout of the next one.
+   *
+   * @param next The state to move to.
+   * @return true if the state changed; false if the game already was in that state.
+   * @throws IllegalStateException If the game cannot move from its current state to next.
+   */
+  public boolean moveTo(GameState next) {
+    if (next == state) {
+      return false;
+    }
+    if (!state.canMoveTo(next)) {
+      throw new IllegalStateException("Game cannot move from " + state + " to " + next);
+    }
+    GameState previous = state;
+    long now = System.nanoTime();
+    if (metrics != null) {
+      metrics.recordLeft(previous, (now - enteredAtNanos) / 1_000_000);
+      metrics.recordEntered(next);
+    }
+    state = next;
+    enteredAtNanos = now;
+    armTimeout();
+    if (next == GameState.ARCHIVED) {
+      for (GameState skipped : GameState.values()) {
+        if (skipped.compareTo(previous) > 0 && skipped != GameState.ARCHIVED) {
+          reached.get(skipped).completeExceptionally(new CancellationException("Game archived in " + previous));
+        }
+      }
+    }
+    reached.get(next).complete(null);
+    return true;
+  }
+
+  /**
+   * Restarts the timeout of the current state, for states whose timeout measures inactivity.
+   */
+  public void refreshTimeout() {
+    armTimeout();
+  }
+
+  /**
+   * Schedules the timeout of the current state and cancels the one armed earlier, so that an archived
+   * game leaves nothing on the timer. A timeout armed earlier that fires anyway is ignored.
+   */
+  private void armTimeout() {
+    int generation = ++timeoutGeneration;
+    if (timeout != null) {
+      timeout.cancel(false);
+      timeout = null;
+    }
+    long timeoutMs = timeouts.applyAsLong(state);
+    if (!started || timeoutMs <= 0 || state == GameState.ARCHIVED) {
+      return;
+    }
+    GameState timedState = state;
+    timeout = scheduler.apply(() -> {
+      if (generation == timeoutGeneration) {
+        if (metrics != null) {
+          metrics.recordTimeout(timedState);
+        }
+        onTimeout.accept(timedState);
+      }
+    }, timeoutMs);
+  }
+}
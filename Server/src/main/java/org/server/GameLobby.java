@@ -0,0 +1,170 @@
+package org.server;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import org.protocol.WireMessage;
+import org.server.playerHandlers.RemotePlayerHandler;
+import org.server.playerHandlers.RemotePlayerListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Assigns connected players to the game sessions of the {@link GameRegistry}, whatever their transport.
+ * A new player waits in the lobby until the open session has a free seat and its first player has chosen
+ * the game options; the lobby learns both from the session's {@link GameLifecycle}, so nothing polls.
+ * Once every seat is taken, the start of the game is queued on the session's lane.
+ * The lobby's state is confined to its own lane; received lines go straight to the lanes of the sessions.
+ */
+@Component
+public class GameLobby implements RemotePlayerListener {
+  private final GameRegistry gameRegistry;
+  private final Executor lobbyLane;
+  private final Queue<RemotePlayerHandler> waitingPlayers;
+  private final Map<RemotePlayerHandler, GameSession> assignments;
+
+  /**
+   * Constructs a lobby.
+   *
+   * @param gameRegistry The registry of the hosted games.
+   */
+  @Autowired
+  public GameLobby(GameRegistry gameRegistry) {
+    this.gameRegistry = gameRegistry;
+    this.lobbyLane = gameRegistry.newLane();
+    this.waitingPlayers = new ArrayDeque<>();
+    this.assignments = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Puts a newly connected player in the lobby.
+   *
+   * @param player The player.
+   */
+  public void enter(RemotePlayerHandler player) {
+    lobbyLane.execute(() -> {
+      waitingPlayers.add(player);
+      admitWaitingPlayers();
+    });
+  }
+
+  /**
+   * Lets waiting players join the open session while it has free seats and no handshake
+   * is in progress. Runs on the lobby lane.
+   */
+  private void admitWaitingPlayers() {
+    while (!waitingPlayers.isEmpty()) {
+      GameSession session = gameRegistry.openSession();
+      if (session.getPendingHandshake() != null) {
+        return;
+      }
+      RemotePlayerHandler player = waitingPlayers.poll();
+      if (player.isClosed()) {
+        continue;
+      }
+      int userNum = session.reserveSeat();
+      assignments.put(player, session);
+      player.admit(session.getGameManager(), userNum);
+      if (!session.hasGameOptions()) {
+        awaitHandshake(session, player);
+        return;
+      }
+      startIfFull(session);
+    }
+  }
+
+  /**
+   * Holds the session for its first player until the game is configured or abandoned. Runs on the lobby lane.
+   *
+   * @param session The session.
+   * @param player  The session's first player.
+   */
+  private void awaitHandshake(GameSession session, RemotePlayerHandler player) {
+    session.setPendingHandshake(player);
+    GameManager gameManager = session.getGameManager();
+    gameManager.getLifecycle().reached(GameState.CONFIGURED).whenComplete((ignored, failure) -> {
+      int maxUsers = failure == null ? gameManager.getMaxUsers() : 0;
+      lobbyLane.execute(() -> endHandshake(session, player, maxUsers));
+    });
+  }
+
+  /**
+   * Ends the handshake of a session's first player, successful or not. Runs on the lobby lane.
+   * If the game was abandoned before it was configured, the player is disconnected.
+   *
+   * @param session  The session.
+   * @param player   The session's first player.
+   * @param maxUsers The number of human players chosen by the player, or 0 if the game was abandoned.
+   */
+  private void endHandshake(GameSession session, RemotePlayerHandler player, int maxUsers) {
+    session.setPendingHandshake(null);
+    if (maxUsers == 0) {
+      player.closeEverything();
+    } else {
+      session.setCapacity(maxUsers);
+      startIfFull(session);
+    }
+    admitWaitingPlayers();
+  }
+
+  /**
+   * Starts the game of a session on its lane once every human player has a seat. Runs on the lobby lane.
+   * The start command is queued after the joins of all players, so it sees every one of them.
+   *
+   * @param session The session.
+   */
+  private void startIfFull(GameSession session) {
+    if (session.isFull() && !session.isStarting()) {
+      session.markStarting();
+      session.execute(session::beginGame);
+    }
+  }
+
+  /**
+   * Turns a line received from a player into a command on the lane of its session.
+   *
+   * @param player  The player.
+   * @param message The received line.
+   */
+  @Override
+  public void onMessage(RemotePlayerHandler player, String message) {
+    GameSession session = assignments.get(player);
+    if (session != null) {
+      session.execute(() -> player.onLine(message));
+    }
+  }
+
+  /**
+   * Turns a frame received from a player into a command on the lane of its session.
+   *
+   * @param player  The player.
+   * @param message The decoded frame.
+   */
+  @Override
+  public void onFrame(RemotePlayerHandler player, WireMessage message) {
+    GameSession session = assignments.get(player);
+    if (session != null) {
+      session.execute(() -> player.onFrame(message));
+    }
+  }
+
+  /**
+   * Releases the seat of a player that left before its game started and lets the next players in.
+   *
+   * @param player The player.
+   */
+  @Override
+  public void onClose(RemotePlayerHandler player) {
+    GameSession session = assignments.remove(player);
+    lobbyLane.execute(() -> {
+      if (session == null) {
+        waitingPlayers.remove(player);
+        return;
+      }
+      session.releaseSeat(player.getUserNum());
+      admitWaitingPlayers();
+    });
+  }
+}
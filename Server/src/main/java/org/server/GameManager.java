@@ -6,44 +6,100 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.protocol.MessageType;
+import org.protocol.WireMessage;
 import org.server.board.*;
 import org.server.board.boardManagement.Board;
 import org.server.board.boardManagement.BoardFactory;
 import org.server.board.boardObjects.Cell;
-import org.server.board.boardObjects.Pawn;
-import org.server.board.moveManagement.BotMoveOptimizer;
+import org.server.board.moveManagement.BotStrategyFactory;
+import org.server.board.moveManagement.IBotStrategy;
+import org.server.board.moveManagement.TranspositionTable;
+import org.server.board.moveManagement.MoveCommand;
 import org.server.board.moveManagement.MoveValidator;
+import org.server.network.OutboundMessage;
 import org.server.playerHandlers.BotHandler;
-import org.server.playerHandlers.ClientHandler;
+import org.server.playerHandlers.RemotePlayerHandler;
 import org.server.playerHandlers.PlayerHandler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 /**
  * Manages the state of the game, including player turns, broadcasting messages,
  * and ensuring synchronization between connected clients.
  * Acts as a central hub for game-related logic.
+ * Every game session has its own instance, created by the {@link GameRegistry}.
+ * The game state is confined to the session's lane: joins, moves, skips, setup acknowledgements
+ * and bot moves all arrive as commands executed one at a time on it, and every outgoing message
+ * is only queued on a connection, so the state needs no locks and many games share a few threads.
+ * The stage the game is in is tracked by its {@link GameLifecycle}, which also times out games
+ * stuck in a stage, such as a lobby that never fills or clients that never finish their setup.
  */
 @Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class GameManager {
   private final List<PlayerHandler> playerHandlers;
   private int maxUsers;
   private int maxBots;
   private int currTurn;
-  private boolean gameStarted;
   private Board currentBoard;
   private MoveValidator moveValidator;
   private String variant;
+  private GameRecord gameRecord;
   private final ArrayList<Integer> finishedPlayers;
-  private Server server;
   private int moveNum;
   private int gameNum;
   private boolean fromDatabase;
   public int gameNumCpy;
+  private Executor lane = Runnable::run;
+  private Executor storage = Runnable::run;
+  private ScheduledExecutorService timer;
+  private final GameLifecycle lifecycle;
 
-  @Autowired
+  @Autowired(required = false)
   private MoveRecordRepository moveRecordRepository;
 
+  @Autowired
+  private GameStore gameStore;
+
+  @Autowired(required = false)
+  private GameMetadataCache gameMetadataCache;
+
+  @Value("${bot.strategy:greedy}")
+  private String botStrategy = "greedy";
+
+  @Value("${bot.timeBudgetMs:500}")
+  private long botTimeBudgetMs = 500;
+
+  @Value("${bot.playoutBudget:0}")
+  private int botPlayoutBudget = 0;
+
+  @Value("${bot.transpositionTableMb:16}")
+  private int botTranspositionTableMb = 16;
+
+  @Value("${game.lobbyTimeoutMs:300000}")
+  private long lobbyTimeoutMs = 300000;
+
+  @Value("${game.configuredTimeoutMs:600000}")
+  private long configuredTimeoutMs = 600000;
+
+  @Value("${game.setupTimeoutMs:30000}")
+  private long setupTimeoutMs = 30000;
+
+  @Value("${game.runningTimeoutMs:900000}")
+  private long runningTimeoutMs = 900000;
+
+  @Value("${game.finishedTimeoutMs:60000}")
+  private long finishedTimeoutMs = 60000;
+
 
   /**
    * Constructs a GameManager.
@@ -52,31 +108,133 @@ public class GameManager {
     this.playerHandlers = new ArrayList<>();
     this.maxUsers = 0;
     this.currTurn = 0;
-    this.gameStarted = false;
     finishedPlayers = new ArrayList<>();
     moveNum = 0;
     currentBoard = null;
     fromDatabase = false;
     maxBots = 0;
+    lifecycle = new GameLifecycle(this::executeLater, this::getTimeoutMs, this::onStateTimeout);
 //    moveRecordRepository = null;
   }
 
   /**
-   * Sets the current server for the game.
+   * Sets the current game number.
    *
-   * @param server The server instance to set.
+   * @param gameNum The number of the current game.
    */
-  public void setServer(Server server) {
-    this.server = server;
+  public void setGameNum(int gameNum) {
+    this.gameNum = gameNum;
   }
 
   /**
-   * Sets the current game number.
+   * Returns the current game number.
    *
-   * @param gameNum The number of the current game.
+   * @return The number of the current game.
    */
-  public void setGameNum(int gameNum) {
-    this.gameNum = gameNum;
+  public int getGameNum() {
+    return gameNum;
+  }
+
+  /**
+   * Returns the lifecycle of the game.
+   *
+   * @return The lifecycle.
+   */
+  public GameLifecycle getLifecycle() {
+    return lifecycle;
+  }
+
+  /**
+   * Returns the timeout of a state of the game.
+   *
+   * @param state The state.
+   * @return The timeout, in milliseconds; 0 if the state never times out.
+   */
+  private long getTimeoutMs(GameState state) {
+    return switch (state) {
+      case LOBBY -> lobbyTimeoutMs;
+      case CONFIGURED -> configuredTimeoutMs;
+      case SETUP -> setupTimeoutMs;
+      case RUNNING -> runningTimeoutMs;
+      case FINISHED -> finishedTimeoutMs;
+      case ARCHIVED -> 0;
+    };
+  }
+
+  /**
+   * Handles a game that stayed in a state longer than its timeout. A lobby that is not filled in time
+   * is abandoned, clients that do not finish their setup get the board anyway, a game without moves
+   * is finished and the players still connected to a finished game are disconnected.
+   *
+   * @param state The state that timed out.
+   */
+  private void onStateTimeout(GameState state) {
+    switch (state) {
+      case LOBBY:
+      case CONFIGURED:
+      case FINISHED:
+        closeRemotePlayers();
+        lifecycle.moveTo(GameState.ARCHIVED);
+        break;
+      case SETUP:
+        sendBoard();
+        break;
+      case RUNNING:
+        broadcastGameFinished();
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Disconnects every remote player of the game.
+   */
+  private void closeRemotePlayers() {
+    for (PlayerHandler playerHandler : List.copyOf(playerHandlers)) {
+      if (playerHandler instanceof RemotePlayerHandler) {
+        ((RemotePlayerHandler) playerHandler).closeEverything();
+      }
+    }
+  }
+
+  /**
+   * Sets the lane the game's commands run on, the timer used for delayed commands and the executor
+   * running the database work the lane must not wait on. Without them, everything runs immediately
+   * on the calling thread.
+   *
+   * @param lane    The executor running the game's commands one at a time.
+   * @param timer   The scheduler used to delay commands.
+   * @param storage The executor loading saved games off the lane.
+   */
+  public void setLane(Executor lane, ScheduledExecutorService timer, Executor storage) {
+    this.lane = lane;
+    this.timer = timer;
+    this.storage = storage;
+  }
+
+  /**
+   * Runs a command on the game's lane, after every command submitted before it.
+   *
+   * @param command The command to run.
+   */
+  public void execute(Runnable command) {
+    lane.execute(command);
+  }
+
+  /**
+   * Runs a command on the game's lane after a delay, without holding any thread while waiting.
+   *
+   * @param command The command to run.
+   * @param delayMs The delay, in milliseconds.
+   * @return The future of the delay, which cancels the command while it waits, or null if it ran immediately.
+   */
+  public ScheduledFuture<?> executeLater(Runnable command, long delayMs) {
+    if (timer == null) {
+      execute(command);
+      return null;
+    }
+    return timer.schedule(() -> execute(command), delayMs, TimeUnit.MILLISECONDS);
   }
 
 //  public void setMoveRecordRepository(MoveRecordRepository moveRecordRepository) {
@@ -97,12 +255,12 @@ public class GameManager {
   }
 
   /**
-   * Sets the move validator for the game.
+   * Sets the move validator for the game, sharing the board's bitboard.
    *
-   * @param cells A 2D array of cells representing the board's current state.
+   * @param board The board of the game.
    */
-  public void setMoveValidator(Cell[][] cells) {
-    this.moveValidator = new MoveValidator(cells);
+  public void setMoveValidator(Board board) {
+    this.moveValidator = new MoveValidator(board.getCells(), board.getBitBoard());
   }
 
   public MoveValidator getMoveValidator() {
@@ -114,10 +272,10 @@ public class GameManager {
    *
    * @param playerHandler The player handler to add.
    */
-  public synchronized void addPlayer(PlayerHandler playerHandler) {
+  public void addPlayer(PlayerHandler playerHandler) {
     playerHandlers.add(playerHandler);
     try {
-      playerHandler.sendMessage("VARIANT " + variant);
+      playerHandler.sendEncoded(new OutboundMessage(new WireMessage("VARIANT " + variant)));
     } catch (IOException | InterruptedException e) {
       e.printStackTrace();
     }
@@ -142,12 +300,15 @@ public class GameManager {
   }
 
   /**
-   * Removes a player handler from the ArrayList.
+   * Removes a player handler from the ArrayList. The game is archived once no human player is left.
    *
    * @param playerHandler The player handler to remove.
    */
-  public synchronized void removePlayer(PlayerHandler playerHandler) {
+  public void removePlayer(PlayerHandler playerHandler) {
     playerHandlers.remove(playerHandler);
+    if (playerHandlers.stream().noneMatch(handler -> handler instanceof RemotePlayerHandler)) {
+      lifecycle.moveTo(GameState.ARCHIVED);
+    }
   }
 
   /**
@@ -155,7 +316,7 @@ public class GameManager {
    *
    * @return A list of player handlers.
    */
-  public synchronized List<PlayerHandler> getPlayerHandlers() {
+  public List<PlayerHandler> getPlayerHandlers() {
     return new ArrayList<>(playerHandlers);
   }
 
@@ -164,7 +325,7 @@ public class GameManager {
    *
    * @param maxUsers The maximum number of users.
    */
-  public synchronized void setMaxUsers(int maxUsers) {
+  public void setMaxUsers(int maxUsers) {
     this.maxUsers = maxUsers;
   }
 
@@ -173,10 +334,7 @@ public class GameManager {
    *
    * @return The maximum number of users.
    */
-  public synchronized int getMaxUsers() {
-    if (fromDatabase) {
-      maxUsers = moveRecordRepository.getMaxUsersByGameNum(gameNumCpy);
-    }
+  public int getMaxUsers() {
     return maxUsers;
   }
 
@@ -185,25 +343,82 @@ public class GameManager {
    *
    * @return The maximum number of bots.
    */
-  public synchronized int getMaxBots() {
+  public int getMaxBots() {
     return maxBots;
   }
 
+  /**
+   * Returns the settings of the game, known once its board is created.
+   *
+   * @return The game's settings, or null if the board has not been created yet.
+   */
+  public GameRecord getGameRecord() {
+    return gameRecord;
+  }
+
+  /**
+   * Sets the settings of the game once its board is created. They are cached until the game is archived,
+   * so reading them does not cost a database query while the game runs.
+   *
+   * @param gameRecord The game's settings.
+   */
+  public void setGameRecord(GameRecord gameRecord) {
+    this.gameRecord = gameRecord;
+    if (gameMetadataCache != null) {
+      gameMetadataCache.put(gameRecord);
+      lifecycle.reached(GameState.ARCHIVED)
+          .whenComplete((state, failure) -> gameMetadataCache.evict(gameRecord.getGameNumber()));
+    }
+  }
+
   /**
    * Sets the maximum number of bots allowed.
    *
    * @param maxBots The maximum number of bots.
    */
-  public synchronized void setMaxBots(int maxBots) {
+  public void setMaxBots(int maxBots) {
     this.maxBots = maxBots;
   }
 
   /**
    * Starts the game.
-   * Sets the game state to started.
+   * Moves the game to the SETUP state, in which the clients prepare their boards.
+   */
+  public void startGame() {
+    lifecycle.moveTo(GameState.SETUP);
+  }
+
+  /**
+   * Sends the board once the game has started and every client has completed its setup. Sends it only once.
+   */
+  public void sendBoardWhenSetup() {
+    if (lifecycle.getState() == GameState.SETUP && allSetup()) {
+      sendBoard();
+    }
+  }
+
+  /**
+   * Sends the board to the clients and moves the game to the RUNNING state.
+   */
+  private void sendBoard() {
+    broadcastBoardCreate();
+    lifecycle.moveTo(GameState.RUNNING);
+  }
+
+  /**
+   * Checks if all connected clients have completed their setup.
+   *
+   * @return true if all clients have completed their setup; false otherwise.
    */
-  public synchronized void startGame() {
-    this.gameStarted = true;
+  private boolean allSetup() {
+    for (PlayerHandler playerHandler : playerHandlers) {
+      if (playerHandler instanceof RemotePlayerHandler) {
+        if (!((RemotePlayerHandler) playerHandler).getSetup()) {
+          return false;
+        }
+      }
+    }
+    return true;
   }
 
   /**
@@ -211,8 +426,8 @@ public class GameManager {
    *
    * @return true if the game is started, false otherwise.
    */
-  public synchronized boolean isGameStarted() {
-    return gameStarted;
+  public boolean isGameStarted() {
+    return lifecycle.isBetween(GameState.SETUP, GameState.FINISHED);
   }
 
   /**
@@ -220,7 +435,7 @@ public class GameManager {
    *
    * @param playerCount The total number of players in the game.
    */
-  public synchronized void advanceTurn(int playerCount) {
+  public void advanceTurn(int playerCount) {
     if (finishedPlayers.isEmpty()) {
       if (currTurn + 1 > playerCount) {
         currTurn = 1;
@@ -246,7 +461,7 @@ public class GameManager {
    * Sets the current player's turn index to random one.
    *
    */
-  public synchronized void setRandomTurn() {
+  public void setRandomTurn() {
     currTurn = (int) ((Math.random() * getMaxUsers()) + 1);
   }
 
@@ -255,7 +470,7 @@ public class GameManager {
    *
    * @return The index of the current player's turn.
    */
-  public synchronized int getCurrTurn() {
+  public int getCurrTurn() {
     return currTurn;
   }
 
@@ -263,14 +478,15 @@ public class GameManager {
   /**
    * Broadcasts a message about the number of users still needed.
    */
-  public synchronized void broadcastNumOfUsers() {
-    for (PlayerHandler playerHandler : playerHandlers) {
+  public void broadcastNumOfUsers() {
+    int missingNumOfUsers = maxUsers - playerHandlers.size();
+    OutboundMessage waiting = new OutboundMessage(new WireMessage("Waiting for " + missingNumOfUsers + " more player(s)."));
+    for (PlayerHandler playerHandler : List.copyOf(playerHandlers)) {
       try {
-        int missingNumOfUsers = maxUsers - playerHandlers.size();
-        playerHandler.sendMessage("Waiting for " + missingNumOfUsers + " more player(s).");
+        playerHandler.sendEncoded(waiting);
       } catch (Exception e) {
-        if (playerHandler instanceof ClientHandler) {
-          ((ClientHandler) playerHandler).closeEverything();
+        if (playerHandler instanceof RemotePlayerHandler) {
+          ((RemotePlayerHandler) playerHandler).closeEverything();
         }
       }
     }
@@ -279,14 +495,15 @@ public class GameManager {
   /**
    * Broadcasts a message that the game has started.
    */
-  public synchronized void broadcastGameStarted() {
+  public void broadcastGameStarted() {
     int numOfPlayers = getMaxUsers() + getMaxBots();
-    for (PlayerHandler playerHandler : playerHandlers) {
+    OutboundMessage started = new OutboundMessage(new WireMessage(MessageType.START, numOfPlayers, getCurrTurn()));
+    for (PlayerHandler playerHandler : List.copyOf(playerHandlers)) {
       try {
-        playerHandler.sendMessage("START." + numOfPlayers + "," + "currTurn" + "," + getCurrTurn());
+        playerHandler.sendEncoded(started);
       } catch (Exception e) {
-        if (playerHandler instanceof ClientHandler) {
-          ((ClientHandler) playerHandler).closeEverything();
+        if (playerHandler instanceof RemotePlayerHandler) {
+          ((RemotePlayerHandler) playerHandler).closeEverything();
         }
       }
     }
@@ -295,16 +512,29 @@ public class GameManager {
   /**
    * Broadcasts a message that the game has finished.
    */
-  public synchronized void broadcastGameFinished() {
-    for (PlayerHandler playerHandler : playerHandlers) {
+  public void broadcastGameFinished() {
+    OutboundMessage finished = new OutboundMessage(new WireMessage(MessageType.GAME_FINISHED));
+    for (PlayerHandler playerHandler : List.copyOf(playerHandlers)) {
       try {
-        playerHandler.sendMessage("GAME FINISHED!");
+        playerHandler.sendEncoded(finished);
       } catch (Exception e) {
-        if (playerHandler instanceof ClientHandler) {
-          ((ClientHandler) playerHandler).closeEverything();
+        if (playerHandler instanceof RemotePlayerHandler) {
+          ((RemotePlayerHandler) playerHandler).closeEverything();
         }
       }
     }
+    if (lifecycle.getState() == GameState.RUNNING) {
+      lifecycle.moveTo(GameState.FINISHED);
+    }
+  }
+
+  /**
+   * Returns whether the game has finished.
+   *
+   * @return true if the game is finished, false otherwise.
+   */
+  public boolean isGameFinished() {
+    return lifecycle.isBetween(GameState.FINISHED, GameState.ARCHIVED);
   }
 
   /**
@@ -319,76 +549,67 @@ public class GameManager {
 
   /**
    * Broadcasts a move made by a player to all clients.
+   * The messages are built once for all players.
    *
    * @param userNum The username of the player making the move.
-   * @param input The input made by the player.
+   * @param move    The move made by the player.
    */
-  public synchronized void broadcastMove(int userNum, String input) {
-    if (!gameStarted) {
+  public void broadcastMove(int userNum, MoveCommand move) {
+    if (!isGameStarted()) {
       return;
     }
-    if (moveRecordRepository == null) {
-      System.out.println("MoveRecordRepository is null!");
-    } else {
-      System.out.println("MoveRecordRepository is ready!");
-    }
-
-
-    String move = moveValidator.makeMove(input);
-    for (PlayerHandler playerHandler : playerHandlers) {
+    lifecycle.refreshTimeout();
+
+    int[] path = moveValidator.findPath(move);
+    moveValidator.makeMove(move);
+    OutboundMessage command = new OutboundMessage(new WireMessage(MessageType.CMD,
+        move.getStartRow(), move.getStartCol(), move.getEndRow(), move.getEndCol()));
+    OutboundMessage moved = new OutboundMessage(new WireMessage(MessageType.MOVED, userNum,
+        move.getStartRow(), move.getStartCol(), move.getEndRow(), move.getEndCol()));
+    OutboundMessage youMoved = new OutboundMessage(new WireMessage(MessageType.YOU_MOVED));
+    for (PlayerHandler playerHandler : List.copyOf(playerHandlers)) {
       try {
         if (!Objects.equals(playerHandler.getUserNum(), userNum)) {
-          playerHandler.sendMessage("User number " + userNum + " moved: " + move);
+          playerHandler.sendEncoded(moved);
         } else {
-          if (playerHandler instanceof ClientHandler) {
-            playerHandler.sendMessage("You just moved");
+          if (playerHandler instanceof RemotePlayerHandler) {
+            playerHandler.sendEncoded(youMoved);
           }
         }
-        playerHandler.sendMessage(move);
+        playerHandler.sendEncoded(command);
 
       } catch (Exception e) {
-        if (playerHandler instanceof ClientHandler) {
-          ((ClientHandler) playerHandler).closeEverything();
+        if (playerHandler instanceof RemotePlayerHandler) {
+          ((RemotePlayerHandler) playerHandler).closeEverything();
         }
       }
     }
-    saveRecords();
+    saveRecords(userNum, path);
   }
 
   /**
-   * Saves the current game records to the database.
-   */
-  public void saveRecords() {
-    for (Cell[] cellRow : currentBoard.getCells()) {
-      for (Cell cell : cellRow) {
-        MoveRecord mr = new MoveRecord();
-        try {
-          mr.setGameNumber(gameNum);
-        } catch (Exception e) {
-          mr.setGameNumber(0);
-        }
-        mr.setMoveNumber(moveNum);
-        mr.setCellZoneNumber(cell.getZoneNum());
-        mr.setCellColumnNumber(cell.getCol());
-        mr.setCellRowNumber(cell.getRow());
-        mr.setVariant(variant);
-        mr.setNumOfPlayers(maxUsers);
-        mr.setNumOfBots(maxBots);
-        try {
-          mr.setCellPlayerNumber(cell.getPawn().getPlayerNum());
-        } catch (NullPointerException e) {
-          mr.setCellPlayerNumber(0);
-        }
-        moveRecordRepository.save(mr);
-      }
+   * Saves the move to the game store. Neither backend makes the game thread wait on a database:
+   * the "jpa" journal is written behind the game and the "mapped" journal is a local file.
+   *
+   * @param userNum The number of the player who moved.
+   * @param path    The positions the pawn passed through, as [row0, col0, ..., rowN, colN].
+   */
+  public void saveRecords(int userNum, int[] path) {
+    if (path.length >= 4) {
+      MoveJournalEntry entry = new MoveJournalEntry(gameNum, moveNum, userNum, path[0], path[1],
+          path[path.length - 2], path[path.length - 1], MoveJournalEntry.encodePath(path));
+      gameStore.recordMove(entry, currentBoard.getCells(), gameRecord);
     }
     moveNum++;
   }
 
   /**
-   * Prints the saved game records to the console.
+   * Prints the saved game records to the console. Only the "jpa" backend has them.
    */
   public void printRecords() {
+    if (moveRecordRepository == null) {
+      return;
+    }
     List<MoveRecord> records = moveRecordRepository.findGamesWithMaxMoveByGameNum(1);
     System.out.println("Records size: " + records.size());
     for (MoveRecord record : records) {
@@ -404,23 +625,26 @@ public class GameManager {
    *
    * @param userNum The user number of the player who skipped their turn.
    */
-  public synchronized void broadcastSkip(int userNum) {
-    if (!gameStarted) {
+  public void broadcastSkip(int userNum) {
+    if (!isGameStarted()) {
       return;
     }
+    lifecycle.refreshTimeout();
 
-    for (PlayerHandler playerHandler : playerHandlers) {
+    OutboundMessage skipped = new OutboundMessage(new WireMessage(MessageType.SKIPPED, userNum));
+    OutboundMessage youSkipped = new OutboundMessage(new WireMessage(MessageType.YOU_SKIPPED));
+    for (PlayerHandler playerHandler : List.copyOf(playerHandlers)) {
       try {
         if (!Objects.equals(playerHandler.getUserNum(), userNum)) {
-          playerHandler.sendMessage("Turn skipped by user: " + userNum);
+          playerHandler.sendEncoded(skipped);
         } else {
-          if (playerHandler instanceof ClientHandler) {
-            playerHandler.sendMessage("You just skipped");
+          if (playerHandler instanceof RemotePlayerHandler) {
+            playerHandler.sendEncoded(youSkipped);
           }
         }
       } catch (Exception e) {
-        if (playerHandler instanceof ClientHandler) {
-          ((ClientHandler) playerHandler).closeEverything();
+        if (playerHandler instanceof RemotePlayerHandler) {
+          ((RemotePlayerHandler) playerHandler).closeEverything();
         }
       }
     }
@@ -431,13 +655,14 @@ public class GameManager {
    *
    * @param playerNum The user number of the player who won.
    */
-  public synchronized void broadcastPlayerWon(int playerNum) {
-    for (PlayerHandler playerHandler : playerHandlers) {
+  public void broadcastPlayerWon(int playerNum) {
+    OutboundMessage won = new OutboundMessage(new WireMessage(MessageType.WIN, playerNum));
+    for (PlayerHandler playerHandler : List.copyOf(playerHandlers)) {
       try {
-        playerHandler.sendMessage("WIN." + playerNum);
+        playerHandler.sendEncoded(won);
       } catch (Exception e) {
-        if (playerHandler instanceof ClientHandler) {
-          ((ClientHandler) playerHandler).closeEverything();
+        if (playerHandler instanceof RemotePlayerHandler) {
+          ((RemotePlayerHandler) playerHandler).closeEverything();
         }
       }
     }
@@ -447,24 +672,11 @@ public class GameManager {
    * Validates a move made by a player based on the current game state.
    *
    * @param userNum The player's user number.
-   * @param input   The move input provided by the player.
-   * @return 0 if the move is valid, 1 if the move is invalid.
-   */
-  public int validateMove(int userNum, String input) {
-    System.out.println("received move");
-    System.out.println(input);
-    System.out.println(input.equals("SKIP"));
-    if (input.equals("SKIP")) {
-      System.out.println("returning 2");
-      return 2;
-    }
-    boolean valid = moveValidator.validateMove(userNum, input);
-    System.out.println("you've been validated");
-    if (valid) {
-      return 0;
-    } else {
-      return 1;
-    }
+   * @param move    The move made by the player.
+   * @return true if the move is valid, false otherwise.
+   */
+  public boolean validateMove(int userNum, MoveCommand move) {
+    return moveValidator.validateMove(userNum, move);
   }
 
   /**
@@ -490,21 +702,49 @@ public class GameManager {
   }
 
   /**
-   * Broadcasts a message about the cell to be created in clients' GUI.
+   * Builds a snapshot message of the current board, used to send the board to clients.
+   *
+   * @return The snapshot message, or null if the board has not been created yet.
    */
-  public synchronized void broadcastBoardCreate() {
-    for (PlayerHandler playerHandler : playerHandlers) {
-      for (Cell[] cellRow : currentBoard.getCells()) {
-        for (Cell cell : cellRow) {
-          try {
-            if (playerHandler instanceof ClientHandler) {
-              playerHandler.sendMessage(currentBoard.makeCreate(cell.getRow(), cell.getCol()));
-            }
-          } catch (Exception e) {
-            if (playerHandler instanceof ClientHandler) {
-              ((ClientHandler) playerHandler).closeEverything();
-            }
-          }
+  public OutboundMessage boardSnapshot() {
+    return currentBoard == null ? null : new OutboundMessage(currentBoard.makeBoardMessage());
+  }
+
+  /**
+   * Builds the messages that bring a client which missed messages back to the current state of the game:
+   * the start of the game with the current turn, the whole board, every player who has won in the order
+   * they finished and, once the game has finished, its end.
+   *
+   * @return The messages in the order they must be sent, or an empty list if the game has not started yet.
+   */
+  public List<OutboundMessage> resyncMessages() {
+    if (!lifecycle.isBetween(GameState.SETUP, GameState.ARCHIVED) || currentBoard == null) {
+      return List.of();
+    }
+    List<OutboundMessage> messages = new ArrayList<>();
+    messages.add(new OutboundMessage(new WireMessage(MessageType.START, getMaxUsers() + getMaxBots(), getCurrTurn())));
+    messages.add(boardSnapshot());
+    for (int playerNum : finishedPlayers) {
+      messages.add(new OutboundMessage(new WireMessage(MessageType.WIN, playerNum)));
+    }
+    if (isGameFinished()) {
+      messages.add(new OutboundMessage(new WireMessage(MessageType.GAME_FINISHED)));
+    }
+    return messages;
+  }
+
+  /**
+   * Broadcasts the board to the clients' GUI as one snapshot message.
+   * The message is built once and encoded at most once per protocol for all clients.
+   */
+  public void broadcastBoardCreate() {
+    OutboundMessage snapshot = boardSnapshot();
+    for (PlayerHandler playerHandler : List.copyOf(playerHandlers)) {
+      if (playerHandler instanceof RemotePlayerHandler) {
+        try {
+          ((RemotePlayerHandler) playerHandler).sendEncoded(snapshot);
+        } catch (Exception e) {
+          ((RemotePlayerHandler) playerHandler).closeEverything();
         }
       }
     }
@@ -522,71 +762,113 @@ public class GameManager {
   }
 
   /**
-   * Creates the game state from the database.
+   * Resumes a saved game without holding the game's lane while the database works: the journal is flushed,
+   * and the game's settings and latest position are loaded onto a new board, on the storage executor;
+   * the game state is then set from them on the lane.
+   * The game's settings are read through the {@link GameMetadataCache} when there is one, so only the position
+   * is loaded for a cached game; otherwise settings and position are loaded together,
+   * see {@link GameStore#loadGame(int)}.
    *
    * @param gameNumCpy The game number used to fetch data for recreation.
-   */
-  public void createFromDatabase(int gameNumCpy) {
-    Random random = new Random();
-    System.out.println("creating from database");
-    System.out.println("gameNum: " + gameNumCpy);
-    System.out.println("getting variant");
-    variant = moveRecordRepository.getVariantByGameNum(gameNumCpy);
-    System.out.println("variant: " + variant);
-    System.out.println("getting max users");
-    maxUsers = moveRecordRepository.getMaxUsersByGameNum(gameNumCpy);
-    System.out.println("maxUsers: " + maxUsers);
-    System.out.println("creating board");
-    try {
-      maxBots = moveRecordRepository.getMaxBotsByGameNum(gameNumCpy);
-    } catch (Exception e) {
-      maxBots = 0;
+   * @return A future completed on the lane: true if the game was restored; false if there is no saved game
+   *     with this number or it could not be loaded.
+   */
+  public CompletableFuture<Boolean> resumeFromDatabase(int gameNumCpy) {
+    return CompletableFuture.supplyAsync(() -> loadSavedGame(gameNumCpy), storage)
+        .handleAsync((restored, failure) -> {
+          if (failure != null) {
+            System.err.println("Failed to load game " + gameNumCpy + ": " + failure.getMessage());
+            return false;
+          }
+          if (restored == null) {
+            return false;
+          }
+          applySavedGame(restored);
+          return true;
+        }, lane);
+  }
+
+  /**
+   * Loads a saved game and restores its latest position onto a new board. Runs on the storage executor
+   * and touches no game state.
+   *
+   * @param gameNumCpy The game number.
+   * @return The restored game, or null if there is no saved game with this number.
+   */
+  private RestoredGame loadSavedGame(int gameNumCpy) {
+    gameStore.flush();
+    SavedGame savedGame;
+    if (gameMetadataCache != null) {
+      GameRecord settings = gameMetadataCache.get(gameNumCpy);
+      savedGame = settings == null ? null : gameStore.loadPosition(settings);
+    } else {
+      savedGame = gameStore.loadGame(gameNumCpy);
+    }
+    if (savedGame == null) {
+      return null;
     }
+    GameRecord saved = savedGame.getGameRecord();
+    int seed = saved.getSeed() != 0 ? saved.getSeed() : new Random().nextInt(1000000);
+    int numOfPlayers = saved.getNumOfPlayers() + saved.getNumOfBots();
+    Board board = BoardFactory.createBoard(saved.getBoardSize(), numOfPlayers, saved.getVariant(), seed);
+    board.removePawns();
+    Cell[][] cells = board.getCells();
+    gameStore.restorePosition(savedGame, cells);
+    board.setCells(cells);
+    return new RestoredGame(gameNumCpy, board, new GameRecord(gameNum, saved.getVariant(), saved.getNumOfPlayers(),
+        saved.getNumOfBots(), saved.getBoardSize(), seed));
+  }
+
+  /**
+   * Sets the game state from a restored game. Runs on the lane.
+   *
+   * @param restored The restored game.
+   */
+  private void applySavedGame(RestoredGame restored) {
+    GameRecord record = restored.gameRecord;
+    variant = record.getVariant();
+    maxUsers = record.getNumOfPlayers();
+    maxBots = record.getNumOfBots();
     System.out.println(
         "-------------Creating from database----------------"
-            + "\ngameNum: " + gameNumCpy
+            + "\ngameNum: " + restored.savedGameNum
             + "\nvariant: " + variant
             + "\nmaxUsers: " + maxUsers
             + "\nmaxBots: " + maxBots
     );
+    currentBoard = restored.board;
+    setGameRecord(record);
+  }
 
-    Board board = BoardFactory.createBoard(10, maxUsers + maxBots, variant, random.nextInt(1000000));
-    System.out.println("board created ");
-    board.removePawns();
-    Cell[][] cells = board.getCells();
+  /**
+   * A saved game loaded off the lane: its board, with the latest position restored, and the record
+   * the resumed game is saved under.
+   */
+  private static final class RestoredGame {
+    private final int savedGameNum;
+    private final Board board;
+    private final GameRecord gameRecord;
 
-    System.out.println("gameNumCpy: " + gameNumCpy);
-    List<MoveRecord> moveRecords = moveRecordRepository.findGamesWithMaxMoveByGameNum(gameNumCpy);
-
-    System.out.printf("length of moveRecords: %d\n", moveRecords.size());
-    for (MoveRecord moveRecord : moveRecords) {
-      System.out.println("working...");
-      int playerNum = moveRecord.getCellPlayerNumber();
-      int cellRowNum = moveRecord.getCellRowNumber();
-      int cellColNum = moveRecord.getCellColumnNumber();
-      int cellZoneNum = moveRecord.getCellZoneNumber();
-      if (playerNum != 0) {
-        Pawn pawn = new Pawn(playerNum, cells[cellRowNum][cellColNum]);
-        cells[cellRowNum][cellColNum].pawnMoveIn(pawn);
-      }
-      cells[cellRowNum][cellColNum].setZoneNum(cellZoneNum);
+    private RestoredGame(int savedGameNum, Board board, GameRecord gameRecord) {
+      this.savedGameNum = savedGameNum;
+      this.board = board;
+      this.gameRecord = gameRecord;
     }
-    board.setCells(cells);
-    System.out.println("setting board");
-    currentBoard = board;
-    System.out.println("board set");
   }
 
   /**
    * Initializes bots for the game to match the required number of players.
    */
   public void initializeBots() {
+    TranspositionTable table = BotStrategyFactory.createTranspositionTable(botStrategy, botTranspositionTableMb);
     while (getPlayerHandlers().size() < maxUsers + maxBots) {
       int botNum = getPlayerHandlers().size() + 1;
       int[] destinationPoint = getBoard().getDestinationPoint(botNum);
       int destinationZoneNum = getBoard().getDestinationZoneNum(botNum);
-      BotMoveOptimizer botMoveOptimizer = new BotMoveOptimizer(getBoard().getCells());
-      BotHandler botHandler = new BotHandler(botNum, botMoveOptimizer, this, destinationPoint, destinationZoneNum);
+      IBotStrategy strategy = BotStrategyFactory.createStrategy(botStrategy, getBoard(), maxUsers + maxBots, botTimeBudgetMs,
+          botPlayoutBudget, table);
+      BotHandler botHandler = new BotHandler(botNum, strategy, this, destinationPoint, destinationZoneNum,
+          BotStrategyFactory.getSharedPool());
       addPlayer(botHandler);
     }
   }
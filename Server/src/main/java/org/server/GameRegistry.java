@@ -0,0 +1,173 @@
+package org.server;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.server.board.GameNumberAllocator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates, looks up and retires the game sessions hosted by the server.
+ * New connections join the open session until it is full, after which the next connection opens
+ * a new one, so any number of games can run in one process. Every session runs its work on its own
+ * sequential lane, and all lanes share one bounded pool of game threads. Delayed commands, such as
+ * the moves of bots and the timeouts of game states, wait on a single shared timer thread instead
+ * of occupying a game thread. A session is retired as soon as its game reaches {@link GameState#ARCHIVED}.
+ */
+@Component
+public class GameRegistry {
+  private final ObjectProvider<GameManager> gameManagers;
+  private final GameNumberAllocator gameNumberAllocator;
+  private final ExecutorService gameExecutor;
+  private final ScheduledExecutorService timer;
+  private final ExecutorService storageExecutor;
+  private final LifecycleMetrics lifecycleMetrics;
+  private final Map<Integer, GameSession> sessions;
+  private GameSession openSession;
+
+  /**
+   * Constructs a game registry.
+   *
+   * @param gameManagers        The provider creating a new game manager for every session.
+   * @param gameNumberAllocator The allocator numbering new games.
+   * @param gameThreads         The number of threads shared by the sessions; 0 uses one per processor.
+   */
+  @Autowired
+  public GameRegistry(ObjectProvider<GameManager> gameManagers, GameNumberAllocator gameNumberAllocator,
+                      @Value("${server.gameThreads:0}") int gameThreads) {
+    this.gameManagers = gameManagers;
+    this.gameNumberAllocator = gameNumberAllocator;
+    int threads = gameThreads > 0 ? gameThreads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadNum = new AtomicInteger();
+    this.gameExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "game-" + threadNum.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "game-timer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // Timeouts are cancelled on every move; drop them from the queue rather than keeping their games reachable
+    timer.setRemoveOnCancelPolicy(true);
+    this.timer = timer;
+    AtomicInteger storageThreadNum = new AtomicInteger();
+    this.storageExecutor = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "game-storage-" + storageThreadNum.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.lifecycleMetrics = new LifecycleMetrics();
+    this.sessions = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the session new players join, opening a new one if the current one has started or is full.
+   *
+   * @return The open session.
+   */
+  public synchronized GameSession openSession() {
+    if (openSession == null || !openSession.isAcceptingPlayers()) {
+      openSession = createSession();
+    }
+    return openSession;
+  }
+
+  /**
+   * Creates a session with the next free game number.
+   *
+   * @return The new session.
+   */
+  private GameSession createSession() {
+    int gameNum = gameNumberAllocator.next();
+    GameManager gameManager = gameManagers.getObject();
+    GameSession session = new GameSession(gameNum, gameManager, newLane(), timer, storageExecutor, lifecycleMetrics);
+    sessions.put(gameNum, session);
+    gameManager.getLifecycle().reached(GameState.ARCHIVED).thenRun(() -> retire(gameNum));
+    return session;
+  }
+
+  /**
+   * Creates a new sequential lane on the game threads.
+   *
+   * @return An executor running its tasks one at a time on the shared game threads.
+   */
+  public Executor newLane() {
+    return new SerialExecutor(gameExecutor);
+  }
+
+  /**
+   * Looks up a running session.
+   *
+   * @param gameNum The game number.
+   * @return The session, or null if no session with this number is running.
+   */
+  public GameSession find(int gameNum) {
+    return sessions.get(gameNum);
+  }
+
+  /**
+   * Returns the running sessions.
+   *
+   * @return A list of the running sessions.
+   */
+  public List<GameSession> getSessions() {
+    return new ArrayList<>(sessions.values());
+  }
+
+  /**
+   * Retires a session once its game has been archived.
+   *
+   * @param gameNum The game number.
+   */
+  public void retire(int gameNum) {
+    GameSession session = sessions.remove(gameNum);
+    if (session != null) {
+      session.retire();
+    }
+  }
+
+  /**
+   * Returns the lifecycle metrics of the games hosted by the registry.
+   *
+   * @return The metrics.
+   */
+  public LifecycleMetrics getLifecycleMetrics() {
+    return lifecycleMetrics;
+  }
+
+  /**
+   * Returns the number of running games and the lifecycle metrics of the games hosted by the registry.
+   *
+   * @return The number of active games, then the counters of every game state, by name.
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("activeGames", sessions.size());
+    metrics.putAll(lifecycleMetrics.getMetrics());
+    return metrics;
+  }
+
+  /**
+   * Stops the game threads, the storage threads and the timer.
+   */
+  @PreDestroy
+  public void shutdown() {
+    timer.shutdownNow();
+    storageExecutor.shutdownNow();
+    gameExecutor.shutdownNow();
+  }
+}
@@ -0,0 +1,203 @@
+package org.server;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import org.server.board.GameRecord;
+import org.server.board.boardManagement.Board;
+import org.server.board.boardManagement.BoardFactory;
+import org.server.playerHandlers.RemotePlayerHandler;
+
+/**
+ * One game hosted by the server: its {@link GameManager}, which owns the board, move validator,
+ * turn state and players, and a sequential lane on which every command of the game runs.
+ * Sessions are created and retired by the {@link GameRegistry}.
+ * The seats of a session are counted by the server's lobby, which assigns players to sessions
+ * on its own lane, so a session can be filled without waiting for its game's commands.
+ * A player takes the lowest free seat, whose number becomes its user number, so a seat freed by a player
+ * leaving before the start is taken again and the turn order never reaches a seat nobody holds.
+ */
+public class GameSession {
+  private final int gameNum;
+  private final GameManager gameManager;
+  private final Executor lane;
+  private final int seed;
+  private volatile boolean retired;
+  private RemotePlayerHandler pendingHandshake;
+  private final BitSet seatsTaken;
+  private int capacity;
+  private boolean starting;
+
+  /**
+   * Constructs a game session.
+   *
+   * @param gameNum     The game number under which the game is saved.
+   * @param gameManager The game manager of the session.
+   * @param lane        The executor running the session's commands one at a time.
+   * @param timer       The scheduler used to delay commands, such as the moves of bots and state timeouts.
+   * @param storage     The executor running the database work the lane must not wait on.
+   * @param metrics     The metrics the game's lifecycle is recorded in.
+   */
+  public GameSession(int gameNum, GameManager gameManager, Executor lane, ScheduledExecutorService timer,
+                     Executor storage, LifecycleMetrics metrics) {
+    this.gameNum = gameNum;
+    this.gameManager = gameManager;
+    this.lane = lane;
+    this.seed = new Random().nextInt(999999) + 1;
+    this.seatsTaken = new BitSet();
+    gameManager.setGameNum(gameNum);
+    gameManager.setLane(lane, timer, storage);
+    gameManager.getLifecycle().start(metrics);
+  }
+
+  public int getGameNum() {
+    return gameNum;
+  }
+
+  public GameManager getGameManager() {
+    return gameManager;
+  }
+
+  /**
+   * Runs a command on the session's lane, after every command submitted before it.
+   *
+   * @param command The command to run.
+   */
+  public void execute(Runnable command) {
+    lane.execute(command);
+  }
+
+  /**
+   * Checks whether new players can join the session. Called by the lobby.
+   *
+   * @return true if the game is not starting and has free seats; false otherwise.
+   */
+  public boolean isAcceptingPlayers() {
+    return !retired && !starting && (capacity == 0 || seatsTaken.cardinality() < capacity);
+  }
+
+  /**
+   * Checks whether every human player has a seat. Called by the lobby.
+   *
+   * @return true if the number of seats taken has reached the number of human players; false otherwise.
+   */
+  public boolean isFull() {
+    return capacity != 0 && seatsTaken.cardinality() >= capacity;
+  }
+
+  /**
+   * Takes the lowest free seat of the session. Called by the lobby.
+   *
+   * @return The user number of the player taking the seat.
+   */
+  public int reserveSeat() {
+    int userNum = seatsTaken.nextClearBit(1);
+    seatsTaken.set(userNum);
+    return userNum;
+  }
+
+  /**
+   * Frees the seat of a player that left before the game started. Called by the lobby.
+   *
+   * @param userNum The user number of the player.
+   */
+  public void releaseSeat(int userNum) {
+    if (!starting && userNum > 0) {
+      seatsTaken.clear(userNum);
+    }
+  }
+
+  /**
+   * Checks whether the first player has chosen the game options. Called by the lobby.
+   *
+   * @return true if the number of human players is known; false otherwise.
+   */
+  public boolean hasGameOptions() {
+    return capacity != 0;
+  }
+
+  /**
+   * Sets the number of human players, known once the first player has sent the game options. Called by the lobby.
+   *
+   * @param capacity The number of human players.
+   */
+  public void setCapacity(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * Marks the session as starting; it accepts no more players. Called by the lobby.
+   */
+  public void markStarting() {
+    starting = true;
+  }
+
+  /**
+   * Checks whether the session has been marked as starting. Called by the lobby.
+   *
+   * @return true if the game is starting; false otherwise.
+   */
+  public boolean isStarting() {
+    return starting;
+  }
+
+  /**
+   * Returns the first player of the session while it has not sent the game options yet. Called by the lobby.
+   *
+   * @return The player completing the handshake, or null.
+   */
+  public RemotePlayerHandler getPendingHandshake() {
+    return pendingHandshake;
+  }
+
+  /**
+   * Sets the first player of the session while it has not sent the game options yet. Called by the lobby.
+   *
+   * @param pendingHandshake The player completing the handshake, or null once it is done.
+   */
+  public void setPendingHandshake(RemotePlayerHandler pendingHandshake) {
+    this.pendingHandshake = pendingHandshake;
+  }
+
+  /**
+   * Creates the board if the game is not restored from the database, adds the bots and starts the game.
+   * The board is sent once every client has acknowledged its setup. Runs on the session's lane,
+   * after the joins of every player, and does nothing unless the game is configured and not started yet.
+   */
+  public void beginGame() {
+    if (gameManager.getLifecycle().getState() != GameState.CONFIGURED) {
+      return;
+    }
+    if (gameManager.getBoard() == null) {
+      int numOfPlayers = gameManager.getMaxUsers() + gameManager.getMaxBots();
+      Board board = BoardFactory.createBoard(GameRecord.DEFAULT_BOARD_SIZE, numOfPlayers, gameManager.getVariant(), seed);
+      gameManager.setBoard(board);
+      gameManager.setGameRecord(new GameRecord(gameNum, gameManager.getVariant(), gameManager.getMaxUsers(),
+          gameManager.getMaxBots(), GameRecord.DEFAULT_BOARD_SIZE, seed));
+    }
+    gameManager.setMoveValidator(gameManager.getBoard());
+    if (gameManager.getMaxBots() > 0) {
+      gameManager.initializeBots();
+    }
+    gameManager.startGame();
+    gameManager.broadcastGameStarted();
+    gameManager.sendBoardWhenSetup();
+  }
+
+  /**
+   * Marks the session as retired; it accepts no more players.
+   */
+  void retire() {
+    retired = true;
+  }
+
+  /**
+   * Checks whether the session has been retired.
+   *
+   * @return true if the session is retired; false otherwise.
+   */
+  public boolean isRetired() {
+    return retired;
+  }
+}
@@ -0,0 +1,34 @@
+package org.server;
+
+/**
+ * The stages of a hosted game, in the order a game goes through them.
+ * A game only moves forward, one stage at a time, except that it can be archived from any stage
+ * when it is abandoned.
+ */
+public enum GameState {
+  /** Waiting for the first player to choose the number of players, bots and the variant. */
+  LOBBY,
+  /** The options are known; waiting for the remaining human players to join. */
+  CONFIGURED,
+  /** Every player has joined and the game has started; waiting for the clients to set up their boards. */
+  SETUP,
+  /** The board has been sent and the players are moving. */
+  RUNNING,
+  /** Every player has reached its destination, or the game was stopped; the players may still be connected. */
+  FINISHED,
+  /** The game is over and every player has left; the session is removed from the server. */
+  ARCHIVED;
+
+  /**
+   * Checks whether a game in this state may move to the given state.
+   *
+   * @param next The state to move to.
+   * @return true if next is the following state, or ARCHIVED from any state but ARCHIVED; false otherwise.
+   */
+  public boolean canMoveTo(GameState next) {
+    if (this == ARCHIVED) {
+      return false;
+    }
+    return next == ARCHIVED || next.ordinal() == ordinal() + 1;
+  }
+}
@@ -0,0 +1,123 @@
+package org.server;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long games stay in every {@link GameState} and how often a state timed out.
+ * One instance is shared by all the games of a {@link GameRegistry}; every method is thread-safe.
+ */
+public class LifecycleMetrics {
+  private final Map<GameState, LongAdder> entered;
+  private final Map<GameState, LongAdder> totalMs;
+  private final Map<GameState, AtomicLong> maxMs;
+  private final Map<GameState, LongAdder> timeouts;
+
+  /**
+   * Constructs empty metrics.
+   */
+  public LifecycleMetrics() {
+    entered = new EnumMap<>(GameState.class);
+    totalMs = new EnumMap<>(GameState.class);
+    maxMs = new EnumMap<>(GameState.class);
+    timeouts = new EnumMap<>(GameState.class);
+    for (GameState state : GameState.values()) {
+      entered.put(state, new LongAdder());
+      totalMs.put(state, new LongAdder());
+      maxMs.put(state, new AtomicLong());
+      timeouts.put(state, new LongAdder());
+    }
+  }
+
+  /**
+   * Records that a game has entered a state.
+   *
+   * @param state The state entered.
+   */
+  public void recordEntered(GameState state) {
+    entered.get(state).increment();
+  }
+
+  /**
+   * Records that a game has left a state.
+   *
+   * @param state      The state left.
+   * @param durationMs The time the game spent in the state, in milliseconds.
+   */
+  public void recordLeft(GameState state, long durationMs) {
+    totalMs.get(state).add(durationMs);
+    maxMs.get(state).accumulateAndGet(durationMs, Math::max);
+  }
+
+  /**
+   * Records that a game stayed in a state longer than its timeout.
+   *
+   * @param state The state that timed out.
+   */
+  public void recordTimeout(GameState state) {
+    timeouts.get(state).increment();
+  }
+
+  /**
+   * Returns the number of times games have entered a state.
+   *
+   * @param state The state.
+   * @return The number of games that entered it.
+   */
+  public long getEntered(GameState state) {
+    return entered.get(state).sum();
+  }
+
+  /**
+   * Returns the total time games have spent in a state, counting only games that have left it.
+   *
+   * @param state The state.
+   * @return The total time, in milliseconds.
+   */
+  public long getTotalMs(GameState state) {
+    return totalMs.get(state).sum();
+  }
+
+  /**
+   * Returns the longest time a game has spent in a state.
+   *
+   * @param state The state.
+   * @return The longest time, in milliseconds.
+   */
+  public long getMaxMs(GameState state) {
+    return maxMs.get(state).get();
+  }
+
+  /**
+   * Returns the number of times a state has timed out.
+   *
+   * @param state The state.
+   * @return The number of timeouts.
+   */
+  public long getTimeouts(GameState state) {
+    return timeouts.get(state).sum();
+  }
+
+  /**
+   * Returns the counters of every state: the number of games that entered it and, for every state
+   * but the last, the average and longest time spent in it and the number of timeouts.
+   *
+   * @return The counters, by name, such as "RUNNING.entered" or "LOBBY.maxMs".
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    for (GameState state : GameState.values()) {
+      long count = getEntered(state);
+      metrics.put(state + ".entered", count);
+      if (state != GameState.ARCHIVED) {
+        metrics.put(state + ".avgMs", count == 0 ? 0 : getTotalMs(state) / count);
+        metrics.put(state + ".maxMs", getMaxMs(state));
+        metrics.put(state + ".timeouts", getTimeouts(state));
+      }
+    }
+    return metrics;
+  }
+}
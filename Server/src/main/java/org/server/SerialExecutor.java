@@ -0,0 +1,63 @@
+package org.server;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks one at a time, in submission order, on threads borrowed from a shared executor.
+ * Gives every game session its own sequential lane while many sessions share a bounded pool.
+ */
+public class SerialExecutor implements Executor {
+  private final Executor executor;
+  private final Queue<Runnable> tasks;
+  private boolean running;
+
+  /**
+   * Constructs a serial executor.
+   *
+   * @param executor The executor the tasks run on.
+   */
+  public SerialExecutor(Executor executor) {
+    this.executor = executor;
+    this.tasks = new ArrayDeque<>();
+  }
+
+  /**
+   * Queues a task to run after every previously submitted task.
+   *
+   * @param task The task to run.
+   */
+  @Override
+  public void execute(Runnable task) {
+    synchronized (tasks) {
+      tasks.add(task);
+      if (running) {
+        return;
+      }
+      running = true;
+    }
+    executor.execute(this::drain);
+  }
+
+  /**
+   * Runs queued tasks until the queue is empty.
+   */
+  private void drain() {
+    while (true) {
+      Runnable task;
+      synchronized (tasks) {
+        task = tasks.poll();
+        if (task == null) {
+          running = false;
+          return;
+        }
+      }
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+}
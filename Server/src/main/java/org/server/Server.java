@@ -1,49 +1,83 @@
 package org.server;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.List;
-import java.util.Random;
-import org.server.board.boardManagement.Board;
-import org.server.board.boardManagement.BoardFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.protocol.WireMessage;
 import org.server.board.MoveRecord;
 import org.server.board.MoveRecordRepository;
+import org.server.network.ConnectionListener;
+import org.server.network.ConnectionSettings;
+import org.server.network.HandlerThreads;
+import org.server.network.NioConnection;
+import org.server.network.NioServer;
+import org.server.network.SlowConsumerPolicy;
 import org.server.playerHandlers.ClientHandler;
-import org.server.playerHandlers.PlayerHandler;
+import org.server.playerHandlers.NioClientHandler;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import static java.lang.Thread.sleep;
-
 /**
- * The main server class responsible for accepting client connections
- * and managing the overall lifecycle of the game. It listens for client connections,
- * creates client handlers, and starts the game once all players are connected.
+ * The main server class responsible for accepting client connections.
+ * Every connection is handed to the {@link GameLobby}, which admits it to a game session.
+ * Clients are served either by one blocking reader thread each and a few writer threads shared
+ * by all of them ("blocking" transport) or by a few selector threads ("nio" transport). Either way a received line only becomes a command on the
+ * lane of the player's session, so each game is driven by one thread at a time without locks.
+ * Blocking client threads are platform threads or, with server.threads=virtual, virtual threads.
  */
 @Component
 public class Server {
 
-  private final ServerSocket serverSocket;
-  private final GameManager gameManager;
-  private final MoveRecordRepository moveRecordRepository;
-  private final int seed;
+  private static final int PORT = 1234;
+
+  private ServerSocket serverSocket;
+  private final GameLobby gameLobby;
+  private final ObjectProvider<MoveRecordRepository> moveRecordRepository;
+  private final String transport;
+  private final int ioThreads;
+  private final ConnectionSettings connectionSettings;
+  private final int writerThreads;
+  private ExecutorService writers;
+
+  private NioServer nioServer;
 
   /**
-   * Constructs a Server with the specified server socket.
+   * Constructs a Server.
    *
-   * @param gameManager         The game manager instance.
-   * @param moveRecordRepository The repository for saving move records.
+   * @param gameLobby            The lobby assigning the connected players to games.
+   * @param moveRecordRepository The repository for saving move records, present with the "jpa" backend.
+   * @param transport            The client transport, "blocking" or "nio".
+   * @param ioThreads            The number of I/O threads of the "nio" transport.
+   * @param threads              The kind of threads of the "blocking" transport, "platform" or "virtual".
+   * @param outboundCapacity     The maximum number of messages queued for one client.
+   * @param slowConsumerPolicy   What happens when a client's queue is full: "drop", "resync" or "disconnect".
+   * @param binaryProtocol       Whether clients asking for the binary protocol get it.
+   * @param writerThreads        The number of threads writing to the clients of the "blocking" transport;
+   *                             0 uses one per processor.
    */
   @Autowired
-  public Server(GameManager gameManager, MoveRecordRepository moveRecordRepository) throws IOException {
-    this.serverSocket = new ServerSocket(1234); // Define the server socket port
-    this.gameManager = gameManager;
-    gameManager.setServer(this);
+  public Server(GameLobby gameLobby, ObjectProvider<MoveRecordRepository> moveRecordRepository,
+                @Value("${server.transport:blocking}") String transport,
+                @Value("${server.ioThreads:2}") int ioThreads,
+                @Value("${server.threads:platform}") String threads,
+                @Value("${server.outboundQueueCapacity:1024}") int outboundCapacity,
+                @Value("${server.slowConsumerPolicy:disconnect}") String slowConsumerPolicy,
+                @Value("${server.binaryProtocol:true}") boolean binaryProtocol,
+                @Value("${server.writerThreads:0}") int writerThreads) {
+    this.gameLobby = gameLobby;
     this.moveRecordRepository = moveRecordRepository;
-    Random random = new Random();
-    this.seed = random.nextInt(1000000);
+    this.transport = transport;
+    this.ioThreads = ioThreads;
+    this.connectionSettings = new ConnectionSettings(outboundCapacity, SlowConsumerPolicy.parse(slowConsumerPolicy),
+        "virtual".equals(threads), binaryProtocol);
+    this.writerThreads = writerThreads > 0 ? writerThreads : Runtime.getRuntime().availableProcessors();
   }
 
   /**
@@ -53,61 +87,95 @@ public class Server {
   public void start() {
     try {
       System.out.println("Server is running...");
-      MoveRecord mr = new MoveRecord(-1);
-      moveRecordRepository.save(mr);
 
-      gameManager.setGameNum(moveRecordRepository.currentGameNum() + 1);
+      if ("nio".equals(transport)) {
+        startNio();
+        return;
+      }
 
+      if (connectionSettings.isVirtualThreads() && !HandlerThreads.isVirtualSupported()) {
+        System.out.println("Virtual threads need Java 21, serving clients with platform threads");
+      }
+      writers = newWriters();
+      serverSocket = new ServerSocket(PORT);
       while (!serverSocket.isClosed()) {
-        if (gameManager.getPlayerHandlers().size() < gameManager.getMaxUsers() || gameManager.getMaxUsers() == 0) {
-          Socket socket = serverSocket.accept();
-          int userNum = gameManager.getPlayerHandlers().size() + 1;
-          ClientHandler clientHandler = new ClientHandler(socket, gameManager, userNum);
-          new Thread(clientHandler).start();
-//          System.out.println("max players: " + moveRecordRepository.getMaxUsersByGameNum(1));
-
-          if (gameManager.getPlayerHandlers().size() == gameManager.getMaxUsers()) {
-            if (gameManager.getBoard() == null) {
-              int numOfPlayers = gameManager.getMaxUsers() + gameManager.getMaxBots();
-              Board board = BoardFactory.createBoard(10, numOfPlayers, gameManager.getVariant(), seed);
-              gameManager.setBoard(board);
-            }
-            gameManager.setMoveValidator(gameManager.getBoard().getCells());
-            if (gameManager.getMaxBots() > 0) {
-              gameManager.initializeBots();
-            }
-            gameManager.startGame();
-            gameManager.broadcastGameStarted();
-            while (!allSetup(gameManager.getPlayerHandlers())) {
-              sleep(10);
-            }
-            gameManager.broadcastBoardCreate();
-          }
+        Socket socket = serverSocket.accept();
+        try {
+          ClientHandler clientHandler = new ClientHandler(socket, connectionSettings, writers, gameLobby);
+          HandlerThreads.start(clientHandler, connectionSettings.isVirtualThreads());
+          gameLobby.enter(clientHandler);
+        } catch (IOException e) {
+          System.out.println("Client failed to connect");
+          socket.close();
         }
       }
     } catch (IOException e) {
       closeServerSocket();
-    } catch (InterruptedException e) {
-      throw new RuntimeException(e);
     }
   }
 
+  /**
+   * Creates the threads writing to the clients of the blocking transport.
+   *
+   * @return The executor running the writes.
+   */
+  private ExecutorService newWriters() {
+    AtomicInteger writerNum = new AtomicInteger();
+    return Executors.newFixedThreadPool(writerThreads, runnable -> {
+      Thread thread = new Thread(runnable, "client-writer-" + writerNum.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
 
   /**
-   * Checks if all connected clients have completed their setup.
+   * Starts the non-blocking transport.
    *
-   * @param playerHandlers The list of player handlers.
-   * @return true if all clients have completed their setup; false otherwise.
+   * @throws IOException If the server socket cannot be bound.
    */
-  public boolean allSetup(List<PlayerHandler> playerHandlers) {
-    for (PlayerHandler playerHandler : playerHandlers) {
-      if (playerHandler instanceof ClientHandler) {
-        if (!((ClientHandler) playerHandler).getSetup()) {
-          return false;
-        }
-      }
+  private void startNio() throws IOException {
+    nioServer = new NioServer(PORT, ioThreads, connectionSettings.getOutboundCapacity(), new GameConnectionListener());
+    nioServer.start();
+    System.out.println("Serving clients with " + ioThreads + " I/O threads");
+  }
+
+  /**
+   * Passes the events of the non-blocking transport to the player handlers.
+   */
+  private final class GameConnectionListener implements ConnectionListener {
+
+    @Override
+    public void onOpen(NioConnection connection) {
+      gameLobby.enter(new NioClientHandler(connection, connectionSettings, gameLobby));
+    }
+
+    @Override
+    public void onMessage(NioConnection connection, String message) {
+      ((NioClientHandler) connection.attachment()).onReceived(message);
+    }
+
+    @Override
+    public void onFrame(NioConnection connection, WireMessage message) {
+      ((NioClientHandler) connection.attachment()).onReceivedFrame(message);
+    }
+
+    @Override
+    public void onClose(NioConnection connection) {
+      ((NioClientHandler) connection.attachment()).closeEverything();
+    }
+  }
+
+  /**
+   * Stops the non-blocking transport or the writers of the blocking transport, whichever is running.
+   */
+  @PreDestroy
+  public void stop() {
+    if (nioServer != null) {
+      nioServer.stop();
+    }
+    if (writers != null) {
+      writers.shutdownNow();
     }
-    return true;
   }
 
   /**
@@ -130,7 +198,7 @@ public class Server {
    */
   public void saveMoveRecord(MoveRecord mr) {
     System.out.println("saving move record Server");
-    moveRecordRepository.save(mr);
+    moveRecordRepository.getObject().save(mr);
     System.out.println("saved move record server");
   }
 }
@@ -0,0 +1,117 @@
+package org.server.board;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.server.board.boardObjects.Cell;
+
+/**
+ * The board of a saved game after one of its moves, as returned by the position replay API.
+ * The board is held both in the snapshot encoding, see {@link BoardSnapshot#encodeCells(Cell[][])},
+ * and as rows with one character per cell: a space outside the board, '.' for an empty cell,
+ * or the number of the player whose pawn stands on the cell. Positions are immutable,
+ * so a cached position is shared by every request for it.
+ */
+public class BoardPosition {
+
+  private final int gameNumber;
+  private final int moveNumber;
+  private final String variant;
+  private final int numOfPlayers;
+  private final int numOfBots;
+  private final String cells;
+  private final List<String> rows;
+
+  /**
+   * Constructs the position of a board.
+   *
+   * @param gameRecord The settings of the game.
+   * @param moveNumber The number of the move after which the board is taken.
+   * @param board      The board cells.
+   */
+  public BoardPosition(GameRecord gameRecord, int moveNumber, Cell[][] board) {
+    this.gameNumber = gameRecord.getGameNumber();
+    this.moveNumber = moveNumber;
+    this.variant = gameRecord.getVariant();
+    this.numOfPlayers = gameRecord.getNumOfPlayers();
+    this.numOfBots = gameRecord.getNumOfBots();
+    this.cells = BoardSnapshot.encodeCells(board);
+    List<String> boardRows = new ArrayList<>(board.length);
+    for (Cell[] cellRow : board) {
+      StringBuilder row = new StringBuilder(cellRow.length);
+      for (Cell cell : cellRow) {
+        if (!cell.isInsideBoard()) {
+          row.append(' ');
+        } else if (cell.getPawn() == null) {
+          row.append('.');
+        } else {
+          row.append((char) ('0' + cell.getPawn().getPlayerNum()));
+        }
+      }
+      boardRows.add(row.toString());
+    }
+    this.rows = List.copyOf(boardRows);
+  }
+
+  /**
+   * Returns the game number.
+   *
+   * @return The game number.
+   */
+  public int getGameNumber() {
+    return gameNumber;
+  }
+
+  /**
+   * Returns the number of the move after which the board is taken.
+   *
+   * @return The move number.
+   */
+  public int getMoveNumber() {
+    return moveNumber;
+  }
+
+  /**
+   * Returns the game variant.
+   *
+   * @return The variant.
+   */
+  public String getVariant() {
+    return variant;
+  }
+
+  /**
+   * Returns the number of human players.
+   *
+   * @return The number of players.
+   */
+  public int getNumOfPlayers() {
+    return numOfPlayers;
+  }
+
+  /**
+   * Returns the number of bots.
+   *
+   * @return The number of bots.
+   */
+  public int getNumOfBots() {
+    return numOfBots;
+  }
+
+  /**
+   * Returns the board in the snapshot encoding: two digits per playable cell, the occupying player and the zone number.
+   *
+   * @return The encoded board.
+   */
+  public String getCells() {
+    return cells;
+  }
+
+  /**
+   * Returns the board as rows of one character per cell.
+   *
+   * @return The rows of the board.
+   */
+  public List<String> getRows() {
+    return rows;
+  }
+}
@@ -0,0 +1,104 @@
+package org.server.board;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.server.board.boardObjects.Cell;
+
+/**
+ * Represents a full-board snapshot taken every few moves of a game.
+ * The game's settings are not repeated on every snapshot; they are stored once, in its {@link GameRecord}.
+ * The board is stored as one string holding two digits per playable cell, in row-major order:
+ * the number of the player whose pawn occupies the cell (0 if none) and the cell's zone number.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_board_snapshot_game_move", columnList = "gameNumber, moveNumber", unique = true))
+public class BoardSnapshot {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  private int gameNumber;
+  private int moveNumber;
+
+  @Column(length = 512)
+  private String cells;
+
+  /**
+   * Default constructor for BoardSnapshot.
+   */
+  public BoardSnapshot() {}
+
+  /**
+   * Constructs a snapshot of a board.
+   *
+   * @param gameNumber The game number.
+   * @param moveNumber The number of the move after which the snapshot is taken.
+   * @param cells      The board cells, encoded by {@link #encodeCells(Cell[][])}.
+   */
+  public BoardSnapshot(int gameNumber, int moveNumber, String cells) {
+    this.gameNumber = gameNumber;
+    this.moveNumber = moveNumber;
+    this.cells = cells;
+  }
+
+  /**
+   * Encodes the playable cells of a board.
+   *
+   * @param cells The board cells.
+   * @return Two digits per playable cell: the occupying player and the zone number.
+   */
+  public static String encodeCells(Cell[][] cells) {
+    StringBuilder builder = new StringBuilder();
+    for (Cell[] cellRow : cells) {
+      for (Cell cell : cellRow) {
+        if (cell.isInsideBoard()) {
+          builder.append((char) ('0' + (cell.getPawn() != null ? cell.getPawn().getPlayerNum() : 0)));
+          builder.append((char) ('0' + cell.getZoneNum()));
+        }
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Returns the unique identifier for this snapshot.
+   *
+   * @return The ID of the snapshot.
+   */
+  public Long getId() {
+    return id;
+  }
+
+  /**
+   * Returns the game number of this snapshot.
+   *
+   * @return The game number.
+   */
+  public int getGameNumber() {
+    return gameNumber;
+  }
+
+  /**
+   * Returns the number of the move after which the snapshot was taken.
+   *
+   * @return The move number.
+   */
+  public int getMoveNumber() {
+    return moveNumber;
+  }
+
+  /**
+   * Returns the encoded board cells.
+   *
+   * @return Two digits per playable cell: the occupying player and the zone number.
+   */
+  public String getCells() {
+    return cells;
+  }
+}
@@ -0,0 +1,32 @@
+package org.server.board;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for handling CRUD operations on BoardSnapshot entities.
+ */
+@Repository
+public interface BoardSnapshotRepository extends JpaRepository<BoardSnapshot, Long> {
+
+  /**
+   * Retrieves the highest game number with a snapshot.
+   *
+   * @return The highest game number, or 0 if there are no snapshots.
+   */
+  @Query("SELECT COALESCE(MAX(s.gameNumber), 0) FROM BoardSnapshot s")
+  int currentGameNum();
+
+  /**
+   * Retrieves the latest snapshot of a game taken at or before the given move.
+   *
+   * @param gameNum The game number.
+   * @param moveNum The move number.
+   * @return The snapshot with the highest move number not above the given one, or null if there is none.
+   */
+  @Query(value = "SELECT * FROM board_snapshot s WHERE s.game_number = :gameNum AND s.move_number <= :moveNum"
+      + " ORDER BY s.move_number DESC LIMIT 1", nativeQuery = true)
+  BoardSnapshot findLatestAtOrBefore(@Param("gameNum") int gameNum, @Param("moveNum") int moveNum);
+}
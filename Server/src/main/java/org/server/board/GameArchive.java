@@ -0,0 +1,144 @@
+package org.server.board;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+
+/**
+ * Represents the compacted history of a game saved in the per-cell {@link MoveRecord} format.
+ * Instead of one row per cell and move, the archive holds the game's settings once and every move
+ * as the cells it changed, compressed into one blob by {@link GameArchiveCodec}.
+ * Archives are written by the {@link MoveRecordCompactor} and read through the {@link MoveRecordHistory}.
+ */
+@Entity
+public class GameArchive {
+
+  @Id
+  private int gameNumber;
+
+  private String variant;
+  private int numOfPlayers;
+  private int numOfBots;
+  private int moveCount;
+  private int lastMoveNumber;
+  private long maxRecordId;
+  private int checksum;
+
+  @Lob
+  @Column(columnDefinition = "LONGBLOB")
+  private byte[] data;
+
+  /**
+   * Default constructor for GameArchive.
+   */
+  public GameArchive() {}
+
+  /**
+   * Constructs the archive of a game.
+   *
+   * @param gameNumber     The game number.
+   * @param variant        The game variant.
+   * @param numOfPlayers   The number of human players.
+   * @param numOfBots      The number of bots.
+   * @param moveCount      The number of archived moves.
+   * @param lastMoveNumber The number of the last archived move.
+   * @param maxRecordId    The highest ID of the move records the archive was made from.
+   * @param checksum       The checksum of the archived positions, see {@link GameArchiveCodec#checksum(byte[])}.
+   * @param data           The moves, encoded by {@link GameArchiveCodec.Encoder}.
+   */
+  public GameArchive(int gameNumber, String variant, int numOfPlayers, int numOfBots, int moveCount,
+                     int lastMoveNumber, long maxRecordId, int checksum, byte[] data) {
+    this.gameNumber = gameNumber;
+    this.variant = variant;
+    this.numOfPlayers = numOfPlayers;
+    this.numOfBots = numOfBots;
+    this.moveCount = moveCount;
+    this.lastMoveNumber = lastMoveNumber;
+    this.maxRecordId = maxRecordId;
+    this.checksum = checksum;
+    this.data = data;
+  }
+
+  /**
+   * Returns the game number.
+   *
+   * @return The game number.
+   */
+  public int getGameNumber() {
+    return gameNumber;
+  }
+
+  /**
+   * Returns the game variant.
+   *
+   * @return The variant.
+   */
+  public String getVariant() {
+    return variant;
+  }
+
+  /**
+   * Returns the number of human players.
+   *
+   * @return The number of players.
+   */
+  public int getNumOfPlayers() {
+    return numOfPlayers;
+  }
+
+  /**
+   * Returns the number of bots.
+   *
+   * @return The number of bots.
+   */
+  public int getNumOfBots() {
+    return numOfBots;
+  }
+
+  /**
+   * Returns the number of archived moves.
+   *
+   * @return The number of moves.
+   */
+  public int getMoveCount() {
+    return moveCount;
+  }
+
+  /**
+   * Returns the number of the last archived move.
+   *
+   * @return The move number.
+   */
+  public int getLastMoveNumber() {
+    return lastMoveNumber;
+  }
+
+  /**
+   * Returns the highest ID of the move records the archive was made from.
+   * Only records up to this ID are deleted once the archive is stored.
+   *
+   * @return The record ID.
+   */
+  public long getMaxRecordId() {
+    return maxRecordId;
+  }
+
+  /**
+   * Returns the checksum of the archived positions.
+   *
+   * @return The checksum.
+   */
+  public int getChecksum() {
+    return checksum;
+  }
+
+  /**
+   * Returns the encoded moves.
+   *
+   * @return The compressed moves.
+   */
+  public byte[] getData() {
+    return data;
+  }
+}
@@ -0,0 +1,376 @@
+package org.server.board;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes the moves of a game saved in the per-cell {@link MoveRecord} format into the compressed blob
+ * of a {@link GameArchive}, and decodes them back into move records.
+ * A position is a map from a cell's key, {@code row << 8 | column}, to its value, {@code player << 8 | zone}.
+ * The blob is a deflated stream of: the format version, then for every move in increasing order its number,
+ * the number of cells that changed since the previous move and each changed cell as four bytes
+ * (row, column, player, zone), and finally {@link #END}. The first move holds the whole board;
+ * every later one usually holds the two cells of the moved pawn.
+ */
+public final class GameArchiveCodec {
+
+  /**
+   * The version of the blob's format.
+   */
+  public static final int FORMAT_VERSION = 1;
+
+  /**
+   * The move number marking the end of the moves.
+   */
+  public static final int END = -1;
+
+  private GameArchiveCodec() {}
+
+  /**
+   * Returns the key of a cell in a position.
+   *
+   * @param row    The cell's row, below 256.
+   * @param column The cell's column, below 256.
+   * @return The key.
+   */
+  public static int key(int row, int column) {
+    return row << 8 | column;
+  }
+
+  /**
+   * Returns the value of a cell in a position.
+   *
+   * @param playerNum The number of the player whose pawn occupies the cell, 0 if none, below 256.
+   * @param zoneNum   The cell's zone number, below 256.
+   * @return The value.
+   */
+  public static int value(int playerNum, int zoneNum) {
+    return playerNum << 8 | zoneNum;
+  }
+
+  /**
+   * Decodes every move of an archive and checks it against the counts and checksum stored with it.
+   *
+   * @param archive The archive.
+   * @return Whether the blob holds exactly the archived moves.
+   */
+  public static boolean verify(GameArchive archive) {
+    CRC32 checksum = new CRC32();
+    int moveCount = 0;
+    int lastMoveNum = END;
+    try (Decoder decoder = new Decoder(archive.getData())) {
+      while (decoder.next()) {
+        lastMoveNum = decoder.getMoveNumber();
+        update(checksum, lastMoveNum, decoder.getPosition());
+        moveCount++;
+      }
+    } catch (RuntimeException e) {
+      return false;
+    }
+    return moveCount == archive.getMoveCount() && lastMoveNum == archive.getLastMoveNumber()
+        && (int) checksum.getValue() == archive.getChecksum();
+  }
+
+  /**
+   * Decodes one move of an archive.
+   *
+   * @param archive The archive.
+   * @param moveNum The move number.
+   * @return The cells of the board after the move, as move records, or an empty list if the move is not archived.
+   */
+  public static List<MoveRecord> findMove(GameArchive archive, int moveNum) {
+    try (Decoder decoder = new Decoder(archive.getData())) {
+      while (decoder.next()) {
+        if (decoder.getMoveNumber() == moveNum) {
+          return toMoveRecords(archive, moveNum, decoder.getPosition());
+        }
+        if (decoder.getMoveNumber() > moveNum) {
+          break;
+        }
+      }
+    }
+    return List.of();
+  }
+
+  /**
+   * Decodes a range of moves of an archive, reading the blob once.
+   *
+   * @param archive  The archive.
+   * @param fromMove The first move number of the range.
+   * @param toMove   The last move number of the range.
+   * @return The cells of the board after every archived move of the range, as move records, by move number.
+   */
+  public static TreeMap<Integer, List<MoveRecord>> findMoves(GameArchive archive, int fromMove, int toMove) {
+    TreeMap<Integer, List<MoveRecord>> moves = new TreeMap<>();
+    try (Decoder decoder = new Decoder(archive.getData())) {
+      while (decoder.next() && decoder.getMoveNumber() <= toMove) {
+        if (decoder.getMoveNumber() >= fromMove) {
+          moves.put(decoder.getMoveNumber(), toMoveRecords(archive, decoder.getMoveNumber(), decoder.getPosition()));
+        }
+      }
+    }
+    return moves;
+  }
+
+  /**
+   * Decodes the last move of an archive.
+   *
+   * @param archive The archive.
+   * @return The cells of the board after the last archived move, as move records.
+   */
+  public static List<MoveRecord> findLastMove(GameArchive archive) {
+    return findMove(archive, archive.getLastMoveNumber());
+  }
+
+  /**
+   * Converts a decoded position to the move records it was made from.
+   */
+  private static List<MoveRecord> toMoveRecords(GameArchive archive, int moveNum, Map<Integer, Integer> position) {
+    List<MoveRecord> moveRecords = new ArrayList<>(position.size());
+    for (Map.Entry<Integer, Integer> cell : position.entrySet()) {
+      MoveRecord moveRecord = new MoveRecord(moveNum);
+      moveRecord.setGameNumber(archive.getGameNumber());
+      moveRecord.setCellRowNumber(cell.getKey() >>> 8);
+      moveRecord.setCellColumnNumber(cell.getKey() & 0xFF);
+      moveRecord.setCellPlayerNumber(cell.getValue() >>> 8);
+      moveRecord.setCellZoneNumber(cell.getValue() & 0xFF);
+      moveRecord.setVariant(archive.getVariant());
+      moveRecord.setNumOfPlayers(archive.getNumOfPlayers());
+      moveRecord.setNumOfBots(archive.getNumOfBots());
+      moveRecords.add(moveRecord);
+    }
+    return moveRecords;
+  }
+
+  /**
+   * Adds a move's position to a checksum, cell by cell in key order.
+   */
+  private static void update(CRC32 checksum, int moveNum, TreeMap<Integer, Integer> position) {
+    updateInt(checksum, moveNum);
+    for (Map.Entry<Integer, Integer> cell : position.entrySet()) {
+      updateInt(checksum, cell.getKey());
+      updateInt(checksum, cell.getValue());
+    }
+  }
+
+  /**
+   * Adds the four bytes of an int to a checksum.
+   */
+  private static void updateInt(CRC32 checksum, int value) {
+    checksum.update(value >>> 24);
+    checksum.update(value >>> 16);
+    checksum.update(value >>> 8);
+    checksum.update(value);
+  }
+
+  /**
+   * Writes the moves of a game, each given as the whole board after it, as the cells that changed.
+   */
+  public static final class Encoder {
+
+    private final ByteArrayOutputStream bytes;
+    private final Deflater deflater;
+    private final DataOutputStream out;
+    private final TreeMap<Integer, Integer> position;
+    private final CRC32 checksum;
+    private int moveCount;
+    private int lastMoveNumber;
+
+    /**
+     * Constructs an encoder and writes the format version.
+     */
+    public Encoder() {
+      bytes = new ByteArrayOutputStream();
+      deflater = new Deflater(Deflater.BEST_COMPRESSION);
+      out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater));
+      position = new TreeMap<>();
+      checksum = new CRC32();
+      lastMoveNumber = END;
+      try {
+        out.writeInt(FORMAT_VERSION);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * Writes a move.
+     *
+     * @param moveNum The move number, above the number of the previous move.
+     * @param cells   The cells of the board after the move, by key. Cells left out keep their previous value.
+     */
+    public void addMove(int moveNum, Map<Integer, Integer> cells) {
+      if (moveNum <= lastMoveNumber) {
+        throw new IllegalArgumentException("Move " + moveNum + " is not after move " + lastMoveNumber);
+      }
+      List<Integer> changed = new ArrayList<>();
+      for (Map.Entry<Integer, Integer> cell : cells.entrySet()) {
+        if (!cell.getValue().equals(position.put(cell.getKey(), cell.getValue()))) {
+          changed.add(cell.getKey());
+        }
+      }
+      if (changed.size() > 0xFFFF) {
+        throw new IllegalArgumentException("Move " + moveNum + " changes too many cells");
+      }
+      try {
+        out.writeInt(moveNum);
+        out.writeShort(changed.size());
+        for (int key : changed) {
+          int value = position.get(key);
+          out.writeByte(key >>> 8);
+          out.writeByte(key);
+          out.writeByte(value >>> 8);
+          out.writeByte(value);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      update(checksum, moveNum, position);
+      moveCount++;
+      lastMoveNumber = moveNum;
+    }
+
+    /**
+     * Returns the number of moves written.
+     *
+     * @return The number of moves.
+     */
+    public int getMoveCount() {
+      return moveCount;
+    }
+
+    /**
+     * Returns the number of the last move written.
+     *
+     * @return The move number, or {@link #END} if no move was written.
+     */
+    public int getLastMoveNumber() {
+      return lastMoveNumber;
+    }
+
+    /**
+     * Returns the checksum of the positions written, as {@link #verify(GameArchive)} computes it.
+     *
+     * @return The checksum.
+     */
+    public int getChecksum() {
+      return (int) checksum.getValue();
+    }
+
+    /**
+     * Ends the moves and returns the blob.
+     *
+     * @return The compressed moves.
+     */
+    public byte[] finish() {
+      try {
+        out.writeInt(END);
+        out.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } finally {
+        deflater.end();
+      }
+      return bytes.toByteArray();
+    }
+  }
+
+  /**
+   * Reads the moves of a blob one at a time, keeping the whole board after the last move read.
+   */
+  public static final class Decoder implements AutoCloseable {
+
+    private final DataInputStream in;
+    private final TreeMap<Integer, Integer> position;
+    private int moveNumber;
+
+    /**
+     * Constructs a decoder and checks the format version.
+     *
+     * @param data The compressed moves.
+     * @throws IllegalArgumentException If the blob has another format.
+     */
+    public Decoder(byte[] data) {
+      in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)));
+      position = new TreeMap<>();
+      moveNumber = END;
+      int version;
+      try {
+        version = in.readInt();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      if (version != FORMAT_VERSION) {
+        throw new IllegalArgumentException("Unknown archive format " + version);
+      }
+    }
+
+    /**
+     * Reads the next move.
+     *
+     * @return Whether there was a move; false once the moves have ended.
+     */
+    public boolean next() {
+      try {
+        int moveNum = in.readInt();
+        if (moveNum == END) {
+          return false;
+        }
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+          int row = in.readUnsignedByte();
+          int column = in.readUnsignedByte();
+          int playerNum = in.readUnsignedByte();
+          int zoneNum = in.readUnsignedByte();
+          position.put(key(row, column), value(playerNum, zoneNum));
+        }
+        moveNumber = moveNum;
+        return true;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * Returns the number of the last move read.
+     *
+     * @return The move number.
+     */
+    public int getMoveNumber() {
+      return moveNumber;
+    }
+
+    /**
+     * Returns the whole board after the last move read. The map changes as further moves are read.
+     *
+     * @return The cells by key.
+     */
+    public TreeMap<Integer, Integer> getPosition() {
+      return position;
+    }
+
+    /**
+     * Releases the decompressor.
+     */
+    @Override
+    public void close() {
+      try {
+        in.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package org.server.board;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for handling CRUD operations on GameArchive entities.
+ */
+@Repository
+public interface GameArchiveRepository extends JpaRepository<GameArchive, Integer> {
+
+  /**
+   * Retrieves the highest game number with an archive.
+   *
+   * @return The highest game number, or 0 if there are no archives.
+   */
+  @Query("SELECT COALESCE(MAX(a.gameNumber), 0) FROM GameArchive a")
+  int currentGameNum();
+}
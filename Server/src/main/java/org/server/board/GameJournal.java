@@ -0,0 +1,276 @@
+package org.server.board;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.server.board.boardObjects.Cell;
+import org.server.board.boardObjects.Pawn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Persists games as a journal of moves with periodic full-board snapshots, and rebuilds boards from it.
+ * Every move is stored as one {@link MoveJournalEntry}; every few moves a {@link BoardSnapshot}
+ * holding the whole board is stored as well. A board is restored
+ * by loading the latest snapshot and replaying the moves made after it.
+ * The game's settings are stored once, as a {@link GameRecord} written with the first snapshot.
+ * Games saved before the journal existed are still read in the per-cell {@link MoveRecord} format,
+ * from their rows or from their compacted {@link GameArchive}, through the {@link MoveRecordHistory}.
+ * Resuming a game takes two indexed round trips: one query loads its settings joined with its latest snapshot,
+ * see {@link #loadGame(int)}, and one reads the moves made after the snapshot. When the settings are cached
+ * by the {@link GameMetadataCache}, the first query reads the latest snapshot alone,
+ * see {@link #loadPosition(GameRecord)}.
+ * This is the {@link GameStore} of the "jpa" backend.
+ */
+@Component
+@JpaBackend
+public class GameJournal implements GameStore {
+
+  private final JournalWriter journalWriter;
+  private final MoveJournalRepository moveJournalRepository;
+  private final BoardSnapshotRepository boardSnapshotRepository;
+  private final MoveRecordHistory moveRecordHistory;
+  private final GameRecordRepository gameRecordRepository;
+  private final int snapshotInterval;
+
+  /**
+   * Constructs a game journal.
+   *
+   * @param journalWriter           The write-behind writer storing the journal.
+   * @param moveJournalRepository   The repository of journal entries.
+   * @param boardSnapshotRepository The repository of board snapshots.
+   * @param moveRecordHistory       The games saved in the per-cell format.
+   * @param gameRecordRepository    The repository of the games' settings.
+   * @param snapshotInterval        The number of moves between two snapshots.
+   */
+  @Autowired
+  public GameJournal(JournalWriter journalWriter, MoveJournalRepository moveJournalRepository,
+                     BoardSnapshotRepository boardSnapshotRepository, MoveRecordHistory moveRecordHistory,
+                     GameRecordRepository gameRecordRepository,
+                     @Value("${persistence.snapshotInterval:20}") int snapshotInterval) {
+    this.journalWriter = journalWriter;
+    this.moveJournalRepository = moveJournalRepository;
+    this.boardSnapshotRepository = boardSnapshotRepository;
+    this.moveRecordHistory = moveRecordHistory;
+    this.gameRecordRepository = gameRecordRepository;
+    this.snapshotInterval = Math.max(1, snapshotInterval);
+  }
+
+  /**
+   * Records a move, together with a snapshot of the board after it if a snapshot is due.
+   * The first move of a game is always followed by a snapshot. The game's record is written with every
+   * snapshot and kept only the first time, so a resumed game gets one as well.
+   *
+   * @param entry      The journal entry of the move.
+   * @param cells      The board cells after the move.
+   * @param gameRecord The settings of the game.
+   */
+  @Override
+  public void recordMove(MoveJournalEntry entry, Cell[][] cells, GameRecord gameRecord) {
+    List<Object> records = new ArrayList<>(3);
+    records.add(entry);
+    if (entry.getMoveNumber() % snapshotInterval == 0) {
+      records.add(new BoardSnapshot(entry.getGameNumber(), entry.getMoveNumber(), BoardSnapshot.encodeCells(cells)));
+      records.add(gameRecord);
+    }
+    journalWriter.enqueue(records);
+  }
+
+  /**
+   * Waits until every recorded move has been written.
+   */
+  @Override
+  public void flush() {
+    journalWriter.flush();
+  }
+
+  /**
+   * Retrieves the highest game number stored in any format.
+   *
+   * @return The highest game number.
+   */
+  @Override
+  public int getCurrentGameNum() {
+    return Math.max(gameRecordRepository.currentGameNum(),
+        Math.max(moveRecordHistory.currentGameNum(), boardSnapshotRepository.currentGameNum()));
+  }
+
+  /**
+   * Loads a game's settings and latest stored position. A journaled game is read with one query joining
+   * its game record with its latest snapshot. A game saved in the per-cell format is read from the cells
+   * of its last move, in its rows or its archive; if it was saved before game records existed,
+   * its settings are taken from those cells, with the default board size and no seed.
+   *
+   * @param gameNum The game number.
+   * @return The saved game, or null if the game has no saved moves.
+   */
+  @Override
+  public SavedGame loadGame(int gameNum) {
+    List<SavedGame> journaled = gameRecordRepository.findWithLatestSnapshot(gameNum);
+    GameRecord gameRecord = null;
+    if (!journaled.isEmpty()) {
+      SavedGame savedGame = journaled.get(0);
+      if (savedGame.getSnapshot() != null) {
+        return savedGame;
+      }
+      gameRecord = savedGame.getGameRecord();
+    }
+    List<MoveRecord> moveRecords = moveRecordHistory.findLatestMove(gameNum);
+    if (moveRecords.isEmpty()) {
+      return null;
+    }
+    if (gameRecord == null) {
+      gameRecord = settingsOf(gameNum, moveRecords.get(0));
+    }
+    return new SavedGame(gameRecord, null, moveRecords);
+  }
+
+  /**
+   * Loads the latest stored position of a game whose settings are already known: its latest snapshot,
+   * or for a game saved in the per-cell format, the cells of its last move.
+   *
+   * @param gameRecord The game's settings.
+   * @return The saved game, or null if the game has no saved moves.
+   */
+  @Override
+  public SavedGame loadPosition(GameRecord gameRecord) {
+    int gameNum = gameRecord.getGameNumber();
+    BoardSnapshot snapshot = boardSnapshotRepository.findLatestAtOrBefore(gameNum, Integer.MAX_VALUE);
+    if (snapshot != null) {
+      return new SavedGame(gameRecord, snapshot);
+    }
+    List<MoveRecord> moveRecords = moveRecordHistory.findLatestMove(gameNum);
+    return moveRecords.isEmpty() ? null : new SavedGame(gameRecord, null, moveRecords);
+  }
+
+  /**
+   * Reads the settings of a game saved before game records existed from the cells of its last move,
+   * with the default board size and no seed.
+   *
+   * @param gameNum The game number.
+   * @return The game's settings, or null if the game has no moves in the per-cell format.
+   */
+  public GameRecord loadLegacySettings(int gameNum) {
+    List<MoveRecord> moveRecords = moveRecordHistory.findLatestMove(gameNum);
+    return moveRecords.isEmpty() ? null : settingsOf(gameNum, moveRecords.get(0));
+  }
+
+  /**
+   * Builds the settings of a game saved before game records existed from one of its cells.
+   *
+   * @param gameNum The game number.
+   * @param cell    A cell of the game in the per-cell format.
+   * @return The game's settings, with the default board size and no seed.
+   */
+  private static GameRecord settingsOf(int gameNum, MoveRecord cell) {
+    return new GameRecord(gameNum, cell.getVariant(), cell.getNumOfPlayers(), cell.getNumOfBots(),
+        GameRecord.DEFAULT_BOARD_SIZE, 0);
+  }
+
+  /**
+   * Restores the latest position of a game onto an empty board of the game's shape.
+   *
+   * @param gameNum The game number.
+   * @param cells   The cells of a board without pawns; pawns and zone numbers are set in place.
+   * @return The number of the last restored move, or -1 if the game has no saved moves.
+   */
+  public int restoreLatestPosition(int gameNum, Cell[][] cells) {
+    SavedGame savedGame = loadGame(gameNum);
+    return savedGame == null ? -1 : restorePosition(savedGame, cells);
+  }
+
+  /**
+   * Restores the position of a loaded game onto an empty board of the game's shape,
+   * replaying the journaled moves made after its snapshot.
+   *
+   * @param savedGame The loaded game.
+   * @param cells     The cells of a board without pawns; pawns and zone numbers are set in place.
+   * @return The number of the last restored move.
+   */
+  @Override
+  public int restorePosition(SavedGame savedGame, Cell[][] cells) {
+    BoardSnapshot snapshot = savedGame.getSnapshot();
+    if (snapshot == null) {
+      return restoreFromMoveRecords(savedGame.getMoveRecords(), cells);
+    }
+
+    applySnapshot(snapshot, cells);
+    int moveNum = snapshot.getMoveNumber();
+    for (MoveJournalEntry entry : moveJournalRepository.findMovesAfter(snapshot.getGameNumber(), moveNum)) {
+      applyMove(entry, cells);
+      moveNum = entry.getMoveNumber();
+    }
+    return moveNum;
+  }
+
+  /**
+   * Places the pawns and zone numbers of a snapshot on the board.
+   *
+   * @param snapshot The snapshot.
+   * @param cells    The board cells.
+   */
+  public static void applySnapshot(BoardSnapshot snapshot, Cell[][] cells) {
+    applyCells(snapshot.getCells(), cells);
+  }
+
+  /**
+   * Places the pawns and zone numbers of an encoded board on the board.
+   *
+   * @param encoded The board, encoded by {@link BoardSnapshot#encodeCells(Cell[][])}.
+   * @param cells   The board cells.
+   */
+  public static void applyCells(String encoded, Cell[][] cells) {
+    int index = 0;
+    for (Cell[] cellRow : cells) {
+      for (Cell cell : cellRow) {
+        if (!cell.isInsideBoard()) {
+          continue;
+        }
+        int playerNum = encoded.charAt(index) - '0';
+        int zoneNum = encoded.charAt(index + 1) - '0';
+        index += 2;
+        cell.pawnMoveOut();
+        if (playerNum != 0) {
+          cell.pawnMoveIn(new Pawn(playerNum, cell));
+        }
+        cell.setZoneNum(zoneNum);
+      }
+    }
+  }
+
+  /**
+   * Replays a journaled move on the board.
+   *
+   * @param entry The journal entry.
+   * @param cells The board cells.
+   */
+  public static void applyMove(MoveJournalEntry entry, Cell[][] cells) {
+    Cell from = cells[entry.getFromRow()][entry.getFromColumn()];
+    Cell to = cells[entry.getToRow()][entry.getToColumn()];
+    Pawn pawn = from.getPawn();
+    from.pawnMoveOut();
+    to.pawnMoveIn(pawn);
+  }
+
+  /**
+   * Restores a move of a game saved in the per-cell format, where every move stores the whole board.
+   *
+   * @param moveRecords The cells of the move.
+   * @param cells       The cells of the board; the pawn of every listed cell is replaced.
+   * @return The number of the restored move, or -1 if there are no cells.
+   */
+  public static int restoreFromMoveRecords(List<MoveRecord> moveRecords, Cell[][] cells) {
+    int moveNum = -1;
+    for (MoveRecord moveRecord : moveRecords) {
+      int playerNum = moveRecord.getCellPlayerNumber();
+      Cell cell = cells[moveRecord.getCellRowNumber()][moveRecord.getCellColumnNumber()];
+      cell.pawnMoveOut();
+      if (playerNum != 0) {
+        cell.pawnMoveIn(new Pawn(playerNum, cell));
+      }
+      cell.setZoneNum(moveRecord.getCellZoneNumber());
+      moveNum = moveRecord.getMoveNumber();
+    }
+    return moveNum;
+  }
+}
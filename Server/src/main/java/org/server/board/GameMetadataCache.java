@@ -0,0 +1,129 @@
+package org.server.board;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache of the settings of games, as {@link GameRecord} entries keyed by game number.
+ * A game's settings are read from the database at most once while it is cached: from its game record,
+ * or for games saved before game records existed, from the cells of their last move.
+ * Resuming a saved game reads its settings here, so a cached game only loads its position.
+ * Running games put their settings in when they start, and they are evicted when the game is retired.
+ * The cache holds at most its capacity of games, evicting the least recently used one when it is full.
+ * The cache counts its hits and misses, exposed by {@link #getMetrics()}.
+ */
+@Component
+@JpaBackend
+public class GameMetadataCache {
+
+  private final GameRecordRepository gameRecordRepository;
+  private final GameJournal gameJournal;
+  private final Map<Integer, GameRecord> entries;
+  private final LongAdder hits;
+  private final LongAdder misses;
+
+  /**
+   * Constructs a game metadata cache.
+   *
+   * @param gameRecordRepository The repository of the games' settings.
+   * @param gameJournal          The journal the games are saved to, read for games without a game record.
+   * @param capacity             The maximum number of cached games.
+   */
+  @Autowired
+  public GameMetadataCache(GameRecordRepository gameRecordRepository, GameJournal gameJournal,
+                           @Value("${persistence.metadataCacheSize:10000}") int capacity) {
+    this.gameRecordRepository = gameRecordRepository;
+    this.gameJournal = gameJournal;
+    int maxEntries = Math.max(1, capacity);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, GameRecord> eldest) {
+        return size() > maxEntries;
+      }
+    };
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+  }
+
+  /**
+   * Returns the settings of a game, reading them from the database if they are not cached.
+   *
+   * @param gameNum The game number.
+   * @return The game's settings, or null if the game is unknown.
+   */
+  public GameRecord get(int gameNum) {
+    GameRecord gameRecord = lookup(gameNum);
+    if (gameRecord != null) {
+      hits.increment();
+      return gameRecord;
+    }
+    misses.increment();
+    gameRecord = gameRecordRepository.findById(gameNum).orElse(null);
+    if (gameRecord == null) {
+      gameRecord = gameJournal.loadLegacySettings(gameNum);
+    }
+    if (gameRecord != null) {
+      store(gameRecord, false);
+    }
+    return gameRecord;
+  }
+
+  /**
+   * Caches the settings of a game, typically when it starts.
+   *
+   * @param gameRecord The game's settings.
+   */
+  public void put(GameRecord gameRecord) {
+    store(gameRecord, true);
+  }
+
+  /**
+   * Removes the settings of a game from the cache, typically when it ends.
+   *
+   * @param gameNum The game number.
+   */
+  public synchronized void evict(int gameNum) {
+    entries.remove(gameNum);
+  }
+
+  /**
+   * Returns a cached game's settings, marking them as recently used.
+   *
+   * @param gameNum The game number.
+   * @return The game's settings, or null if they are not cached.
+   */
+  private synchronized GameRecord lookup(int gameNum) {
+    return entries.get(gameNum);
+  }
+
+  /**
+   * Caches a game's settings, evicting the least recently used game if the cache is full.
+   *
+   * @param gameRecord The game's settings.
+   * @param replace    Whether settings already cached for the game are replaced.
+   */
+  private synchronized void store(GameRecord gameRecord, boolean replace) {
+    if (replace) {
+      entries.put(gameRecord.getGameNumber(), gameRecord);
+    } else {
+      entries.putIfAbsent(gameRecord.getGameNumber(), gameRecord);
+    }
+  }
+
+  /**
+   * Returns the cache's counters.
+   *
+   * @return The number of cached games, hits and misses, by name.
+   */
+  public synchronized Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("size", entries.size());
+    metrics.put("hits", hits.sum());
+    metrics.put("misses", misses.sum());
+    return metrics;
+  }
+}
@@ -0,0 +1,24 @@
+package org.server.board;
+
+/**
+ * Hands out the numbers of new games. Each {@link GameStore} backend has its own allocator:
+ * {@link JdbcGameNumberAllocator} shares a counter between the processes using the database,
+ * {@link LocalGameNumberAllocator} counts in memory above the games of the local journal.
+ */
+public interface GameNumberAllocator {
+
+  /**
+   * Returns the next free game number.
+   *
+   * @return The game number.
+   */
+  int next();
+
+  /**
+   * Makes sure numbers handed out later are above a game number stored without being allocated,
+   * such as an imported game.
+   *
+   * @param gameNum The highest game number in use.
+   */
+  void skipTo(int gameNum);
+}
@@ -0,0 +1,105 @@
+package org.server.board;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Represents a saved game: the settings every position of the game shares, stored once per game.
+ * The row is keyed by the game number, so a game's settings are read with a single primary key lookup
+ * instead of being repeated on every {@link MoveRecord} or {@link BoardSnapshot} row.
+ */
+@Entity
+public class GameRecord {
+
+  /**
+   * The number of marbles per player of the boards the server creates, which sets the board's size.
+   */
+  public static final int DEFAULT_BOARD_SIZE = 10;
+
+  @Id
+  private int gameNumber;
+
+  private String variant;
+  private int numOfPlayers;
+  private int numOfBots;
+  private int boardSize;
+  private int seed;
+
+  /**
+   * Default constructor for GameRecord.
+   */
+  public GameRecord() {}
+
+  /**
+   * Constructs the record of a game.
+   *
+   * @param gameNumber   The game number.
+   * @param variant      The game variant.
+   * @param numOfPlayers The number of human players.
+   * @param numOfBots    The number of bots.
+   * @param boardSize    The number of marbles per player, which sets the board's size.
+   * @param seed         The seed the board was created with, 0 if it is not known.
+   */
+  public GameRecord(int gameNumber, String variant, int numOfPlayers, int numOfBots, int boardSize, int seed) {
+    this.gameNumber = gameNumber;
+    this.variant = variant;
+    this.numOfPlayers = numOfPlayers;
+    this.numOfBots = numOfBots;
+    this.boardSize = boardSize;
+    this.seed = seed;
+  }
+
+  /**
+   * Returns the game number.
+   *
+   * @return The game number.
+   */
+  public int getGameNumber() {
+    return gameNumber;
+  }
+
+  /**
+   * Returns the variant of the game.
+   *
+   * @return The game variant.
+   */
+  public String getVariant() {
+    return variant;
+  }
+
+  /**
+   * Returns the number of human players in the game.
+   *
+   * @return The number of players.
+   */
+  public int getNumOfPlayers() {
+    return numOfPlayers;
+  }
+
+  /**
+   * Returns the number of bots in the game.
+   *
+   * @return The number of bots.
+   */
+  public int getNumOfBots() {
+    return numOfBots;
+  }
+
+  /**
+   * Returns the number of marbles per player, which sets the board's size.
+   *
+   * @return The board size.
+   */
+  public int getBoardSize() {
+    return boardSize;
+  }
+
+  /**
+   * Returns the seed the board was created with.
+   *
+   * @return The seed, or 0 if it is not known.
+   */
+  public int getSeed() {
+    return seed;
+  }
+}
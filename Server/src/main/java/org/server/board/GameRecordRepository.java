@@ -0,0 +1,35 @@
+package org.server.board;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for handling CRUD operations on GameRecord entities.
+ */
+@Repository
+public interface GameRecordRepository extends JpaRepository<GameRecord, Integer> {
+
+  /**
+   * Retrieves the highest game number with a record.
+   *
+   * @return The highest game number, or 0 if there are no records.
+   */
+  @Query("SELECT COALESCE(MAX(g.gameNumber), 0) FROM GameRecord g")
+  int currentGameNum();
+
+  /**
+   * Retrieves a game's record together with its latest snapshot, in one round trip: the snapshot is
+   * joined on the (gameNumber, moveNumber) index of board snapshots.
+   *
+   * @param gameNum The game number.
+   * @return The game with its latest snapshot, or with none if it has no snapshot; empty if it has no record.
+   */
+  @Query("SELECT new org.server.board.SavedGame(g, s) FROM GameRecord g LEFT JOIN BoardSnapshot s"
+      + " ON s.gameNumber = g.gameNumber AND s.moveNumber ="
+      + " (SELECT MAX(l.moveNumber) FROM BoardSnapshot l WHERE l.gameNumber = g.gameNumber)"
+      + " WHERE g.gameNumber = :gameNum")
+  List<SavedGame> findWithLatestSnapshot(@Param("gameNum") int gameNum);
+}
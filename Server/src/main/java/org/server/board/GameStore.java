@@ -0,0 +1,58 @@
+package org.server.board;
+
+import org.server.board.boardObjects.Cell;
+
+/**
+ * Storage of the games the server hosts: the moves of every game and enough of its positions to resume it.
+ * The backend is chosen with the persistence.backend property: "jpa" ({@link GameJournal}, the default)
+ * stores the games in the database, "mapped" ({@link MappedGameJournal}) in a local journal file,
+ * so the server runs without a database.
+ */
+public interface GameStore {
+
+  /**
+   * Records a move, together with a snapshot of the board after it if one is due.
+   *
+   * @param entry      The journal entry of the move.
+   * @param cells      The board cells after the move.
+   * @param gameRecord The settings of the game.
+   */
+  void recordMove(MoveJournalEntry entry, Cell[][] cells, GameRecord gameRecord);
+
+  /**
+   * Waits until every recorded move is stored.
+   */
+  void flush();
+
+  /**
+   * Retrieves the highest stored game number.
+   *
+   * @return The highest game number, or 0 if no game is stored.
+   */
+  int getCurrentGameNum();
+
+  /**
+   * Loads a game's settings and latest stored position.
+   *
+   * @param gameNum The game number.
+   * @return The saved game, or null if the game has no stored moves.
+   */
+  SavedGame loadGame(int gameNum);
+
+  /**
+   * Loads the latest stored position of a game whose settings are already known, without reading them again.
+   *
+   * @param gameRecord The game's settings.
+   * @return The saved game, or null if the game has no stored moves.
+   */
+  SavedGame loadPosition(GameRecord gameRecord);
+
+  /**
+   * Restores the position of a loaded game onto an empty board of the game's shape.
+   *
+   * @param savedGame The loaded game.
+   * @param cells     The cells of a board without pawns; pawns and zone numbers are set in place.
+   * @return The number of the last restored move.
+   */
+  int restorePosition(SavedGame savedGame, Cell[][] cells);
+}
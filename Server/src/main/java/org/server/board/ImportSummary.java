@@ -0,0 +1,81 @@
+package org.server.board;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of a bulk import of move records: the number of rows written and rejected,
+ * the number of transactions they were written in, and the reasons of the first rejections.
+ * Only the first few reasons are kept, so the summary stays small however many rows are rejected.
+ */
+public class ImportSummary {
+
+  /**
+   * The maximum number of rejection reasons kept.
+   */
+  public static final int MAX_ERRORS = 100;
+
+  private long accepted;
+  private long rejected;
+  private int chunks;
+  private final List<String> errors = new ArrayList<>();
+
+  /**
+   * Counts rows written in one committed chunk.
+   *
+   * @param rows The number of rows.
+   */
+  void addChunk(int rows) {
+    accepted += rows;
+    chunks++;
+  }
+
+  /**
+   * Counts rejected rows and keeps the reason if fewer than {@link #MAX_ERRORS} are kept.
+   *
+   * @param rows   The number of rows.
+   * @param reason Why the rows were rejected.
+   */
+  void reject(int rows, String reason) {
+    rejected += rows;
+    if (errors.size() < MAX_ERRORS) {
+      errors.add(reason);
+    }
+  }
+
+  /**
+   * Returns the number of rows written.
+   *
+   * @return The number of accepted rows.
+   */
+  public long getAccepted() {
+    return accepted;
+  }
+
+  /**
+   * Returns the number of rows not written, because they were invalid or their chunk failed.
+   *
+   * @return The number of rejected rows.
+   */
+  public long getRejected() {
+    return rejected;
+  }
+
+  /**
+   * Returns the number of chunks committed.
+   *
+   * @return The number of chunks.
+   */
+  public int getChunks() {
+    return chunks;
+  }
+
+  /**
+   * Returns the reasons of the first rejections, each starting with the line it refers to.
+   *
+   * @return The rejection reasons.
+   */
+  public List<String> getErrors() {
+    return errors;
+  }
+}
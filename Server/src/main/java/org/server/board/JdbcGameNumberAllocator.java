@@ -0,0 +1,119 @@
+package org.server.board;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out game numbers that are unique across every server process sharing the database.
+ * Numbers are reserved from a counter row in blocks (hi/lo allocation) and then handed out from memory,
+ * so opening a game costs a database round trip only once per block. The counter is advanced with
+ * a single atomic update, so two processes never reserve overlapping blocks; numbers left in a block
+ * when a process stops are skipped. The counter starts above the highest game number already saved,
+ * which is looked up only when the counter row is created.
+ */
+@Component
+@JpaBackend
+public class JdbcGameNumberAllocator implements GameNumberAllocator {
+
+  private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS game_number_allocator"
+      + " (id INT PRIMARY KEY, next_value INT NOT NULL)";
+  private static final String COUNT_SQL = "SELECT COUNT(*) FROM game_number_allocator WHERE id = 1";
+  private static final String INIT_SQL = "INSERT IGNORE INTO game_number_allocator (id, next_value) VALUES (1, ?)";
+  private static final String RESERVE_SQL = "UPDATE game_number_allocator"
+      + " SET next_value = LAST_INSERT_ID(next_value + ?) WHERE id = 1";
+  private static final String RESERVED_SQL = "SELECT LAST_INSERT_ID()";
+  private static final String SKIP_SQL = "UPDATE game_number_allocator"
+      + " SET next_value = GREATEST(next_value, ?) WHERE id = 1";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final GameJournal gameJournal;
+  private final int blockSize;
+  private boolean initialized;
+  private int next;
+  private int limit;
+
+  /**
+   * Constructs a JDBC game number allocator.
+   *
+   * @param jdbcTemplate The JDBC template used to reserve blocks.
+   * @param gameJournal  The journal of saved games, used to start the counter above their numbers.
+   * @param blockSize    The number of game numbers reserved at once.
+   */
+  @Autowired
+  public JdbcGameNumberAllocator(JdbcTemplate jdbcTemplate, GameJournal gameJournal,
+                                 @Value("${persistence.gameNumberBlockSize:50}") int blockSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.gameJournal = gameJournal;
+    this.blockSize = Math.max(1, blockSize);
+  }
+
+  /**
+   * Returns the next free game number, reserving a new block first if the current one is used up.
+   *
+   * @return The game number.
+   */
+  @Override
+  public synchronized int next() {
+    if (next >= limit) {
+      reserveBlock();
+    }
+    return next++;
+  }
+
+  /**
+   * Moves the counter past a game number stored without being allocated, such as an imported game,
+   * and drops the rest of this process's block if it is not past it as well.
+   * Blocks already reserved by other processes are not affected.
+   *
+   * @param gameNum The highest game number in use.
+   */
+  @Override
+  public synchronized void skipTo(int gameNum) {
+    initialize();
+    jdbcTemplate.update(SKIP_SQL, gameNum + 1);
+    if (next <= gameNum) {
+      next = limit;
+    }
+  }
+
+  /**
+   * Reserves the next block of game numbers, creating the counter row on first use.
+   */
+  private void reserveBlock() {
+    initialize();
+    // LAST_INSERT_ID is kept per connection, so the update and the select must share one
+    Integer end = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+      try (PreparedStatement update = connection.prepareStatement(RESERVE_SQL)) {
+        update.setInt(1, blockSize);
+        update.executeUpdate();
+      }
+      try (Statement select = connection.createStatement(); ResultSet result = select.executeQuery(RESERVED_SQL)) {
+        result.next();
+        return result.getInt(1);
+      }
+    });
+    limit = end;
+    next = end - blockSize;
+  }
+
+  /**
+   * Creates the counter row if it does not exist yet, starting it above the highest saved game number.
+   */
+  private void initialize() {
+    if (initialized) {
+      return;
+    }
+    jdbcTemplate.execute(CREATE_TABLE_SQL);
+    Integer rows = jdbcTemplate.queryForObject(COUNT_SQL, Integer.class);
+    if (rows == null || rows == 0) {
+      jdbcTemplate.update(INIT_SQL, gameJournal.getCurrentGameNum() + 1);
+    }
+    initialized = true;
+  }
+}
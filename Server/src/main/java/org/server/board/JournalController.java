@@ -0,0 +1,30 @@
+package org.server.board;
+
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exposing the local journal of the "mapped" backend,
+ * which replaces the database-backed {@link MoveRecordController}.
+ */
+@RestController
+@RequestMapping("/journal")
+@MappedBackend
+public class JournalController {
+
+  @Autowired
+  private MappedGameJournal mappedGameJournal;
+
+  /**
+   * Returns the metrics of the journal.
+   *
+   * @return The journal's size, number of games and record counters, by name.
+   */
+  @GetMapping
+  public Map<String, Number> getJournalMetrics() {
+    return mappedGameJournal.getMetrics();
+  }
+}
@@ -0,0 +1,459 @@
+package org.server.board;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind pipeline persisting the game journal: {@link MoveJournalEntry}, {@link BoardSnapshot}
+ * and {@link GameRecord} rows.
+ * Records are queued in memory and written by a background flusher thread in multi-row JDBC batches,
+ * so the game thread never waits on the database. A batch is written as soon as it is full,
+ * or when the linger time passed since its first record was taken from the queue.
+ * The queue is bounded: records that do not fit while the database falls behind are rejected and counted,
+ * and the highest queue depth reached is kept. A run of records that fails to be written is retried with
+ * a doubling backoff; if it still fails, it is kept as a dead letter and written again once the database
+ * answers. Rows are inserted with INSERT IGNORE on unique keys, so a retried run never duplicates a row.
+ * The writer keeps counters of its queue depth and flush latency, exposed by {@link #getMetrics()}.
+ */
+@Component
+@JpaBackend
+public class JournalWriter {
+
+  private static final String INSERT_MOVE_SQL = "INSERT IGNORE INTO move_journal_entry (game_number, move_number,"
+      + " player_number, from_row, from_column, to_row, to_column, jump_path) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final String INSERT_SNAPSHOT_SQL = "INSERT IGNORE INTO board_snapshot (game_number, move_number, cells)"
+      + " VALUES (?, ?, ?)";
+  private static final String INSERT_GAME_SQL = "INSERT IGNORE INTO game_record (game_number, variant,"
+      + " num_of_players, num_of_bots, board_size, seed) VALUES (?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int batchSize;
+  private final long lingerNanos;
+  private final int queueCapacity;
+  private final int writeRetries;
+  private final long retryBackoffNanos;
+  private final LinkedBlockingQueue<Object> queue;
+  private final List<Object> deadLetters;
+  private final AtomicLong pendingRecords;
+  private final AtomicLong maxQueueDepth;
+  private final AtomicLong rejectedRecords;
+  private final AtomicLong retriedRuns;
+  private final AtomicLong deadLetterRecords;
+  private final AtomicLong flushCount;
+  private final AtomicLong flushedRecords;
+  private final AtomicLong failedRecords;
+  private final AtomicLong lastFlushLatencyNanos;
+  private final AtomicLong maxFlushLatencyNanos;
+  private final AtomicLong totalFlushLatencyNanos;
+  private final Object flushMonitor;
+  private final Object enqueueLock;
+  private volatile boolean running;
+  private boolean rejecting;
+  private long nextDeadLetterAttempt;
+  private Thread flusher;
+
+  /**
+   * Constructs a journal writer.
+   *
+   * @param jdbcTemplate       The JDBC template used to write the batches.
+   * @param batchSize          The maximum number of records written in one batch.
+   * @param lingerMillis       The longest time a batch waits for more records before it is written, in milliseconds.
+   * @param queueCapacity      The maximum number of records waiting to be written, and of dead letters kept.
+   * @param writeRetries       The number of times a failed run of records is retried before it becomes a dead letter.
+   * @param retryBackoffMillis The wait before the first retry, doubled for every next one, in milliseconds.
+   */
+  @Autowired
+  public JournalWriter(JdbcTemplate jdbcTemplate,
+                          @Value("${persistence.batchSize:500}") int batchSize,
+                          @Value("${persistence.lingerMs:50}") long lingerMillis,
+                          @Value("${persistence.queueCapacity:100000}") int queueCapacity,
+                          @Value("${persistence.writeRetries:3}") int writeRetries,
+                          @Value("${persistence.retryBackoffMs:100}") long retryBackoffMillis) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.batchSize = Math.max(1, batchSize);
+    this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, lingerMillis));
+    this.queueCapacity = Math.max(this.batchSize, queueCapacity);
+    this.writeRetries = Math.max(0, writeRetries);
+    this.retryBackoffNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, retryBackoffMillis));
+    this.queue = new LinkedBlockingQueue<>(this.queueCapacity);
+    this.deadLetters = new ArrayList<>();
+    this.pendingRecords = new AtomicLong();
+    this.maxQueueDepth = new AtomicLong();
+    this.rejectedRecords = new AtomicLong();
+    this.retriedRuns = new AtomicLong();
+    this.deadLetterRecords = new AtomicLong();
+    this.flushCount = new AtomicLong();
+    this.flushedRecords = new AtomicLong();
+    this.failedRecords = new AtomicLong();
+    this.lastFlushLatencyNanos = new AtomicLong();
+    this.maxFlushLatencyNanos = new AtomicLong();
+    this.totalFlushLatencyNanos = new AtomicLong();
+    this.flushMonitor = new Object();
+    this.enqueueLock = new Object();
+  }
+
+  /**
+   * Starts the background flusher thread.
+   */
+  @PostConstruct
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    flusher = new Thread(this::runFlusher, "journal-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  /**
+   * Stops the flusher thread and writes every record still in the queue.
+   */
+  @PreDestroy
+  public synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    flusher.interrupt();
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    List<Object> batch = new ArrayList<>(batchSize);
+    while (queue.drainTo(batch, batchSize) > 0) {
+      write(batch);
+      batch = new ArrayList<>(batchSize);
+    }
+    retryDeadLetters();
+    if (!deadLetters.isEmpty()) {
+      System.err.println("Journal writer stopped with " + deadLetters.size() + " unwritten records");
+    }
+  }
+
+  /**
+   * Queues records to be written. Never blocks: if the queue has no room for all of them,
+   * none is queued and they are counted as rejected.
+   * Producers queue one at a time, so the records of one call are never split by a full queue.
+   *
+   * @param records The {@link MoveJournalEntry}, {@link BoardSnapshot} and {@link GameRecord} records to write, in order.
+   * @return true if the records were queued; false if they were rejected.
+   */
+  public boolean enqueue(List<?> records) {
+    synchronized (enqueueLock) {
+      if (queue.remainingCapacity() < records.size()) {
+        rejectedRecords.addAndGet(records.size());
+        if (!rejecting) {
+          rejecting = true;
+          System.err.println("Journal queue is full, rejecting records until it drains");
+        }
+        return false;
+      }
+      rejecting = false;
+      pendingRecords.addAndGet(records.size());
+      queue.addAll(records);
+      maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+      return true;
+    }
+  }
+
+  /**
+   * Waits until every record queued so far has been written, or has been retried and kept as a dead letter.
+   * Used before reading back records that may still be waiting in the queue.
+   */
+  public void flush() {
+    synchronized (flushMonitor) {
+      while (pendingRecords.get() > 0 && running) {
+        try {
+          flushMonitor.wait(lingerNanos / 1_000_000L + 10);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of records waiting in the queue.
+   *
+   * @return The queue depth.
+   */
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  /**
+   * Returns the writer's counters: queue depth, its capacity and the highest depth reached, records rejected
+   * by a full queue, number of flushes, written records, retried runs, records that failed every retry,
+   * dead letters still waiting, and the last, maximum and average flush latency in milliseconds.
+   *
+   * @return The metrics, by name.
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    long flushes = flushCount.get();
+    metrics.put("queueDepth", queue.size());
+    metrics.put("queueCapacity", queueCapacity);
+    metrics.put("maxQueueDepth", maxQueueDepth.get());
+    metrics.put("rejectedRecords", rejectedRecords.get());
+    metrics.put("flushCount", flushes);
+    metrics.put("flushedRecords", flushedRecords.get());
+    metrics.put("retriedRuns", retriedRuns.get());
+    metrics.put("failedRecords", failedRecords.get());
+    metrics.put("deadLetterRecords", deadLetterRecords.get());
+    metrics.put("lastFlushLatencyMs", lastFlushLatencyNanos.get() / 1_000_000.0);
+    metrics.put("maxFlushLatencyMs", maxFlushLatencyNanos.get() / 1_000_000.0);
+    metrics.put("averageFlushLatencyMs", flushes == 0 ? 0.0 : totalFlushLatencyNanos.get() / 1_000_000.0 / flushes);
+    return metrics;
+  }
+
+  /**
+   * Main loop of the flusher thread: collects a batch and writes it, and writes the dead letters again
+   * once their retry is due.
+   */
+  private void runFlusher() {
+    while (running) {
+      try {
+        List<Object> batch = collectBatch();
+        if (!batch.isEmpty()) {
+          write(batch);
+        }
+        if (!deadLetters.isEmpty() && System.nanoTime() - nextDeadLetterAttempt >= 0) {
+          retryDeadLetters();
+        }
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Waits for the first record, then collects more until the batch is full or the linger time passed.
+   *
+   * @return The batch; empty if no record arrived in time.
+   * @throws InterruptedException If the flusher is stopped while waiting.
+   */
+  private List<Object> collectBatch() throws InterruptedException {
+    List<Object> batch = new ArrayList<>(batchSize);
+    Object first = queue.poll(100, TimeUnit.MILLISECONDS);
+    if (first == null) {
+      return batch;
+    }
+    batch.add(first);
+    long lingerDeadline = System.nanoTime() + lingerNanos;
+    while (batch.size() < batchSize) {
+      queue.drainTo(batch, batchSize - batch.size());
+      long remaining = lingerDeadline - System.nanoTime();
+      if (batch.size() >= batchSize || remaining <= 0) {
+        break;
+      }
+      Object next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        break;
+      }
+      batch.add(next);
+    }
+    return batch;
+  }
+
+  /**
+   * Writes one batch and updates the metrics. Consecutive records of the same kind
+   * are sent as a single multi-row JDBC batch; a run that still fails after its retries becomes a dead letter.
+   *
+   * @param batch The records to write.
+   */
+  private void write(List<Object> batch) {
+    long start = System.nanoTime();
+    int runStart = 0;
+    while (runStart < batch.size()) {
+      int runEnd = endOfRun(batch, runStart);
+      List<Object> run = batch.subList(runStart, runEnd);
+      if (!writeWithRetries(run)) {
+        failedRecords.addAndGet(run.size());
+        addDeadLetters(run);
+      }
+      runStart = runEnd;
+    }
+    long latency = System.nanoTime() - start;
+    flushCount.incrementAndGet();
+    lastFlushLatencyNanos.set(latency);
+    totalFlushLatencyNanos.addAndGet(latency);
+    maxFlushLatencyNanos.accumulateAndGet(latency, Math::max);
+
+    if (pendingRecords.addAndGet(-batch.size()) == 0) {
+      synchronized (flushMonitor) {
+        flushMonitor.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Finds the end of the run of records of the same kind starting at the given index.
+   *
+   * @param records The records.
+   * @param start   The index of the run's first record.
+   * @return The index after the run's last record.
+   */
+  private static int endOfRun(List<Object> records, int start) {
+    Class<?> type = records.get(start).getClass();
+    int end = start + 1;
+    while (end < records.size() && records.get(end).getClass() == type) {
+      end++;
+    }
+    return end;
+  }
+
+  /**
+   * Writes a run of records, retrying it with a doubling backoff while it fails.
+   *
+   * @param run The records, all of the same kind.
+   * @return true if the run was written; false if every retry failed or the flusher was stopped while waiting.
+   */
+  private boolean writeWithRetries(List<Object> run) {
+    long backoffNanos = retryBackoffNanos;
+    for (int attempt = 0; ; attempt++) {
+      try {
+        writeRun(run);
+        flushedRecords.addAndGet(run.size());
+        return true;
+      } catch (RuntimeException e) {
+        if (attempt >= writeRetries || !running) {
+          System.err.println("Failed to write " + run.size() + " journal records: " + e.getMessage());
+          return false;
+        }
+      }
+      retriedRuns.incrementAndGet();
+      try {
+        TimeUnit.NANOSECONDS.sleep(backoffNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      backoffNanos *= 2;
+    }
+  }
+
+  /**
+   * Writes a run of records in one JDBC batch.
+   *
+   * @param run The records, all of the same kind.
+   */
+  private void writeRun(List<Object> run) {
+    Class<?> type = run.get(0).getClass();
+    if (type == MoveJournalEntry.class) {
+      writeMoves(run);
+    } else if (type == BoardSnapshot.class) {
+      writeSnapshots(run);
+    } else if (type == GameRecord.class) {
+      writeGames(run);
+    } else {
+      throw new IllegalArgumentException("Unsupported journal record: " + type.getName());
+    }
+  }
+
+  /**
+   * Keeps a run that failed every retry as dead letters, dropping the oldest ones beyond the queue's capacity.
+   * Runs on the flusher thread.
+   *
+   * @param run The records.
+   */
+  private void addDeadLetters(List<Object> run) {
+    if (deadLetters.isEmpty()) {
+      nextDeadLetterAttempt = System.nanoTime() + (retryBackoffNanos << writeRetries);
+    }
+    deadLetters.addAll(run);
+    int overflow = deadLetters.size() - queueCapacity;
+    if (overflow > 0) {
+      System.err.println("Dropped " + overflow + " journal records that could not be written");
+      deadLetters.subList(0, overflow).clear();
+    }
+    deadLetterRecords.set(deadLetters.size());
+  }
+
+  /**
+   * Writes the dead letters again, once each run, keeping the runs that still fail.
+   * Runs on the flusher thread.
+   */
+  private void retryDeadLetters() {
+    List<Object> stillFailing = new ArrayList<>();
+    int runStart = 0;
+    while (runStart < deadLetters.size()) {
+      int runEnd = endOfRun(deadLetters, runStart);
+      List<Object> run = deadLetters.subList(runStart, runEnd);
+      try {
+        writeRun(run);
+        flushedRecords.addAndGet(run.size());
+      } catch (RuntimeException e) {
+        stillFailing.addAll(run);
+      }
+      runStart = runEnd;
+    }
+    deadLetters.clear();
+    deadLetters.addAll(stillFailing);
+    deadLetterRecords.set(deadLetters.size());
+    nextDeadLetterAttempt = System.nanoTime() + (retryBackoffNanos << writeRetries);
+  }
+
+  /**
+   * Writes journal entries in one JDBC batch.
+   *
+   * @param run The entries to write.
+   */
+  private void writeMoves(List<Object> run) {
+    jdbcTemplate.batchUpdate(INSERT_MOVE_SQL, run, run.size(), (ps, record) -> {
+      MoveJournalEntry entry = (MoveJournalEntry) record;
+      ps.setInt(1, entry.getGameNumber());
+      ps.setInt(2, entry.getMoveNumber());
+      ps.setInt(3, entry.getPlayerNumber());
+      ps.setInt(4, entry.getFromRow());
+      ps.setInt(5, entry.getFromColumn());
+      ps.setInt(6, entry.getToRow());
+      ps.setInt(7, entry.getToColumn());
+      ps.setString(8, entry.getJumpPath());
+    });
+  }
+
+  /**
+   * Writes board snapshots in one JDBC batch.
+   *
+   * @param run The snapshots to write.
+   */
+  private void writeSnapshots(List<Object> run) {
+    jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, run, run.size(), (ps, record) -> {
+      BoardSnapshot snapshot = (BoardSnapshot) record;
+      ps.setInt(1, snapshot.getGameNumber());
+      ps.setInt(2, snapshot.getMoveNumber());
+      ps.setString(3, snapshot.getCells());
+    });
+  }
+
+  /**
+   * Writes game records in one JDBC batch. A game that already has a record keeps it.
+   *
+   * @param run The game records to write.
+   */
+  private void writeGames(List<Object> run) {
+    jdbcTemplate.batchUpdate(INSERT_GAME_SQL, run, run.size(), (ps, record) -> {
+      GameRecord gameRecord = (GameRecord) record;
+      ps.setInt(1, gameRecord.getGameNumber());
+      ps.setString(2, gameRecord.getVariant());
+      ps.setInt(3, gameRecord.getNumOfPlayers());
+      ps.setInt(4, gameRecord.getNumOfBots());
+      ps.setInt(5, gameRecord.getBoardSize());
+      ps.setInt(6, gameRecord.getSeed());
+    });
+  }
+}
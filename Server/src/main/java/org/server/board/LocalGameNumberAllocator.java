@@ -0,0 +1,60 @@
+package org.server.board;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out game numbers counting in memory, for the "mapped" backend where the journal file belongs
+ * to a single process. The counter starts above the highest game number in the journal,
+ * which is looked up when the first number is handed out.
+ */
+@Component
+@MappedBackend
+public class LocalGameNumberAllocator implements GameNumberAllocator {
+
+  private final GameStore gameStore;
+  private boolean initialized;
+  private int next;
+
+  /**
+   * Constructs a local game number allocator.
+   *
+   * @param gameStore The store of saved games, used to start the counter above their numbers.
+   */
+  @Autowired
+  public LocalGameNumberAllocator(GameStore gameStore) {
+    this.gameStore = gameStore;
+  }
+
+  /**
+   * Returns the next free game number.
+   *
+   * @return The game number.
+   */
+  @Override
+  public synchronized int next() {
+    initialize();
+    return next++;
+  }
+
+  /**
+   * Makes sure numbers handed out later are above a game number in use.
+   *
+   * @param gameNum The highest game number in use.
+   */
+  @Override
+  public synchronized void skipTo(int gameNum) {
+    initialize();
+    next = Math.max(next, gameNum + 1);
+  }
+
+  /**
+   * Starts the counter above the highest stored game number on first use.
+   */
+  private void initialize() {
+    if (!initialized) {
+      next = gameStore.getCurrentGameNum() + 1;
+      initialized = true;
+    }
+  }
+}
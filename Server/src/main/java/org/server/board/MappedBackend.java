@@ -0,0 +1,19 @@
+package org.server.board;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+/**
+ * Marks a component created only when games are stored with the "mapped" backend, in a local journal file.
+ * See {@link GameStore}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnProperty(name = "persistence.backend", havingValue = "mapped")
+public @interface MappedBackend {
+}
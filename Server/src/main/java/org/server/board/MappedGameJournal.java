@@ -0,0 +1,635 @@
+package org.server.board;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import org.server.board.boardObjects.Cell;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores games in a local, memory-mapped, append-only journal file, the {@link GameStore} of the
+ * "mapped" backend, so the server runs without a database. The file holds the same records as the
+ * database journal: a {@link MoveJournalEntry} per move, a {@link BoardSnapshot} every few moves and
+ * a {@link GameRecord} per game. Records are appended to the mapped file by the game thread itself,
+ * which costs a memory copy rather than a database round trip.
+ *
+ * <p>Games append concurrently: a move's records are encoded and checksummed without any lock, their space
+ * is reserved by advancing the tail atomically, and they are copied into their own region of the mapping.
+ * Only growing the mapping takes a lock, and so does the per-game index, which is updated once a record
+ * is complete. Forcing the journal to the disk holds no lock either.
+ *
+ * <p>Each record is framed as its length, a CRC32 checksum and its body, and the length is written last.
+ * When the journal is opened it is scanned from the start, rebuilding the in-memory per-game index of
+ * record offsets; the scan stops at the first record that is incomplete or fails its checksum, which is
+ * where a crash interrupted an append, and the torn tail is cleared so appends continue from there; records
+ * other games completed after the interrupted one are discarded with it.
+ * Records survive a crash of the process once appended; {@link #flush()} also forces them to the disk.
+ * The file belongs to one process and can grow up to 2 GB.
+ */
+@Component
+@MappedBackend
+public class MappedGameJournal implements GameStore {
+
+  private static final int MAGIC = 0x434A4E4C;
+  private static final int VERSION = 2;
+  private static final int HEADER_SIZE = 16;
+  private static final int FRAME_SIZE = 8;
+  private static final int MAX_BODY_SIZE = 1 << 16;
+  private static final byte MOVE = 1;
+  private static final byte SNAPSHOT = 2;
+  private static final byte GAME = 3;
+
+  private final Path path;
+  private final int initialSize;
+  private final int snapshotInterval;
+  private final Map<Integer, GameIndex> games;
+  private final CRC32 crc;
+  private final AtomicInteger tail;
+  private final Object mappingLock;
+  private final LongAdder failedRecords;
+  private FileChannel channel;
+  private volatile MappedByteBuffer buffer;
+  private int maxGameNum;
+  private long recoveredRecords;
+
+  /**
+   * Constructs a mapped game journal. The file is opened by {@link #open()}.
+   *
+   * @param path             The journal file, created if it does not exist.
+   * @param initialSizeMb    The size of the file mapped at first, in megabytes; the mapping doubles when full.
+   * @param snapshotInterval The number of moves between two snapshots.
+   */
+  @Autowired
+  public MappedGameJournal(@Value("${persistence.journalFile:game-journal.dat}") String path,
+                           @Value("${persistence.journalMapSizeMb:64}") int initialSizeMb,
+                           @Value("${persistence.snapshotInterval:20}") int snapshotInterval) {
+    this.path = Path.of(path);
+    this.initialSize = (int) Math.min(Math.max(1L, initialSizeMb) << 20, Integer.MAX_VALUE);
+    this.snapshotInterval = Math.max(1, snapshotInterval);
+    this.games = new HashMap<>();
+    this.crc = new CRC32();
+    this.tail = new AtomicInteger(HEADER_SIZE);
+    this.mappingLock = new Object();
+    this.failedRecords = new LongAdder();
+  }
+
+  /**
+   * Opens the journal file and recovers its records.
+   *
+   * @throws IOException If the file cannot be opened or is not a game journal.
+   */
+  @PostConstruct
+  public synchronized void open() throws IOException {
+    channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long size = channel.size();
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("Journal file is larger than 2 GB: " + path);
+    }
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(initialSize, size));
+    if (size == 0 || buffer.getInt(0) == 0) {
+      buffer.putInt(0, MAGIC);
+      buffer.putInt(4, VERSION);
+    } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      throw new IOException("Not a game journal: " + path);
+    }
+    recover();
+    System.out.println("Game journal " + path + ": recovered " + recoveredRecords + " records of "
+        + games.size() + " games");
+  }
+
+  /**
+   * Forces the journal to the disk and closes the file.
+   */
+  @PreDestroy
+  public synchronized void close() {
+    if (channel == null) {
+      return;
+    }
+    buffer.force();
+    try {
+      channel.close();
+    } catch (IOException e) {
+      System.err.println("Failed to close the game journal: " + e.getMessage());
+    }
+    channel = null;
+  }
+
+  /**
+   * Appends a move, together with a snapshot of the board after it if one is due.
+   * The first move the journal sees of a game is always followed by a snapshot, and the game's record
+   * is appended with it. A game's moves are recorded one at a time, by its lane.
+   *
+   * @param entry      The journal entry of the move.
+   * @param cells      The board cells after the move.
+   * @param gameRecord The settings of the game.
+   */
+  @Override
+  public void recordMove(MoveJournalEntry entry, Cell[][] cells, GameRecord gameRecord) {
+    boolean firstMove;
+    synchronized (games) {
+      GameIndex game = games.get(entry.getGameNumber());
+      firstMove = game == null || game.gameRecord == null;
+    }
+    List<byte[]> records = new ArrayList<>(3);
+    if (firstMove) {
+      records.add(encodeGame(gameRecord));
+    }
+    records.add(encodeMove(entry));
+    if (firstMove || entry.getMoveNumber() % snapshotInterval == 0) {
+      records.add(encodeSnapshot(new BoardSnapshot(entry.getGameNumber(), entry.getMoveNumber(),
+          BoardSnapshot.encodeCells(cells))));
+    }
+    try {
+      append(records);
+    } catch (IOException | IllegalStateException e) {
+      failedRecords.increment();
+      System.err.println("Failed to journal move " + entry.getMoveNumber() + " of game " + entry.getGameNumber()
+          + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Forces every appended record to the disk.
+   */
+  @Override
+  public void flush() {
+    buffer.force();
+  }
+
+  /**
+   * Retrieves the highest game number in the journal.
+   *
+   * @return The highest game number, or 0 if the journal is empty.
+   */
+  @Override
+  public int getCurrentGameNum() {
+    synchronized (games) {
+      return maxGameNum;
+    }
+  }
+
+  /**
+   * Loads a game's settings and latest snapshot from the index, without scanning the journal.
+   *
+   * @param gameNum The game number.
+   * @return The saved game, or null if the game has no record or no snapshot.
+   */
+  @Override
+  public SavedGame loadGame(int gameNum) {
+    GameRecord gameRecord;
+    int snapshot;
+    synchronized (games) {
+      GameIndex game = games.get(gameNum);
+      if (game == null || game.gameRecord == null || game.snapshots.isEmpty()) {
+        return null;
+      }
+      gameRecord = game.gameRecord;
+      snapshot = game.snapshots.lastEntry().getValue();
+    }
+    return new SavedGame(gameRecord, readSnapshot(snapshot));
+  }
+
+  /**
+   * Loads the latest snapshot of a game whose settings are already known from the index.
+   *
+   * @param gameRecord The game's settings.
+   * @return The saved game, or null if the game has no snapshot.
+   */
+  @Override
+  public SavedGame loadPosition(GameRecord gameRecord) {
+    int snapshot;
+    synchronized (games) {
+      GameIndex game = games.get(gameRecord.getGameNumber());
+      if (game == null || game.snapshots.isEmpty()) {
+        return null;
+      }
+      snapshot = game.snapshots.lastEntry().getValue();
+    }
+    return new SavedGame(gameRecord, readSnapshot(snapshot));
+  }
+
+  /**
+   * Restores the position of a loaded game, replaying the moves appended after its snapshot.
+   *
+   * @param savedGame The loaded game.
+   * @param cells     The cells of a board without pawns; pawns and zone numbers are set in place.
+   * @return The number of the last restored move, or -1 if the game has no snapshot.
+   */
+  @Override
+  public int restorePosition(SavedGame savedGame, Cell[][] cells) {
+    BoardSnapshot snapshot = savedGame.getSnapshot();
+    if (snapshot == null) {
+      return -1;
+    }
+    GameJournal.applySnapshot(snapshot, cells);
+    int moveNum = snapshot.getMoveNumber();
+    int[] moveOffsets;
+    synchronized (games) {
+      GameIndex game = games.get(snapshot.getGameNumber());
+      if (game == null) {
+        return moveNum;
+      }
+      // Moves are appended in order, so the ones after the snapshot are found from the end of the index
+      int first = game.moveCount;
+      while (first > 0 && game.moveNumbers[first - 1] > snapshot.getMoveNumber()) {
+        first--;
+      }
+      moveOffsets = Arrays.copyOfRange(game.moveOffsets, first, game.moveCount);
+    }
+    for (int moveOffset : moveOffsets) {
+      MoveJournalEntry entry = readMove(moveOffset);
+      GameJournal.applyMove(entry, cells);
+      moveNum = entry.getMoveNumber();
+    }
+    return moveNum;
+  }
+
+  /**
+   * Returns the journal's counters.
+   *
+   * @return The end of the journal in bytes, the number of games, and the numbers of records
+   *     recovered when it was opened and of moves that failed to be appended, by name.
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("bytes", tail.get());
+    synchronized (games) {
+      metrics.put("games", games.size());
+    }
+    metrics.put("recoveredRecords", recoveredRecords);
+    metrics.put("failedRecords", failedRecords.sum());
+    return metrics;
+  }
+
+  /**
+   * Scans the journal from its first record, indexing every complete record with a valid checksum,
+   * and clears whatever follows the last one.
+   */
+  private void recover() {
+    int position = HEADER_SIZE;
+    while (position + FRAME_SIZE <= buffer.capacity()) {
+      int length = buffer.getInt(position);
+      if (length <= 0 || length > MAX_BODY_SIZE || position + FRAME_SIZE + length > buffer.capacity()
+          || checksum(position + FRAME_SIZE, length) != buffer.getInt(position + 4)) {
+        break;
+      }
+      index(buffer.get(position + FRAME_SIZE), position);
+      recoveredRecords++;
+      position += FRAME_SIZE + length;
+    }
+    tail.set(position);
+    boolean torn = false;
+    int end = buffer.capacity();
+    int i = position;
+    for (; i + Long.BYTES <= end; i += Long.BYTES) {
+      if (buffer.getLong(i) != 0) {
+        buffer.putLong(i, 0);
+        torn = true;
+      }
+    }
+    for (; i < end; i++) {
+      if (buffer.get(i) != 0) {
+        buffer.put(i, (byte) 0);
+        torn = true;
+      }
+    }
+    if (torn) {
+      System.out.println("Game journal " + path + ": discarded an incomplete record at byte " + position);
+    }
+  }
+
+  /**
+   * Appends records, each starting with its type. Their space is reserved at once by advancing the tail,
+   * then every record is written: the body first, then its checksum, then its length, which makes the record
+   * visible to a later recovery. A record is indexed once it is complete.
+   *
+   * @param records The records' types and fields.
+   * @throws IOException If the mapping cannot be grown.
+   */
+  private void append(List<byte[]> records) throws IOException {
+    int size = 0;
+    int[] checksums = new int[records.size()];
+    CRC32 recordCrc = new CRC32();
+    for (int r = 0; r < checksums.length; r++) {
+      byte[] record = records.get(r);
+      if (record.length > MAX_BODY_SIZE) {
+        throw new IllegalStateException("Journal record too large: " + record.length + " bytes");
+      }
+      recordCrc.reset();
+      recordCrc.update(record);
+      checksums[r] = (int) recordCrc.getValue();
+      size += FRAME_SIZE + record.length;
+    }
+    int start = reserve(size);
+    MappedByteBuffer mapping = ensureCapacity((long) start + size);
+    int position = start;
+    for (int r = 0; r < checksums.length; r++) {
+      byte[] record = records.get(r);
+      mapping.put(position + FRAME_SIZE, record);
+      mapping.putInt(position + 4, checksums[r]);
+      mapping.putInt(position, record.length);
+      position += FRAME_SIZE + record.length;
+    }
+    synchronized (games) {
+      position = start;
+      for (byte[] record : records) {
+        index(record[0], position);
+        position += FRAME_SIZE + record.length;
+      }
+    }
+  }
+
+  /**
+   * Reserves space at the end of the journal.
+   *
+   * @param size The number of bytes to reserve.
+   * @return The offset of the reserved space.
+   */
+  private int reserve(int size) {
+    while (true) {
+      int start = tail.get();
+      if ((long) start + size > Integer.MAX_VALUE) {
+        throw new IllegalStateException("Journal file is full: " + path);
+      }
+      if (tail.compareAndSet(start, start + size)) {
+        return start;
+      }
+    }
+  }
+
+  /**
+   * Maps a larger region of the file if the records ending at the given offset do not fit. Appends still
+   * writing through the previous mapping are unaffected, since both map the same pages of the file.
+   *
+   * @param end The offset the records end at.
+   * @return A mapping covering the records.
+   * @throws IOException If the file cannot be mapped.
+   */
+  private MappedByteBuffer ensureCapacity(long end) throws IOException {
+    MappedByteBuffer mapping = buffer;
+    if (end <= mapping.capacity()) {
+      return mapping;
+    }
+    synchronized (mappingLock) {
+      mapping = buffer;
+      if (end > mapping.capacity()) {
+        long size = Math.min(Math.max((long) mapping.capacity() * 2, end), Integer.MAX_VALUE);
+        mapping.force();
+        mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer = mapping;
+      }
+      return mapping;
+    }
+  }
+
+  /**
+   * Adds a record to the per-game index. Called with the index locked, or while the journal is opened.
+   *
+   * @param type     The record type.
+   * @param position The offset of the record's frame.
+   */
+  private void index(byte type, int position) {
+    int body = position + FRAME_SIZE + 1;
+    int gameNum = buffer.getInt(body);
+    GameIndex game = games.computeIfAbsent(gameNum, key -> new GameIndex());
+    maxGameNum = Math.max(maxGameNum, gameNum);
+    if (type == MOVE) {
+      game.addMove(buffer.getInt(body + 4), position);
+    } else if (type == SNAPSHOT) {
+      game.snapshots.put(buffer.getInt(body + 4), position);
+    } else if (type == GAME) {
+      game.gameRecord = readGame(position);
+    }
+  }
+
+  /**
+   * Computes the checksum of a region of the journal.
+   *
+   * @param start  The offset of the region.
+   * @param length The length of the region.
+   * @return The CRC32 of the region.
+   */
+  private int checksum(int start, int length) {
+    crc.reset();
+    crc.update(buffer.slice(start, length));
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Encodes a journal entry.
+   *
+   * @param entry The entry.
+   * @return The record's type and fields.
+   */
+  private static byte[] encodeMove(MoveJournalEntry entry) {
+    RecordWriter record = new RecordWriter(MOVE);
+    record.putInt(entry.getGameNumber());
+    record.putInt(entry.getMoveNumber());
+    record.putInt(entry.getPlayerNumber());
+    record.putInt(entry.getFromRow());
+    record.putInt(entry.getFromColumn());
+    record.putInt(entry.getToRow());
+    record.putInt(entry.getToColumn());
+    record.putString(entry.getJumpPath());
+    return record.toByteArray();
+  }
+
+  /**
+   * Encodes a board snapshot.
+   *
+   * @param snapshot The snapshot.
+   * @return The record's type and fields.
+   */
+  private static byte[] encodeSnapshot(BoardSnapshot snapshot) {
+    RecordWriter record = new RecordWriter(SNAPSHOT);
+    record.putInt(snapshot.getGameNumber());
+    record.putInt(snapshot.getMoveNumber());
+    record.putString(snapshot.getCells());
+    return record.toByteArray();
+  }
+
+  /**
+   * Encodes a game record.
+   *
+   * @param gameRecord The game record.
+   * @return The record's type and fields.
+   */
+  private static byte[] encodeGame(GameRecord gameRecord) {
+    RecordWriter record = new RecordWriter(GAME);
+    record.putInt(gameRecord.getGameNumber());
+    record.putString(gameRecord.getVariant());
+    record.putInt(gameRecord.getNumOfPlayers());
+    record.putInt(gameRecord.getNumOfBots());
+    record.putInt(gameRecord.getBoardSize());
+    record.putInt(gameRecord.getSeed());
+    return record.toByteArray();
+  }
+
+  /**
+   * Reads a journal entry.
+   *
+   * @param position The offset of the record's frame.
+   * @return The entry.
+   */
+  private MoveJournalEntry readMove(int position) {
+    RecordReader record = new RecordReader(position);
+    return new MoveJournalEntry(record.getInt(), record.getInt(), record.getInt(), record.getInt(), record.getInt(),
+        record.getInt(), record.getInt(), record.getString());
+  }
+
+  /**
+   * Reads a board snapshot.
+   *
+   * @param position The offset of the record's frame.
+   * @return The snapshot.
+   */
+  private BoardSnapshot readSnapshot(int position) {
+    RecordReader record = new RecordReader(position);
+    return new BoardSnapshot(record.getInt(), record.getInt(), record.getString());
+  }
+
+  /**
+   * Reads a game record.
+   *
+   * @param position The offset of the record's frame.
+   * @return The game record.
+   */
+  private GameRecord readGame(int position) {
+    RecordReader record = new RecordReader(position);
+    return new GameRecord(record.getInt(), record.getString(), record.getInt(), record.getInt(), record.getInt(),
+        record.getInt());
+  }
+
+  /**
+   * The offsets of one game's records in the journal.
+   */
+  private static final class GameIndex {
+    private GameRecord gameRecord;
+    private final TreeMap<Integer, Integer> snapshots = new TreeMap<>();
+    private int[] moveNumbers = new int[32];
+    private int[] moveOffsets = new int[32];
+    private int moveCount;
+
+    /**
+     * Adds a move, in journal order.
+     *
+     * @param moveNum  The move number.
+     * @param position The offset of the move's frame.
+     */
+    private void addMove(int moveNum, int position) {
+      if (moveCount == moveNumbers.length) {
+        moveNumbers = Arrays.copyOf(moveNumbers, moveCount * 2);
+        moveOffsets = Arrays.copyOf(moveOffsets, moveCount * 2);
+      }
+      moveNumbers[moveCount] = moveNum;
+      moveOffsets[moveCount] = position;
+      moveCount++;
+    }
+  }
+
+  /**
+   * Builds a record: its type, then big-endian ints and strings prefixed with their UTF-8 length.
+   */
+  private static final class RecordWriter {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+
+    /**
+     * Starts a record.
+     *
+     * @param type The record type.
+     */
+    private RecordWriter(byte type) {
+      bytes.write(type);
+    }
+
+    /**
+     * Appends an int.
+     *
+     * @param value The value.
+     */
+    private void putInt(int value) {
+      bytes.write(value >>> 24);
+      bytes.write(value >>> 16);
+      bytes.write(value >>> 8);
+      bytes.write(value);
+    }
+
+    /**
+     * Appends a string, null as an empty one.
+     *
+     * @param value The value.
+     */
+    private void putString(String value) {
+      byte[] encoded = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+      putInt(encoded.length);
+      bytes.write(encoded, 0, encoded.length);
+    }
+
+    /**
+     * Returns the record.
+     *
+     * @return The bytes written.
+     */
+    private byte[] toByteArray() {
+      return bytes.toByteArray();
+    }
+  }
+
+  /**
+   * Reads the fields of a record in the order they were written, after its type.
+   */
+  private final class RecordReader {
+    private int position;
+
+    /**
+     * Starts reading a record.
+     *
+     * @param frame The offset of the record's frame.
+     */
+    private RecordReader(int frame) {
+      this.position = frame + FRAME_SIZE + 1;
+    }
+
+    /**
+     * Reads an int.
+     *
+     * @return The value.
+     */
+    private int getInt() {
+      int value = buffer.getInt(position);
+      position += Integer.BYTES;
+      return value;
+    }
+
+    /**
+     * Reads a string.
+     *
+     * @return The value.
+     */
+    private String getString() {
+      int length = getInt();
+      byte[] encoded = new byte[length];
+      buffer.get(position, encoded);
+      position += length;
+      return new String(encoded, StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package org.server.board;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Represents a single move in the game journal: the pawn's start and end cells, the player who moved it
+ * and the cells it jumped through. Together with the periodic {@link BoardSnapshot} rows,
+ * journal entries are enough to rebuild the board at any move.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_move_journal_game_move", columnList = "gameNumber, moveNumber", unique = true))
+public class MoveJournalEntry {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  private int gameNumber;
+  private int moveNumber;
+  private int playerNumber;
+  private int fromRow;
+  private int fromColumn;
+  private int toRow;
+  private int toColumn;
+  private String jumpPath;
+
+  /**
+   * Default constructor for MoveJournalEntry.
+   */
+  public MoveJournalEntry() {}
+
+  /**
+   * Constructs a journal entry for a move.
+   *
+   * @param gameNumber   The game number.
+   * @param moveNumber   The move number.
+   * @param playerNumber The number of the player who moved.
+   * @param fromRow      The row of the cell the pawn left.
+   * @param fromColumn   The column of the cell the pawn left.
+   * @param toRow        The row of the cell the pawn entered.
+   * @param toColumn     The column of the cell the pawn entered.
+   * @param jumpPath     The cells the pawn passed through, encoded by {@link #encodePath(int[])}.
+   */
+  public MoveJournalEntry(int gameNumber, int moveNumber, int playerNumber, int fromRow, int fromColumn,
+                          int toRow, int toColumn, String jumpPath) {
+    this.gameNumber = gameNumber;
+    this.moveNumber = moveNumber;
+    this.playerNumber = playerNumber;
+    this.fromRow = fromRow;
+    this.fromColumn = fromColumn;
+    this.toRow = toRow;
+    this.toColumn = toColumn;
+    this.jumpPath = jumpPath;
+  }
+
+  /**
+   * Encodes the cells of a move's path as "row col;row col;...".
+   *
+   * @param path The positions on the path as [row0, col0, row1, col1, ...].
+   * @return The encoded path.
+   */
+  public static String encodePath(int[] path) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i + 1 < path.length; i += 2) {
+      if (i > 0) {
+        builder.append(';');
+      }
+      builder.append(path[i]).append(' ').append(path[i + 1]);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Returns the unique identifier for this entry.
+   *
+   * @return The ID of the entry.
+   */
+  public Long getId() {
+    return id;
+  }
+
+  /**
+   * Returns the game number of this entry.
+   *
+   * @return The game number.
+   */
+  public int getGameNumber() {
+    return gameNumber;
+  }
+
+  /**
+   * Returns the move number of this entry.
+   *
+   * @return The move number.
+   */
+  public int getMoveNumber() {
+    return moveNumber;
+  }
+
+  /**
+   * Returns the number of the player who moved.
+   *
+   * @return The player number.
+   */
+  public int getPlayerNumber() {
+    return playerNumber;
+  }
+
+  /**
+   * Returns the row of the cell the pawn left.
+   *
+   * @return The starting row.
+   */
+  public int getFromRow() {
+    return fromRow;
+  }
+
+  /**
+   * Returns the column of the cell the pawn left.
+   *
+   * @return The starting column.
+   */
+  public int getFromColumn() {
+    return fromColumn;
+  }
+
+  /**
+   * Returns the row of the cell the pawn entered.
+   *
+   * @return The target row.
+   */
+  public int getToRow() {
+    return toRow;
+  }
+
+  /**
+   * Returns the column of the cell the pawn entered.
+   *
+   * @return The target column.
+   */
+  public int getToColumn() {
+    return toColumn;
+  }
+
+  /**
+   * Returns the cells the pawn passed through, encoded as "row col;row col;...".
+   *
+   * @return The encoded jump path.
+   */
+  public String getJumpPath() {
+    return jumpPath;
+  }
+}
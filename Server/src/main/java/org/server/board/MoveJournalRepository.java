@@ -0,0 +1,37 @@
+package org.server.board;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for handling CRUD operations on MoveJournalEntry entities.
+ */
+@Repository
+public interface MoveJournalRepository extends JpaRepository<MoveJournalEntry, Long> {
+
+  /**
+   * Retrieves the moves of a game made after the given move, in order.
+   *
+   * @param gameNum The game number.
+   * @param moveNum The move number after which entries are returned.
+   * @return The journal entries, ordered by move number.
+   */
+  @Query("SELECT e FROM MoveJournalEntry e WHERE e.gameNumber = :gameNum AND e.moveNumber > :moveNum ORDER BY e.moveNumber")
+  List<MoveJournalEntry> findMovesAfter(@Param("gameNum") int gameNum, @Param("moveNum") int moveNum);
+
+  /**
+   * Retrieves the moves of a game made after one move, up to and including another, in order.
+   *
+   * @param gameNum  The game number.
+   * @param moveNum  The move number after which entries are returned.
+   * @param upToMove The highest move number returned.
+   * @return The journal entries, ordered by move number.
+   */
+  @Query("SELECT e FROM MoveJournalEntry e WHERE e.gameNumber = :gameNum AND e.moveNumber > :moveNum"
+      + " AND e.moveNumber <= :upToMove ORDER BY e.moveNumber")
+  List<MoveJournalEntry> findMovesBetween(@Param("gameNum") int gameNum, @Param("moveNum") int moveNum,
+                                          @Param("upToMove") int upToMove);
+}
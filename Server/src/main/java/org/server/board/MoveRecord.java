@@ -4,12 +4,16 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 /**
  * Represents a record of a move in a game.
  * This entity is stored in the database and is used to track the state of each move made during the game.
+ * The game's settings are repeated on every row; they are stored once per game by {@link GameRecord}.
  */
 @Entity
+@Table(indexes = @Index(name = "idx_move_record_game_move", columnList = "gameNumber, moveNumber"))
 public class MoveRecord {
 
   @Id
@@ -0,0 +1,371 @@
+package org.server.board;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compacts finished games saved in the per-cell {@link MoveRecord} format, which store every cell of
+ * the board for every move, into one {@link GameArchive} per game. Runs in the background every
+ * configured interval on its own thread, a few games at a time.
+ * A game counts as finished once none of its rows was written since the previous run; live games are
+ * journaled by the {@link GameJournal}, so only imports still write rows. A game's rows are streamed
+ * in move order into a {@link GameArchiveCodec.Encoder}, merged with the game's earlier archive if it
+ * has one. The archive is decoded and checked against the rows' checksum before it is stored, and
+ * only then are the rows deleted, in small batches with a pause between them, so the deletes never
+ * hold many locks or keep the database busy for long. Readers go through the {@link MoveRecordHistory},
+ * which prefers the archive, so they see the whole game while its rows are being deleted.
+ */
+@Component
+@JpaBackend
+public class MoveRecordCompactor {
+
+  private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM move_record";
+  private static final String FINISHED_GAMES_SQL = "SELECT game_number FROM move_record WHERE game_number > ?"
+      + " GROUP BY game_number HAVING MAX(id) <= ? ORDER BY game_number LIMIT ?";
+  private static final String GAME_ROWS_SQL = "SELECT id, move_number, cell_row_number, cell_column_number,"
+      + " cell_player_number, cell_zone_number, variant, num_of_players, num_of_bots FROM move_record"
+      + " WHERE game_number = ? AND id <= ? ORDER BY move_number, id";
+  private static final String DELETE_SQL = "DELETE FROM move_record WHERE game_number = ? AND id <= ? LIMIT ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final GameArchiveRepository gameArchiveRepository;
+  private final long intervalMillis;
+  private final int gamesPerRun;
+  private final int fetchSize;
+  private final int deleteBatchSize;
+  private final long deletePauseMillis;
+  private final AtomicLong runs;
+  private final AtomicLong archivedGames;
+  private final AtomicLong archivedMoves;
+  private final AtomicLong archiveBytes;
+  private final AtomicLong deletedRows;
+  private final AtomicLong failedGames;
+  private ScheduledExecutorService scheduler;
+  private long quietRecordId;
+  private int lastGameNum;
+
+  /**
+   * Constructs a move record compactor.
+   *
+   * @param jdbcTemplate          The JDBC template used to read and delete the rows.
+   * @param gameArchiveRepository The repository the archives are stored in.
+   * @param intervalMillis        The time between two runs, in milliseconds; 0 disables compaction.
+   * @param gamesPerRun           The maximum number of games compacted in one run.
+   * @param fetchSize             The number of rows fetched from the database at a time while a game is read.
+   * @param deleteBatchSize       The maximum number of rows deleted by one statement.
+   * @param deletePauseMillis     The pause between two deletes, in milliseconds.
+   */
+  @Autowired
+  public MoveRecordCompactor(JdbcTemplate jdbcTemplate, GameArchiveRepository gameArchiveRepository,
+                             @Value("${compaction.intervalMs:3600000}") long intervalMillis,
+                             @Value("${compaction.gamesPerRun:20}") int gamesPerRun,
+                             @Value("${compaction.fetchSize:1000}") int fetchSize,
+                             @Value("${compaction.deleteBatchSize:1000}") int deleteBatchSize,
+                             @Value("${compaction.deletePauseMs:100}") long deletePauseMillis) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.gameArchiveRepository = gameArchiveRepository;
+    this.intervalMillis = Math.max(0, intervalMillis);
+    this.gamesPerRun = Math.max(1, gamesPerRun);
+    this.fetchSize = Math.max(1, fetchSize);
+    this.deleteBatchSize = Math.max(1, deleteBatchSize);
+    this.deletePauseMillis = Math.max(0, deletePauseMillis);
+    this.runs = new AtomicLong();
+    this.archivedGames = new AtomicLong();
+    this.archivedMoves = new AtomicLong();
+    this.archiveBytes = new AtomicLong();
+    this.deletedRows = new AtomicLong();
+    this.failedGames = new AtomicLong();
+  }
+
+  /**
+   * Starts the background runs, unless compaction is disabled.
+   */
+  @PostConstruct
+  public synchronized void start() {
+    if (intervalMillis == 0 || scheduler != null) {
+      return;
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "move-record-compactor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::runSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops the background runs, interrupting a run between two deletes.
+   */
+  @PreDestroy
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  /**
+   * Runs a compaction, logging instead of throwing so that later runs are still scheduled.
+   */
+  private void runSafely() {
+    try {
+      compact();
+    } catch (RuntimeException e) {
+      System.err.println("Move record compaction failed: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Compacts the next few finished games, continuing after the last game of the previous run
+   * and starting over from the first game once every game was visited. A game is finished once its rows
+   * are all older than the previous run, so the first run only notes the highest row ID.
+   *
+   * @return The number of games compacted.
+   */
+  public synchronized int compact() {
+    runs.incrementAndGet();
+    long quietId = quietRecordId;
+    Long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+    quietRecordId = maxId == null ? 0 : maxId;
+    if (quietId == 0) {
+      return 0;
+    }
+
+    List<Integer> gameNums = jdbcTemplate.queryForList(FINISHED_GAMES_SQL, Integer.class, lastGameNum, quietId,
+        gamesPerRun);
+    int compacted = 0;
+    for (int gameNum : gameNums) {
+      if (Thread.currentThread().isInterrupted()) {
+        return compacted;
+      }
+      lastGameNum = gameNum;
+      if (compactGame(gameNum, quietId)) {
+        compacted++;
+      }
+    }
+    if (gameNums.size() < gamesPerRun) {
+      lastGameNum = 0;
+    }
+    return compacted;
+  }
+
+  /**
+   * Archives a game's rows, checks the archive, stores it and deletes the rows.
+   *
+   * @param gameNum The game number.
+   * @param quietId The highest ID of the rows to archive.
+   * @return Whether the game was archived.
+   */
+  private boolean compactGame(int gameNum, long quietId) {
+    String error;
+    GameArchive archive;
+    try {
+      ArchiveBuilder builder = new ArchiveBuilder(gameNum, gameArchiveRepository.findById(gameNum).orElse(null));
+      jdbcTemplate.query(connection -> {
+        PreparedStatement statement = connection.prepareStatement(GAME_ROWS_SQL, ResultSet.TYPE_FORWARD_ONLY,
+            ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        statement.setInt(1, gameNum);
+        statement.setLong(2, quietId);
+        return statement;
+      }, builder);
+      archive = builder.finish();
+      error = archive == null ? builder.error
+          : GameArchiveCodec.verify(archive) ? null : "the archive does not match its rows";
+    } catch (RuntimeException e) {
+      archive = null;
+      error = e.getMessage();
+    }
+    if (error != null) {
+      failedGames.incrementAndGet();
+      System.err.println("Game " + gameNum + " was not compacted: " + error);
+      return false;
+    }
+    gameArchiveRepository.save(archive);
+    archivedGames.incrementAndGet();
+    archivedMoves.addAndGet(archive.getMoveCount());
+    archiveBytes.addAndGet(archive.getData().length);
+    deleteRows(gameNum, archive.getMaxRecordId());
+    return true;
+  }
+
+  /**
+   * Deletes a game's archived rows in batches, pausing between them.
+   * An interrupted delete is finished by the next run, which archives the rows left again.
+   *
+   * @param gameNum     The game number.
+   * @param maxRecordId The highest ID of the archived rows.
+   */
+  private void deleteRows(int gameNum, long maxRecordId) {
+    int deleted;
+    do {
+      deleted = jdbcTemplate.update(DELETE_SQL, gameNum, maxRecordId, deleteBatchSize);
+      deletedRows.addAndGet(deleted);
+      if (deleted == deleteBatchSize && deletePauseMillis > 0) {
+        try {
+          Thread.sleep(deletePauseMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    } while (deleted == deleteBatchSize);
+  }
+
+  /**
+   * Returns the compaction counters.
+   *
+   * @return The number of runs, archived games and moves, bytes of the archives written,
+   *         deleted rows and games that could not be archived, by name.
+   */
+  public Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("runs", runs.get());
+    metrics.put("archivedGames", archivedGames.get());
+    metrics.put("archivedMoves", archivedMoves.get());
+    metrics.put("archiveBytes", archiveBytes.get());
+    metrics.put("deletedRows", deletedRows.get());
+    metrics.put("failedGames", failedGames.get());
+    return metrics;
+  }
+
+  /**
+   * Encodes the rows of a game as they are read, merging in the moves of the game's earlier archive.
+   * A move held by both is taken from the rows.
+   */
+  private static final class ArchiveBuilder implements RowCallbackHandler {
+
+    private final int gameNum;
+    private final GameArchiveCodec.Decoder previousMoves;
+    private final GameArchiveCodec.Encoder encoder;
+    private final TreeMap<Integer, Integer> cells;
+    private boolean previousEnded;
+    private int moveNum;
+    private long maxRecordId;
+    private String variant;
+    private int numOfPlayers;
+    private int numOfBots;
+    private String error;
+
+    private ArchiveBuilder(int gameNum, GameArchive previous) {
+      this.gameNum = gameNum;
+      this.encoder = new GameArchiveCodec.Encoder();
+      this.cells = new TreeMap<>();
+      this.moveNum = GameArchiveCodec.END;
+      if (previous != null) {
+        previousMoves = new GameArchiveCodec.Decoder(previous.getData());
+        previousEnded = !previousMoves.next();
+        maxRecordId = previous.getMaxRecordId();
+        variant = previous.getVariant();
+        numOfPlayers = previous.getNumOfPlayers();
+        numOfBots = previous.getNumOfBots();
+      } else {
+        previousMoves = null;
+        previousEnded = true;
+      }
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+      if (error != null) {
+        return;
+      }
+      int row = rs.getInt("cell_row_number");
+      int column = rs.getInt("cell_column_number");
+      int playerNum = rs.getInt("cell_player_number");
+      int zoneNum = rs.getInt("cell_zone_number");
+      if (row < 0 || row > 0xFF || column < 0 || column > 0xFF || playerNum < 0 || playerNum > 0xFF
+          || zoneNum < 0 || zoneNum > 0xFF) {
+        error = "cell (" + row + ", " + column + ") cannot be archived";
+        return;
+      }
+      String rowVariant = rs.getString("variant");
+      int rowPlayers = rs.getInt("num_of_players");
+      int rowBots = rs.getInt("num_of_bots");
+      if (variant == null) {
+        variant = rowVariant;
+        numOfPlayers = rowPlayers;
+        numOfBots = rowBots;
+      } else if (!variant.equals(rowVariant) || numOfPlayers != rowPlayers || numOfBots != rowBots) {
+        error = "the rows disagree on the game's settings";
+        return;
+      }
+
+      int rowMoveNum = rs.getInt("move_number");
+      if (rowMoveNum != moveNum) {
+        addMove();
+        moveNum = rowMoveNum;
+      }
+      cells.put(GameArchiveCodec.key(row, column), GameArchiveCodec.value(playerNum, zoneNum));
+      maxRecordId = Math.max(maxRecordId, rs.getLong("id"));
+    }
+
+    /**
+     * Encodes the move whose rows were read last, after the earlier archive's moves before it.
+     */
+    private void addMove() {
+      if (cells.isEmpty()) {
+        return;
+      }
+      addPreviousMovesBefore(moveNum);
+      if (!previousEnded && previousMoves.getMoveNumber() == moveNum) {
+        previousEnded = !previousMoves.next();
+      }
+      encoder.addMove(moveNum, cells);
+      cells.clear();
+    }
+
+    /**
+     * Encodes the earlier archive's moves before a move.
+     */
+    private void addPreviousMovesBefore(int limit) {
+      while (!previousEnded && previousMoves.getMoveNumber() < limit) {
+        encoder.addMove(previousMoves.getMoveNumber(), previousMoves.getPosition());
+        previousEnded = !previousMoves.next();
+      }
+    }
+
+    /**
+     * Ends the archive.
+     *
+     * @return The archive, or null if the game cannot be archived.
+     */
+    private GameArchive finish() {
+      try {
+        if (error == null) {
+          addMove();
+          addPreviousMovesBefore(Integer.MAX_VALUE);
+        }
+      } finally {
+        if (previousMoves != null) {
+          previousMoves.close();
+        }
+      }
+      byte[] data = encoder.finish();
+      if (error == null && encoder.getMoveCount() == 0) {
+        error = "it has no moves";
+      }
+      if (error != null) {
+        return null;
+      }
+      return new GameArchive(gameNum, variant, numOfPlayers, numOfBots, encoder.getMoveCount(),
+          encoder.getLastMoveNumber(), maxRecordId, encoder.getChecksum(), data);
+    }
+  }
+}
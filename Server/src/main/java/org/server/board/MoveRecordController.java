@@ -1,29 +1,86 @@
 package org.server.board;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
 
 /**
  * REST controller for handling HTTP requests related to MoveRecord entities.
  * Provides endpoints for retrieving and creating move records.
  */
 @RestController
+@JpaBackend
 @RequestMapping("/MoveRecord")
 public class MoveRecordController {
 
   @Autowired
   private MoveRecordRepository moveRecordRepository;
 
+  @Autowired
+  private JournalWriter journalWriter;
+
+  @Autowired
+  private GameMetadataCache gameMetadataCache;
+
+  @Autowired
+  private MoveRecordStreamer moveRecordStreamer;
+
+  @Autowired
+  private PositionReplayer positionReplayer;
+
+  @Autowired
+  private MoveRecordImporter moveRecordImporter;
+
+  @Autowired
+  private MoveRecordCompactor moveRecordCompactor;
+
+  @Value("${rest.maxPageSize:10000}")
+  private int maxPageSize;
+
   /**
-   * Returns a list of all move records.
+   * Returns one page of move records, optionally filtered, in (game number, move number, id) order.
+   * The page is streamed from the database as it is read. Its "next" field holds the afterGame,
+   * afterMove and afterId values asking for the following page, or is null after the last page.
    *
-   * @return A list of all MoveRecord entities.
+   * @param gameNum   The game whose records are returned, or null for every game.
+   * @param fromMove  The lowest move number returned, or null.
+   * @param toMove    The highest move number returned, or null.
+   * @param player    The player whose cells are returned, or null for every cell.
+   * @param afterGame The game number of the previous page's last record, or null for the first page.
+   * @param afterMove The move number of the previous page's last record, or null for the first page.
+   * @param afterId   The id of the previous page's last record, or null for the first page.
+   * @param limit     The maximum number of records in the page, capped at the maximum page size.
+   * @return The page, as JSON.
    */
   @GetMapping
-  public List<MoveRecord> getMoveRecords() {
-    return moveRecordRepository.findAll();
+  public ResponseEntity<StreamingResponseBody> getMoveRecords(
+      @RequestParam(required = false) Integer gameNum,
+      @RequestParam(required = false) Integer fromMove,
+      @RequestParam(required = false) Integer toMove,
+      @RequestParam(required = false) Integer player,
+      @RequestParam(required = false) Integer afterGame,
+      @RequestParam(required = false) Integer afterMove,
+      @RequestParam(required = false) Long afterId,
+      @RequestParam(defaultValue = "1000") int limit) {
+    MoveRecordQuery query;
+    try {
+      query = new MoveRecordQuery(gameNum, fromMove, toMove, player, afterGame, afterMove, afterId,
+          Math.min(limit, maxPageSize));
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(out -> moveRecordStreamer.writePage(query, out));
   }
 
   /**
@@ -36,4 +93,88 @@ public class MoveRecordController {
   public MoveRecord createMoveRecord(@RequestBody MoveRecord moveRecord) {
     return moveRecordRepository.save(moveRecord);
   }
+
+  /**
+   * Imports move records in bulk from a newline-delimited JSON body, one move record per line.
+   * The body is read as it arrives, so it may be of any size and sent in chunks.
+   *
+   * @param body The request body.
+   * @return The numbers of rows written and rejected, with the reasons of the first rejections.
+   * @throws IOException If the body cannot be read.
+   */
+  @PostMapping("/bulk")
+  public ImportSummary importMoveRecords(InputStream body) throws IOException {
+    return moveRecordImporter.importRecords(body);
+  }
+
+  /**
+   * Returns the metrics of the write-behind journal writer.
+   *
+   * @return The writer's queue depth and flush counters, by name.
+   */
+  @GetMapping("/writer")
+  public Map<String, Number> getWriterMetrics() {
+    return journalWriter.getMetrics();
+  }
+
+  /**
+   * Returns the settings of a game.
+   *
+   * @param gameNum The game number.
+   * @return The game's settings.
+   */
+  @GetMapping("/game/{gameNum}")
+  public GameRecord getGame(@PathVariable int gameNum) {
+    GameRecord gameRecord = gameMetadataCache.get(gameNum);
+    if (gameRecord == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No saved game " + gameNum);
+    }
+    return gameRecord;
+  }
+
+  /**
+   * Returns the metrics of the game metadata cache.
+   *
+   * @return The cache's size, hits and misses, by name.
+   */
+  @GetMapping("/metadataCache")
+  public Map<String, Number> getMetadataCacheMetrics() {
+    return gameMetadataCache.getMetrics();
+  }
+
+  /**
+   * Returns the board of a game after one of its moves.
+   *
+   * @param gameNum The game number.
+   * @param moveNum The move number.
+   * @return The position.
+   */
+  @GetMapping("/game/{gameNum}/position/{moveNum}")
+  public BoardPosition getPosition(@PathVariable int gameNum, @PathVariable int moveNum) {
+    BoardPosition position = positionReplayer.getPosition(gameNum, moveNum);
+    if (position == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No saved move " + moveNum + " of game " + gameNum);
+    }
+    return position;
+  }
+
+  /**
+   * Returns the metrics of the cache of replayed positions.
+   *
+   * @return The cache's size, hits and misses, by name.
+   */
+  @GetMapping("/positionCache")
+  public Map<String, Number> getPositionCacheMetrics() {
+    return positionReplayer.getMetrics();
+  }
+
+  /**
+   * Returns the metrics of the compaction of finished games into archives.
+   *
+   * @return The number of runs, archived games and moves, archive bytes, deleted rows and failed games, by name.
+   */
+  @GetMapping("/compaction")
+  public Map<String, Number> getCompactionMetrics() {
+    return moveRecordCompactor.getMetrics();
+  }
 }
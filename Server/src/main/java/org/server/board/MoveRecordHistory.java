@@ -0,0 +1,104 @@
+package org.server.board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads games saved in the per-cell format, whether their moves are still {@link MoveRecord} rows
+ * or have been compacted into a {@link GameArchive} by the {@link MoveRecordCompactor}.
+ * Callers get the same move records either way. The archive is preferred for every move it holds:
+ * it is stored and checked before any row of the game is deleted, so a game whose rows are being
+ * deleted is read whole from it. Rows imported after a game was archived are read until they are
+ * merged into the archive.
+ */
+@Component
+@JpaBackend
+public class MoveRecordHistory {
+
+  private final MoveRecordRepository moveRecordRepository;
+  private final GameArchiveRepository gameArchiveRepository;
+
+  /**
+   * Constructs the history of games saved in the per-cell format.
+   *
+   * @param moveRecordRepository  The repository of move records.
+   * @param gameArchiveRepository The repository of compacted games.
+   */
+  @Autowired
+  public MoveRecordHistory(MoveRecordRepository moveRecordRepository, GameArchiveRepository gameArchiveRepository) {
+    this.moveRecordRepository = moveRecordRepository;
+    this.gameArchiveRepository = gameArchiveRepository;
+  }
+
+  /**
+   * Retrieves the highest game number saved in the per-cell format, compacted or not.
+   *
+   * @return The highest game number, or 0 if there are none.
+   */
+  public int currentGameNum() {
+    return Math.max(moveRecordRepository.currentGameNum(), gameArchiveRepository.currentGameNum());
+  }
+
+  /**
+   * Retrieves the cells of the last saved move of a game.
+   *
+   * @param gameNum The game number.
+   * @return The cells of the board after the last move, or an empty list if the game has no saved moves.
+   */
+  public List<MoveRecord> findLatestMove(int gameNum) {
+    List<MoveRecord> moveRecords = moveRecordRepository.findGamesWithMaxMoveByGameNum(gameNum);
+    GameArchive archive = gameArchiveRepository.findById(gameNum).orElse(null);
+    if (archive != null
+        && (moveRecords.isEmpty() || moveRecords.get(0).getMoveNumber() <= archive.getLastMoveNumber())) {
+      return GameArchiveCodec.findLastMove(archive);
+    }
+    return moveRecords;
+  }
+
+  /**
+   * Retrieves the cells of one move of a game.
+   *
+   * @param gameNum The game number.
+   * @param moveNum The move number.
+   * @return The cells of the board after the move, or an empty list if the move was not saved.
+   */
+  public List<MoveRecord> findMove(int gameNum, int moveNum) {
+    GameArchive archive = gameArchiveRepository.findById(gameNum).orElse(null);
+    if (archive != null && moveNum <= archive.getLastMoveNumber()) {
+      List<MoveRecord> moveRecords = GameArchiveCodec.findMove(archive, moveNum);
+      if (!moveRecords.isEmpty()) {
+        return moveRecords;
+      }
+    }
+    return moveRecordRepository.findByGameNumAndMoveNum(gameNum, moveNum);
+  }
+
+  /**
+   * Retrieves the cells of a range of moves of a game, decoding its archive once and querying its rows once.
+   * The rows are only queried if the archive does not hold every move of the range.
+   *
+   * @param gameNum  The game number.
+   * @param fromMove The first move number of the range.
+   * @param toMove   The last move number of the range.
+   * @return The cells of the board after every saved move of the range, by move number.
+   */
+  public TreeMap<Integer, List<MoveRecord>> findMoves(int gameNum, int fromMove, int toMove) {
+    GameArchive archive = gameArchiveRepository.findById(gameNum).orElse(null);
+    TreeMap<Integer, List<MoveRecord>> moves = archive == null || fromMove > archive.getLastMoveNumber()
+        ? new TreeMap<>() : GameArchiveCodec.findMoves(archive, fromMove, toMove);
+    if (moves.size() == (long) toMove - fromMove + 1) {
+      return moves;
+    }
+    TreeMap<Integer, List<MoveRecord>> rows = new TreeMap<>();
+    for (MoveRecord moveRecord : moveRecordRepository.findByGameNumAndMoveNumBetween(gameNum, fromMove, toMove)) {
+      if (!moves.containsKey(moveRecord.getMoveNumber())) {
+        rows.computeIfAbsent(moveRecord.getMoveNumber(), moveNum -> new ArrayList<>()).add(moveRecord);
+      }
+    }
+    moves.putAll(rows);
+    return moves;
+  }
+}
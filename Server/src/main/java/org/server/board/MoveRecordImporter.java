@@ -0,0 +1,207 @@
+package org.server.board;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports move records in bulk from newline-delimited JSON, one {@link MoveRecord} object per line.
+ * The body is read and validated line by line as it arrives. Valid rows are collected into chunks
+ * of a configurable size, and every chunk is written in its own transaction as JDBC batches,
+ * so memory use is bounded by the chunk size whatever the size of the upload.
+ * A chunk that fails to write is rolled back and its rows are counted as rejected; the chunks before
+ * it stay committed and the import goes on. The allocator's counter is moved past every imported game,
+ * so games opened later do not reuse their numbers.
+ */
+@Component
+@JpaBackend
+public class MoveRecordImporter {
+
+  private static final String INSERT_SQL = "INSERT INTO move_record (game_number, move_number, cell_row_number,"
+      + " cell_column_number, cell_player_number, cell_zone_number, variant, num_of_players, num_of_bots)"
+      + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final Set<String> VARIANTS = Set.of("standard", "order", "yinyang");
+  private static final int MAX_PLAYERS = 6;
+  private static final int MAX_LINE_LENGTH = 4096;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectReader reader;
+  private final GameNumberAllocator gameNumberAllocator;
+  private final int chunkSize;
+  private final int batchSize;
+
+  /**
+   * Constructs a move record importer.
+   *
+   * @param jdbcTemplate        The JDBC template used to write the rows.
+   * @param transactionManager  The transaction manager the chunks are committed with.
+   * @param objectMapper        The mapper the rows are read with.
+   * @param gameNumberAllocator The allocator of game numbers, moved past the imported games.
+   * @param chunkSize           The number of rows written in one transaction.
+   * @param batchSize           The number of rows sent in one JDBC batch.
+   */
+  @Autowired
+  public MoveRecordImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper, GameNumberAllocator gameNumberAllocator,
+                            @Value("${import.chunkSize:10000}") int chunkSize,
+                            @Value("${import.batchSize:1000}") int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.reader = objectMapper.readerFor(MoveRecord.class);
+    this.gameNumberAllocator = gameNumberAllocator;
+    this.chunkSize = Math.max(1, chunkSize);
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  /**
+   * Imports the move records of a newline-delimited JSON body. Blank lines are skipped.
+   *
+   * @param body The body, read to its end; it is not closed.
+   * @return The numbers of rows written and rejected.
+   * @throws IOException If the body cannot be read.
+   */
+  public ImportSummary importRecords(InputStream body) throws IOException {
+    ImportSummary summary = new ImportSummary();
+    BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    List<MoveRecord> chunk = new ArrayList<>(Math.min(chunkSize, 65536));
+    StringBuilder line = new StringBuilder();
+    long lineNum = 0;
+    long chunkStart = 1;
+    while (readLine(lines, line)) {
+      lineNum++;
+      if (line.length() > MAX_LINE_LENGTH) {
+        summary.reject(1, "line " + lineNum + ": longer than " + MAX_LINE_LENGTH + " characters");
+        continue;
+      }
+      String text = line.toString().trim();
+      if (text.isEmpty()) {
+        continue;
+      }
+      MoveRecord moveRecord;
+      try {
+        moveRecord = reader.readValue(text);
+      } catch (JsonProcessingException e) {
+        summary.reject(1, "line " + lineNum + ": not a move record: " + e.getOriginalMessage());
+        continue;
+      }
+      String error = validate(moveRecord);
+      if (error != null) {
+        summary.reject(1, "line " + lineNum + ": " + error);
+        continue;
+      }
+      if (chunk.isEmpty()) {
+        chunkStart = lineNum;
+      }
+      chunk.add(moveRecord);
+      if (chunk.size() == chunkSize) {
+        writeChunk(chunk, chunkStart, lineNum, summary);
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      writeChunk(chunk, chunkStart, lineNum, summary);
+    }
+    return summary;
+  }
+
+  /**
+   * Checks that a row describes a cell of a game the server can load.
+   *
+   * @param moveRecord The row.
+   * @return Why the row is invalid, or null if it is valid.
+   */
+  private static String validate(MoveRecord moveRecord) {
+    int players = moveRecord.getNumOfPlayers() + moveRecord.getNumOfBots();
+    if (moveRecord.getGameNumber() <= 0) {
+      return "gameNumber must be positive";
+    } else if (moveRecord.getMoveNumber() < 0) {
+      return "moveNumber must not be negative";
+    } else if (moveRecord.getCellRowNumber() < 0 || moveRecord.getCellColumnNumber() < 0) {
+      return "cell coordinates must not be negative";
+    } else if (moveRecord.getVariant() == null || !VARIANTS.contains(moveRecord.getVariant())) {
+      return "unknown variant " + moveRecord.getVariant();
+    } else if (moveRecord.getNumOfPlayers() < 1 || moveRecord.getNumOfBots() < 0 || players > MAX_PLAYERS) {
+      return "invalid number of players";
+    } else if (moveRecord.getCellPlayerNumber() < 0 || moveRecord.getCellPlayerNumber() > players) {
+      return "cellPlayerNumber out of range";
+    } else if (moveRecord.getCellZoneNumber() < 0 || moveRecord.getCellZoneNumber() > MAX_PLAYERS) {
+      return "cellZoneNumber out of range";
+    }
+    return null;
+  }
+
+  /**
+   * Writes one chunk in its own transaction and moves the game number counter past its games.
+   *
+   * @param chunk     The rows.
+   * @param firstLine The line of the chunk's first row.
+   * @param lastLine  The line of the chunk's last row.
+   * @param summary   The summary the chunk is counted in.
+   */
+  private void writeChunk(List<MoveRecord> chunk, long firstLine, long lastLine, ImportSummary summary) {
+    try {
+      transactionTemplate.executeWithoutResult(status ->
+          jdbcTemplate.batchUpdate(INSERT_SQL, chunk, batchSize, (ps, moveRecord) -> {
+            ps.setInt(1, moveRecord.getGameNumber());
+            ps.setInt(2, moveRecord.getMoveNumber());
+            ps.setInt(3, moveRecord.getCellRowNumber());
+            ps.setInt(4, moveRecord.getCellColumnNumber());
+            ps.setInt(5, moveRecord.getCellPlayerNumber());
+            ps.setInt(6, moveRecord.getCellZoneNumber());
+            ps.setString(7, moveRecord.getVariant());
+            ps.setInt(8, moveRecord.getNumOfPlayers());
+            ps.setInt(9, moveRecord.getNumOfBots());
+          }));
+    } catch (RuntimeException e) {
+      System.err.println("Failed to import " + chunk.size() + " move records: " + e.getMessage());
+      summary.reject(chunk.size(), "lines " + firstLine + "-" + lastLine + ": write failed: " + e.getMessage());
+      return;
+    }
+    summary.addChunk(chunk.size());
+    int maxGameNum = 0;
+    for (MoveRecord moveRecord : chunk) {
+      maxGameNum = Math.max(maxGameNum, moveRecord.getGameNumber());
+    }
+    gameNumberAllocator.skipTo(maxGameNum);
+  }
+
+  /**
+   * Reads the next line into the builder, keeping at most one character past the maximum line length,
+   * so an overlong line is detected without being held in memory.
+   *
+   * @param reader The body.
+   * @param line   The builder the line is read into.
+   * @return False at the end of the body; true otherwise.
+   * @throws IOException If the body cannot be read.
+   */
+  private static boolean readLine(Reader reader, StringBuilder line) throws IOException {
+    line.setLength(0);
+    int c = reader.read();
+    if (c == -1) {
+      return false;
+    }
+    while (c != -1 && c != '\n') {
+      if (line.length() <= MAX_LINE_LENGTH) {
+        line.append((char) c);
+      }
+      c = reader.read();
+    }
+    return true;
+  }
+}
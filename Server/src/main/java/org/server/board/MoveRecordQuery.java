@@ -0,0 +1,126 @@
+package org.server.board;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of move records, filtered by game, move range and player, in (game number, move number, id) order.
+ * Pages are found with keyset pagination: a page starts after the key of the previous page's last record,
+ * so every page is read from the (game number, move number) index however deep into the table it is.
+ */
+public class MoveRecordQuery {
+
+  private static final String SELECT_SQL = "SELECT id, game_number, move_number, cell_row_number, cell_column_number,"
+      + " cell_player_number, cell_zone_number, variant, num_of_players, num_of_bots FROM move_record";
+
+  private final Integer gameNum;
+  private final Integer fromMove;
+  private final Integer toMove;
+  private final Integer playerNum;
+  private final Integer afterGame;
+  private final Integer afterMove;
+  private final Long afterId;
+  private final int limit;
+
+  /**
+   * Constructs a page query. Every filter is optional.
+   *
+   * @param gameNum   The game whose records are returned, or null for every game.
+   * @param fromMove  The lowest move number returned, or null.
+   * @param toMove    The highest move number returned, or null.
+   * @param playerNum The player whose cells are returned, or null for every cell.
+   * @param afterGame The game number of the previous page's last record, or null for the first page.
+   * @param afterMove The move number of the previous page's last record, or null for the first page.
+   * @param afterId   The id of the previous page's last record, or null for the first page.
+   * @param limit     The maximum number of records in the page.
+   * @throws IllegalArgumentException If only part of the previous page's key is given, or the limit is not positive.
+   */
+  public MoveRecordQuery(Integer gameNum, Integer fromMove, Integer toMove, Integer playerNum,
+                         Integer afterGame, Integer afterMove, Long afterId, int limit) {
+    boolean anyAfter = afterGame != null || afterMove != null || afterId != null;
+    boolean allAfter = afterGame != null && afterMove != null && afterId != null;
+    if (anyAfter && !allAfter) {
+      throw new IllegalArgumentException("afterGame, afterMove and afterId must be given together");
+    }
+    if (limit <= 0) {
+      throw new IllegalArgumentException("limit must be positive");
+    }
+    this.gameNum = gameNum;
+    this.fromMove = fromMove;
+    this.toMove = toMove;
+    this.playerNum = playerNum;
+    this.afterGame = afterGame;
+    this.afterMove = afterMove;
+    this.afterId = afterId;
+    this.limit = limit;
+  }
+
+  /**
+   * Builds the SQL of the page, with a placeholder for every argument in {@link #getArguments()}.
+   *
+   * @return The SQL query.
+   */
+  public String toSql() {
+    List<String> conditions = new ArrayList<>();
+    if (afterGame != null) {
+      // Expanded rather than a row comparison, so the range is read from the index
+      conditions.add("(game_number > ? OR (game_number = ? AND (move_number > ? OR (move_number = ? AND id > ?))))");
+    }
+    if (gameNum != null) {
+      conditions.add("game_number = ?");
+    }
+    if (fromMove != null) {
+      conditions.add("move_number >= ?");
+    }
+    if (toMove != null) {
+      conditions.add("move_number <= ?");
+    }
+    if (playerNum != null) {
+      conditions.add("cell_player_number = ?");
+    }
+    StringBuilder sql = new StringBuilder(SELECT_SQL);
+    if (!conditions.isEmpty()) {
+      sql.append(" WHERE ").append(String.join(" AND ", conditions));
+    }
+    return sql.append(" ORDER BY game_number, move_number, id LIMIT ?").toString();
+  }
+
+  /**
+   * Returns the arguments of the page's SQL, in placeholder order.
+   *
+   * @return The arguments.
+   */
+  public List<Object> getArguments() {
+    List<Object> arguments = new ArrayList<>();
+    if (afterGame != null) {
+      arguments.add(afterGame);
+      arguments.add(afterGame);
+      arguments.add(afterMove);
+      arguments.add(afterMove);
+      arguments.add(afterId);
+    }
+    if (gameNum != null) {
+      arguments.add(gameNum);
+    }
+    if (fromMove != null) {
+      arguments.add(fromMove);
+    }
+    if (toMove != null) {
+      arguments.add(toMove);
+    }
+    if (playerNum != null) {
+      arguments.add(playerNum);
+    }
+    arguments.add(limit);
+    return arguments;
+  }
+
+  /**
+   * Returns the maximum number of records in the page.
+   *
+   * @return The limit.
+   */
+  public int getLimit() {
+    return limit;
+  }
+}
@@ -10,6 +10,8 @@ import java.util.List;
 /**
  * Repository interface for handling CRUD operations on MoveRecord entities.
  * Provides custom queries for specific game-related operations.
+ * New games are saved to the {@link GameJournal}; these queries read games saved in the per-cell format.
+ * The table is indexed on (game number, move number), which every query filters on.
  */
 @Repository
 public interface MoveRecordRepository extends JpaRepository<MoveRecord, Long> {
@@ -17,44 +19,43 @@ public interface MoveRecordRepository extends JpaRepository<MoveRecord, Long> {
   /**
    * Retrieves the highest game number currently in the database.
    *
-   * @return The highest game number.
+   * @return The highest game number, or 0 if there are no records.
    */
-  @Query("SELECT MAX(m.gameNumber) FROM MoveRecord m")
+  @Query("SELECT COALESCE(MAX(m.gameNumber), 0) FROM MoveRecord m")
   int currentGameNum();
 
   /**
    * Retrieves all move records for a given game number, filtering by the highest move number.
+   * Every row also holds the game's settings, so one round trip loads both the settings and the
+   * latest position. The highest move number and the rows are both found on the (game number, move number) index.
    *
    * @param gameNum The game number to filter by.
    * @return A list of move records with the highest move number for the specified game.
    */
-  @Query(value = "SELECT * FROM move_record m1 WHERE m1.game_number=:gameNum AND m1.move_number=(SELECT MAX(m2.move_number) FROM move_record m2 WHERE m2.game_number=:gameNum)", nativeQuery = true)
+  @Query(value = "SELECT m.* FROM move_record m JOIN (SELECT MAX(l.move_number) AS move_number FROM move_record l"
+      + " WHERE l.game_number = :gameNum) latest ON m.move_number = latest.move_number WHERE m.game_number = :gameNum",
+      nativeQuery = true)
   List<MoveRecord> findGamesWithMaxMoveByGameNum(@Param("gameNum") int gameNum);
 
   /**
-   * Retrieves the variant of the game for a given game number.
+   * Retrieves the move records of one move of a game saved in the per-cell format.
    *
-   * @param gameNum The game number to retrieve the variant for.
-   * @return The game variant.
+   * @param gameNum The game number.
+   * @param moveNum The move number.
+   * @return The cells of the board after the move, or an empty list if the move was not saved.
    */
-  @Query(value = "SELECT m.variant FROM move_record m WHERE m.game_number = :gameNum LIMIT 1", nativeQuery = true)
-  String getVariantByGameNum(@Param("gameNum") int gameNum);
+  @Query("SELECT m FROM MoveRecord m WHERE m.gameNumber = :gameNum AND m.moveNumber = :moveNum")
+  List<MoveRecord> findByGameNumAndMoveNum(@Param("gameNum") int gameNum, @Param("moveNum") int moveNum);
 
   /**
-   * Retrieves the number of players for a given game number.
+   * Retrieves the move records of a range of moves of a game saved in the per-cell format.
    *
-   * @param gameNum The game number to retrieve the number of players for.
-   * @return The number of players for the specified game.
+   * @param gameNum  The game number.
+   * @param fromMove The first move number of the range.
+   * @param toMove   The last move number of the range.
+   * @return The cells of the board after every saved move of the range.
    */
-  @Query(value = "SELECT m.num_of_players FROM move_record m WHERE m.game_number = :gameNum LIMIT 1", nativeQuery = true)
-  int getMaxUsersByGameNum(@Param("gameNum") int gameNum);
-
-  /**
-   * Retrieves the number of bots for a given game number.
-   *
-   * @param gameNumCpy The game number to retrieve the number of bots for.
-   * @return The number of bots for the specified game.
-   */
-  @Query(value = "SELECT m.num_of_bots FROM move_record m WHERE m.game_number = :gameNum LIMIT 1", nativeQuery = true)
-  int getMaxBotsByGameNum(@Param("gameNum") int gameNumCpy);
+  @Query("SELECT m FROM MoveRecord m WHERE m.gameNumber = :gameNum AND m.moveNumber BETWEEN :fromMove AND :toMove")
+  List<MoveRecord> findByGameNumAndMoveNumBetween(@Param("gameNum") int gameNum, @Param("fromMove") int fromMove,
+                                                  @Param("toMove") int toMove);
 }
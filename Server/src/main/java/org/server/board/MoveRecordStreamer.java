@@ -0,0 +1,122 @@
+package org.server.board;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes pages of move records as JSON straight from the database to the response.
+ * Rows are read through a forward-only, read-only cursor fetching a bounded number of rows at a time,
+ * and each row is written as soon as it is read, so memory use does not depend on the size of the page.
+ * A page is written as {@code {"records": [...], "next": {"afterGame": g, "afterMove": m, "afterId": id}}},
+ * where "next" is the key to ask for the following page with, or null after the last page.
+ * Only rows still in the table are listed; games compacted by the {@link MoveRecordCompactor} are
+ * read through the position replay API instead.
+ */
+@Component
+@JpaBackend
+public class MoveRecordStreamer {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JsonFactory jsonFactory;
+  private final int fetchSize;
+
+  /**
+   * Constructs a move record streamer.
+   *
+   * @param jdbcTemplate The JDBC template used to read the records.
+   * @param fetchSize    The number of rows fetched from the database at a time.
+   */
+  @Autowired
+  public MoveRecordStreamer(JdbcTemplate jdbcTemplate, @Value("${rest.fetchSize:500}") int fetchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.jsonFactory = new JsonFactory();
+    this.fetchSize = Math.max(1, fetchSize);
+  }
+
+  /**
+   * Writes one page of move records.
+   *
+   * @param query The page to write.
+   * @param out   The stream the JSON is written to; it is not closed.
+   * @throws IOException If the JSON cannot be written.
+   */
+  public void writePage(MoveRecordQuery query, OutputStream out) throws IOException {
+    String sql = query.toSql();
+    List<Object> arguments = query.getArguments();
+    try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+      json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      json.writeStartObject();
+      json.writeArrayFieldStart("records");
+      long[] last = new long[3];
+      int[] count = new int[1];
+      try {
+        jdbcTemplate.query(connection -> {
+          PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+              ResultSet.CONCUR_READ_ONLY);
+          statement.setFetchSize(fetchSize);
+          for (int i = 0; i < arguments.size(); i++) {
+            statement.setObject(i + 1, arguments.get(i));
+          }
+          return statement;
+        }, (ResultSet row) -> {
+          try {
+            writeRecord(row, json);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+          last[0] = row.getInt("game_number");
+          last[1] = row.getInt("move_number");
+          last[2] = row.getLong("id");
+          count[0]++;
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      json.writeEndArray();
+      if (count[0] == query.getLimit()) {
+        json.writeObjectFieldStart("next");
+        json.writeNumberField("afterGame", last[0]);
+        json.writeNumberField("afterMove", last[1]);
+        json.writeNumberField("afterId", last[2]);
+        json.writeEndObject();
+      } else {
+        json.writeNullField("next");
+      }
+      json.writeEndObject();
+    }
+  }
+
+  /**
+   * Writes the current row as a JSON object with the fields of a {@link MoveRecord}.
+   *
+   * @param row  The result set, positioned on the row.
+   * @param json The generator to write to.
+   * @throws IOException  If the JSON cannot be written.
+   * @throws java.sql.SQLException If the row cannot be read.
+   */
+  private static void writeRecord(ResultSet row, JsonGenerator json) throws IOException, java.sql.SQLException {
+    json.writeStartObject();
+    json.writeNumberField("id", row.getLong("id"));
+    json.writeNumberField("gameNumber", row.getInt("game_number"));
+    json.writeNumberField("moveNumber", row.getInt("move_number"));
+    json.writeNumberField("cellRowNumber", row.getInt("cell_row_number"));
+    json.writeNumberField("cellColumnNumber", row.getInt("cell_column_number"));
+    json.writeNumberField("cellPlayerNumber", row.getInt("cell_player_number"));
+    json.writeNumberField("cellZoneNumber", row.getInt("cell_zone_number"));
+    json.writeStringField("variant", row.getString("variant"));
+    json.writeNumberField("numOfPlayers", row.getInt("num_of_players"));
+    json.writeNumberField("numOfBots", row.getInt("num_of_bots"));
+    json.writeEndObject();
+  }
+}
@@ -0,0 +1,246 @@
+package org.server.board;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.server.board.boardManagement.Board;
+import org.server.board.boardManagement.BoardFactory;
+import org.server.board.boardObjects.Cell;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the board of a saved game at any of its moves, for the position replay API.
+ * A position is rebuilt on a board made by {@link BoardFactory#createBoard(int, int, String, int)}
+ * from the nearest earlier position: a cached position of the same game if there is one,
+ * otherwise the latest snapshot taken at or before the move. The journaled moves after it are
+ * loaded with one range query, which reads a few moves past the requested one as well.
+ * Every position passed on the way is kept in a size-bounded least-recently-used cache keyed by
+ * (game, move), so stepping through a game costs one query per few moves rather than one per move.
+ * Games saved in the per-cell format store every position whole, so they are read without replaying,
+ * with the same read-ahead: one range read, decoding the game's archive once, caches the positions past the requested one.
+ */
+@Component
+@JpaBackend
+public class PositionReplayer {
+
+  private final GameMetadataCache gameMetadataCache;
+  private final BoardSnapshotRepository boardSnapshotRepository;
+  private final MoveJournalRepository moveJournalRepository;
+  private final MoveRecordHistory moveRecordHistory;
+  private final int readAhead;
+  private final LinkedHashMap<Long, BoardPosition> positions;
+  private final Map<Integer, TreeMap<Integer, BoardPosition>> positionsByGame;
+  private final LongAdder hits;
+  private final LongAdder misses;
+
+  /**
+   * Constructs a position replayer.
+   *
+   * @param gameMetadataCache       The cache of the games' settings.
+   * @param boardSnapshotRepository The repository of board snapshots.
+   * @param moveJournalRepository   The repository of journal entries.
+   * @param moveRecordHistory       The games saved in the per-cell format.
+   * @param capacity                The maximum number of cached positions.
+   * @param readAhead               The number of moves replayed past the requested one.
+   */
+  @Autowired
+  public PositionReplayer(GameMetadataCache gameMetadataCache, BoardSnapshotRepository boardSnapshotRepository,
+                          MoveJournalRepository moveJournalRepository, MoveRecordHistory moveRecordHistory,
+                          @Value("${replay.cacheSize:1000}") int capacity,
+                          @Value("${replay.readAhead:20}") int readAhead) {
+    this.gameMetadataCache = gameMetadataCache;
+    this.boardSnapshotRepository = boardSnapshotRepository;
+    this.moveJournalRepository = moveJournalRepository;
+    this.moveRecordHistory = moveRecordHistory;
+    this.readAhead = Math.max(0, readAhead);
+    int maxPositions = Math.max(1, capacity);
+    this.positionsByGame = new HashMap<>();
+    this.positions = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, BoardPosition> eldest) {
+        if (size() <= maxPositions) {
+          return false;
+        }
+        unindex(eldest.getValue());
+        return true;
+      }
+    };
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+  }
+
+  /**
+   * Returns the board of a game after one of its moves.
+   *
+   * @param gameNum The game number.
+   * @param moveNum The move number.
+   * @return The position, or null if the game or the move was not saved.
+   */
+  public BoardPosition getPosition(int gameNum, int moveNum) {
+    if (moveNum < 0) {
+      return null;
+    }
+    BoardPosition position = lookup(gameNum, moveNum);
+    if (position != null) {
+      hits.increment();
+      return position;
+    }
+    misses.increment();
+    GameRecord gameRecord = gameMetadataCache.get(gameNum);
+    if (gameRecord == null) {
+      return null;
+    }
+
+    Board board = BoardFactory.createBoard(gameRecord.getBoardSize(),
+        gameRecord.getNumOfPlayers() + gameRecord.getNumOfBots(), gameRecord.getVariant(), gameRecord.getSeed());
+    board.removePawns();
+    Cell[][] cells = board.getCells();
+    BoardPosition start = floor(gameNum, moveNum);
+    if (start != null) {
+      GameJournal.applyCells(start.getCells(), cells);
+    } else {
+      BoardSnapshot snapshot = boardSnapshotRepository.findLatestAtOrBefore(gameNum, moveNum);
+      if (snapshot == null) {
+        return readMoveRecords(gameRecord, moveNum, cells);
+      }
+      GameJournal.applySnapshot(snapshot, cells);
+      start = store(new BoardPosition(gameRecord, snapshot.getMoveNumber(), cells));
+    }
+
+    BoardPosition result = start.getMoveNumber() == moveNum ? start : null;
+    int upToMove = upToMove(moveNum);
+    List<MoveJournalEntry> entries = moveJournalRepository.findMovesBetween(gameNum, start.getMoveNumber(), upToMove);
+    for (MoveJournalEntry entry : entries) {
+      GameJournal.applyMove(entry, cells);
+      BoardPosition reached = store(new BoardPosition(gameRecord, entry.getMoveNumber(), cells));
+      if (entry.getMoveNumber() == moveNum) {
+        result = reached;
+      }
+    }
+    if (result == null && entries.isEmpty()) {
+      // The cached position the replay started from may belong to a game saved in the per-cell format
+      return readMoveRecords(gameRecord, moveNum, cells);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the replayer's counters.
+   *
+   * @return The number of cached positions, hits and misses, by name.
+   */
+  public synchronized Map<String, Number> getMetrics() {
+    Map<String, Number> metrics = new LinkedHashMap<>();
+    metrics.put("size", positions.size());
+    metrics.put("hits", hits.sum());
+    metrics.put("misses", misses.sum());
+    return metrics;
+  }
+
+  /**
+   * Reads a move of a game saved in the per-cell format, along with the moves up to the read-ahead past it.
+   *
+   * @param gameRecord The settings of the game.
+   * @param moveNum    The move number.
+   * @param cells      The cells of a board.
+   * @return The position, or null if the move was not saved.
+   */
+  private BoardPosition readMoveRecords(GameRecord gameRecord, int moveNum, Cell[][] cells) {
+    BoardPosition result = null;
+    for (Map.Entry<Integer, List<MoveRecord>> move
+        : moveRecordHistory.findMoves(gameRecord.getGameNumber(), moveNum, upToMove(moveNum)).entrySet()) {
+      GameJournal.restoreFromMoveRecords(move.getValue(), cells);
+      BoardPosition reached = store(new BoardPosition(gameRecord, move.getKey(), cells));
+      if (move.getKey() == moveNum) {
+        result = reached;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the last move read along with a requested one.
+   *
+   * @param moveNum The requested move number.
+   * @return The move number past it by the read-ahead.
+   */
+  private int upToMove(int moveNum) {
+    return (int) Math.min((long) moveNum + readAhead, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns a cached position.
+   *
+   * @param gameNum The game number.
+   * @param moveNum The move number.
+   * @return The position, or null if it is not cached.
+   */
+  private synchronized BoardPosition lookup(int gameNum, int moveNum) {
+    return positions.get(key(gameNum, moveNum));
+  }
+
+  /**
+   * Returns the latest cached position of a game before the given move.
+   *
+   * @param gameNum The game number.
+   * @param moveNum The move number.
+   * @return The position, or null if no earlier position of the game is cached.
+   */
+  private synchronized BoardPosition floor(int gameNum, int moveNum) {
+    TreeMap<Integer, BoardPosition> gamePositions = positionsByGame.get(gameNum);
+    if (gamePositions == null) {
+      return null;
+    }
+    Map.Entry<Integer, BoardPosition> entry = gamePositions.lowerEntry(moveNum);
+    if (entry == null) {
+      return null;
+    }
+    // Counts as a use, so positions replayed from stay cached
+    positions.get(key(gameNum, entry.getKey()));
+    return entry.getValue();
+  }
+
+  /**
+   * Caches a position, evicting the least recently used one if the cache is full.
+   *
+   * @param position The position.
+   * @return The position.
+   */
+  private synchronized BoardPosition store(BoardPosition position) {
+    positionsByGame.computeIfAbsent(position.getGameNumber(), gameNum -> new TreeMap<>())
+        .put(position.getMoveNumber(), position);
+    positions.put(key(position.getGameNumber(), position.getMoveNumber()), position);
+    return position;
+  }
+
+  /**
+   * Removes an evicted position from the per-game index.
+   *
+   * @param position The evicted position.
+   */
+  private void unindex(BoardPosition position) {
+    TreeMap<Integer, BoardPosition> gamePositions = positionsByGame.get(position.getGameNumber());
+    if (gamePositions != null) {
+      gamePositions.remove(position.getMoveNumber());
+      if (gamePositions.isEmpty()) {
+        positionsByGame.remove(position.getGameNumber());
+      }
+    }
+  }
+
+  /**
+   * Returns the cache key of a position.
+   *
+   * @param gameNum The game number.
+   * @param moveNum The move number.
+   * @return The key.
+   */
+  private static long key(int gameNum, int moveNum) {
+    return ((long) gameNum << 32) | (moveNum & 0xFFFFFFFFL);
+  }
+}
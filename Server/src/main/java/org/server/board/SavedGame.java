@@ -0,0 +1,66 @@
+package org.server.board;
+
+import java.util.List;
+
+/**
+ * A game loaded from the database to be resumed: its settings and its latest stored position.
+ * The position is either a {@link BoardSnapshot}, to which the journaled moves made after it are applied,
+ * or, for games saved before the journal existed, the per-cell {@link MoveRecord} rows of the last move.
+ */
+public class SavedGame {
+
+  private final GameRecord gameRecord;
+  private final BoardSnapshot snapshot;
+  private final List<MoveRecord> moveRecords;
+
+  /**
+   * Constructs a journaled game from its settings and its latest snapshot.
+   * Used by the query loading both at once, see {@link GameRecordRepository#findWithLatestSnapshot(int)}.
+   *
+   * @param gameRecord The game's settings.
+   * @param snapshot   The latest snapshot of the game, or null if it has none.
+   */
+  public SavedGame(GameRecord gameRecord, BoardSnapshot snapshot) {
+    this(gameRecord, snapshot, List.of());
+  }
+
+  /**
+   * Constructs a saved game.
+   *
+   * @param gameRecord  The game's settings.
+   * @param snapshot    The latest snapshot of the game, or null for a game saved in the per-cell format.
+   * @param moveRecords The cells of the game's last move in the per-cell format, or an empty list.
+   */
+  public SavedGame(GameRecord gameRecord, BoardSnapshot snapshot, List<MoveRecord> moveRecords) {
+    this.gameRecord = gameRecord;
+    this.snapshot = snapshot;
+    this.moveRecords = moveRecords;
+  }
+
+  /**
+   * Returns the game's settings.
+   *
+   * @return The game record.
+   */
+  public GameRecord getGameRecord() {
+    return gameRecord;
+  }
+
+  /**
+   * Returns the latest snapshot of the game.
+   *
+   * @return The snapshot, or null for a game saved in the per-cell format.
+   */
+  public BoardSnapshot getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Returns the cells of the game's last move, for a game saved in the per-cell format.
+   *
+   * @return The move records, or an empty list for a journaled game.
+   */
+  public List<MoveRecord> getMoveRecords() {
+    return moveRecords;
+  }
+}
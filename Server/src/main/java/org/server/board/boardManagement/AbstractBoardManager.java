@@ -2,13 +2,18 @@ package org.server.board.boardManagement;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import org.protocol.MessageType;
+import org.protocol.WireCodec;
+import org.protocol.WireMessage;
+import org.server.board.boardObjects.BitBoard;
 import org.server.board.boardObjects.Cell;
 import org.server.board.boardObjects.Pawn;
 
 /**
  * Abstract class for managing board functionality, including board initialization,
  * player zones setup, pawn management, and gameplay validation.
+ * The cell grid stays the board's source of truth for setting up, saving and sending the board; the rules
+ * and the bots read its {@link BitBoard}, which every move keeps in step with it.
  */
 public abstract class AbstractBoardManager implements Board {
   protected final int playerZoneHeight;
@@ -23,6 +28,8 @@ public abstract class AbstractBoardManager implements Board {
   protected int seed;
 
   protected Cell[][] cells;
+  protected BitBoard bitBoard;
+  protected long[][] zoneMasks;
 
   /**
    * Constructor for initializing the board manager with the given game parameters.
@@ -40,12 +47,13 @@ public abstract class AbstractBoardManager implements Board {
 
     cells = new Cell[boardHeight][boardWidth];
     initializeBoard();
-    initializeNeighbors();
+    bitBoard = new BitBoard(cells);
 
     this.numOfCellsPerZone = calculateCellsPerZone(playerZoneHeight);
     this.finishedPlayers = new ArrayList<>();
     this.playerZonesStartPoints = initializeZoneStartPoints(boardWidth, boardHeight, playerZoneHeight);
     this.playerZonesEdgePoints = initializeZoneEdgePoints(boardWidth, boardHeight, playerZoneHeight);
+    this.zoneMasks = initializeZoneMasks();
     this.activeZoneNums = new int[6];
     markActiveZones();
   }
@@ -119,7 +127,7 @@ public abstract class AbstractBoardManager implements Board {
 
   /**
    * Sets up player zones on the board by assigning cells to zones based on the number of players.
-   * Initializes player numbers in active zones.
+   * Initializes player numbers in active zones and loads the pawns placed into the bitboard.
    */
   public void setupPlayerZones() {
     int defaultPlayerNum = 1;
@@ -141,6 +149,7 @@ public abstract class AbstractBoardManager implements Board {
         defaultPlayerNum++;
       }
     }
+    bitBoard.load();
   }
 
   /**
@@ -181,31 +190,43 @@ public abstract class AbstractBoardManager implements Board {
   }
 
   /**
-   * Verifies whether a player has completed their zone and won.
+   * Builds a bitboard mask of the cells belonging to each player zone.
    *
-   * @return The number of the winning player if a win condition is met, otherwise 0.
+   * @return An array of masks, one per player zone.
    */
-  public int checkWinCondition() {
+  private long[][] initializeZoneMasks() {
+    long[][] masks = new long[playerZonesStartPoints.length][];
     for (int i = 0; i < playerZonesStartPoints.length; i++) {
-      int targetPlayer = getTargetPlayer(numOfPlayers, i + 1);
-      if (!finishedPlayers.contains(targetPlayer)) {
-        int[] zoneStartPoint = playerZonesStartPoints[i];
-        int rowStart = zoneStartPoint[0];
-        int colStart = zoneStartPoint[1];
-        int k = 0;
-        int playerPawnCount = 0;
-
-        for (int row = rowStart; checkRow(i, row, rowStart); row = advanceRow(i, row)) {
-          for (int col = colStart - k; col <= colStart + k; col += 2) {
-            if (cells[row][col].getPawn() != null) {
-              if (cells[row][col].getPawn().getPlayerNum() == targetPlayer) {
-                playerPawnCount++;
-              }
-            }
+      masks[i] = bitBoard.newMask();
+      int[] zoneStartPoint = playerZonesStartPoints[i];
+      int rowStart = zoneStartPoint[0];
+      int colStart = zoneStartPoint[1];
+      int k = 0;
+
+      for (int row = rowStart; checkRow(i, row, rowStart); row = advanceRow(i, row)) {
+        for (int col = colStart - k; col <= colStart + k; col += 2) {
+          int id = bitBoard.getId(row, col);
+          if (id >= 0) {
+            BitBoard.setBit(masks[i], id);
           }
-          k++;
         }
+        k++;
+      }
+    }
+    return masks;
+  }
 
+  /**
+   * Verifies whether a player has completed their zone and won.
+   * Each zone is checked with a single mask intersection on the bitboard.
+   *
+   * @return The number of the winning player if a win condition is met, otherwise 0.
+   */
+  public int checkWinCondition() {
+    for (int i = 0; i < zoneMasks.length; i++) {
+      int targetPlayer = getTargetPlayer(numOfPlayers, i + 1);
+      if (targetPlayer > 0 && targetPlayer <= BitBoard.MAX_PLAYERS && !finishedPlayers.contains(targetPlayer)) {
+        int playerPawnCount = BitBoard.countCommonBits(bitBoard.getPlayerMask(targetPlayer), zoneMasks[i]);
         if (playerPawnCount == numOfCellsPerZone) {
           finishedPlayers.add(targetPlayer);
           return targetPlayer;
@@ -302,50 +323,6 @@ public abstract class AbstractBoardManager implements Board {
   }
 
 
-  /**
-   * Adds neighbors to each cell in the cells grid.
-   * Considers the hexagonal layout of the board.
-   */
-  private void initializeNeighbors() {
-    int[][] directions = {
-        {-1, -1}, {-1, 1}, // Top-left, Top-right
-        {0, -2}, {0, 2},   // Left, Right
-        {1, -1}, {1, 1}    // Bottom-left, Bottom-right
-    };
-
-    for (int i = 0; i < boardHeight; i++) {
-      for (int j = 0; j < boardWidth; j++) {
-        Cell current = cells[i][j];
-        if (!current.isInsideBoard()) {
-          continue; // Skip cells not inside the board.
-        }
-
-        List<Cell> neighbors = new ArrayList<>();
-        for (int[] dir : directions) {
-          int ni = i + dir[0];
-          int nj = j + dir[1];
-          if (isValidCell(ni, nj)) {
-            neighbors.add(cells[ni][nj]);
-          }
-        }
-        current.setNeighbors(neighbors);
-      }
-    }
-  }
-
-  /**
-   * Checks if the given cell coordinates are valid and inside the board.
-   *
-   * @param row The row index.
-   * @param col The column index.
-   * @return True if the cell is valid and inside the board; false otherwise.
-   */
-  private boolean isValidCell(int row, int col) {
-    return row >= 0 && row < boardHeight
-        && col >= 0 && col < boardWidth
-        && cells[row][col].isInsideBoard();
-  }
-
   /**
    * Retrieves the width of the board.
    *
@@ -392,6 +369,38 @@ public abstract class AbstractBoardManager implements Board {
     }
   }
 
+  /**
+   * Creates a single message describing the whole board.
+   *
+   * @return The board snapshot message.
+   */
+  @Override
+  public String makeBoardSnapshot() {
+    return WireCodec.toText(makeBoardMessage());
+  }
+
+  /**
+   * Creates the board snapshot message from its fields.
+   *
+   * @return The board snapshot message.
+   */
+  @Override
+  public WireMessage makeBoardMessage() {
+    int height = cells.length;
+    int width = cells[0].length;
+    int[] fields = new int[3 + height * width];
+    fields[0] = numOfPlayers;
+    fields[1] = height;
+    fields[2] = width;
+    int index = 3;
+    for (Cell[] cellRow : cells) {
+      for (Cell cell : cellRow) {
+        fields[index++] = cell.getPawn() == null ? 0 : cell.getPawn().getPlayerNum();
+      }
+    }
+    return new WireMessage(MessageType.BOARD, fields);
+  }
+
   /**
    * Retrieves the 2D array of cells representing the board.
    *
@@ -421,6 +430,7 @@ public abstract class AbstractBoardManager implements Board {
         cell.pawnMoveOut();
       }
     }
+    bitBoard.load();
   }
 
   /**
@@ -431,6 +441,18 @@ public abstract class AbstractBoardManager implements Board {
   @Override
   public void setCells(Cell[][] cells) {
     this.cells = cells;
+    this.bitBoard = new BitBoard(cells);
+  }
+
+  /**
+   * Retrieves the bitboard of the game, shared with its move validator and kept in step
+   * with the cells by every move made.
+   *
+   * @return The bitboard of this board.
+   */
+  @Override
+  public BitBoard getBitBoard() {
+    return bitBoard;
   }
 
   /**
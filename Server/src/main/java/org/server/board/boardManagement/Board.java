@@ -1,5 +1,7 @@
 package org.server.board.boardManagement;
 
+import org.protocol.WireMessage;
+import org.server.board.boardObjects.BitBoard;
 import org.server.board.boardObjects.Cell;
 
 /**
@@ -36,6 +38,22 @@ public interface Board {
    */
   String makeCreate(int row, int col);
 
+  /**
+   * Creates a single message describing the whole board, replacing one create message per cell.
+   * The message holds the number of players, the board's height and width, and one digit per cell,
+   * row by row, with the number of the player whose pawn stands on it or 0.
+   *
+   * @return The board snapshot message.
+   */
+  String makeBoardSnapshot();
+
+  /**
+   * Creates the board snapshot message from its fields, without building its text line.
+   *
+   * @return The {@link org.protocol.MessageType#BOARD} message of {@link #makeBoardSnapshot()}.
+   */
+  WireMessage makeBoardMessage();
+
   /**
    * Retrieves the 2D array of cells representing the board.
    *
@@ -50,6 +68,13 @@ public interface Board {
    */
   void setCells(Cell[][] cells);
 
+  /**
+   * Retrieves the bitboard of the game, shared by the rules engine and kept in step with the cells.
+   *
+   * @return The bitboard of this board.
+   */
+  BitBoard getBitBoard();
+
   /**
    * Retrieves the destination point for the given player.
    *
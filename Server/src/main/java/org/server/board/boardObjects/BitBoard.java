@@ -0,0 +1,540 @@
+package org.server.board.boardObjects;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact bitboard representation of the game board used by the rules engine.
+ * Every playable cell of the {@link Cell} grid gets a dense id (in row-major order),
+ * and the board state is kept as bit masks indexed by that id: one shared "inside board" mask,
+ * one occupancy mask per player and a combined occupancy mask.
+ * With the standard 121-cell board every mask fits in two longs (128 bits).
+ * The board also keeps a Zobrist key of its position, updated incrementally on every pawn move.
+ * Each game has one bitboard, owned by its board manager and kept in step with the cells by every move made,
+ * so rules queries never walk the cells. Searches that play moves ahead work on copies sharing its geometry.
+ * The geometry (cell ids, neighbors, inside mask and Zobrist keys) is built once per board shape and shared
+ * by every game of that shape, so a game only owns its masks and its zone and initial player numbers.
+ */
+public class BitBoard {
+  public static final int MAX_PLAYERS = 6;
+  public static final int NUM_OF_DIRECTIONS = 6;
+  public static final int[][] DIRECTIONS = {
+      {-1, -1}, {0, -2}, {1, -1},  // Upper left, left, bottom left
+      {1, 1}, {0, 2}, {-1, 1}      // Bottom right, right, upper right
+  };
+  private static final long ZOBRIST_SEED = 0x5DEECE66DL;
+  private static final Map<Shape, Geometry> GEOMETRIES = new ConcurrentHashMap<>();
+
+  private final Cell[][] cells;
+  private final int height;
+  private final int width;
+  private final int size;
+  private final int words;
+  private final int[] idsByPosition;
+  private final int[] rows;
+  private final int[] cols;
+  private final int[] neighbors;
+  private final byte[] zoneNums;
+  private final byte[] initialPlayerNums;
+  private final long[] insideMask;
+  private final long[] occupiedMask;
+  private final long[][] playerMasks;
+  private final long[] zobristKeys;
+  private long zobristKey;
+
+  /**
+   * Constructs a bitboard for the given cell grid and loads its current state.
+   * The geometry is taken from the boards of the same shape built before, if any.
+   *
+   * @param cells The cells representing a game board.
+   */
+  public BitBoard(Cell[][] cells) {
+    Geometry geometry = GEOMETRIES.computeIfAbsent(new Shape(cells), Geometry::new);
+    this.cells = cells;
+    height = geometry.height;
+    width = geometry.width;
+    size = geometry.size;
+    words = geometry.words;
+    idsByPosition = geometry.idsByPosition;
+    rows = geometry.rows;
+    cols = geometry.cols;
+    neighbors = geometry.neighbors;
+    zobristKeys = geometry.zobristKeys;
+    insideMask = geometry.insideMask;
+    zoneNums = new byte[size];
+    initialPlayerNums = new byte[size];
+    occupiedMask = new long[words];
+    playerMasks = new long[MAX_PLAYERS + 1][words];
+    load();
+  }
+
+  /**
+   * Constructs a copy of a bitboard, sharing its geometry and Zobrist keys and copying its position.
+   * Unlike {@link #BitBoard(Cell[][])} it does not walk the cells.
+   *
+   * @param source The bitboard to copy.
+   */
+  public BitBoard(BitBoard source) {
+    cells = source.cells;
+    height = source.height;
+    width = source.width;
+    size = source.size;
+    words = source.words;
+    idsByPosition = source.idsByPosition;
+    rows = source.rows;
+    cols = source.cols;
+    neighbors = source.neighbors;
+    zobristKeys = source.zobristKeys;
+    insideMask = source.insideMask;
+    zoneNums = new byte[size];
+    initialPlayerNums = new byte[size];
+    occupiedMask = new long[words];
+    playerMasks = new long[MAX_PLAYERS + 1][words];
+    copyFrom(source);
+  }
+
+  /**
+   * Copies the position of another bitboard of the same shape: occupancy, zone numbers, initial player numbers
+   * and the Zobrist key. Costs a few array copies instead of a walk over the cells.
+   *
+   * @param source The bitboard to copy.
+   */
+  public void copyFrom(BitBoard source) {
+    System.arraycopy(source.occupiedMask, 0, occupiedMask, 0, words);
+    for (int playerNum = 0; playerNum <= MAX_PLAYERS; playerNum++) {
+      System.arraycopy(source.playerMasks[playerNum], 0, playerMasks[playerNum], 0, words);
+    }
+    System.arraycopy(source.zoneNums, 0, zoneNums, 0, size);
+    System.arraycopy(source.initialPlayerNums, 0, initialPlayerNums, 0, size);
+    zobristKey = source.zobristKey;
+  }
+
+  /**
+   * Loads the position of a game's bitboard, or reloads this one from the cell grid if there is none.
+   *
+   * @param gameBoard The bitboard kept in step with the game, or null if the cells are the only source.
+   */
+  public void loadFrom(BitBoard gameBoard) {
+    if (gameBoard == null) {
+      load();
+    } else if (gameBoard != this) {
+      copyFrom(gameBoard);
+    }
+  }
+
+  /**
+   * Reloads occupancy, zone numbers and initial player numbers from the cell grid.
+   * Needed only after the cells were changed without going through {@link #movePawn(int, int)},
+   * such as when a board is set up or restored.
+   */
+  public void load() {
+    clear(occupiedMask);
+    for (long[] playerMask : playerMasks) {
+      clear(playerMask);
+    }
+    for (int id = 0; id < size; id++) {
+      Cell cell = cells[rows[id]][cols[id]];
+      zoneNums[id] = (byte) cell.getZoneNum();
+      initialPlayerNums[id] = (byte) cell.getInitialPlayerNum();
+      if (cell.isOccupied()) {
+        setBit(occupiedMask, id);
+        Pawn pawn = cell.getPawn();
+        int playerNum = pawn == null ? 0 : pawn.getPlayerNum();
+        if (playerNum > 0 && playerNum <= MAX_PLAYERS) {
+          setBit(playerMasks[playerNum], id);
+        }
+      }
+    }
+    zobristKey = computeZobristKey();
+  }
+
+  /**
+   * Computes the Zobrist key of the current position from scratch.
+   *
+   * @return The Zobrist key.
+   */
+  public long computeZobristKey() {
+    long key = 0;
+    for (int id = nextSetBit(occupiedMask, 0); id >= 0; id = nextSetBit(occupiedMask, id + 1)) {
+      key ^= zobristKeys[getPlayerAt(id) * size + id];
+    }
+    return key;
+  }
+
+  /**
+   * Returns the Zobrist key of the current position, maintained incrementally by {@link #movePawn(int, int)}.
+   *
+   * @return The Zobrist key.
+   */
+  public long getZobristKey() {
+    return zobristKey;
+  }
+
+  /**
+   * Returns the dense id of the cell at the given position.
+   *
+   * @param row The row index.
+   * @param col The column index.
+   * @return The id of the cell, or -1 if the position is outside the board.
+   */
+  public int getId(int row, int col) {
+    if (row < 0 || row >= height || col < 0 || col >= width) {
+      return -1;
+    }
+    return idsByPosition[row * width + col];
+  }
+
+  /**
+   * Returns the row index of the cell with the given id.
+   *
+   * @param id The cell id.
+   * @return The row index.
+   */
+  public int getRow(int id) {
+    return rows[id];
+  }
+
+  /**
+   * Returns the column index of the cell with the given id.
+   *
+   * @param id The cell id.
+   * @return The column index.
+   */
+  public int getCol(int id) {
+    return cols[id];
+  }
+
+  /**
+   * Returns the id of the neighbor of a cell in the given direction.
+   *
+   * @param id  The cell id.
+   * @param dir The direction index (see {@link #DIRECTIONS}).
+   * @return The neighbor's id, or -1 if there is no playable neighbor in that direction.
+   */
+  public int getNeighbor(int id, int dir) {
+    return neighbors[id * NUM_OF_DIRECTIONS + dir];
+  }
+
+  /**
+   * Returns the number of playable cells.
+   *
+   * @return The number of playable cells.
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Returns the number of longs used by every mask of this board.
+   *
+   * @return The mask length in longs.
+   */
+  public int getWords() {
+    return words;
+  }
+
+  /**
+   * Returns the height of the underlying cell grid.
+   *
+   * @return The grid height.
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Returns the width of the underlying cell grid.
+   *
+   * @return The grid width.
+   */
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * Returns the zone number of the cell with the given id.
+   *
+   * @param id The cell id.
+   * @return The zone number (0 if the cell belongs to no zone).
+   */
+  public int getZoneNum(int id) {
+    return zoneNums[id];
+  }
+
+  /**
+   * Returns the player number initially assigned to the cell with the given id.
+   *
+   * @param id The cell id.
+   * @return The initial player number (0 if none).
+   */
+  public int getInitialPlayerNum(int id) {
+    return initialPlayerNums[id];
+  }
+
+  /**
+   * Checks whether the cell with the given id is occupied.
+   *
+   * @param id The cell id.
+   * @return True if the cell is occupied; false otherwise.
+   */
+  public boolean isOccupied(int id) {
+    return testBit(occupiedMask, id);
+  }
+
+  /**
+   * Returns the number of the player whose pawn occupies the cell.
+   *
+   * @param id The cell id.
+   * @return The player number, or 0 if the cell holds no player's pawn.
+   */
+  public int getPlayerAt(int id) {
+    for (int playerNum = 1; playerNum <= MAX_PLAYERS; playerNum++) {
+      if (testBit(playerMasks[playerNum], id)) {
+        return playerNum;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Moves a pawn between two cells, updating the occupancy masks and the Zobrist key.
+   *
+   * @param fromId The id of the cell the pawn leaves.
+   * @param toId   The id of the cell the pawn enters.
+   */
+  public void movePawn(int fromId, int toId) {
+    int playerNum = getPlayerAt(fromId);
+    zobristKey ^= zobristKeys[playerNum * size + fromId] ^ zobristKeys[playerNum * size + toId];
+    clearBit(occupiedMask, fromId);
+    setBit(occupiedMask, toId);
+    if (playerNum != 0) {
+      clearBit(playerMasks[playerNum], fromId);
+      setBit(playerMasks[playerNum], toId);
+    }
+  }
+
+  /**
+   * Returns the mask of all playable cells.
+   *
+   * @return The inside board mask.
+   */
+  public long[] getInsideMask() {
+    return insideMask;
+  }
+
+  /**
+   * Returns the mask of all occupied cells.
+   *
+   * @return The occupancy mask.
+   */
+  public long[] getOccupiedMask() {
+    return occupiedMask;
+  }
+
+  /**
+   * Returns the occupancy mask of the given player.
+   *
+   * @param playerNum The player number (1 to {@link #MAX_PLAYERS}).
+   * @return The player's occupancy mask.
+   */
+  public long[] getPlayerMask(int playerNum) {
+    return playerMasks[playerNum];
+  }
+
+  /**
+   * Creates an empty mask sized for this board.
+   *
+   * @return A new, empty mask.
+   */
+  public long[] newMask() {
+    return new long[words];
+  }
+
+  /**
+   * Checks whether the given bit of a mask is set.
+   *
+   * @param mask The mask.
+   * @param id   The bit index.
+   * @return True if the bit is set; false otherwise.
+   */
+  public static boolean testBit(long[] mask, int id) {
+    return (mask[id >>> 6] & (1L << id)) != 0;
+  }
+
+  /**
+   * Sets the given bit of a mask.
+   *
+   * @param mask The mask.
+   * @param id   The bit index.
+   */
+  public static void setBit(long[] mask, int id) {
+    mask[id >>> 6] |= 1L << id;
+  }
+
+  /**
+   * Clears the given bit of a mask.
+   *
+   * @param mask The mask.
+   * @param id   The bit index.
+   */
+  public static void clearBit(long[] mask, int id) {
+    mask[id >>> 6] &= ~(1L << id);
+  }
+
+  /**
+   * Clears every bit of a mask.
+   *
+   * @param mask The mask.
+   */
+  public static void clear(long[] mask) {
+    for (int i = 0; i < mask.length; i++) {
+      mask[i] = 0;
+    }
+  }
+
+  /**
+   * Returns the index of the first set bit at or after the given index.
+   *
+   * @param mask The mask.
+   * @param from The index to start from.
+   * @return The index of the next set bit, or -1 if there is none.
+   */
+  public static int nextSetBit(long[] mask, int from) {
+    int word = from >>> 6;
+    if (word >= mask.length) {
+      return -1;
+    }
+    long bits = mask[word] & (-1L << from);
+    while (true) {
+      if (bits != 0) {
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+      }
+      if (++word == mask.length) {
+        return -1;
+      }
+      bits = mask[word];
+    }
+  }
+
+  /**
+   * Counts the bits set in both masks.
+   *
+   * @param first  The first mask.
+   * @param second The second mask.
+   * @return The number of common set bits.
+   */
+  public static int countCommonBits(long[] first, long[] second) {
+    int count = 0;
+    for (int i = 0; i < first.length; i++) {
+      count += Long.bitCount(first[i] & second[i]);
+    }
+    return count;
+  }
+
+  /**
+   * The playable cells of a board grid, identifying the boards that can share one {@link Geometry}.
+   */
+  private static final class Shape {
+    private final int height;
+    private final int width;
+    private final BitSet inside;
+
+    /**
+     * Reads the shape of a cell grid.
+     *
+     * @param cells The cells representing a game board.
+     */
+    private Shape(Cell[][] cells) {
+      height = cells.length;
+      width = height == 0 ? 0 : cells[0].length;
+      inside = new BitSet(height * width);
+      for (int row = 0; row < height; row++) {
+        for (int col = 0; col < width; col++) {
+          if (cells[row][col].isInsideBoard()) {
+            inside.set(row * width + col);
+          }
+        }
+      }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Shape)) {
+        return false;
+      }
+      Shape shape = (Shape) other;
+      return height == shape.height && width == shape.width && inside.equals(shape.inside);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(height, width, inside);
+    }
+  }
+
+  /**
+   * The immutable part of a bitboard, built once per board shape: the dense ids of the playable cells,
+   * their positions and neighbors, the inside mask and the Zobrist keys.
+   */
+  private static final class Geometry {
+    private final int height;
+    private final int width;
+    private final int size;
+    private final int words;
+    private final int[] idsByPosition;
+    private final int[] rows;
+    private final int[] cols;
+    private final int[] neighbors;
+    private final long[] insideMask;
+    private final long[] zobristKeys;
+
+    /**
+     * Builds the geometry of a board shape.
+     *
+     * @param shape The shape.
+     */
+    private Geometry(Shape shape) {
+      height = shape.height;
+      width = shape.width;
+      idsByPosition = new int[height * width];
+      int count = 0;
+      for (int position = 0; position < idsByPosition.length; position++) {
+        idsByPosition[position] = shape.inside.get(position) ? count++ : -1;
+      }
+
+      size = count;
+      words = Math.max(1, (size + 63) >>> 6);
+      rows = new int[size];
+      cols = new int[size];
+      insideMask = new long[words];
+      for (int position = 0; position < idsByPosition.length; position++) {
+        int id = idsByPosition[position];
+        if (id >= 0) {
+          rows[id] = position / width;
+          cols[id] = position % width;
+          setBit(insideMask, id);
+        }
+      }
+
+      // Keys come from a fixed seed, so boards of the same shape hash positions identically
+      SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+      zobristKeys = new long[(MAX_PLAYERS + 1) * size];
+      for (int i = 0; i < zobristKeys.length; i++) {
+        zobristKeys[i] = random.nextLong();
+      }
+
+      neighbors = new int[size * NUM_OF_DIRECTIONS];
+      for (int id = 0; id < size; id++) {
+        for (int dir = 0; dir < NUM_OF_DIRECTIONS; dir++) {
+          int row = rows[id] + DIRECTIONS[dir][0];
+          int col = cols[id] + DIRECTIONS[dir][1];
+          boolean onGrid = row >= 0 && row < height && col >= 0 && col < width;
+          neighbors[id * NUM_OF_DIRECTIONS + dir] = onGrid ? idsByPosition[row * width + col] : -1;
+        }
+      }
+    }
+  }
+}
@@ -1,13 +1,11 @@
 package org.server.board.boardObjects;
 
-
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Represents a single cell on the game board.
  * Tracks its position, whether it is within the playable area,
  * and its current state (e.g., occupied or unoccupied).
+ * Neighbors are not stored per cell; they are looked up on the game's {@link BitBoard},
+ * whose geometry is shared by every board of the same shape.
  */
 public class Cell {
   private final int row;
@@ -17,7 +15,6 @@ public class Cell {
   private int initialPlayerNum;
   private int zoneNum;
   private Pawn pawn;
-  private List<Cell> neighbors;
 
   /**
    * Constructs a cell with specified row and column indices.
@@ -34,25 +31,6 @@ public class Cell {
     zoneNum = 0;
     occupied = false;
     pawn = null;
-    neighbors = new ArrayList<>();
-  }
-
-  /**
-   * Sets the neighboring cells for this cell.
-   *
-   * @param neighbors A list of neighboring cells.
-   */
-  public void setNeighbors(List<Cell> neighbors) {
-    this.neighbors = neighbors;
-  }
-
-  /**
-   * Retrieves the list of neighboring cells.
-   *
-   * @return A list of neighboring cells.
-   */
-  public List<Cell> getNeighbors() {
-    return neighbors;
   }
 
   /**
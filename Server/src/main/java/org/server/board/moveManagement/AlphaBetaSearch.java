@@ -0,0 +1,565 @@
+package org.server.board.moveManagement;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.server.board.boardObjects.BitBoard;
+import org.server.board.boardObjects.Cell;
+
+/**
+ * Bot strategy searching the game tree with negamax, alpha-beta pruning and iterative deepening.
+ * Games with more than two players are searched "paranoid": all opponents are treated as one team
+ * playing against the bot, so the value is only negated when the turn passes between the teams.
+ * Every search runs under a hard time budget and returns the best move found so far when it runs out.
+ * Searched positions are cached in an optional {@link TranspositionTable}, keyed by the board's Zobrist key
+ * combined with the player to move and the bot the search is run for.
+ */
+public class AlphaBetaSearch implements IBotStrategy {
+
+  private static final int MAX_DEPTH = 32;
+  private static final int INFINITY = 1_000_000;
+  private static final int WIN_SCORE = 100_000;
+  private static final int NODES_BETWEEN_TIME_CHECKS = 256;
+  private static final long[] TURN_KEYS = new long[BitBoard.MAX_PLAYERS + 1];
+  private static final long[] PERSPECTIVE_KEYS = new long[BitBoard.MAX_PLAYERS + 1];
+
+  static {
+    SplittableRandom random = new SplittableRandom(0x9E3779B97F4A7C15L);
+    for (int i = 0; i <= BitBoard.MAX_PLAYERS; i++) {
+      TURN_KEYS[i] = random.nextLong();
+      PERSPECTIVE_KEYS[i] = random.nextLong();
+    }
+  }
+
+  private final BitBoard bitBoard;
+  private final BitBoard gameBoard;
+  private final ReachabilityEngine reachabilityEngine;
+  private final BotEvaluator evaluator;
+  private final TranspositionTable transpositionTable;
+  private final int numOfPlayers;
+  private final long timeBudgetNanos;
+  private final int[][] moveFroms;
+  private final int[][] moveTos;
+  private final int[][] moveScores;
+  private int botNum;
+  private long deadline;
+  private long nodes;
+  private boolean timeUp;
+  private int completedDepth;
+  private int maxDepth;
+
+  /**
+   * Constructs an alpha-beta search bot.
+   *
+   * @param cells            The game board cells.
+   * @param evaluator        The evaluator used to score positions.
+   * @param timeBudgetMillis The hard time budget of a single move, in milliseconds.
+   */
+  public AlphaBetaSearch(Cell[][] cells, BotEvaluator evaluator, long timeBudgetMillis) {
+    this(cells, evaluator, timeBudgetMillis, null);
+  }
+
+  /**
+   * Constructs an alpha-beta search bot using a transposition table.
+   *
+   * @param cells              The game board cells.
+   * @param evaluator          The evaluator used to score positions.
+   * @param timeBudgetMillis   The hard time budget of a single move, in milliseconds.
+   * @param transpositionTable The table caching searched positions, possibly shared with other searches, or null.
+   */
+  public AlphaBetaSearch(Cell[][] cells, BotEvaluator evaluator, long timeBudgetMillis, TranspositionTable transpositionTable) {
+    this(new BitBoard(cells), null, evaluator, timeBudgetMillis, transpositionTable);
+  }
+
+  /**
+   * Constructs an alpha-beta search bot playing on a copy of the game's bitboard,
+   * which is copied again at the start of every search instead of reloading the cells.
+   *
+   * @param gameBoard          The bitboard of the game.
+   * @param evaluator          The evaluator used to score positions.
+   * @param timeBudgetMillis   The hard time budget of a single move, in milliseconds.
+   * @param transpositionTable The table caching searched positions, possibly shared with other searches, or null.
+   */
+  public AlphaBetaSearch(BitBoard gameBoard, BotEvaluator evaluator, long timeBudgetMillis, TranspositionTable transpositionTable) {
+    this(new BitBoard(gameBoard), gameBoard, evaluator, timeBudgetMillis, transpositionTable);
+  }
+
+  private AlphaBetaSearch(BitBoard bitBoard, BitBoard gameBoard, BotEvaluator evaluator, long timeBudgetMillis,
+                          TranspositionTable transpositionTable) {
+    this.bitBoard = bitBoard;
+    this.gameBoard = gameBoard;
+    this.reachabilityEngine = new ReachabilityEngine(bitBoard);
+    this.evaluator = evaluator;
+    this.transpositionTable = transpositionTable;
+    this.numOfPlayers = evaluator.getNumOfPlayers();
+    this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+    this.moveFroms = new int[MAX_DEPTH + 1][bitBoard.getSize()];
+    this.moveTos = new int[MAX_DEPTH + 1][bitBoard.getSize()];
+    this.moveScores = new int[MAX_DEPTH + 1][bitBoard.getSize()];
+    this.maxDepth = MAX_DEPTH;
+  }
+
+  /**
+   * Calculates the best move for a bot within the configured time budget.
+   *
+   * @param botNum             The bot's number.
+   * @param destinationPoint   The destination point for the bot.
+   * @param destinationZoneNum The destination zone for the bot.
+   * @return An array [startRow, startCol, endRow, endCol]; equal start and end positions mean the bot skips its turn.
+   */
+  @Override
+  public synchronized int[] getBestMoveForBot(int botNum, int[] destinationPoint, int destinationZoneNum) {
+    startSearch(botNum, System.nanoTime() + timeBudgetNanos);
+    this.completedDepth = 0;
+    if (transpositionTable != null) {
+      transpositionTable.newSearch();
+    }
+
+    int rootCount = generateMoves(0, botNum);
+    if (rootCount == 0) {
+      return new int[]{destinationPoint[0], destinationPoint[1], destinationPoint[0], destinationPoint[1]};
+    }
+
+    for (int depth = 1; depth <= maxDepth && !timeUp; depth++) {
+      int alpha = -INFINITY;
+      int iterationBestIndex = -1;
+      for (int i = 0; i < rootCount; i++) {
+        makeMove(0, i);
+        int value = searchChild(1, depth - 1, alpha, INFINITY, botNum);
+        unmakeMove(0, i);
+        if (timeUp) {
+          break;
+        }
+        if (value > alpha) {
+          alpha = value;
+          iterationBestIndex = i;
+        }
+      }
+
+      // The previous best move is searched first, so a partial iteration can only improve on it
+      if (iterationBestIndex >= 0) {
+        moveToFront(0, iterationBestIndex);
+      }
+      if (!timeUp) {
+        completedDepth = depth;
+        if (isDecisive(alpha)) {
+          break;
+        }
+      }
+    }
+
+    int from = moveFroms[0][0];
+    int to = moveTos[0][0];
+    return new int[]{bitBoard.getRow(from), bitBoard.getCol(from), bitBoard.getRow(to), bitBoard.getCol(to)};
+  }
+
+  /**
+   * Returns the depth of the last fully completed iteration of the previous search.
+   *
+   * @return The completed search depth.
+   */
+  public synchronized int getCompletedDepth() {
+    return completedDepth;
+  }
+
+  /**
+   * Limits the depth of the iterative deepening, so searches finishing within the budget are reproducible.
+   *
+   * @param maxDepth The deepest iteration to run, capped at the engine's maximum depth.
+   */
+  public synchronized void setMaxDepth(int maxDepth) {
+    this.maxDepth = Math.max(1, Math.min(maxDepth, MAX_DEPTH));
+  }
+
+  /**
+   * Loads the current position and resets the search state.
+   * Used directly by {@link ParallelRootSearch}, whose workers each search a share of the root moves.
+   *
+   * @param botNum   The bot the search is run for.
+   * @param deadline The {@link System#nanoTime()} value at which the search stops.
+   */
+  void startSearch(int botNum, long deadline) {
+    bitBoard.loadFrom(gameBoard);
+    this.botNum = botNum;
+    this.deadline = deadline;
+    this.nodes = 0;
+    this.timeUp = false;
+  }
+
+  /**
+   * Generates the bot's moves in the loaded position, in the order the sequential search tries them.
+   *
+   * @return The number of root moves.
+   */
+  int generateRootMoves() {
+    return generateMoves(0, botNum);
+  }
+
+  /**
+   * Returns the origin cell id of a root move generated by {@link #generateRootMoves()}.
+   *
+   * @param index The index of the root move.
+   * @return The origin cell id.
+   */
+  int getRootMoveFrom(int index) {
+    return moveFroms[0][index];
+  }
+
+  /**
+   * Returns the target cell id of a root move generated by {@link #generateRootMoves()}.
+   *
+   * @param index The index of the root move.
+   * @return The target cell id.
+   */
+  int getRootMoveTo(int index) {
+    return moveTos[0][index];
+  }
+
+  /**
+   * Searches a single root move with a full window, so the result is the exact value of the move.
+   *
+   * @param from  The origin cell id of the move.
+   * @param to    The target cell id of the move.
+   * @param depth The depth of the iteration, counting the root move itself.
+   * @return The value of the move from the bot's point of view; meaningless if {@link #isTimeUp()}.
+   */
+  int searchRootMove(int from, int to, int depth) {
+    bitBoard.movePawn(from, to);
+    int value = searchChild(1, depth - 1, -INFINITY, INFINITY, botNum);
+    bitBoard.movePawn(to, from);
+    return value;
+  }
+
+  /**
+   * Checks whether the running search ran out of time.
+   *
+   * @return True if the deadline passed during the search; false otherwise.
+   */
+  boolean isTimeUp() {
+    return timeUp;
+  }
+
+  /**
+   * Returns the deepest iteration an engine may run.
+   *
+   * @return The maximum search depth.
+   */
+  static int getMaxSearchDepth() {
+    return MAX_DEPTH;
+  }
+
+  /**
+   * Checks whether a root value means a forced win, so deeper iterations cannot change the choice.
+   *
+   * @param value The value of the best root move.
+   * @return True if the value is a win score; false otherwise.
+   */
+  static boolean isDecisive(int value) {
+    return value >= WIN_SCORE - MAX_DEPTH;
+  }
+
+  /**
+   * Negamax search with alpha-beta pruning.
+   *
+   * @param ply       The distance from the root.
+   * @param depth     The remaining depth.
+   * @param alpha     The lower bound of the search window.
+   * @param beta      The upper bound of the search window.
+   * @param playerNum The player to move.
+   * @return The value of the position from the point of view of the team of the player to move.
+   */
+  private int search(int ply, int depth, int alpha, int beta, int playerNum) {
+    if (++nodes % NODES_BETWEEN_TIME_CHECKS == 0 && System.nanoTime() >= deadline) {
+      timeUp = true;
+    }
+    if (timeUp) {
+      return 0;
+    }
+
+    int sign = isBotTeam(playerNum) ? 1 : -1;
+    if (evaluator.hasFinished(bitBoard, botNum)) {
+      return sign * (WIN_SCORE - ply);
+    }
+    if (depth == 0 || ply >= MAX_DEPTH) {
+      return sign * evaluator.evaluate(bitBoard, botNum);
+    }
+
+    long key = 0;
+    int tableFrom = TranspositionTable.NO_MOVE;
+    int tableTo = TranspositionTable.NO_MOVE;
+    int originalAlpha = alpha;
+    if (transpositionTable != null) {
+      key = getPositionKey(playerNum);
+      long data = transpositionTable.probe(key);
+      if (data != 0) {
+        tableFrom = TranspositionTable.getMoveFrom(data);
+        tableTo = TranspositionTable.getMoveTo(data);
+        if (TranspositionTable.getDepth(data) >= depth) {
+          int value = fromTableValue(TranspositionTable.getValue(data), ply);
+          int flag = TranspositionTable.getFlag(data);
+          if (flag == TranspositionTable.FLAG_EXACT) {
+            return value;
+          } else if (flag == TranspositionTable.FLAG_LOWER) {
+            alpha = Math.max(alpha, value);
+          } else if (flag == TranspositionTable.FLAG_UPPER) {
+            beta = Math.min(beta, value);
+          }
+          if (alpha >= beta) {
+            return value;
+          }
+        }
+      }
+    }
+
+    int count = generateMoves(ply, playerNum);
+    if (count == 0) {
+      return searchChild(ply + 1, depth - 1, alpha, beta, playerNum);
+    }
+    if (tableFrom != TranspositionTable.NO_MOVE) {
+      promoteMove(ply, count, tableFrom, tableTo);
+    }
+
+    int best = -INFINITY;
+    int bestIndex = 0;
+    for (int i = 0; i < count; i++) {
+      makeMove(ply, i);
+      int value = searchChild(ply + 1, depth - 1, alpha, beta, playerNum);
+      unmakeMove(ply, i);
+      if (timeUp) {
+        return 0;
+      }
+      if (value > best) {
+        best = value;
+        bestIndex = i;
+      }
+      if (value > alpha) {
+        alpha = value;
+      }
+      if (alpha >= beta) {
+        break;
+      }
+    }
+
+    if (transpositionTable != null) {
+      int flag;
+      if (best <= originalAlpha) {
+        flag = TranspositionTable.FLAG_UPPER;
+      } else if (best >= beta) {
+        flag = TranspositionTable.FLAG_LOWER;
+      } else {
+        flag = TranspositionTable.FLAG_EXACT;
+      }
+      transpositionTable.store(key, toTableValue(best, ply), depth, flag, moveFroms[ply][bestIndex], moveTos[ply][bestIndex]);
+    }
+    return best;
+  }
+
+  /**
+   * Searches the position after a move, negating the value if the turn passes to the other team.
+   *
+   * @param ply       The distance of the child position from the root.
+   * @param depth     The remaining depth.
+   * @param alpha     The lower bound of the parent's search window.
+   * @param beta      The upper bound of the parent's search window.
+   * @param playerNum The player who just moved.
+   * @return The value of the child position from the point of view of the moving player's team.
+   */
+  private int searchChild(int ply, int depth, int alpha, int beta, int playerNum) {
+    int nextPlayerNum = getNextPlayer(playerNum);
+    if (isBotTeam(nextPlayerNum) == isBotTeam(playerNum)) {
+      return search(ply, depth, alpha, beta, nextPlayerNum);
+    }
+    return -search(ply, depth, -beta, -alpha, nextPlayerNum);
+  }
+
+  /**
+   * Generates all moves of a player into the move buffer of the given ply, best-looking moves first.
+   *
+   * @param ply       The ply whose buffer is filled.
+   * @param playerNum The player to move.
+   * @return The number of generated moves.
+   */
+  private int generateMoves(int ply, int playerNum) {
+    int count = 0;
+    long[] pawns = bitBoard.getPlayerMask(playerNum);
+    long[] allowedMask = evaluator.getAllowedMask(playerNum);
+    for (int from = BitBoard.nextSetBit(pawns, 0); from >= 0; from = BitBoard.nextSetBit(pawns, from + 1)) {
+      int destinationCount = reachabilityEngine.computeDestinations(from, allowedMask);
+      ensureCapacity(ply, count + destinationCount);
+      for (int i = 0; i < destinationCount; i++) {
+        int to = reachabilityEngine.getDestination(i);
+        moveFroms[ply][count] = from;
+        moveTos[ply][count] = to;
+        moveScores[ply][count] = evaluator.getDistance(playerNum, from) - evaluator.getDistance(playerNum, to);
+        count++;
+      }
+    }
+    sortMoves(ply, count);
+    return count;
+  }
+
+  /**
+   * Sorts the moves of a ply by descending score (insertion sort, stable).
+   *
+   * @param ply   The ply whose moves are sorted.
+   * @param count The number of moves.
+   */
+  private void sortMoves(int ply, int count) {
+    int[] froms = moveFroms[ply];
+    int[] tos = moveTos[ply];
+    int[] scores = moveScores[ply];
+    for (int i = 1; i < count; i++) {
+      int from = froms[i];
+      int to = tos[i];
+      int score = scores[i];
+      int j = i - 1;
+      while (j >= 0 && scores[j] < score) {
+        froms[j + 1] = froms[j];
+        tos[j + 1] = tos[j];
+        scores[j + 1] = scores[j];
+        j--;
+      }
+      froms[j + 1] = from;
+      tos[j + 1] = to;
+      scores[j + 1] = score;
+    }
+  }
+
+  /**
+   * Moves the given move to the front of a ply's buffer, if it was generated.
+   *
+   * @param ply   The ply.
+   * @param count The number of generated moves.
+   * @param from  The origin cell id of the move.
+   * @param to    The target cell id of the move.
+   */
+  private void promoteMove(int ply, int count, int from, int to) {
+    for (int i = 0; i < count; i++) {
+      if (moveFroms[ply][i] == from && moveTos[ply][i] == to) {
+        moveToFront(ply, i);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Moves a move of a ply to the front of its buffer, keeping the order of the others.
+   *
+   * @param ply   The ply.
+   * @param index The index of the move.
+   */
+  private void moveToFront(int ply, int index) {
+    int from = moveFroms[ply][index];
+    int to = moveTos[ply][index];
+    int score = moveScores[ply][index];
+    System.arraycopy(moveFroms[ply], 0, moveFroms[ply], 1, index);
+    System.arraycopy(moveTos[ply], 0, moveTos[ply], 1, index);
+    System.arraycopy(moveScores[ply], 0, moveScores[ply], 1, index);
+    moveFroms[ply][0] = from;
+    moveTos[ply][0] = to;
+    moveScores[ply][0] = score;
+  }
+
+  /**
+   * Grows the move buffers of a ply if needed. Buffers only grow, so this rarely allocates.
+   *
+   * @param ply      The ply.
+   * @param capacity The required capacity.
+   */
+  private void ensureCapacity(int ply, int capacity) {
+    if (moveFroms[ply].length < capacity) {
+      int newLength = Math.max(capacity, moveFroms[ply].length * 2);
+      moveFroms[ply] = Arrays.copyOf(moveFroms[ply], newLength);
+      moveTos[ply] = Arrays.copyOf(moveTos[ply], newLength);
+      moveScores[ply] = Arrays.copyOf(moveScores[ply], newLength);
+    }
+  }
+
+  /**
+   * Plays a generated move on the search board.
+   *
+   * @param ply   The ply of the move.
+   * @param index The index of the move.
+   */
+  private void makeMove(int ply, int index) {
+    bitBoard.movePawn(moveFroms[ply][index], moveTos[ply][index]);
+  }
+
+  /**
+   * Takes back a generated move on the search board.
+   *
+   * @param ply   The ply of the move.
+   * @param index The index of the move.
+   */
+  private void unmakeMove(int ply, int index) {
+    bitBoard.movePawn(moveTos[ply][index], moveFroms[ply][index]);
+  }
+
+  /**
+   * Returns the player moving after the given one, skipping players who already finished.
+   *
+   * @param playerNum The current player.
+   * @return The next player.
+   */
+  private int getNextPlayer(int playerNum) {
+    int next = playerNum;
+    for (int i = 0; i < numOfPlayers; i++) {
+      next = next % numOfPlayers + 1;
+      if (next == botNum || !evaluator.hasFinished(bitBoard, next)) {
+        return next;
+      }
+    }
+    return botNum;
+  }
+
+  /**
+   * Returns the transposition table key of the current position.
+   *
+   * @param playerNum The player to move.
+   * @return The key combining the board, the player to move and the bot searched for.
+   */
+  private long getPositionKey(int playerNum) {
+    return bitBoard.getZobristKey() ^ TURN_KEYS[playerNum] ^ PERSPECTIVE_KEYS[botNum];
+  }
+
+  /**
+   * Converts a search value to the form stored in the table, making win scores relative to the stored position.
+   *
+   * @param value The search value.
+   * @param ply   The distance of the position from the root.
+   * @return The value to store.
+   */
+  private static int toTableValue(int value, int ply) {
+    if (value >= WIN_SCORE - MAX_DEPTH * 2) {
+      return value + ply;
+    } else if (value <= -(WIN_SCORE - MAX_DEPTH * 2)) {
+      return value - ply;
+    }
+    return value;
+  }
+
+  /**
+   * Converts a stored value back to a search value at the given distance from the root.
+   *
+   * @param value The stored value.
+   * @param ply   The distance of the position from the root.
+   * @return The search value.
+   */
+  private static int fromTableValue(int value, int ply) {
+    if (value >= WIN_SCORE - MAX_DEPTH * 2) {
+      return value - ply;
+    } else if (value <= -(WIN_SCORE - MAX_DEPTH * 2)) {
+      return value + ply;
+    }
+    return value;
+  }
+
+  /**
+   * Checks whether a player is on the bot's team.
+   *
+   * @param playerNum The player number.
+   * @return True for the bot itself; false for its opponents.
+   */
+  private boolean isBotTeam(int playerNum) {
+    return playerNum == botNum;
+  }
+}
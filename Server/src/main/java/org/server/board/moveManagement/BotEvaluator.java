@@ -0,0 +1,141 @@
+package org.server.board.moveManagement;
+
+import org.server.board.boardManagement.Board;
+import org.server.board.boardObjects.BitBoard;
+
+/**
+ * Static position evaluation shared by the bot search engines.
+ * Precomputes, for every player, the hex distance from each cell to the player's destination point,
+ * the mask of the player's target zone and the mask of cells the player is allowed to enter.
+ * An evaluator only holds read-only tables, so one instance can be shared by several engines and threads.
+ */
+public class BotEvaluator {
+
+  private final int numOfPlayers;
+  private final int[][] distances;
+  private final long[][] targetZoneMasks;
+  private final long[][] allowedMasks;
+
+  /**
+   * Constructs an evaluator for the given board.
+   *
+   * @param board        The board the game is played on.
+   * @param numOfPlayers The number of players in the game.
+   */
+  public BotEvaluator(Board board, int numOfPlayers) {
+    BitBoard bitBoard = board.getBitBoard();
+    this.numOfPlayers = numOfPlayers;
+    this.distances = new int[numOfPlayers + 1][bitBoard.getSize()];
+    this.targetZoneMasks = new long[numOfPlayers + 1][bitBoard.getWords()];
+    this.allowedMasks = new long[numOfPlayers + 1][bitBoard.getWords()];
+
+    for (int playerNum = 1; playerNum <= numOfPlayers; playerNum++) {
+      int[] destinationPoint = board.getDestinationPoint(playerNum);
+      int destinationZoneNum = board.getDestinationZoneNum(playerNum);
+      for (int id = 0; id < bitBoard.getSize(); id++) {
+        distances[playerNum][id] = getHexDistance(bitBoard.getRow(id), bitBoard.getCol(id), destinationPoint[0], destinationPoint[1]);
+        int zoneNum = bitBoard.getZoneNum(id);
+        if (zoneNum != 0 && zoneNum == destinationZoneNum) {
+          BitBoard.setBit(targetZoneMasks[playerNum], id);
+        }
+        if (zoneNum == 0 || zoneNum == destinationZoneNum || bitBoard.getInitialPlayerNum(id) == playerNum) {
+          BitBoard.setBit(allowedMasks[playerNum], id);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of players the evaluator was built for.
+   *
+   * @return The number of players.
+   */
+  public int getNumOfPlayers() {
+    return numOfPlayers;
+  }
+
+  /**
+   * Returns the distance from a cell to the player's destination point.
+   *
+   * @param playerNum The player number.
+   * @param id        The cell id.
+   * @return The number of single steps between the cell and the destination point.
+   */
+  public int getDistance(int playerNum, int id) {
+    return distances[playerNum][id];
+  }
+
+  /**
+   * Returns the mask of cells the player is allowed to enter.
+   *
+   * @param playerNum The player number.
+   * @return The allowed cells mask.
+   */
+  public long[] getAllowedMask(int playerNum) {
+    return allowedMasks[playerNum];
+  }
+
+  /**
+   * Sums the distances of all pawns of a player to the player's destination point.
+   *
+   * @param bitBoard  The board state.
+   * @param playerNum The player number.
+   * @return The total distance.
+   */
+  public int getTotalDistance(BitBoard bitBoard, int playerNum) {
+    long[] pawns = bitBoard.getPlayerMask(playerNum);
+    int total = 0;
+    for (int id = BitBoard.nextSetBit(pawns, 0); id >= 0; id = BitBoard.nextSetBit(pawns, id + 1)) {
+      total += distances[playerNum][id];
+    }
+    return total;
+  }
+
+  /**
+   * Checks whether all pawns of a player are inside the player's target zone.
+   *
+   * @param bitBoard  The board state.
+   * @param playerNum The player number.
+   * @return True if the player has finished; false otherwise.
+   */
+  public boolean hasFinished(BitBoard bitBoard, int playerNum) {
+    long[] pawns = bitBoard.getPlayerMask(playerNum);
+    int inZone = BitBoard.countCommonBits(pawns, targetZoneMasks[playerNum]);
+    return inZone > 0 && inZone == BitBoard.countCommonBits(pawns, pawns);
+  }
+
+  /**
+   * Evaluates the position from the bot's point of view: the average distance the opponents
+   * still have to cover minus the distance the bot still has to cover.
+   *
+   * @param bitBoard The board state.
+   * @param botNum   The bot's number.
+   * @return The score of the position; higher is better for the bot.
+   */
+  public int evaluate(BitBoard bitBoard, int botNum) {
+    int opponentsDistance = 0;
+    for (int playerNum = 1; playerNum <= numOfPlayers; playerNum++) {
+      if (playerNum != botNum) {
+        opponentsDistance += getTotalDistance(bitBoard, playerNum);
+      }
+    }
+    int opponents = Math.max(1, numOfPlayers - 1);
+    return opponentsDistance / opponents - getTotalDistance(bitBoard, botNum);
+  }
+
+  /**
+   * Calculates the number of single steps between two cells of the hexagonal board.
+   * Columns use doubled coordinates, so a horizontal step changes the column by 2.
+   *
+   * @param startRow The starting row.
+   * @param startCol The starting column.
+   * @param endRow   The ending row.
+   * @param endCol   The ending column.
+   * @return The hex distance between the cells.
+   */
+  public static int getHexDistance(int startRow, int startCol, int endRow, int endCol) {
+    int rowDiff = Math.abs(startRow - endRow);
+    int colDiff = Math.abs(startCol - endCol);
+    return rowDiff + Math.max(0, (colDiff - rowDiff) / 2);
+  }
+}
@@ -1,16 +1,18 @@
 package org.server.board.moveManagement;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import org.server.board.boardObjects.BitBoard;
 import org.server.board.boardObjects.Cell;
 
 /**
  * Optimizer for calculating the best moves for bot players based on the current game board.
+ * All move generation runs on the {@link BitBoard} view of the board.
  */
-public class BotMoveOptimizer {
+public class BotMoveOptimizer implements IBotStrategy {
 
-  private final Cell[][] cells;
-  int[][] directions;
+  private final BitBoard bitBoard;
+  private final BitBoard gameBoard;
+  private final ReachabilityEngine reachabilityEngine;
+  private final long[] allowedMask;
 
   /**
    * Constructs a BotMoveOptimizer with the provided game board cells.
@@ -18,227 +20,163 @@ public class BotMoveOptimizer {
    * @param cells The game board cells.
    */
   public BotMoveOptimizer(Cell[][] cells) {
-    this.cells = cells;
-    directions = new int[][]{
-        {-1, -1}, {0, -2}, {1, -1},  // Upper left, left, bottom left
-        {1, 1}, {0, 2}, {-1, 1}      // Bottom right, right, upper right
-    };
+    this(new BitBoard(cells), null);
   }
 
   /**
-   * Calculates the best move for a bot based on its destination and the game board state.
+   * Constructs a BotMoveOptimizer reading the game's bitboard directly, since it only reads the position
+   * and the board does not change during the bot's turn.
    *
-   * @param botNum            The bot's number.
-   * @param destinationPoint  The destination point for the bot.
-   * @param destinationZoneNum The destination zone for the bot.
-   * @return An array representing the best move for the bot.
+   * @param gameBoard The bitboard of the game.
    */
-  public synchronized int[] getBestMoveForBot(int botNum, int[] destinationPoint, int destinationZoneNum) {
-    double maxDistanceFromEdgeChange = -(cells.length + cells[0].length);
-    double maxMoveDistance = 0;
-    int[] bestMovePositions = destinationPoint;
-
-    for (int row = 0; row < cells.length; row++) {
-      for (int col = 0; col < cells[row].length; col++) {
-        if (cells[row][col].isInsideBoard() && cells[row][col].isOccupied()) {
-          if (cells[row][col].getPawn().getPlayerNum() == botNum) {
-            int[] bestMovePositionForPawn = getBestMovePositionForPawn(row, col, destinationPoint[0], destinationPoint[1], destinationZoneNum, botNum);
-
-            if (!(bestMovePositionForPawn[0] == row && bestMovePositionForPawn[1] == col)) {
-              double startDistanceFromEdge = getDistanceBetweenPoints(new int[]{row, col}, destinationPoint);
-              double distanceFromEdgeAfterMove = getDistanceBetweenPoints(bestMovePositionForPawn, destinationPoint);
-              double distanceFromEdgeChange = startDistanceFromEdge - distanceFromEdgeAfterMove;
-              double moveDistance = getDistanceBetweenPoints(new int[]{row, col}, bestMovePositionForPawn);
-
-              if (distanceFromEdgeChange > maxDistanceFromEdgeChange) {
-                maxDistanceFromEdgeChange = distanceFromEdgeChange;
-                maxMoveDistance = moveDistance;
-                bestMovePositions = new int[]{row, col, bestMovePositionForPawn[0], bestMovePositionForPawn[1]};
-              } else if (distanceFromEdgeChange == maxDistanceFromEdgeChange) {
-                if (moveDistance > maxMoveDistance && canBotMoveHere(bestMovePositionForPawn, destinationZoneNum, botNum)) {
-                  bestMovePositions = new int[]{row, col, bestMovePositionForPawn[0], bestMovePositionForPawn[1]};
-                  maxMoveDistance = moveDistance;
-                }
-              }
-            }
-          }
-        }
-      }
-    }
-    return bestMovePositions;
+  public BotMoveOptimizer(BitBoard gameBoard) {
+    this(gameBoard, gameBoard);
   }
 
-  /**
-   * Determines whether the bot can move to a specific position.
-   *
-   * @param position           The position to check as an array [row, col].
-   * @param destinationZoneNum The zone number of the bot's destination.
-   * @param botNum             The bot's number.
-   * @return true if the bot can move to the position, otherwise false.
-   */
-  private boolean canBotMoveHere(int[] position, int destinationZoneNum, int botNum) {
-    return cells[position[0]][position[1]].getZoneNum() == 0
-        || cells[position[0]][position[1]].getZoneNum() == destinationZoneNum
-        || cells[position[0]][position[1]].getInitialPlayerNum() == botNum;
-  }
-
-  /**
-   * Checks if a specified position is within the bounds of the game board.
-   *
-   * @param row The row index to check.
-   * @param col The column index to check.
-   * @return true if the position is inside the board, otherwise false.
-   */
-  private boolean isInsideBoard(int row, int col) {
-    return (row >= 0 && row < cells.length && col >= 0 && col < cells[0].length)
-        && cells[row][col].isInsideBoard();
+  private BotMoveOptimizer(BitBoard bitBoard, BitBoard gameBoard) {
+    this.bitBoard = bitBoard;
+    this.gameBoard = gameBoard;
+    this.reachabilityEngine = new ReachabilityEngine(bitBoard);
+    this.allowedMask = bitBoard.newMask();
   }
 
   /**
-   * Determines the best move position for a pawn, based on the starting position,
-   * the destination, and the bot's specific logic.
+   * Calculates the best move for a bot based on its destination and the game board state.
    *
-   * @param startRow          The starting row of the pawn.
-   * @param startCol          The starting column of the pawn.
-   * @param destinationRow    The destination row.
-   * @param destinationCol    The destination column.
-   * @param destinationZoneNum The destination zone number.
    * @param botNum            The bot's number.
-   * @return An array representing the best move position [row, col].
+   * @param destinationPoint  The destination point for the bot.
+   * @param destinationZoneNum The destination zone for the bot.
+   * @return An array representing the best move for the bot.
    */
-  private int[] getBestMovePositionForPawn(int startRow, int startCol, int destinationRow, int destinationCol, int destinationZoneNum, int botNum) {
-    ArrayList<int[]> possibleMovePositions = new ArrayList<>();
-    getValidSingleSteps(startRow, startCol, possibleMovePositions, destinationZoneNum, botNum);
-
-    ArrayList<int[]> visited = new ArrayList<>();
-    getValidJumps(startRow, startCol, visited, destinationZoneNum, botNum);
-
-    if (!visited.isEmpty()) {
-      for (int[] validJump : visited) {
-        if (!(validJump[0] == startRow && validJump[1] == startCol)) {
-          possibleMovePositions.add(validJump);
-        }
-      }
+  @Override
+  public synchronized int[] getBestMoveForBot(int botNum, int[] destinationPoint, int destinationZoneNum) {
+    bitBoard.loadFrom(gameBoard);
+    double maxDistanceFromEdgeChange = -(bitBoard.getHeight() + bitBoard.getWidth());
+    double maxMoveDistance = 0;
+    int[] bestMovePositions = {destinationPoint[0], destinationPoint[1], destinationPoint[0], destinationPoint[1]};
+    if (botNum < 1 || botNum > BitBoard.MAX_PLAYERS) {
+      return bestMovePositions;
     }
-    if (!possibleMovePositions.isEmpty()) {
-
-      double startDistanceFromEdge = getDistanceBetweenPoints(new int[]{startRow, startCol}, new int[]{destinationRow, destinationCol});
-      double maxDistanceFromEdgeChange = startDistanceFromEdge - getDistanceBetweenPoints(possibleMovePositions.get(0), new int[]{destinationRow, destinationCol});
-      double maxMoveDistance = getDistanceBetweenPoints(new int[]{startRow, startCol}, possibleMovePositions.get(0));
-      int[] bestMovePositionForPawn = possibleMovePositions.get(0);
-
-      for (int[] possibleMovePosition : possibleMovePositions) {
-        double distanceFromEdgeAfterMove = getDistanceBetweenPoints(possibleMovePosition, new int[]{destinationRow, destinationCol});
+    computeAllowedMask(destinationZoneNum, botNum);
+
+    long[] pawns = bitBoard.getPlayerMask(botNum);
+    for (int id = BitBoard.nextSetBit(pawns, 0); id >= 0; id = BitBoard.nextSetBit(pawns, id + 1)) {
+      int row = bitBoard.getRow(id);
+      int col = bitBoard.getCol(id);
+      int bestMoveIdForPawn = getBestMoveIdForPawn(id, destinationPoint[0], destinationPoint[1], destinationZoneNum, botNum);
+
+      if (bestMoveIdForPawn != id) {
+        int endRow = bitBoard.getRow(bestMoveIdForPawn);
+        int endCol = bitBoard.getCol(bestMoveIdForPawn);
+        double startDistanceFromEdge = getDistanceBetweenPoints(row, col, destinationPoint[0], destinationPoint[1]);
+        double distanceFromEdgeAfterMove = getDistanceBetweenPoints(endRow, endCol, destinationPoint[0], destinationPoint[1]);
         double distanceFromEdgeChange = startDistanceFromEdge - distanceFromEdgeAfterMove;
-        double moveDistance = getDistanceBetweenPoints(new int[]{startRow, startCol}, possibleMovePosition);
+        double moveDistance = getDistanceBetweenPoints(row, col, endRow, endCol);
 
         if (distanceFromEdgeChange > maxDistanceFromEdgeChange) {
           maxDistanceFromEdgeChange = distanceFromEdgeChange;
-          bestMovePositionForPawn = possibleMovePosition;
           maxMoveDistance = moveDistance;
-
+          bestMovePositions = new int[]{row, col, endRow, endCol};
         } else if (distanceFromEdgeChange == maxDistanceFromEdgeChange) {
-          if (moveDistance > maxMoveDistance
-              && canBotMoveHere(bestMovePositionForPawn, destinationZoneNum, botNum)) {
-            bestMovePositionForPawn = possibleMovePosition;
+          if (moveDistance > maxMoveDistance && canBotMoveHere(bestMoveIdForPawn, destinationZoneNum, botNum)) {
+            bestMovePositions = new int[]{row, col, endRow, endCol};
             maxMoveDistance = moveDistance;
           }
         }
       }
-      return new int[]{bestMovePositionForPawn[0], bestMovePositionForPawn[1]};
     }
-
-    return new int[]{startRow, startCol};
+    return bestMovePositions;
   }
 
   /**
-   * Retrieves all valid single-step moves for a pawn and stores them in the provided list.
+   * Determines whether the bot can move to a specific cell.
    *
-   * @param startRow          The starting row of the pawn.
-   * @param startCol          The starting column of the pawn.
-   * @param possibleMoves     The list to store valid single-step moves.
-   * @param destinationZoneNum The destination zone number.
-   * @param botNum            The bot's number.
+   * @param id                 The id of the cell to check.
+   * @param destinationZoneNum The zone number of the bot's destination.
+   * @param botNum             The bot's number.
+   * @return true if the bot can move to the cell, otherwise false.
    */
-  private void getValidSingleSteps(int startRow, int startCol, ArrayList<int[]> possibleMoves, int destinationZoneNum, int botNum) {
-    for (int[] direction : directions) {
-      int targetRow = startRow + direction[0];
-      int targetCol = startCol + direction[1];
-      if (isInsideBoard(targetRow, targetCol) && !cells[targetRow][targetCol].isOccupied()
-          && canBotMoveHere(new int[]{targetRow, targetCol}, destinationZoneNum, botNum)) {
-        possibleMoves.add(new int[]{targetRow, targetCol});
-      }
-    }
+  private boolean canBotMoveHere(int id, int destinationZoneNum, int botNum) {
+    return bitBoard.getZoneNum(id) == 0
+        || bitBoard.getZoneNum(id) == destinationZoneNum
+        || bitBoard.getInitialPlayerNum(id) == botNum;
   }
 
   /**
-   * Retrieves all valid jump moves for a pawn and stores them in the provided list.
+   * Marks every cell the bot is allowed to enter.
    *
-   * @param startRow          The starting row of the pawn.
-   * @param startCol          The starting column of the pawn.
-   * @param visited           The list to store visited positions during jumps.
-   * @param destinationZoneNum The destination zone number.
-   * @param botNum            The bot's number.
+   * @param destinationZoneNum The zone number of the bot's destination.
+   * @param botNum             The bot's number.
    */
-  private void getValidJumps(int startRow, int startCol, ArrayList<int[]> visited, int destinationZoneNum, int botNum) {
-    visited.add(new int[]{startRow, startCol});
-    for (int[] direction : directions) {
-      int jumpOverRow = startRow + direction[0];
-      int jumpOverCol = startCol + direction[1];
-
-      if (isInsideBoard(jumpOverRow, jumpOverCol) && cells[jumpOverRow][jumpOverCol].isOccupied()) {
-        int landingRow = jumpOverRow + direction[0];
-        int landingCol = jumpOverCol + direction[1];
-
-        if (isInsideBoard(landingRow, landingCol) && !cells[landingRow][landingCol].isOccupied()
-            && canBotMoveHere(new int[]{landingRow, landingCol}, destinationZoneNum, botNum)) {
-          getValidMovesRecursively(landingRow, landingCol, visited, destinationZoneNum, botNum);
-        }
-
+  private void computeAllowedMask(int destinationZoneNum, int botNum) {
+    BitBoard.clear(allowedMask);
+    for (int id = 0; id < bitBoard.getSize(); id++) {
+      if (canBotMoveHere(id, destinationZoneNum, botNum)) {
+        BitBoard.setBit(allowedMask, id);
       }
     }
   }
 
   /**
-   * Recursively retrieves valid jump moves for a pawn and stores them in the visited list.
+   * Determines the best move position for a pawn, based on the starting position,
+   * the destination, and the bot's specific logic.
    *
-   * @param currentRow        The current row of the pawn.
-   * @param currentCol        The current column of the pawn.
-   * @param visited           The list to store visited positions during recursive jumps.
+   * @param startId           The id of the pawn's cell.
+   * @param destinationRow    The destination row.
+   * @param destinationCol    The destination column.
    * @param destinationZoneNum The destination zone number.
    * @param botNum            The bot's number.
+   * @return The id of the best cell to move to, or startId if the pawn cannot move.
    */
-  private void getValidMovesRecursively(int currentRow, int currentCol, ArrayList<int[]> visited, int destinationZoneNum, int botNum) {
-    if (isInsideBoard(currentRow, currentCol) && !cells[currentRow][currentCol].isOccupied()
-        && visited.stream().noneMatch(cell -> Arrays.equals(cell, new int[]{currentRow, currentCol}))
-        && canBotMoveHere(new int[]{currentRow, currentCol}, destinationZoneNum, botNum)) {
-      visited.add(new int[]{currentRow, currentCol});
-
-      for (int[] direction : directions) {
-        int jumpOverRow = currentRow + direction[0];
-        int jumpOverCol = currentCol + direction[1];
-
-        if (isInsideBoard(jumpOverRow, jumpOverCol) && cells[jumpOverRow][jumpOverCol].isOccupied()) {
-          int landingRow = jumpOverRow + direction[0];
-          int landingCol = jumpOverCol + direction[1];
-
-          if (isInsideBoard(landingRow, landingCol) && !cells[landingRow][landingCol].isOccupied()
-              && canBotMoveHere(new int[]{landingRow, landingCol}, destinationZoneNum, botNum)) {
-            getValidMovesRecursively(landingRow, landingCol, visited, destinationZoneNum, botNum);
-          }
+  private int getBestMoveIdForPawn(int startId, int destinationRow, int destinationCol, int destinationZoneNum, int botNum) {
+    int candidateCount = reachabilityEngine.computeDestinations(startId, allowedMask);
+    if (candidateCount == 0) {
+      return startId;
+    }
+
+    int startRow = bitBoard.getRow(startId);
+    int startCol = bitBoard.getCol(startId);
+    double startDistanceFromEdge = getDistanceBetweenPoints(startRow, startCol, destinationRow, destinationCol);
+    int bestMoveIdForPawn = reachabilityEngine.getDestination(0);
+    double maxDistanceFromEdgeChange = startDistanceFromEdge
+        - getDistanceBetweenPoints(bitBoard.getRow(bestMoveIdForPawn), bitBoard.getCol(bestMoveIdForPawn), destinationRow, destinationCol);
+    double maxMoveDistance = getDistanceBetweenPoints(startRow, startCol, bitBoard.getRow(bestMoveIdForPawn), bitBoard.getCol(bestMoveIdForPawn));
+
+    for (int i = 0; i < candidateCount; i++) {
+      int candidate = reachabilityEngine.getDestination(i);
+      int row = bitBoard.getRow(candidate);
+      int col = bitBoard.getCol(candidate);
+      double distanceFromEdgeChange = startDistanceFromEdge - getDistanceBetweenPoints(row, col, destinationRow, destinationCol);
+      double moveDistance = getDistanceBetweenPoints(startRow, startCol, row, col);
+
+      if (distanceFromEdgeChange > maxDistanceFromEdgeChange) {
+        maxDistanceFromEdgeChange = distanceFromEdgeChange;
+        bestMoveIdForPawn = candidate;
+        maxMoveDistance = moveDistance;
+
+      } else if (distanceFromEdgeChange == maxDistanceFromEdgeChange) {
+        if (moveDistance > maxMoveDistance
+            && canBotMoveHere(bestMoveIdForPawn, destinationZoneNum, botNum)) {
+          bestMoveIdForPawn = candidate;
+          maxMoveDistance = moveDistance;
         }
       }
     }
+    return bestMoveIdForPawn;
   }
 
   /**
    * Calculates the Euclidean distance between two points.
    *
-   * @param startingPosition The starting position as an array [row, col].
-   * @param endingPosition   The ending position as an array [row, col].
+   * @param startRow The starting row.
+   * @param startCol The starting column.
+   * @param endRow   The ending row.
+   * @param endCol   The ending column.
    * @return The Euclidean distance between the two points.
    */
-  private double getDistanceBetweenPoints(int[] startingPosition, int[] endingPosition) {
-    return Math.sqrt(Math.pow((startingPosition[0] - endingPosition[0]), 2) + Math.pow((startingPosition[1] - endingPosition[1]), 2));
+  private double getDistanceBetweenPoints(int startRow, int startCol, int endRow, int endCol) {
+    int rowDiff = startRow - endRow;
+    int colDiff = startCol - endCol;
+    return Math.sqrt(rowDiff * rowDiff + colDiff * colDiff);
   }
 }
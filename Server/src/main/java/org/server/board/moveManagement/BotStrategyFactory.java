@@ -0,0 +1,60 @@
+package org.server.board.moveManagement;
+
+import java.util.concurrent.ForkJoinPool;
+import org.server.board.boardManagement.Board;
+
+/**
+ * A factory class for creating bot strategies based on the configured strategy name.
+ * Strategies searching on several threads share one pool sized to the number of CPUs,
+ * so any number of concurrent bot games keeps every core busy without oversubscribing them.
+ */
+public class BotStrategyFactory {
+
+  private static final ForkJoinPool SHARED_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+  /**
+   * Creates a bot strategy for the given board.
+   *
+   * @param strategy         The strategy name (e.g., "greedy", "alphabeta", "parallel", "mcts").
+   * @param board            The board the game is played on.
+   * @param numOfPlayers     The number of players in the game.
+   * @param timeBudgetMillis The time budget of a single search move, in milliseconds.
+   * @param playoutBudget    The number of playouts of a single Monte Carlo move, or 0 to only use the time budget.
+   * @param table            The transposition table shared by the game's searching bots, or null.
+   * @return A {@link IBotStrategy} instance corresponding to the specified strategy,
+   *     or the greedy optimizer if the name is unknown.
+   */
+  public static IBotStrategy createStrategy(String strategy, Board board, int numOfPlayers, long timeBudgetMillis,
+                                            int playoutBudget, TranspositionTable table) {
+    return switch (strategy) {
+      case "alphabeta" -> new AlphaBetaSearch(board.getBitBoard(), new BotEvaluator(board, numOfPlayers), timeBudgetMillis, table);
+      case "parallel" -> new ParallelRootSearch(board.getBitBoard(), new BotEvaluator(board, numOfPlayers), timeBudgetMillis, table);
+      case "mcts" -> new MonteCarloTreeSearch(board.getBitBoard(), new BotEvaluator(board, numOfPlayers), timeBudgetMillis,
+          playoutBudget, SHARED_POOL);
+      default -> new BotMoveOptimizer(board.getBitBoard());
+    };
+  }
+
+  /**
+   * Creates the transposition table shared by all bots of one game, if the strategy searches.
+   *
+   * @param strategy The strategy name.
+   * @param sizeMb   The size of the table in megabytes.
+   * @return A new transposition table, or null if the strategy does not use one.
+   */
+  public static TranspositionTable createTranspositionTable(String strategy, int sizeMb) {
+    return switch (strategy) {
+      case "alphabeta", "parallel" -> new TranspositionTable(sizeMb);
+      default -> null;
+    };
+  }
+
+  /**
+   * Returns the pool shared by all multithreaded bot strategies.
+   *
+   * @return The shared fork-join pool.
+   */
+  public static ForkJoinPool getSharedPool() {
+    return SHARED_POOL;
+  }
+}
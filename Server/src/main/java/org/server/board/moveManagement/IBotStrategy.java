@@ -0,0 +1,17 @@
+package org.server.board.moveManagement;
+
+/**
+ * Interface for the strategies bots use to choose their moves.
+ */
+public interface IBotStrategy {
+
+  /**
+   * Calculates the best move for a bot based on its destination and the game board state.
+   *
+   * @param botNum             The bot's number.
+   * @param destinationPoint   The destination point for the bot.
+   * @param destinationZoneNum The destination zone for the bot.
+   * @return An array [startRow, startCol, endRow, endCol]; equal start and end positions mean the bot skips its turn.
+   */
+  int[] getBestMoveForBot(int botNum, int[] destinationPoint, int destinationZoneNum);
+}
@@ -13,6 +13,14 @@ public interface IMoveValidator {
    */
   String makeMove(String input);
 
+  /**
+   * Makes a move on the board.
+   *
+   * @param move The move, parsed once when it was received.
+   * @return A string representing the executed move or a command string describing the result.
+   */
+  String makeMove(MoveCommand move);
+
   /**
    * Validates a move based on the current game state.
    *
@@ -21,4 +29,13 @@ public interface IMoveValidator {
    * @return True if the move is valid; false otherwise.
    */
   boolean validateMove(int userId, String input);
+
+  /**
+   * Validates a move based on the current game state.
+   *
+   * @param userId The ID of the player making the move.
+   * @param move   The move, parsed once when it was received.
+   * @return True if the move is valid; false otherwise.
+   */
+  boolean validateMove(int userId, MoveCommand move);
 }
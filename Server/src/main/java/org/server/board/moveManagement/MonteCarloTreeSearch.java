@@ -0,0 +1,517 @@
+package org.server.board.moveManagement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.server.board.boardObjects.BitBoard;
+import org.server.board.boardObjects.Cell;
+
+/**
+ * Bot strategy based on Monte Carlo Tree Search with UCT selection.
+ * Every node stores the reward of the player who made the move leading to it, so each player
+ * maximizes their own result and games with several opponents need no team assumptions.
+ * Playouts are light: pawns move randomly, preferring moves that bring them closer to their destination,
+ * and a playout that does not finish the game is scored by ranking the players' remaining distances.
+ * The tree is searched by several workers at once; a worker adds a virtual loss to every node
+ * it descends through, so concurrent workers spread over different branches.
+ * The search stops when the time budget runs out or, if set, when the playout budget is used up.
+ */
+public class MonteCarloTreeSearch implements IBotStrategy {
+
+  private static final double EXPLORATION = 1.0;
+  private static final int PLAYOUT_PLIES_PER_PLAYER = 8;
+  private static final int PASS = -1;
+
+  private final Cell[][] cells;
+  private final BitBoard gameBoard;
+  private final BotEvaluator evaluator;
+  private final int numOfPlayers;
+  private final long timeBudgetNanos;
+  private final int playoutBudget;
+  private final ForkJoinPool pool;
+  private final ConcurrentLinkedQueue<PlayoutWorker> idleWorkers;
+  private final SplittableRandom seedRandom;
+  private final BitBoard bitBoard;
+  private final AtomicInteger playouts;
+  private int botNum;
+  private long deadline;
+  private Node root;
+  private int lastPlayoutCount;
+
+  /**
+   * Constructs a Monte Carlo Tree Search bot.
+   *
+   * @param cells            The game board cells.
+   * @param evaluator        The evaluator providing distances and allowed cells.
+   * @param timeBudgetMillis The hard time budget of a single move, in milliseconds.
+   * @param playoutBudget    The number of playouts of a single move, or 0 to only use the time budget.
+   * @param pool             The pool running the playout workers, shared with other bots.
+   */
+  public MonteCarloTreeSearch(Cell[][] cells, BotEvaluator evaluator, long timeBudgetMillis, int playoutBudget,
+                              ForkJoinPool pool) {
+    this(cells, null, evaluator, timeBudgetMillis, playoutBudget, pool);
+  }
+
+  /**
+   * Constructs a Monte Carlo Tree Search bot whose playout workers play on copies of the game's bitboard.
+   *
+   * @param gameBoard        The bitboard of the game.
+   * @param evaluator        The evaluator providing distances and allowed cells.
+   * @param timeBudgetMillis The hard time budget of a single move, in milliseconds.
+   * @param playoutBudget    The number of playouts of a single move, or 0 to only use the time budget.
+   * @param pool             The pool running the playout workers, shared with other bots.
+   */
+  public MonteCarloTreeSearch(BitBoard gameBoard, BotEvaluator evaluator, long timeBudgetMillis, int playoutBudget,
+                              ForkJoinPool pool) {
+    this(null, gameBoard, evaluator, timeBudgetMillis, playoutBudget, pool);
+  }
+
+  private MonteCarloTreeSearch(Cell[][] cells, BitBoard gameBoard, BotEvaluator evaluator, long timeBudgetMillis,
+                               int playoutBudget, ForkJoinPool pool) {
+    this.cells = cells;
+    this.gameBoard = gameBoard;
+    this.evaluator = evaluator;
+    this.numOfPlayers = evaluator.getNumOfPlayers();
+    this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+    this.playoutBudget = playoutBudget;
+    this.pool = pool;
+    this.idleWorkers = new ConcurrentLinkedQueue<>();
+    this.seedRandom = new SplittableRandom();
+    this.bitBoard = gameBoard != null ? gameBoard : new BitBoard(cells);
+    this.playouts = new AtomicInteger();
+  }
+
+  /**
+   * Calculates the best move for a bot: the root move visited most often by the search.
+   *
+   * @param botNum             The bot's number.
+   * @param destinationPoint   The destination point for the bot.
+   * @param destinationZoneNum The destination zone for the bot.
+   * @return An array [startRow, startCol, endRow, endCol]; equal start and end positions mean the bot skips its turn.
+   */
+  @Override
+  public synchronized int[] getBestMoveForBot(int botNum, int[] destinationPoint, int destinationZoneNum) {
+    this.botNum = botNum;
+    this.deadline = System.nanoTime() + timeBudgetNanos;
+    this.root = new Node(PASS, PASS, 0);
+    this.root.nextPlayerNum = botNum;
+    playouts.set(0);
+
+    // The calling thread searches too, so the search makes progress even when the shared pool is busy
+    List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    for (int i = 1; i < pool.getParallelism(); i++) {
+      tasks.add(pool.submit(this::runWorker));
+    }
+    runWorker();
+    for (ForkJoinTask<?> task : tasks) {
+      task.cancel(false);
+      task.quietlyJoin();
+    }
+    lastPlayoutCount = Math.min(playouts.get(), playoutBudget > 0 ? playoutBudget : Integer.MAX_VALUE);
+
+    Node best = null;
+    synchronized (root) {
+      for (int i = 0; i < root.childCount; i++) {
+        Node child = root.children[i];
+        if (best == null || child.visits > best.visits) {
+          best = child;
+        }
+      }
+    }
+    if (best == null || best.from == PASS) {
+      return new int[]{destinationPoint[0], destinationPoint[1], destinationPoint[0], destinationPoint[1]};
+    }
+    return new int[]{bitBoard.getRow(best.from), bitBoard.getCol(best.from), bitBoard.getRow(best.to), bitBoard.getCol(best.to)};
+  }
+
+  /**
+   * Returns the number of playouts run by the previous search.
+   *
+   * @return The playout count.
+   */
+  public synchronized int getLastPlayoutCount() {
+    return lastPlayoutCount;
+  }
+
+  /**
+   * Runs playouts with an idle worker until the search budget is used up.
+   */
+  private void runWorker() {
+    PlayoutWorker worker = idleWorkers.poll();
+    if (worker == null) {
+      worker = new PlayoutWorker();
+    }
+    try {
+      worker.run();
+    } finally {
+      idleWorkers.offer(worker);
+    }
+  }
+
+  /**
+   * Checks whether another playout may be started, reserving it from the playout budget.
+   *
+   * @return True if the search should continue; false otherwise.
+   */
+  private boolean reservePlayout() {
+    if (System.nanoTime() >= deadline) {
+      return false;
+    }
+    return playouts.getAndIncrement() < playoutBudget || playoutBudget <= 0;
+  }
+
+  /**
+   * A node of the search tree. The statistics of a node are guarded by its parent's monitor,
+   * its moves and children by its own monitor. Move and winner fields are final once the node is published.
+   */
+  private static final class Node {
+    private final int from;
+    private final int to;
+    private final int playerNum;
+    private int nextPlayerNum;
+    private int winner;
+    private boolean expanded;
+    private int[] untriedFroms;
+    private int[] untriedTos;
+    private int untriedCount;
+    private Node[] children;
+    private int childCount;
+    private int visits;
+    private double reward;
+
+    /**
+     * Constructs a node reached by the given move.
+     *
+     * @param from      The origin cell id of the move, or {@link #PASS}.
+     * @param to        The target cell id of the move, or {@link #PASS}.
+     * @param playerNum The player who made the move (0 for the root).
+     */
+    private Node(int from, int to, int playerNum) {
+      this.from = from;
+      this.to = to;
+      this.playerNum = playerNum;
+    }
+  }
+
+  /**
+   * A playout worker owning a private copy of the board and the buffers it needs,
+   * so playouts allocate nothing apart from new tree nodes.
+   */
+  private final class PlayoutWorker {
+    private final BitBoard board;
+    private final ReachabilityEngine reachabilityEngine;
+    private final SplittableRandom random;
+    private final int[] pawns;
+    private final int[] forwardMoves;
+    private final int[] distances;
+    private final double[] rewards;
+    private final Node[] path;
+    private int[] undoFroms;
+    private int[] undoTos;
+    private int undoCount;
+    private int pathLength;
+
+    /**
+     * Constructs a worker for the search's board.
+     */
+    private PlayoutWorker() {
+      this.board = gameBoard != null ? new BitBoard(gameBoard) : new BitBoard(cells);
+      this.reachabilityEngine = new ReachabilityEngine(board);
+      synchronized (seedRandom) {
+        this.random = seedRandom.split();
+      }
+      this.pawns = new int[board.getSize()];
+      this.forwardMoves = new int[board.getSize()];
+      this.distances = new int[numOfPlayers + 1];
+      this.rewards = new double[numOfPlayers + 1];
+      this.path = new Node[board.getSize() * 4];
+      this.undoFroms = new int[board.getSize()];
+      this.undoTos = new int[board.getSize()];
+    }
+
+    /**
+     * Runs select-expand-playout-backpropagate iterations until the budget is used up.
+     */
+    private void run() {
+      board.loadFrom(gameBoard);
+      while (reservePlayout()) {
+        Node leaf = descend();
+        int winner = leaf.winner;
+        if (winner == 0) {
+          winner = playout(leaf);
+        }
+        score(winner);
+        backpropagate();
+        undoAll();
+      }
+    }
+
+    /**
+     * Walks down the tree from the root by UCT, playing the moves on the worker's board,
+     * and expands one new node. Every node passed gets a virtual loss until the playout is backpropagated.
+     *
+     * @return The new node, or a terminal node.
+     */
+    private Node descend() {
+      Node node = root;
+      pathLength = 0;
+      path[pathLength++] = node;
+      while (node.winner == 0 && pathLength < path.length) {
+        Node next;
+        boolean added = false;
+        synchronized (node) {
+          if (!node.expanded) {
+            expand(node);
+          }
+          if (node.untriedCount > 0) {
+            // The new node is complete before it is published to the other workers
+            int index = random.nextInt(node.untriedCount);
+            next = new Node(node.untriedFroms[index], node.untriedTos[index], node.nextPlayerNum);
+            node.untriedCount--;
+            node.untriedFroms[index] = node.untriedFroms[node.untriedCount];
+            node.untriedTos[index] = node.untriedTos[node.untriedCount];
+            play(next.from, next.to);
+            if (evaluator.hasFinished(board, next.playerNum)) {
+              next.winner = next.playerNum;
+            }
+            node.children[node.childCount++] = next;
+            added = true;
+          } else {
+            next = selectChild(node);
+          }
+          next.visits++;
+        }
+        if (!added) {
+          play(next.from, next.to);
+        }
+        path[pathLength++] = next;
+        node = next;
+        if (added) {
+          break;
+        }
+      }
+      return node;
+    }
+
+    /**
+     * Generates the moves of the player to move at a node, with the worker's board in the node's position.
+     *
+     * @param node The node to expand, locked by the caller.
+     */
+    private void expand(Node node) {
+      if (node != root) {
+        node.nextPlayerNum = getNextPlayer(node.playerNum);
+      }
+      int playerNum = node.nextPlayerNum;
+      long[] pawnMask = board.getPlayerMask(playerNum);
+      long[] allowedMask = evaluator.getAllowedMask(playerNum);
+      int count = 0;
+      int[] froms = new int[board.getSize()];
+      int[] tos = new int[board.getSize()];
+      for (int from = BitBoard.nextSetBit(pawnMask, 0); from >= 0; from = BitBoard.nextSetBit(pawnMask, from + 1)) {
+        int destinationCount = reachabilityEngine.computeDestinations(from, allowedMask);
+        if (count + destinationCount > froms.length) {
+          froms = Arrays.copyOf(froms, Math.max(count + destinationCount, froms.length * 2));
+          tos = Arrays.copyOf(tos, froms.length);
+        }
+        for (int i = 0; i < destinationCount; i++) {
+          froms[count] = from;
+          tos[count] = reachabilityEngine.getDestination(i);
+          count++;
+        }
+      }
+      if (count == 0) {
+        froms[0] = PASS;
+        tos[0] = PASS;
+        count = 1;
+      }
+      node.untriedFroms = froms;
+      node.untriedTos = tos;
+      node.untriedCount = count;
+      node.children = new Node[count];
+      node.expanded = true;
+    }
+
+    /**
+     * Selects the child with the highest UCT value for the player to move at the node.
+     *
+     * @param node The node, locked by the caller.
+     * @return The selected child.
+     */
+    private Node selectChild(Node node) {
+      int totalVisits = 0;
+      for (int i = 0; i < node.childCount; i++) {
+        totalVisits += node.children[i].visits;
+      }
+      double logVisits = Math.log(Math.max(1, totalVisits));
+      Node best = node.children[0];
+      double bestValue = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < node.childCount; i++) {
+        Node child = node.children[i];
+        int visits = Math.max(1, child.visits);
+        double value = child.reward / visits + EXPLORATION * Math.sqrt(logVisits / visits);
+        if (value > bestValue) {
+          bestValue = value;
+          best = child;
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Plays random moves from a leaf until a player finishes or the playout length is reached.
+     *
+     * @param leaf The node the playout starts from.
+     * @return The number of the player who finished, or 0 if nobody did.
+     */
+    private int playout(Node leaf) {
+      int playerNum = leaf.playerNum == 0 ? botNum : getNextPlayer(leaf.playerNum);
+      int plies = PLAYOUT_PLIES_PER_PLAYER * numOfPlayers;
+      for (int ply = 0; ply < plies; ply++) {
+        playRandomMove(playerNum);
+        if (evaluator.hasFinished(board, playerNum)) {
+          return playerNum;
+        }
+        playerNum = getNextPlayer(playerNum);
+      }
+      return 0;
+    }
+
+    /**
+     * Plays a random move of a player, choosing among the moves that shorten the distance to the destination
+     * of a random pawn, or any move of the last pawn tried if no pawn can move forward.
+     *
+     * @param playerNum The player to move.
+     */
+    private void playRandomMove(int playerNum) {
+      long[] pawnMask = board.getPlayerMask(playerNum);
+      long[] allowedMask = evaluator.getAllowedMask(playerNum);
+      int pawnCount = 0;
+      for (int id = BitBoard.nextSetBit(pawnMask, 0); id >= 0; id = BitBoard.nextSetBit(pawnMask, id + 1)) {
+        pawns[pawnCount++] = id;
+      }
+      int fallbackFrom = PASS;
+      int fallbackTo = PASS;
+      int start = pawnCount == 0 ? 0 : random.nextInt(pawnCount);
+      for (int k = 0; k < pawnCount; k++) {
+        int from = pawns[(start + k) % pawnCount];
+        int destinationCount = reachabilityEngine.computeDestinations(from, allowedMask);
+        if (destinationCount == 0) {
+          continue;
+        }
+        int forwardCount = 0;
+        for (int i = 0; i < destinationCount; i++) {
+          int to = reachabilityEngine.getDestination(i);
+          if (evaluator.getDistance(playerNum, to) < evaluator.getDistance(playerNum, from)) {
+            forwardMoves[forwardCount++] = to;
+          }
+        }
+        if (forwardCount > 0) {
+          play(from, forwardMoves[random.nextInt(forwardCount)]);
+          return;
+        }
+        fallbackFrom = from;
+        fallbackTo = reachabilityEngine.getDestination(random.nextInt(destinationCount));
+      }
+      play(fallbackFrom, fallbackTo);
+    }
+
+    /**
+     * Fills the rewards of all players: 1 for the winner, or the share of opponents
+     * a player is ahead of by remaining distance if nobody finished.
+     *
+     * @param winner The number of the player who finished, or 0.
+     */
+    private void score(int winner) {
+      Arrays.fill(rewards, 0);
+      if (winner != 0) {
+        rewards[winner] = 1;
+        return;
+      }
+      for (int playerNum = 1; playerNum <= numOfPlayers; playerNum++) {
+        distances[playerNum] = evaluator.getTotalDistance(board, playerNum);
+      }
+      double opponents = Math.max(1, numOfPlayers - 1);
+      for (int playerNum = 1; playerNum <= numOfPlayers; playerNum++) {
+        double ahead = 0;
+        for (int other = 1; other <= numOfPlayers; other++) {
+          if (other == playerNum) {
+            continue;
+          }
+          if (distances[playerNum] < distances[other]) {
+            ahead += 1;
+          } else if (distances[playerNum] == distances[other]) {
+            ahead += 0.5;
+          }
+        }
+        rewards[playerNum] = ahead / opponents;
+      }
+    }
+
+    /**
+     * Adds the playout's rewards to every node of the path; the visits were already counted on the way down.
+     */
+    private void backpropagate() {
+      for (int i = 1; i < pathLength; i++) {
+        Node parent = path[i - 1];
+        Node child = path[i];
+        synchronized (parent) {
+          child.reward += rewards[child.playerNum];
+        }
+      }
+      Arrays.fill(path, 0, pathLength, null);
+    }
+
+    /**
+     * Plays a move on the worker's board and records it for {@link #undoAll()}.
+     *
+     * @param from The origin cell id, or {@link #PASS}.
+     * @param to   The target cell id, or {@link #PASS}.
+     */
+    private void play(int from, int to) {
+      if (from == PASS) {
+        return;
+      }
+      if (undoCount == undoFroms.length) {
+        undoFroms = Arrays.copyOf(undoFroms, undoCount * 2);
+        undoTos = Arrays.copyOf(undoTos, undoCount * 2);
+      }
+      board.movePawn(from, to);
+      undoFroms[undoCount] = from;
+      undoTos[undoCount] = to;
+      undoCount++;
+    }
+
+    /**
+     * Takes back every move played since the root position.
+     */
+    private void undoAll() {
+      while (undoCount > 0) {
+        undoCount--;
+        board.movePawn(undoTos[undoCount], undoFroms[undoCount]);
+      }
+    }
+
+    /**
+     * Returns the player moving after the given one, skipping players who already finished.
+     *
+     * @param playerNum The current player.
+     * @return The next player.
+     */
+    private int getNextPlayer(int playerNum) {
+      int next = playerNum;
+      for (int i = 0; i < numOfPlayers; i++) {
+        next = next % numOfPlayers + 1;
+        if (!evaluator.hasFinished(board, next)) {
+          return next;
+        }
+      }
+      return botNum;
+    }
+  }
+}
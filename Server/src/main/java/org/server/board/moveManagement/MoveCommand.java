@@ -0,0 +1,169 @@
+package org.server.board.moveManagement;
+
+import org.protocol.MessageType;
+import org.protocol.WireMessage;
+
+/**
+ * A move as sent by a client: "startRow startCol startPlayer endRow endCol endPlayer".
+ * The line is parsed once, by hand and without allocating, into this descriptor, which is then passed
+ * through validation, execution, persistence and broadcast. A descriptor is reused for every move of
+ * its owner, so it must only be used on the owner's game lane.
+ */
+public final class MoveCommand {
+  private static final int FIELD_COUNT = 6;
+
+  private final int[] fields = new int[FIELD_COUNT];
+
+  /**
+   * Parses a move line into a new descriptor.
+   *
+   * @param input The move line.
+   * @return The descriptor.
+   * @throws IllegalArgumentException If the line is not a move.
+   */
+  public static MoveCommand of(String input) {
+    MoveCommand move = new MoveCommand();
+    if (!move.parse(input)) {
+      throw new IllegalArgumentException("Not a move: " + input);
+    }
+    return move;
+  }
+
+  /**
+   * Parses a move line into this descriptor: six non-negative numbers separated by single spaces.
+   * If the line is not a move, the descriptor's previous content is lost.
+   *
+   * @param input The move line.
+   * @return True if the line is a move; false otherwise.
+   */
+  public boolean parse(CharSequence input) {
+    int length = input.length();
+    int position = 0;
+    for (int field = 0; field < FIELD_COUNT; field++) {
+      if (field > 0) {
+        if (position >= length || input.charAt(position) != ' ') {
+          return false;
+        }
+        position++;
+      }
+      int start = position;
+      int value = 0;
+      while (position < length && position - start < 9) {
+        char c = input.charAt(position);
+        if (c < '0' || c > '9') {
+          break;
+        }
+        value = value * 10 + (c - '0');
+        position++;
+      }
+      if (position == start) {
+        return false;
+      }
+      fields[field] = value;
+    }
+    return position == length;
+  }
+
+  /**
+   * Sets the move's fields from a {@link MessageType#MOVE} frame of the binary protocol, whose fields are
+   * already decoded, so nothing is parsed. Any other message, a {@link MessageType#CMD} frame included,
+   * is not a move, as its text line is not one either.
+   *
+   * @param message The decoded frame.
+   * @return True if the frame is a move; false otherwise, leaving the descriptor unchanged.
+   */
+  public boolean set(WireMessage message) {
+    if (message.getType() != MessageType.MOVE) {
+      return false;
+    }
+    for (int field = 0; field < FIELD_COUNT; field++) {
+      fields[field] = message.getField(field);
+    }
+    return true;
+  }
+
+  /**
+   * Sets the move's fields, for moves not received from a client.
+   *
+   * @param startRow    The row of the start cell.
+   * @param startCol    The column of the start cell.
+   * @param startPlayer The player whose pawn stands on the start cell.
+   * @param endRow      The row of the end cell.
+   * @param endCol      The column of the end cell.
+   * @param endPlayer   The player whose pawn stands on the end cell, 0 if it is empty.
+   * @return This descriptor.
+   */
+  public MoveCommand set(int startRow, int startCol, int startPlayer, int endRow, int endCol, int endPlayer) {
+    fields[0] = startRow;
+    fields[1] = startCol;
+    fields[2] = startPlayer;
+    fields[3] = endRow;
+    fields[4] = endCol;
+    fields[5] = endPlayer;
+    return this;
+  }
+
+  /**
+   * Returns the row of the start cell.
+   *
+   * @return The row of the start cell.
+   */
+  public int getStartRow() {
+    return fields[0];
+  }
+
+  /**
+   * Returns the column of the start cell.
+   *
+   * @return The column of the start cell.
+   */
+  public int getStartCol() {
+    return fields[1];
+  }
+
+  /**
+   * Returns the player whose pawn stands on the start cell.
+   *
+   * @return The player whose pawn stands on the start cell.
+   */
+  public int getStartPlayer() {
+    return fields[2];
+  }
+
+  /**
+   * Returns the row of the end cell.
+   *
+   * @return The row of the end cell.
+   */
+  public int getEndRow() {
+    return fields[3];
+  }
+
+  /**
+   * Returns the column of the end cell.
+   *
+   * @return The column of the end cell.
+   */
+  public int getEndCol() {
+    return fields[4];
+  }
+
+  /**
+   * Returns the player whose pawn stands on the end cell, 0 if it is empty.
+   *
+   * @return The player whose pawn stands on the end cell, 0 if it is empty.
+   */
+  public int getEndPlayer() {
+    return fields[5];
+  }
+
+  /**
+   * Returns the move as the line a client sends.
+   *
+   * @return The move line.
+   */
+  @Override
+  public String toString() {
+    return fields[0] + " " + fields[1] + " " + fields[2] + " " + fields[3] + " " + fields[4] + " " + fields[5];
+  }
+}
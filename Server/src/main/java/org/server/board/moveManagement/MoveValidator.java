@@ -1,18 +1,26 @@
 package org.server.board.moveManagement;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import org.server.board.boardObjects.BitBoard;
 import org.server.board.boardObjects.Cell;
 import org.server.board.boardObjects.Pawn;
 
 /**
  * Responsible for validating and executing moves in the game.
  * Validates whether a move is allowed based on the game rules and moves the corresponding pawn.
+ * The search of the last valid move is kept until the board changes, so the path of a move
+ * that was just validated is read from it instead of being searched again.
+ * A validator sharing the game's bitboard queries it as it is, since its moves keep it in step
+ * with the cells; a validator given the cells only reloads its own bitboard for every query.
  */
 public class MoveValidator implements IMoveValidator {
 
   private final Cell[][] cells;
-  int[][] directions;
+  private final BitBoard bitBoard;
+  private final boolean sharedBoard;
+  private final ReachabilityEngine reachabilityEngine;
+  private final int[] pathIds;
+  private int validatedStartId;
+  private int validatedEndId;
 
   /**
    * Constructs a move validator with specified move checking methods' implementations.
@@ -20,30 +28,63 @@ public class MoveValidator implements IMoveValidator {
    * @param cells The cells representing a game board.
    */
   public MoveValidator(Cell[][] cells) {
+    this(cells, new BitBoard(cells), false);
+  }
+
+  /**
+   * Constructs a move validator sharing the bitboard of the game, which its moves keep up to date.
+   *
+   * @param cells     The cells representing a game board.
+   * @param gameBoard The bitboard of the game, loaded with the cells.
+   */
+  public MoveValidator(Cell[][] cells, BitBoard gameBoard) {
+    this(cells, gameBoard, true);
+  }
+
+  private MoveValidator(Cell[][] cells, BitBoard bitBoard, boolean sharedBoard) {
     this.cells = cells;
-    directions = new int[][]{
-        {-1, -1}, {0, -2}, {1, -1},  // Upper left, left, bottom left
-        {1, 1}, {0, 2}, {-1, 1}      // Bottom right, right, upper right
-    };
+    this.bitBoard = bitBoard;
+    this.sharedBoard = sharedBoard;
+    this.reachabilityEngine = new ReachabilityEngine(bitBoard);
+    this.pathIds = new int[bitBoard.getSize()];
+    this.validatedStartId = -1;
+    this.validatedEndId = -1;
   }
 
   /**
    * Executes a move by relocating a pawn from a starting cell to a target cell.
    *
-   * @param input The move details encoded as a string (e.g., "rowStart colStart rowEnd colEnd").
+   * @param input The move details encoded as a string (e.g., "rowStart colStart player rowEnd colEnd 0").
    * @return A command string describing the move made (e.g., "[CMD] rowStart colStart rowEnd colEnd").
    */
   @Override
   public String makeMove(String input) {
-    int[] moveDetails = decodeInput(input);
-    int rowStart = moveDetails[0];
-    int colStart = moveDetails[1];
-    int rowEnd = moveDetails[3];
-    int colEnd = moveDetails[4];
+    return makeMove(MoveCommand.of(input));
+  }
 
+  /**
+   * Executes a move by relocating a pawn from a starting cell to a target cell.
+   *
+   * @param move The move.
+   * @return A command string describing the move made (e.g., "[CMD] rowStart colStart rowEnd colEnd").
+   */
+  @Override
+  public String makeMove(MoveCommand move) {
+    int rowStart = move.getStartRow();
+    int colStart = move.getStartCol();
+    int rowEnd = move.getEndRow();
+    int colEnd = move.getEndCol();
+
+    validatedStartId = -1;
     Pawn pawn = cells[rowStart][colStart].getPawn();
     cells[rowStart][colStart].pawnMoveOut();
     cells[rowEnd][colEnd].pawnMoveIn(pawn);
+
+    int startId = bitBoard.getId(rowStart, colStart);
+    int endId = bitBoard.getId(rowEnd, colEnd);
+    if (startId >= 0 && endId >= 0) {
+      bitBoard.movePawn(startId, endId);
+    }
     return "[CMD] " + rowStart + " " + colStart + " " + rowEnd + " " + colEnd;
   }
 
@@ -51,199 +92,106 @@ public class MoveValidator implements IMoveValidator {
    * Validates if a move is legal based on the game rules.
    *
    * @param userNum The user number making the move.
-   * @param input   The move details encoded as a string (e.g., "startRow startCol endRow endCol").
+   * @param input   The move details encoded as a string (e.g., "startRow startCol player endRow endCol 0").
    * @return True if the move is valid; false otherwise.
    */
   @Override
   public boolean validateMove(int userNum, String input) {
-    int[] moveDetails = decodeInput(input);
-    int startRow = moveDetails[0];
-    int startCol = moveDetails[1];
-    int startPlayer = moveDetails[2];
-    int endRow = moveDetails[3];
-    int endCol = moveDetails[4];
-    int endPlayer = moveDetails[5];
-
-    System.out.printf("Player: %d clicked pawn: %d\n", userNum, startPlayer);
-    System.out.printf("Start: [%d, %d], End: [%d, %d]\n", startRow, startCol, endRow, endCol);
-
-    // Validate starting and ending positions
-    if (!isValidStartingPoint(userNum, startPlayer) || !isValidEndingPoint(endPlayer)) {
-      return false;
-    }
-
-    if (cells[startRow][startCol].getPawn() == null) {
-      return false;
-    }
-
-    ArrayList<int[]> visited = new ArrayList<>();
-
-    // Check single-step moves
-    if (isValidSingleStep(startRow, startCol, endRow, endCol)) {
-      return true;
-    }
-
-    // Check jumps
-    return isValidJump(startRow, startCol, endRow, endCol, visited);
+    return validateMove(userNum, MoveCommand.of(input));
   }
 
   /**
-   * Checks if the starting position of the move belongs to the current player.
+   * Validates if a move is legal based on the game rules.
+   * A valid move's search is kept for {@link #findPath(MoveCommand)} until the next move is made.
    *
-   * @param userNum    The player number attempting the move.
-   * @param startPlayer The player number associated with the pawn at the start position.
-   * @return True if the starting position is valid; false otherwise.
+   * @param userNum The user number making the move.
+   * @param move    The move.
+   * @return True if the move is valid; false otherwise.
    */
-  private boolean isValidStartingPoint(int userNum, int startPlayer) {
-    if (startPlayer != userNum) {
-      System.out.println("Invalid start: Not your pawn.");
+  @Override
+  public boolean validateMove(int userNum, MoveCommand move) {
+    validatedStartId = -1;
+    // Validate starting and ending positions
+    if (!isValidStartingPoint(userNum, move.getStartPlayer()) || !isValidEndingPoint(move.getEndPlayer())) {
       return false;
     }
-    return true;
-  }
 
-  /**
-   * Checks if the ending position of the move is unoccupied.
-   *
-   * @param endPlayer The player number at the target position (0 if unoccupied).
-   * @return True if the ending position is valid; false otherwise.
-   */
-  private boolean isValidEndingPoint(int endPlayer) {
-    if (endPlayer != 0) {
-      System.out.println("Invalid end: Target cell is occupied.");
+    if (!sharedBoard) {
+      bitBoard.load();
+    }
+    int startId = bitBoard.getId(move.getStartRow(), move.getStartCol());
+    int endId = bitBoard.getId(move.getEndRow(), move.getEndCol());
+    if (startId < 0 || endId < 0 || bitBoard.getPlayerAt(startId) == 0) {
       return false;
     }
-    return true;
-  }
 
-  /**
-   * Validates a single-step move by checking if the target cell is adjacent and unoccupied.
-   *
-   * @param startRow   Starting row index.
-   * @param startCol   Starting column index.
-   * @param endRow     Target row index.
-   * @param endCol     Target column index.
-   * @return True if the move is a valid single-step move; false otherwise.
-   */
-  private boolean isValidSingleStep(int startRow, int startCol, int endRow, int endCol) {
-    for (int[] direction : directions) {
-      int targetRow = startRow + direction[0];
-      int targetCol = startCol + direction[1];
-      if (targetRow == endRow && targetCol == endCol && !cells[targetRow][targetCol].isOccupied()) {
-        System.out.println("Valid single-step move.");
-        return true;
-      }
+    // Single steps and chained jumps are both covered by one reachability query
+    if (!reachabilityEngine.isReachable(startId, endId)) {
+      return false;
     }
-    return false;
+    validatedStartId = startId;
+    validatedEndId = endId;
+    return true;
   }
 
   /**
-   * Validates a jump move by checking if the target cell is reachable via a valid jump.
+   * Finds the cells a pawn passes through when making a legal move, before the move is made.
    *
-   * @param startRow Starting row index.
-   * @param startCol Starting column index.
-   * @param endRow   Target row index.
-   * @param endCol   Target column index.
-   * @param visited  A list of already visited cells to avoid cycles.
-   * @return True if the move is a valid jump move; false otherwise.
+   * @param input The move details encoded as a string (e.g., "startRow startCol startPlayer endRow endCol endPlayer").
+   * @return The positions on the path as [row0, col0, row1, col1, ...] from start to end,
+   *     or an empty array if the target cell is not reachable.
    */
-  private boolean isValidJump(int startRow, int startCol, int endRow, int endCol, ArrayList<int[]> visited) {
-    for (int[] direction : directions) {
-      int jumpOverRow = startRow + direction[0];
-      int jumpOverCol = startCol + direction[1];
-
-      // Check if the adjacent cell is within bounds and occupied
-      if (isWithinBounds(jumpOverRow, jumpOverCol) && cells[jumpOverRow][jumpOverCol].isOccupied()) {
-        int landingRow = jumpOverRow + direction[0];
-        int landingCol = jumpOverCol + direction[1];
-
-        // Check if the landing cell is within bounds and unoccupied
-        if (isWithinBounds(landingRow, landingCol) && !cells[landingRow][landingCol].isOccupied()) {
-          if (landingRow == endRow && landingCol == endCol) {
-            System.out.println("Valid jump move.");
-            return true;
-          }
-
-          // Add to visited and recurse
-          visited.add(new int[]{startRow, startCol});
-          if (validateMoveRecursively(landingRow, landingCol, endRow, endCol, visited)) {
-            return true;
-          }
-        }
-      }
-    }
-    return false;
+  public int[] findPath(String input) {
+    return findPath(MoveCommand.of(input));
   }
 
   /**
-   * Recursively validates multi-jump moves by exploring all possible jump paths.
+   * Finds the cells a pawn passes through when making a legal move, before the move is made.
+   * The path of the move validated last is read from its search; any other move is searched first.
    *
-   * @param currentRow Current row index during recursion.
-   * @param currentCol Current column index during recursion.
-   * @param endRow     Target row index.
-   * @param endCol     Target column index.
-   * @param visited    A list of already visited cells to avoid cycles.
-   * @return True if the end cell is reachable via valid jumps; false otherwise.
+   * @param move The move.
+   * @return The positions on the path as [row0, col0, row1, col1, ...] from start to end,
+   *     or an empty array if the target cell is not reachable.
    */
-  private boolean validateMoveRecursively(int currentRow, int currentCol, int endRow, int endCol, ArrayList<int[]> visited) {
-    if (cells[currentRow][currentCol].isOccupied()) {
-      System.out.println("Invalid recursive move: Current cell is occupied.");
-      return false;
-    }
-    if (currentRow == endRow && currentCol == endCol) {
-      System.out.println("Recursive move successful.");
-      return true;
-    }
-    if (visited.stream().anyMatch(cell -> Arrays.equals(cell, new int[]{currentRow, currentCol}))) {
-      System.out.println("Invalid recursive move: Already visited this cell.");
-      return false;
+  public int[] findPath(MoveCommand move) {
+    int startId = bitBoard.getId(move.getStartRow(), move.getStartCol());
+    int endId = bitBoard.getId(move.getEndRow(), move.getEndCol());
+    if (startId < 0 || endId < 0) {
+      return new int[0];
     }
-
-    visited.add(new int[]{currentRow, currentCol});
-
-    for (int[] direction : directions) {
-      int jumpOverRow = currentRow + direction[0];
-      int jumpOverCol = currentCol + direction[1];
-      if (isWithinBounds(jumpOverRow, jumpOverCol) && cells[jumpOverRow][jumpOverCol].isOccupied()) {
-        int landingRow = jumpOverRow + direction[0];
-        int landingCol = jumpOverCol + direction[1];
-        if (isWithinBounds(landingRow, landingCol) && !cells[landingRow][landingCol].isOccupied()) {
-          if (validateMoveRecursively(landingRow, landingCol, endRow, endCol, visited)) {
-            return true;
-          }
-        }
+    if (startId != validatedStartId || endId != validatedEndId) {
+      if (!sharedBoard) {
+        bitBoard.load();
       }
+      reachabilityEngine.computeDestinations(startId, null);
+    }
+    int length = reachabilityEngine.getPath(endId, pathIds);
+    int[] path = new int[length * 2];
+    for (int i = 0; i < length; i++) {
+      path[2 * i] = bitBoard.getRow(pathIds[i]);
+      path[2 * i + 1] = bitBoard.getCol(pathIds[i]);
     }
-    return false;
+    return path;
   }
 
   /**
-   * Checks if a cell coordinate is within the bounds of the board.
+   * Checks if the starting position of the move belongs to the current player.
    *
-   * @param row The row index.
-   * @param col The column index.
-   * @return True if the cell is within bounds; false otherwise.
+   * @param userNum    The player number attempting the move.
+   * @param startPlayer The player number associated with the pawn at the start position.
+   * @return True if the starting position is valid; false otherwise.
    */
-  private boolean isWithinBounds(int row, int col) {
-    return row >= 0 && row < cells.length && col >= 0 && col < cells[0].length;
+  private boolean isValidStartingPoint(int userNum, int startPlayer) {
+    return startPlayer == userNum;
   }
 
   /**
-   * Decodes a move input string into an array of integers representing the move details.
+   * Checks if the ending position of the move is unoccupied.
    *
-   * @param input The move input as a string.
-   * @return An array of integers containing the parsed move details.
+   * @param endPlayer The player number at the target position (0 if unoccupied).
+   * @return True if the ending position is valid; false otherwise.
    */
-  private int[] decodeInput(String input) {
-    String[] tokens = input.split(" ");
-    int[] result = new int[tokens.length];
-    try {
-      for (int i = 0; i < tokens.length; i++) {
-        result[i] = Integer.parseInt(tokens[i]);
-      }
-    } catch (NumberFormatException e) {
-      e.printStackTrace();
-    }
-    return result;
+  private boolean isValidEndingPoint(int endPlayer) {
+    return endPlayer == 0;
   }
 }
@@ -0,0 +1,281 @@
+package org.server.board.moveManagement;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import org.server.board.boardObjects.BitBoard;
+import org.server.board.boardObjects.Cell;
+
+/**
+ * Bot strategy running the alpha-beta search with its root moves split across a {@link ForkJoinPool}.
+ * Every iteration of the iterative deepening forks one task per range of root moves; ranges are halved
+ * until a single move is left, so idle workers steal the remaining halves of busy ones.
+ * Each root move is searched with a full window by a worker-owned {@link AlphaBetaSearch},
+ * which yields exact values that do not depend on the order the workers finish in.
+ * The reduction then picks the first move (in the sequential search order) with the highest value,
+ * which is the move the sequential search selects at the same depth.
+ * All bots of all games share one pool, so the number of search threads stays bounded by the CPU count.
+ */
+public class ParallelRootSearch implements IBotStrategy {
+
+  private final Cell[][] cells;
+  private final BotEvaluator evaluator;
+  private final TranspositionTable transpositionTable;
+  private final long timeBudgetMillis;
+  private final long timeBudgetNanos;
+  private final ForkJoinPool pool;
+  private final ConcurrentLinkedQueue<AlphaBetaSearch> idleSearches;
+  private final BitBoard gameBoard;
+  private final BitBoard bitBoard;
+  private int maxDepth;
+  private int completedDepth;
+
+  /**
+   * Constructs a parallel search bot running on the pool shared by all bots.
+   *
+   * @param cells              The game board cells.
+   * @param evaluator          The evaluator used to score positions.
+   * @param timeBudgetMillis   The hard time budget of a single move, in milliseconds.
+   * @param transpositionTable The table caching searched positions, shared by the workers, or null.
+   */
+  public ParallelRootSearch(Cell[][] cells, BotEvaluator evaluator, long timeBudgetMillis,
+                            TranspositionTable transpositionTable) {
+    this(cells, evaluator, timeBudgetMillis, transpositionTable, BotStrategyFactory.getSharedPool());
+  }
+
+  /**
+   * Constructs a parallel search bot running on the given pool.
+   *
+   * @param cells              The game board cells.
+   * @param evaluator          The evaluator used to score positions.
+   * @param timeBudgetMillis   The hard time budget of a single move, in milliseconds.
+   * @param transpositionTable The table caching searched positions, shared by the workers, or null.
+   * @param pool               The pool the root moves are searched on.
+   */
+  public ParallelRootSearch(Cell[][] cells, BotEvaluator evaluator, long timeBudgetMillis,
+                            TranspositionTable transpositionTable, ForkJoinPool pool) {
+    this(cells, null, evaluator, timeBudgetMillis, transpositionTable, pool);
+  }
+
+  /**
+   * Constructs a parallel search bot running on the pool shared by all bots,
+   * whose workers search copies of the game's bitboard.
+   *
+   * @param gameBoard          The bitboard of the game.
+   * @param evaluator          The evaluator used to score positions.
+   * @param timeBudgetMillis   The hard time budget of a single move, in milliseconds.
+   * @param transpositionTable The table caching searched positions, shared by the workers, or null.
+   */
+  public ParallelRootSearch(BitBoard gameBoard, BotEvaluator evaluator, long timeBudgetMillis,
+                            TranspositionTable transpositionTable) {
+    this(null, gameBoard, evaluator, timeBudgetMillis, transpositionTable, BotStrategyFactory.getSharedPool());
+  }
+
+  private ParallelRootSearch(Cell[][] cells, BitBoard gameBoard, BotEvaluator evaluator, long timeBudgetMillis,
+                             TranspositionTable transpositionTable, ForkJoinPool pool) {
+    this.cells = cells;
+    this.gameBoard = gameBoard;
+    this.evaluator = evaluator;
+    this.transpositionTable = transpositionTable;
+    this.timeBudgetMillis = timeBudgetMillis;
+    this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+    this.pool = pool;
+    this.idleSearches = new ConcurrentLinkedQueue<>();
+    this.bitBoard = gameBoard != null ? gameBoard : new BitBoard(cells);
+    this.maxDepth = AlphaBetaSearch.getMaxSearchDepth();
+  }
+
+  /**
+   * Calculates the best move for a bot within the configured time budget.
+   *
+   * @param botNum             The bot's number.
+   * @param destinationPoint   The destination point for the bot.
+   * @param destinationZoneNum The destination zone for the bot.
+   * @return An array [startRow, startCol, endRow, endCol]; equal start and end positions mean the bot skips its turn.
+   */
+  @Override
+  public synchronized int[] getBestMoveForBot(int botNum, int[] destinationPoint, int destinationZoneNum) {
+    long deadline = System.nanoTime() + timeBudgetNanos;
+    completedDepth = 0;
+    if (transpositionTable != null) {
+      transpositionTable.newSearch();
+    }
+
+    AlphaBetaSearch rootSearch = acquireSearch();
+    rootSearch.startSearch(botNum, deadline);
+    int rootCount = rootSearch.generateRootMoves();
+    int[] froms = new int[rootCount];
+    int[] tos = new int[rootCount];
+    for (int i = 0; i < rootCount; i++) {
+      froms[i] = rootSearch.getRootMoveFrom(i);
+      tos[i] = rootSearch.getRootMoveTo(i);
+    }
+    releaseSearch(rootSearch);
+    if (rootCount == 0) {
+      return new int[]{destinationPoint[0], destinationPoint[1], destinationPoint[0], destinationPoint[1]};
+    }
+
+    int[] values = new int[rootCount];
+    boolean[] searched = new boolean[rootCount];
+    for (int depth = 1; depth <= maxDepth; depth++) {
+      Arrays.fill(searched, false);
+      boolean complete = pool.invoke(new RootMovesTask(botNum, deadline, depth, froms, tos, values, searched, 0, rootCount));
+
+      // A partial iteration is only trusted if it covered the previous best move, which is searched first
+      int iterationBestIndex = -1;
+      if (searched[0]) {
+        iterationBestIndex = 0;
+        for (int i = 1; i < rootCount; i++) {
+          if (searched[i] && values[i] > values[iterationBestIndex]) {
+            iterationBestIndex = i;
+          }
+        }
+        moveToFront(froms, tos, iterationBestIndex);
+      }
+      if (!complete) {
+        break;
+      }
+      completedDepth = depth;
+      if (AlphaBetaSearch.isDecisive(values[iterationBestIndex])) {
+        break;
+      }
+    }
+
+    return new int[]{bitBoard.getRow(froms[0]), bitBoard.getCol(froms[0]), bitBoard.getRow(tos[0]), bitBoard.getCol(tos[0])};
+  }
+
+  /**
+   * Returns the depth of the last fully completed iteration of the previous search.
+   *
+   * @return The completed search depth.
+   */
+  public synchronized int getCompletedDepth() {
+    return completedDepth;
+  }
+
+  /**
+   * Limits the depth of the iterative deepening, so searches finishing within the budget are reproducible.
+   *
+   * @param maxDepth The deepest iteration to run, capped at the engine's maximum depth.
+   */
+  public synchronized void setMaxDepth(int maxDepth) {
+    this.maxDepth = Math.max(1, Math.min(maxDepth, AlphaBetaSearch.getMaxSearchDepth()));
+  }
+
+  /**
+   * Takes an idle worker search, creating one if every existing search is busy.
+   * Searches are reused across moves, so their buffers are only allocated up to the pool's parallelism.
+   *
+   * @return A search owned by the caller until it is released.
+   */
+  private AlphaBetaSearch acquireSearch() {
+    AlphaBetaSearch search = idleSearches.poll();
+    if (search == null) {
+      search = gameBoard != null
+          ? new AlphaBetaSearch(gameBoard, evaluator, timeBudgetMillis, transpositionTable)
+          : new AlphaBetaSearch(cells, evaluator, timeBudgetMillis, transpositionTable);
+    }
+    return search;
+  }
+
+  /**
+   * Returns a worker search to the idle list.
+   *
+   * @param search The search to release.
+   */
+  private void releaseSearch(AlphaBetaSearch search) {
+    idleSearches.offer(search);
+  }
+
+  /**
+   * Moves a root move to the front of the list, keeping the order of the others.
+   *
+   * @param froms The origin cell ids of the root moves.
+   * @param tos   The target cell ids of the root moves.
+   * @param index The index of the move.
+   */
+  private static void moveToFront(int[] froms, int[] tos, int index) {
+    int from = froms[index];
+    int to = tos[index];
+    System.arraycopy(froms, 0, froms, 1, index);
+    System.arraycopy(tos, 0, tos, 1, index);
+    froms[0] = from;
+    tos[0] = to;
+  }
+
+  /**
+   * Searches a range of root moves, splitting it in halves until a single move is left.
+   * Every move writes its own slot of the result arrays, so no synchronization is needed beyond the joins.
+   */
+  private class RootMovesTask extends RecursiveTask<Boolean> {
+    private static final long serialVersionUID = 1L;
+
+    private final int botNum;
+    private final long deadline;
+    private final int depth;
+    private final int[] froms;
+    private final int[] tos;
+    private final int[] values;
+    private final boolean[] searched;
+    private final int start;
+    private final int end;
+
+    /**
+     * Constructs a task searching the root moves from start (inclusive) to end (exclusive).
+     *
+     * @param botNum   The bot the search is run for.
+     * @param deadline The {@link System#nanoTime()} value at which the search stops.
+     * @param depth    The depth of the iteration.
+     * @param froms    The origin cell ids of the root moves.
+     * @param tos      The target cell ids of the root moves.
+     * @param values   The values of the root moves, filled by the task.
+     * @param searched The flags marking root moves searched to completion, filled by the task.
+     * @param start    The first root move of the range.
+     * @param end      The end of the range.
+     */
+    RootMovesTask(int botNum, long deadline, int depth, int[] froms, int[] tos, int[] values, boolean[] searched,
+                  int start, int end) {
+      this.botNum = botNum;
+      this.deadline = deadline;
+      this.depth = depth;
+      this.froms = froms;
+      this.tos = tos;
+      this.values = values;
+      this.searched = searched;
+      this.start = start;
+      this.end = end;
+    }
+
+    /**
+     * Searches the range.
+     *
+     * @return True if every move of the range was searched before the deadline; false otherwise.
+     */
+    @Override
+    protected Boolean compute() {
+      if (end - start == 1) {
+        if (System.nanoTime() >= deadline) {
+          return false;
+        }
+        AlphaBetaSearch search = acquireSearch();
+        try {
+          search.startSearch(botNum, deadline);
+          int value = search.searchRootMove(froms[start], tos[start], depth);
+          searched[start] = !search.isTimeUp();
+          values[start] = value;
+          return searched[start];
+        } finally {
+          releaseSearch(search);
+        }
+      }
+      int middle = (start + end) >>> 1;
+      RootMovesTask first = new RootMovesTask(botNum, deadline, depth, froms, tos, values, searched, start, middle);
+      RootMovesTask second = new RootMovesTask(botNum, deadline, depth, froms, tos, values, searched, middle, end);
+      second.fork();
+      boolean firstComplete = first.compute();
+      boolean secondComplete = second.join();
+      return firstComplete && secondComplete;
+    }
+  }
+}
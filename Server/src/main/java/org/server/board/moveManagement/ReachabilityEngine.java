@@ -0,0 +1,187 @@
+package org.server.board.moveManagement;
+
+import java.util.Arrays;
+import org.server.board.boardObjects.BitBoard;
+
+/**
+ * Computes every cell a pawn can reach in one move: single steps plus all cells
+ * reachable by chained jumps, found with a single breadth-first search.
+ * All buffers are allocated once per engine and reused, so a query allocates nothing;
+ * visited cells are tracked with an epoch-stamped array that never needs clearing.
+ * An engine is bound to one {@link BitBoard} and is not thread-safe.
+ */
+public class ReachabilityEngine {
+
+  private final BitBoard bitBoard;
+  private final int[] visitedEpochs;
+  private final int[] queue;
+  private final int[] destinations;
+  private final int[] parents;
+  private final long[] reachableMask;
+  private int startId;
+  private int destinationCount;
+  private int epoch;
+
+  /**
+   * Constructs a reachability engine for the given bitboard.
+   *
+   * @param bitBoard The bitboard the engine works on.
+   */
+  public ReachabilityEngine(BitBoard bitBoard) {
+    this.bitBoard = bitBoard;
+    this.visitedEpochs = new int[bitBoard.getSize()];
+    this.queue = new int[bitBoard.getSize()];
+    this.destinations = new int[bitBoard.getSize()];
+    this.parents = new int[bitBoard.getSize()];
+    this.reachableMask = bitBoard.newMask();
+    this.epoch = 0;
+  }
+
+  /**
+   * Computes all cells reachable from the given cell in one move.
+   * The result is available through {@link #getReachableMask()} and {@link #getDestination(int)}
+   * until the next call.
+   *
+   * @param startId     The id of the cell the pawn starts from.
+   * @param allowedMask A mask of cells the pawn may stop on or pass through, or null if every cell is allowed.
+   * @return The number of reachable cells.
+   */
+  public int computeDestinations(int startId, long[] allowedMask) {
+    BitBoard.clear(reachableMask);
+    destinationCount = 0;
+    this.startId = startId;
+    nextEpoch();
+    visitedEpochs[startId] = epoch;
+
+    for (int dir = 0; dir < BitBoard.NUM_OF_DIRECTIONS; dir++) {
+      int targetId = bitBoard.getNeighbor(startId, dir);
+      if (targetId >= 0 && !bitBoard.isOccupied(targetId) && isAllowed(allowedMask, targetId)) {
+        addDestination(targetId, startId);
+      }
+    }
+
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = startId;
+    while (head < tail) {
+      int currentId = queue[head++];
+      for (int dir = 0; dir < BitBoard.NUM_OF_DIRECTIONS; dir++) {
+        int jumpOverId = bitBoard.getNeighbor(currentId, dir);
+        if (jumpOverId < 0 || !bitBoard.isOccupied(jumpOverId)) {
+          continue;
+        }
+        int landingId = bitBoard.getNeighbor(jumpOverId, dir);
+        if (landingId < 0 || bitBoard.isOccupied(landingId) || visitedEpochs[landingId] == epoch
+            || !isAllowed(allowedMask, landingId)) {
+          continue;
+        }
+        visitedEpochs[landingId] = epoch;
+        queue[tail++] = landingId;
+        addDestination(landingId, currentId);
+      }
+    }
+    return destinationCount;
+  }
+
+  /**
+   * Checks whether a pawn can move between two cells in one move.
+   *
+   * @param startId The id of the starting cell.
+   * @param endId   The id of the target cell.
+   * @return True if the target cell is reachable; false otherwise.
+   */
+  public boolean isReachable(int startId, int endId) {
+    computeDestinations(startId, null);
+    return BitBoard.testBit(reachableMask, endId);
+  }
+
+  /**
+   * Returns the mask of cells found by the last query.
+   *
+   * @return The reachable cells mask.
+   */
+  public long[] getReachableMask() {
+    return reachableMask;
+  }
+
+  /**
+   * Returns the number of cells found by the last query.
+   *
+   * @return The number of reachable cells.
+   */
+  public int getDestinationCount() {
+    return destinationCount;
+  }
+
+  /**
+   * Returns a cell found by the last query. Single steps come first (in direction order),
+   * followed by jump destinations in the order the search reached them.
+   *
+   * @param index The index of the destination, from 0 to {@link #getDestinationCount()} - 1.
+   * @return The id of the reachable cell.
+   */
+  public int getDestination(int index) {
+    return destinations[index];
+  }
+
+  /**
+   * Writes the cells a pawn passes through on its way to a cell found by the last query,
+   * from the starting cell to the target cell, both included. Jumps follow the shortest chain found.
+   *
+   * @param endId The id of a reachable cell.
+   * @param path  The array receiving the cell ids; must hold at least {@link BitBoard#getSize()} ids.
+   * @return The number of cells on the path, or 0 if the cell was not reachable.
+   */
+  public int getPath(int endId, int[] path) {
+    if (!BitBoard.testBit(reachableMask, endId)) {
+      return 0;
+    }
+    int length = 0;
+    for (int id = endId; id != startId; id = parents[id]) {
+      path[length++] = id;
+    }
+    path[length++] = startId;
+    for (int i = 0, j = length - 1; i < j; i++, j--) {
+      int id = path[i];
+      path[i] = path[j];
+      path[j] = id;
+    }
+    return length;
+  }
+
+  /**
+   * Adds a cell to the result of the current query.
+   *
+   * @param id       The id of the reachable cell.
+   * @param parentId The id of the cell the pawn reaches it from.
+   */
+  private void addDestination(int id, int parentId) {
+    if (!BitBoard.testBit(reachableMask, id)) {
+      BitBoard.setBit(reachableMask, id);
+      parents[id] = parentId;
+      destinations[destinationCount++] = id;
+    }
+  }
+
+  /**
+   * Checks whether the pawn may enter the given cell.
+   *
+   * @param allowedMask The mask of allowed cells, or null if every cell is allowed.
+   * @param id          The id of the cell.
+   * @return True if the cell is allowed; false otherwise.
+   */
+  private boolean isAllowed(long[] allowedMask, int id) {
+    return allowedMask == null || BitBoard.testBit(allowedMask, id);
+  }
+
+  /**
+   * Starts a new query, invalidating all visited stamps of previous queries.
+   */
+  private void nextEpoch() {
+    epoch++;
+    if (epoch == Integer.MAX_VALUE) {
+      Arrays.fill(visitedEpochs, 0);
+      epoch = 1;
+    }
+  }
+}
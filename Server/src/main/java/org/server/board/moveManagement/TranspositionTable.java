@@ -0,0 +1,175 @@
+package org.server.board.moveManagement;
+
+/**
+ * Fixed-size transposition table for bot searches, stored in a primitive long array.
+ * Each entry takes two longs: the key XOR-ed with the packed data, and the packed data itself.
+ * A reader only accepts an entry whose two halves XOR back to its key, so entries torn by
+ * concurrent writers are rejected instead of corrupting the search, and no locks are needed.
+ * Replacement is depth-preferred: a slot keeps its deeper entry unless the entry comes from an older search.
+ * Packed data layout (from the lowest bit): best move target (8 bits), best move origin (8 bits),
+ * search generation (6 bits), bound flag (2 bits), depth (8 bits), value (32 bits).
+ */
+public class TranspositionTable {
+
+  public static final int FLAG_NONE = 0;
+  public static final int FLAG_EXACT = 1;
+  public static final int FLAG_LOWER = 2;
+  public static final int FLAG_UPPER = 3;
+  public static final int NO_MOVE = 0xFF;
+
+  private static final int ENTRY_BYTES = 16;
+  private static final int GENERATION_MASK = 0x3F;
+
+  private final long[] table;
+  private final int indexMask;
+  private volatile int generation;
+
+  /**
+   * Constructs a transposition table using about the given amount of memory.
+   *
+   * @param sizeMb The size of the table in megabytes; rounded down to a power-of-two number of entries.
+   */
+  public TranspositionTable(int sizeMb) {
+    long requestedEntries = Math.max(1L, (long) sizeMb * 1024 * 1024 / ENTRY_BYTES);
+    int entries = Integer.highestOneBit((int) Math.min(requestedEntries, 1 << 28));
+    this.table = new long[entries * 2];
+    this.indexMask = entries - 1;
+    this.generation = 0;
+  }
+
+  /**
+   * Marks the start of a new search, so entries of previous searches can be replaced first.
+   */
+  public void newSearch() {
+    generation = (generation + 1) & GENERATION_MASK;
+  }
+
+  /**
+   * Looks up the packed data stored for a key.
+   *
+   * @param key The Zobrist key of the position.
+   * @return The packed data, or 0 if the table holds no entry for the key.
+   */
+  public long probe(long key) {
+    int index = slot(key);
+    long storedKey = table[index];
+    long data = table[index + 1];
+    if ((storedKey ^ data) != key || getFlag(data) == FLAG_NONE) {
+      return 0;
+    }
+    return data;
+  }
+
+  /**
+   * Stores a search result, unless the slot holds a deeper entry from the current search.
+   *
+   * @param key   The Zobrist key of the position.
+   * @param value The value of the position.
+   * @param depth The depth the position was searched to.
+   * @param flag  The bound type of the value ({@link #FLAG_EXACT}, {@link #FLAG_LOWER} or {@link #FLAG_UPPER}).
+   * @param from  The origin cell id of the best move, or {@link #NO_MOVE}.
+   * @param to    The target cell id of the best move, or {@link #NO_MOVE}.
+   */
+  public void store(long key, int value, int depth, int flag, int from, int to) {
+    int index = slot(key);
+    long storedKey = table[index];
+    long storedData = table[index + 1];
+    int currentGeneration = generation;
+    boolean sameKey = (storedKey ^ storedData) == key;
+    if (!sameKey && getFlag(storedData) != FLAG_NONE && getGeneration(storedData) == currentGeneration
+        && getDepth(storedData) > depth) {
+      return;
+    }
+    if (from >= NO_MOVE || to >= NO_MOVE) {
+      from = NO_MOVE;
+      to = NO_MOVE;
+    }
+    long data = ((long) value << 32)
+        | ((long) (Math.min(depth, 0xFF) & 0xFF) << 24)
+        | ((long) (flag & 0x3) << 22)
+        | ((long) (currentGeneration & GENERATION_MASK) << 16)
+        | ((long) (from & 0xFF) << 8)
+        | (to & 0xFF);
+    table[index] = key ^ data;
+    table[index + 1] = data;
+  }
+
+  /**
+   * Returns the number of entries the table can hold.
+   *
+   * @return The capacity in entries.
+   */
+  public int getCapacity() {
+    return indexMask + 1;
+  }
+
+  /**
+   * Extracts the value from packed data.
+   *
+   * @param data The packed data.
+   * @return The stored value.
+   */
+  public static int getValue(long data) {
+    return (int) (data >> 32);
+  }
+
+  /**
+   * Extracts the depth from packed data.
+   *
+   * @param data The packed data.
+   * @return The stored depth.
+   */
+  public static int getDepth(long data) {
+    return (int) (data >>> 24) & 0xFF;
+  }
+
+  /**
+   * Extracts the bound flag from packed data.
+   *
+   * @param data The packed data.
+   * @return The stored flag.
+   */
+  public static int getFlag(long data) {
+    return (int) (data >>> 22) & 0x3;
+  }
+
+  /**
+   * Extracts the best move origin from packed data.
+   *
+   * @param data The packed data.
+   * @return The origin cell id, or {@link #NO_MOVE}.
+   */
+  public static int getMoveFrom(long data) {
+    return (int) (data >>> 8) & 0xFF;
+  }
+
+  /**
+   * Extracts the best move target from packed data.
+   *
+   * @param data The packed data.
+   * @return The target cell id, or {@link #NO_MOVE}.
+   */
+  public static int getMoveTo(long data) {
+    return (int) data & 0xFF;
+  }
+
+  /**
+   * Extracts the search generation from packed data.
+   *
+   * @param data The packed data.
+   * @return The stored generation.
+   */
+  private static int getGeneration(long data) {
+    return (int) (data >>> 16) & GENERATION_MASK;
+  }
+
+  /**
+   * Returns the array index of the slot a key maps to.
+   *
+   * @param key The Zobrist key.
+   * @return The index of the slot's first long.
+   */
+  private int slot(long key) {
+    return (int) ((key ^ (key >>> 32)) & indexMask) << 1;
+  }
+}
@@ -0,0 +1,42 @@
+package org.server.network;
+
+import org.protocol.WireMessage;
+
+/**
+ * Callback receiving the events of connections served by the {@link NioServer}.
+ * Methods are called on the I/O thread owning the connection, so implementations must not block;
+ * long-running game logic should be handed over to another thread.
+ */
+public interface ConnectionListener {
+
+  /**
+   * Called when a new connection has been accepted.
+   *
+   * @param connection The new connection.
+   */
+  void onOpen(NioConnection connection);
+
+  /**
+   * Called for every complete line received on a connection, in the order the lines arrived.
+   *
+   * @param connection The connection the line arrived on.
+   * @param message    The line, without its terminator.
+   */
+  void onMessage(NioConnection connection, String message);
+
+  /**
+   * Called for every complete frame received on a connection that switched to the binary protocol,
+   * in the order the frames arrived.
+   *
+   * @param connection The connection the frame arrived on.
+   * @param message    The decoded frame.
+   */
+  void onFrame(NioConnection connection, WireMessage message);
+
+  /**
+   * Called once when a connection has been closed, by either side.
+   *
+   * @param connection The closed connection.
+   */
+  void onClose(NioConnection connection);
+}
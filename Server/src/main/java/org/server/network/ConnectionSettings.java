@@ -0,0 +1,45 @@
+package org.server.network;
+
+/**
+ * Settings shared by the client connections: the size of their outbound queues, what happens
+ * when a queue is full, whether the threads of blocking connections are virtual and whether
+ * clients may switch to the binary protocol.
+ */
+public class ConnectionSettings {
+  private final int outboundCapacity;
+  private final SlowConsumerPolicy slowConsumerPolicy;
+  private final boolean virtualThreads;
+  private final boolean binaryProtocol;
+
+  /**
+   * Constructs connection settings.
+   *
+   * @param outboundCapacity   The maximum number of messages queued for one client.
+   * @param slowConsumerPolicy What happens when a client's queue is full.
+   * @param virtualThreads     Whether blocking connections are served by virtual threads.
+   * @param binaryProtocol     Whether clients asking for the binary protocol get it.
+   */
+  public ConnectionSettings(int outboundCapacity, SlowConsumerPolicy slowConsumerPolicy, boolean virtualThreads,
+                            boolean binaryProtocol) {
+    this.outboundCapacity = outboundCapacity;
+    this.slowConsumerPolicy = slowConsumerPolicy;
+    this.virtualThreads = virtualThreads;
+    this.binaryProtocol = binaryProtocol;
+  }
+
+  public int getOutboundCapacity() {
+    return outboundCapacity;
+  }
+
+  public SlowConsumerPolicy getSlowConsumerPolicy() {
+    return slowConsumerPolicy;
+  }
+
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  public boolean isBinaryProtocol() {
+    return binaryProtocol;
+  }
+}
@@ -0,0 +1,69 @@
+package org.server.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import org.protocol.WireCodec;
+import org.protocol.WireMessage;
+
+/**
+ * Splits a byte stream into the length-prefixed frames of the binary protocol.
+ * Bytes of an unfinished frame are kept between calls, so frames may arrive split across any number of reads.
+ * A decoder belongs to a single connection and is not thread-safe.
+ */
+public class FrameDecoder {
+
+  private final int maxFrameLength;
+  private final byte[] prefix;
+  private int prefixLength;
+  private byte[] body;
+  private int bodyLength;
+
+  /**
+   * Constructs a frame decoder.
+   *
+   * @param maxFrameLength The longest accepted frame body, in bytes.
+   */
+  public FrameDecoder(int maxFrameLength) {
+    this.maxFrameLength = maxFrameLength;
+    this.prefix = new byte[2];
+    this.body = null;
+  }
+
+  /**
+   * Consumes all bytes remaining in the buffer and passes every completed frame to the consumer.
+   *
+   * @param buffer   The received bytes, ready to be read.
+   * @param consumer The receiver of decoded messages.
+   * @throws IOException If a frame is empty, longer than the maximum length or malformed.
+   */
+  public void decode(ByteBuffer buffer, Consumer<WireMessage> consumer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (body == null) {
+        prefix[prefixLength++] = buffer.get();
+        if (prefixLength == prefix.length) {
+          int length = ((prefix[0] & 0xFF) << 8) | (prefix[1] & 0xFF);
+          if (length == 0 || length > maxFrameLength) {
+            throw new IOException("Frame of " + length + " bytes");
+          }
+          body = new byte[length];
+          bodyLength = 0;
+          prefixLength = 0;
+        }
+        continue;
+      }
+      int count = Math.min(buffer.remaining(), body.length - bodyLength);
+      buffer.get(body, bodyLength, count);
+      bodyLength += count;
+      if (bodyLength == body.length) {
+        byte[] frame = body;
+        body = null;
+        try {
+          consumer.accept(WireCodec.decode(frame, 0, frame.length));
+        } catch (IllegalArgumentException e) {
+          throw new IOException(e.getMessage(), e);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package org.server.network;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Starts the threads serving blocking client connections, either as platform threads
+ * or as virtual threads. Virtual threads are looked up at runtime, so the server still
+ * builds for older Java versions and falls back to platform threads when they are missing.
+ */
+public final class HandlerThreads {
+
+  private static final Method START_VIRTUAL_THREAD = findStartVirtualThread();
+
+  private HandlerThreads() {
+  }
+
+  /**
+   * Checks whether the running JVM supports virtual threads.
+   *
+   * @return True if virtual threads can be started; false otherwise.
+   */
+  public static boolean isVirtualSupported() {
+    return START_VIRTUAL_THREAD != null;
+  }
+
+  /**
+   * Starts a thread running the given task.
+   *
+   * @param task    The task to run.
+   * @param virtual Whether to start a virtual thread; ignored if virtual threads are not supported.
+   * @return The started thread.
+   */
+  public static Thread start(Runnable task, boolean virtual) {
+    if (virtual && START_VIRTUAL_THREAD != null) {
+      try {
+        return (Thread) START_VIRTUAL_THREAD.invoke(null, task);
+      } catch (IllegalAccessException | InvocationTargetException e) {
+        throw new IllegalStateException("Cannot start a virtual thread", e);
+      }
+    }
+    Thread thread = new Thread(task);
+    thread.start();
+    return thread;
+  }
+
+  /**
+   * Looks up {@code Thread.startVirtualThread}, available since Java 21.
+   *
+   * @return The method, or null if the JVM has no virtual threads.
+   */
+  private static Method findStartVirtualThread() {
+    try {
+      return Thread.class.getMethod("startVirtualThread", Runnable.class);
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+}
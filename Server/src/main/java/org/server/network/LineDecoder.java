@@ -0,0 +1,87 @@
+package org.server.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Splits a byte stream into text lines terminated by '\n' (an optional preceding '\r' is dropped).
+ * Bytes of an unfinished line are kept between calls, so lines may arrive split across any number of reads.
+ * A decoder belongs to a single connection and is not thread-safe.
+ */
+public class LineDecoder {
+
+  private final int maxLineLength;
+  private byte[] line;
+  private int length;
+
+  /**
+   * Constructs a line decoder.
+   *
+   * @param maxLineLength The longest accepted line, in bytes.
+   */
+  public LineDecoder(int maxLineLength) {
+    this.maxLineLength = maxLineLength;
+    this.line = new byte[Math.min(256, maxLineLength)];
+    this.length = 0;
+  }
+
+  /**
+   * Consumes all bytes remaining in the buffer and passes every completed line to the consumer.
+   *
+   * @param buffer   The received bytes, ready to be read.
+   * @param consumer The receiver of completed lines, without their terminators.
+   * @throws IOException If a line is longer than the maximum length.
+   */
+  public void decode(ByteBuffer buffer, Consumer<String> consumer) throws IOException {
+    while (buffer.hasRemaining()) {
+      decodeLine(buffer, consumer);
+    }
+  }
+
+  /**
+   * Consumes bytes of the buffer up to and including the end of the next line and passes that line
+   * to the consumer. Bytes after the line stay in the buffer, so the rest of the stream can be read
+   * by another decoder.
+   *
+   * @param buffer   The received bytes, ready to be read.
+   * @param consumer The receiver of the completed line, without its terminator.
+   * @return True if a line was completed; false if the buffer ended first.
+   * @throws IOException If a line is longer than the maximum length.
+   */
+  public boolean decodeLine(ByteBuffer buffer, Consumer<String> consumer) throws IOException {
+    while (buffer.hasRemaining()) {
+      byte b = buffer.get();
+      if (b == '\n') {
+        int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+        String completed = new String(line, 0, end, StandardCharsets.UTF_8);
+        length = 0;
+        consumer.accept(completed);
+        return true;
+      }
+      if (length == maxLineLength) {
+        throw new IOException("Line longer than " + maxLineLength + " bytes");
+      }
+      if (length == line.length) {
+        line = Arrays.copyOf(line, Math.min(line.length * 2, maxLineLength));
+      }
+      line[length++] = b;
+    }
+    return false;
+  }
+
+  /**
+   * Encodes a message as one line of the protocol.
+   *
+   * @param message The message, without a terminator.
+   * @return The UTF-8 bytes of the message followed by '\n'.
+   */
+  public static byte[] encode(String message) {
+    byte[] text = message.getBytes(StandardCharsets.UTF_8);
+    byte[] encoded = Arrays.copyOf(text, text.length + 1);
+    encoded[text.length] = '\n';
+    return encoded;
+  }
+}
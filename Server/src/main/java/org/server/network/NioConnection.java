@@ -0,0 +1,254 @@
+package org.server.network;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.protocol.WireCodec;
+
+/**
+ * A client connection served by the {@link NioServer}.
+ * Each connection owns a read buffer, a write buffer and a {@link LineDecoder}, all used only by
+ * the I/O thread the connection is registered with. Once the connection is switched to the binary
+ * protocol, received bytes go to a {@link FrameDecoder} and every frame is passed to the listener's
+ * {@link ConnectionListener#onFrame} as a decoded {@link org.protocol.WireMessage}. Messages may be sent
+ * from any thread: they are queued and written by the I/O thread as soon as the socket accepts them.
+ */
+public class NioConnection {
+
+  private final SocketChannel channel;
+  private final SelectionKey key;
+  private final Executor ioThread;
+  private final ConnectionListener listener;
+  private final ByteBuffer readBuffer;
+  private final ByteBuffer writeBuffer;
+  private final LineDecoder decoder;
+  private FrameDecoder frameDecoder;
+  private final OutboundQueue outbound;
+  private final AtomicBoolean writeScheduled;
+  private final AtomicBoolean closed;
+  private byte[] currentMessage;
+  private int currentOffset;
+  private volatile Object attachment;
+
+  /**
+   * Constructs a connection for a registered channel.
+   *
+   * @param channel          The non-blocking socket channel.
+   * @param key              The channel's registration with the I/O thread's selector.
+   * @param ioThread         The executor running tasks on the connection's I/O thread.
+   * @param listener         The listener receiving the connection's events.
+   * @param readBufferSize   The size of the read buffer, in bytes.
+   * @param writeBufferSize  The size of the write buffer, in bytes.
+   * @param maxLineLength    The longest accepted line, in bytes.
+   * @param outboundCapacity The maximum number of messages waiting to be written.
+   */
+  NioConnection(SocketChannel channel, SelectionKey key, Executor ioThread, ConnectionListener listener,
+                int readBufferSize, int writeBufferSize, int maxLineLength, int outboundCapacity) {
+    this.channel = channel;
+    this.key = key;
+    this.ioThread = ioThread;
+    this.listener = listener;
+    this.readBuffer = ByteBuffer.allocate(readBufferSize);
+    this.writeBuffer = ByteBuffer.allocate(writeBufferSize);
+    this.decoder = new LineDecoder(maxLineLength);
+    this.outbound = new OutboundQueue(outboundCapacity);
+    this.writeScheduled = new AtomicBoolean(false);
+    this.closed = new AtomicBoolean(false);
+  }
+
+  /**
+   * Queues a message to be sent as one line. Never blocks.
+   *
+   * @param message The message, without a terminator.
+   * @return True if the message was queued or the connection is closed; false if the outbound queue is full.
+   */
+  public boolean send(String message) {
+    return send(LineDecoder.encode(message));
+  }
+
+  /**
+   * Queues an encoded message. Never blocks. Lets a message sent to many connections be encoded once;
+   * the array is shared and must not be modified afterwards.
+   *
+   * @param line The encoded message, including its terminator, as produced by {@link LineDecoder#encode(String)}.
+   * @return True if the message was queued or the connection is closed; false if the outbound queue is full.
+   */
+  public boolean send(byte[] line) {
+    if (closed.get()) {
+      return true;
+    }
+    if (!outbound.offer(line)) {
+      return false;
+    }
+    scheduleWrite();
+    return true;
+  }
+
+  /**
+   * Discards the messages waiting to be written. A message already partly written is completed.
+   */
+  public void clearOutbound() {
+    outbound.clear();
+  }
+
+  /**
+   * Asks the I/O thread to write the queued messages, unless it has been asked already.
+   */
+  private void scheduleWrite() {
+    if (writeScheduled.compareAndSet(false, true)) {
+      ioThread.execute(() -> {
+        writeScheduled.set(false);
+        handleWrite();
+      });
+    }
+  }
+
+  /**
+   * Closes the connection. The listener is notified on the connection's I/O thread.
+   */
+  public void close() {
+    ioThread.execute(this::closeNow);
+  }
+
+  /**
+   * Checks whether the connection is still open.
+   *
+   * @return True if the connection has not been closed; false otherwise.
+   */
+  public boolean isOpen() {
+    return !closed.get();
+  }
+
+  /**
+   * Returns the address of the remote peer.
+   *
+   * @return The remote address, or null if it is unknown.
+   */
+  public SocketAddress getRemoteAddress() {
+    try {
+      return channel.getRemoteAddress();
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Attaches an object, typically the player handler, to the connection.
+   *
+   * @param attachment The object to attach.
+   */
+  public void attach(Object attachment) {
+    this.attachment = attachment;
+  }
+
+  /**
+   * Returns the object attached to the connection.
+   *
+   * @return The attached object, or null.
+   */
+  public Object attachment() {
+    return attachment;
+  }
+
+  /**
+   * Switches the connection to reading frames of the binary protocol, starting with the byte after
+   * the line being handled. Must be called on the I/O thread, while the listener handles a line.
+   */
+  public void switchToFrames() {
+    frameDecoder = new FrameDecoder(WireCodec.MAX_FRAME_LENGTH);
+  }
+
+  /**
+   * Reads the available bytes and passes every completed line or frame to the listener. Runs on the I/O thread.
+   */
+  void handleRead() {
+    try {
+      int read = channel.read(readBuffer);
+      if (read < 0) {
+        closeNow();
+        return;
+      }
+      readBuffer.flip();
+      while (readBuffer.hasRemaining() && !closed.get()) {
+        if (frameDecoder != null) {
+          frameDecoder.decode(readBuffer, message -> listener.onFrame(this, message));
+        } else {
+          decoder.decodeLine(readBuffer, line -> listener.onMessage(this, line));
+        }
+      }
+      readBuffer.clear();
+    } catch (IOException e) {
+      closeNow();
+    }
+  }
+
+  /**
+   * Writes queued messages until the queue is empty or the socket stops accepting bytes,
+   * in which case the connection waits for the selector to report it writable. Runs on the I/O thread.
+   */
+  void handleWrite() {
+    if (closed.get()) {
+      return;
+    }
+    try {
+      while (true) {
+        fillWriteBuffer();
+        writeBuffer.flip();
+        channel.write(writeBuffer);
+        writeBuffer.compact();
+        if (writeBuffer.position() > 0) {
+          key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+          return;
+        }
+        if (currentMessage == null && outbound.isEmpty()) {
+          key.interestOps(SelectionKey.OP_READ);
+          return;
+        }
+      }
+    } catch (IOException e) {
+      closeNow();
+    }
+  }
+
+  /**
+   * Copies queued messages into the write buffer, splitting messages larger than the free space.
+   */
+  private void fillWriteBuffer() {
+    while (writeBuffer.hasRemaining()) {
+      if (currentMessage == null) {
+        currentMessage = outbound.poll();
+        currentOffset = 0;
+        if (currentMessage == null) {
+          return;
+        }
+      }
+      int length = Math.min(writeBuffer.remaining(), currentMessage.length - currentOffset);
+      writeBuffer.put(currentMessage, currentOffset, length);
+      currentOffset += length;
+      if (currentOffset == currentMessage.length) {
+        currentMessage = null;
+      }
+    }
+  }
+
+  /**
+   * Closes the channel and notifies the listener, once.
+   */
+  void closeNow() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    key.cancel();
+    try {
+      channel.close();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+    outbound.clear();
+    listener.onClose(this);
+  }
+}
@@ -0,0 +1,267 @@
+package org.server.network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.protocol.WireMessage;
+
+/**
+ * Non-blocking TCP server built on {@link Selector}.
+ * A small fixed number of I/O threads serves every connection: the first thread also accepts
+ * new connections and hands them out round-robin, after which each connection is read, decoded
+ * into lines and written only by its own I/O thread. Idle connections cost a selection key
+ * and two small buffers instead of a thread.
+ */
+public class NioServer {
+
+  private static final int READ_BUFFER_SIZE = 4096;
+  private static final int WRITE_BUFFER_SIZE = 8192;
+  private static final int MAX_LINE_LENGTH = 64 * 1024;
+  private static final int ACCEPT_BACKLOG = 1024;
+
+  private final int port;
+  private final int outboundCapacity;
+  private final ConnectionListener listener;
+  private final IoThread[] ioThreads;
+  private final AtomicInteger nextIoThread;
+  private final Set<NioConnection> connections;
+  private ServerSocketChannel serverChannel;
+  private volatile boolean running;
+
+  /**
+   * Constructs a server.
+   *
+   * @param port             The port to listen on, or 0 for any free port.
+   * @param ioThreadCount    The number of I/O threads.
+   * @param outboundCapacity The maximum number of messages waiting to be written to one connection.
+   * @param listener         The listener receiving connection events.
+   */
+  public NioServer(int port, int ioThreadCount, int outboundCapacity, ConnectionListener listener) {
+    this.port = port;
+    this.outboundCapacity = outboundCapacity;
+    this.listener = listener;
+    this.ioThreads = new IoThread[Math.max(1, ioThreadCount)];
+    this.nextIoThread = new AtomicInteger();
+    this.connections = ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Binds the server socket and starts the I/O threads.
+   *
+   * @throws IOException If the socket cannot be bound or a selector cannot be opened.
+   */
+  public synchronized void start() throws IOException {
+    serverChannel = ServerSocketChannel.open();
+    serverChannel.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+    serverChannel.configureBlocking(false);
+    for (int i = 0; i < ioThreads.length; i++) {
+      ioThreads[i] = new IoThread(i);
+    }
+    serverChannel.register(ioThreads[0].selector, SelectionKey.OP_ACCEPT);
+    running = true;
+    for (IoThread ioThread : ioThreads) {
+      ioThread.thread.start();
+    }
+  }
+
+  /**
+   * Stops the I/O threads and closes the server socket and every connection.
+   */
+  public synchronized void stop() {
+    running = false;
+    for (IoThread ioThread : ioThreads) {
+      if (ioThread != null) {
+        ioThread.selector.wakeup();
+      }
+    }
+    for (IoThread ioThread : ioThreads) {
+      if (ioThread != null) {
+        try {
+          ioThread.thread.join();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+    try {
+      serverChannel.close();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Returns the port the server listens on.
+   *
+   * @return The bound port.
+   */
+  public int getPort() {
+    return serverChannel.socket().getLocalPort();
+  }
+
+  /**
+   * Returns the number of open connections.
+   *
+   * @return The connection count.
+   */
+  public int getConnectionCount() {
+    return connections.size();
+  }
+
+  /**
+   * An I/O thread with its own selector. Tasks submitted from other threads run on it between selections.
+   */
+  private final class IoThread implements Runnable, Executor {
+    private final Selector selector;
+    private final Thread thread;
+    private final ConcurrentLinkedQueue<Runnable> tasks;
+
+    /**
+     * Constructs an I/O thread.
+     *
+     * @param index The index of the thread, used in its name.
+     * @throws IOException If the selector cannot be opened.
+     */
+    private IoThread(int index) throws IOException {
+      this.selector = Selector.open();
+      this.thread = new Thread(this, "nio-io-" + index);
+      this.thread.setDaemon(true);
+      this.tasks = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Runs a task on this I/O thread.
+     *
+     * @param task The task.
+     */
+    @Override
+    public void execute(Runnable task) {
+      tasks.add(task);
+      selector.wakeup();
+    }
+
+    /**
+     * The selection loop.
+     */
+    @Override
+    public void run() {
+      try {
+        while (running) {
+          selector.select();
+          Runnable task;
+          while ((task = tasks.poll()) != null) {
+            task.run();
+          }
+          Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+          while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid()) {
+              continue;
+            }
+            if (key.isAcceptable()) {
+              accept();
+              continue;
+            }
+            NioConnection connection = (NioConnection) key.attachment();
+            if (key.isReadable()) {
+              connection.handleRead();
+            }
+            if (key.isValid() && key.isWritable()) {
+              connection.handleWrite();
+            }
+          }
+        }
+      } catch (IOException e) {
+        e.printStackTrace();
+      } finally {
+        for (SelectionKey key : selector.keys()) {
+          if (key.attachment() instanceof NioConnection) {
+            ((NioConnection) key.attachment()).closeNow();
+          }
+        }
+        try {
+          selector.close();
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      }
+    }
+
+    /**
+     * Accepts every pending connection and assigns it to an I/O thread.
+     */
+    private void accept() {
+      try {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+          channel.configureBlocking(false);
+          channel.socket().setTcpNoDelay(true);
+          IoThread target = ioThreads[Math.floorMod(nextIoThread.getAndIncrement(), ioThreads.length)];
+          SocketChannel accepted = channel;
+          target.execute(() -> target.register(accepted));
+        }
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+
+    /**
+     * Registers an accepted channel with this thread's selector and notifies the listener.
+     *
+     * @param channel The accepted channel.
+     */
+    private void register(SocketChannel channel) {
+      try {
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        NioConnection connection = new NioConnection(channel, key, this, new TrackingListener(),
+            READ_BUFFER_SIZE, WRITE_BUFFER_SIZE, MAX_LINE_LENGTH, outboundCapacity);
+        key.attach(connection);
+        connections.add(connection);
+        listener.onOpen(connection);
+      } catch (IOException e) {
+        try {
+          channel.close();
+        } catch (IOException closeException) {
+          closeException.printStackTrace();
+        }
+      }
+    }
+  }
+
+  /**
+   * Forwards connection events to the server's listener, keeping the set of open connections up to date.
+   */
+  private final class TrackingListener implements ConnectionListener {
+
+    @Override
+    public void onOpen(NioConnection connection) {
+      listener.onOpen(connection);
+    }
+
+    @Override
+    public void onMessage(NioConnection connection, String message) {
+      listener.onMessage(connection, message);
+    }
+
+    @Override
+    public void onFrame(NioConnection connection, WireMessage message) {
+      listener.onFrame(connection, message);
+    }
+
+    @Override
+    public void onClose(NioConnection connection) {
+      connections.remove(connection);
+      listener.onClose(connection);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package org.server.network;
+
+import org.protocol.WireCodec;
+import org.protocol.WireMessage;
+
+/**
+ * A message to be sent to clients, encoded for the protocol of each client only once: as a text line
+ * for clients of the text protocol and as a frame for clients of the binary one. A message broadcast
+ * to many clients is built once and its encoded bytes are shared, so they must not be modified.
+ * The game's own messages are built from their fields and are never parsed; a message built from
+ * a text line is parsed once, when its frame is first needed.
+ * Not thread-safe; a message is built and sent by one thread.
+ */
+public class OutboundMessage {
+  private WireMessage message;
+  private String text;
+  private byte[] line;
+  private byte[] frame;
+
+  /**
+   * Constructs a message from a text line, sent to clients of the binary protocol in the line's binary form
+   * if it has one.
+   *
+   * @param text The message, without a terminator.
+   */
+  public OutboundMessage(String text) {
+    this.text = text;
+  }
+
+  /**
+   * Constructs a message from its fields, or a free text message from a {@link WireMessage} of type TEXT.
+   *
+   * @param message The message.
+   */
+  public OutboundMessage(WireMessage message) {
+    this.message = message;
+  }
+
+  /**
+   * Returns the message's text line, as sent by the text protocol.
+   *
+   * @return The line, without a terminator.
+   */
+  public String getText() {
+    if (text == null) {
+      text = WireCodec.toText(message);
+    }
+    return text;
+  }
+
+  /**
+   * Returns the message encoded for the text protocol.
+   *
+   * @return The UTF-8 bytes of the message followed by '\n'.
+   */
+  public byte[] line() {
+    if (line == null) {
+      line = LineDecoder.encode(getText());
+    }
+    return line;
+  }
+
+  /**
+   * Returns the message's type and fields. A message built from a text line is parsed on the first call.
+   *
+   * @return The message.
+   */
+  public WireMessage getMessage() {
+    if (message == null) {
+      message = WireCodec.parse(text);
+    }
+    return message;
+  }
+
+  /**
+   * Returns the message encoded for the binary protocol.
+   *
+   * @return The frame of the message.
+   */
+  public byte[] frame() {
+    if (frame == null) {
+      frame = WireCodec.encode(getMessage());
+    }
+    return frame;
+  }
+
+  /**
+   * Returns the message encoded for one of the protocols.
+   *
+   * @param binary Whether the binary protocol is used.
+   * @return The frame if binary is true; the line otherwise.
+   */
+  public byte[] encoded(boolean binary) {
+    return binary ? frame() : line();
+  }
+}
@@ -0,0 +1,76 @@
+package org.server.network;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Bounded queue of encoded messages waiting to be written to one client.
+ * Senders never block: a message that does not fit is refused, and the caller applies
+ * its {@link SlowConsumerPolicy}. The connection's writer drains the queue and writes
+ * as many queued messages as possible with one call.
+ */
+public class OutboundQueue {
+  private final LinkedBlockingQueue<byte[]> messages;
+
+  /**
+   * Constructs an outbound queue.
+   *
+   * @param capacity The maximum number of queued messages.
+   */
+  public OutboundQueue(int capacity) {
+    this.messages = new LinkedBlockingQueue<>(Math.max(1, capacity));
+  }
+
+  /**
+   * Queues a message if there is room for it. Never blocks.
+   *
+   * @param line The encoded message.
+   * @return True if the message was queued; false if the queue is full.
+   */
+  public boolean offer(byte[] line) {
+    return messages.offer(line);
+  }
+
+  /**
+   * Removes the oldest message, if any. Never blocks.
+   *
+   * @return The message, or null if the queue is empty.
+   */
+  public byte[] poll() {
+    return messages.poll();
+  }
+
+  /**
+   * Removes the oldest message, waiting for one if the queue is empty.
+   *
+   * @return The message.
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  public byte[] take() throws InterruptedException {
+    return messages.take();
+  }
+
+  /**
+   * Checks whether the queue is empty.
+   *
+   * @return True if no message is queued; false otherwise.
+   */
+  public boolean isEmpty() {
+    return messages.isEmpty();
+  }
+
+  /**
+   * Returns the number of queued messages.
+   *
+   * @return The queue length.
+   */
+  public int size() {
+    return messages.size();
+  }
+
+  /**
+   * Discards every queued message.
+   */
+  public void clear() {
+    messages.clear();
+  }
+}
@@ -0,0 +1,29 @@
+package org.server.network;
+
+/**
+ * What happens when a client reads so slowly that its outbound queue is full.
+ */
+public enum SlowConsumerPolicy {
+  /**
+   * The message that does not fit is discarded.
+   */
+  DROP,
+  /**
+   * The queued messages are discarded and replaced by the current state of the game: the turn, the board and the winners.
+   */
+  RESYNC,
+  /**
+   * The client is disconnected.
+   */
+  DISCONNECT;
+
+  /**
+   * Parses a policy name, ignoring case.
+   *
+   * @param name The policy name: drop, resync or disconnect.
+   * @return The policy.
+   */
+  public static SlowConsumerPolicy parse(String name) {
+    return valueOf(name.trim().toUpperCase());
+  }
+}
@@ -2,16 +2,27 @@ package org.server.playerHandlers;
 
 
 import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import org.protocol.WireCodec;
+import org.protocol.WireMessage;
 import org.server.GameManager;
-import org.server.board.moveManagement.BotMoveOptimizer;
-
-import static java.lang.Thread.sleep;
+import org.server.board.moveManagement.IBotStrategy;
+import org.server.board.moveManagement.MoveCommand;
+import org.server.network.OutboundMessage;
 
 /**
  * Represents a bot player in the game, with logic to make automated moves.
+ * The bot is driven by the messages of its game, which are delivered on the game's lane;
+ * its moves are delayed with the game's timer, so no thread sleeps while it "thinks".
+ * The search itself runs on the bot pool, keeping the lane free for the other games sharing it,
+ * and the move found is posted back to the lane to be applied. The board does not change during
+ * the search, since no other player may move while it is the bot's turn.
  */
 public class BotHandler extends PlayerHandler {
-  private final BotMoveOptimizer botMoveOptimizer;
+  private static final long MOVE_DELAY_MS = 1500;
+
+  private final IBotStrategy botStrategy;
+  private final Executor searchPool;
   private final GameManager gameManager;
   private final int[] destinationPoint;
   private final int destinationZoneNum;
@@ -19,82 +30,149 @@ public class BotHandler extends PlayerHandler {
   private int nextTurn;
   private final ArrayList<Integer> finishedPlayers;
   private boolean didIFinish;
+  private final MoveCommand move;
 
   /**
    * Constructs a BotHandler for automated gameplay.
    *
    * @param userNum          The bot's user number.
-   * @param botMoveOptimizer The optimizer for deciding the bot's moves.
+   * @param botStrategy      The strategy for deciding the bot's moves.
    * @param gameManager      The game manager handling the game logic.
    * @param destinationPoint The bot's destination point on the board.
    * @param destinationZoneNum The zone number representing the bot's destination.
+   * @param searchPool       The executor the bot's searches run on.
    */
-  public BotHandler(int userNum, BotMoveOptimizer botMoveOptimizer, GameManager gameManager, int[] destinationPoint, int destinationZoneNum) {
+  public BotHandler(int userNum, IBotStrategy botStrategy, GameManager gameManager, int[] destinationPoint, int destinationZoneNum,
+                    Executor searchPool) {
     setUserNum(userNum);
-    this.botMoveOptimizer = botMoveOptimizer;
+    this.botStrategy = botStrategy;
+    this.searchPool = searchPool;
     this.gameManager = gameManager;
     this.destinationPoint = destinationPoint;
     this.destinationZoneNum = destinationZoneNum;
     finishedPlayers = new ArrayList<>();
     didIFinish = false;
-    System.out.println(destinationPoint[0] + " " + destinationPoint[1]);
+    move = new MoveCommand();
   }
 
   /**
    * Sends a message to the player.
    *
    * @param message The message to be sent.
-   * @throws InterruptedException If the thread is interrupted.
    */
   @Override
-  public synchronized void sendMessage(String message) throws InterruptedException {
-    if (message.startsWith("User number ") || message.startsWith("Turn skipped by user:")) {
-      if (!didIFinish) {
-        int currTurn = nextTurn;
-        advanceTurn();
-        if (currTurn == userNum) {
-          sleep(1500);
-          makeMove();
+  public void sendMessage(String message) {
+    handle(WireCodec.parse(message));
+  }
+
+  /**
+   * Sends a message built for many players. The bot reads its fields instead of its text line.
+   *
+   * @param message The message to be sent.
+   */
+  @Override
+  public void sendEncoded(OutboundMessage message) {
+    handle(message.getMessage());
+  }
+
+  /**
+   * Follows the turns of the game: the start of the game, the moves and skips of the players and the players
+   * who have finished. Schedules the bot's move when its turn comes. Other messages are ignored.
+   *
+   * @param message The received message.
+   */
+  private void handle(WireMessage message) {
+    switch (message.getType()) {
+      case MOVED:
+      case SKIPPED:
+        if (!didIFinish) {
+          int currTurn = nextTurn;
           advanceTurn();
+          if (currTurn == userNum) {
+            scheduleMove();
+          }
         }
-      }
-    } else if (message.startsWith("START")) {
-      String options = message.substring("START.".length());
-      String[] optionsTable = options.split(",");
-      int currTurn = Integer.parseInt(optionsTable[2]);
-      numOfPlayers = Integer.parseInt(optionsTable[0]);
-      if (!didIFinish) {
-        nextTurn = currTurn;
-        advanceTurn();
-        if (currTurn == userNum) {
-          sleep(1500);
-          makeMove();
+        break;
+      case START:
+        numOfPlayers = message.getField(0);
+        int currTurn = message.getField(1);
+        if (!didIFinish) {
+          nextTurn = currTurn;
           advanceTurn();
+          if (currTurn == userNum) {
+            scheduleMove();
+          }
         }
+        break;
+      case WIN:
+        int playerNum = message.getField(0);
+        finishedPlayers.add(playerNum);
+        if (userNum == playerNum) {
+          didIFinish = true;
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Starts searching for the bot's move after a short delay, unless the bot or the game has finished by then.
+   */
+  private void scheduleMove() {
+    gameManager.executeLater(() -> {
+      if (isMyTurn()) {
+        searchPool.execute(this::searchMove);
       }
-    } else if (message.startsWith("WIN")) {
-      int playerNum = Integer.parseInt(message.substring("WIN.".length()));
-      finishedPlayers.add(playerNum);
-      if (userNum == playerNum) {
-        didIFinish = true;
-      }
+    }, MOVE_DELAY_MS);
+  }
+
+  /**
+   * Searches for the bot's move on the bot pool and posts it to the game's lane. A failed search skips the turn.
+   */
+  private void searchMove() {
+    int[] bestMove;
+    try {
+      bestMove = botStrategy.getBestMoveForBot(userNum, destinationPoint, destinationZoneNum);
+    } catch (RuntimeException e) {
+      System.err.println("Bot " + userNum + " failed to find a move: " + e.getMessage());
+      bestMove = null;
+    }
+    int[] foundMove = bestMove;
+    gameManager.execute(() -> onMoveReady(foundMove));
+  }
+
+  /**
+   * Handles the bot-move-ready command on the game's lane: plays the move found,
+   * unless the bot or the game has finished or the turn has passed while searching.
+   *
+   * @param bestMove The move found, or null to skip the turn.
+   */
+  private void onMoveReady(int[] bestMove) {
+    if (isMyTurn()) {
+      makeMove(bestMove);
+      advanceTurn();
     }
   }
 
   /**
-   * Makes a move for the bot based on optimized strategies.
+   * Checks whether the bot still has to move.
+   *
+   * @return true if neither the bot nor the game has finished and it is the bot's turn.
    */
-  public synchronized void makeMove() {
-    int[] bestMove = botMoveOptimizer.getBestMoveForBot(userNum, destinationPoint, destinationZoneNum);
-    int startRow = bestMove[0];
-    int startCol = bestMove[1];
-    int endRow = bestMove[2];
-    int endCol = bestMove[3];
+  private boolean isMyTurn() {
+    return !didIFinish && !gameManager.isGameFinished() && gameManager.getCurrTurn() == userNum;
+  }
 
-    if (startRow != endRow || startCol != endCol) {
-      String move = startRow + " " + startCol + " " + userNum + " " + endRow + " " + endCol + " 0";
+  /**
+   * Makes a move for the bot. A move that leaves the pawn in place skips the turn.
+   *
+   * @param bestMove The start row, start column, end row and end column of the move, or null to skip the turn.
+   */
+  public void makeMove(int[] bestMove) {
+    if (bestMove != null && (bestMove[0] != bestMove[2] || bestMove[1] != bestMove[3])) {
+      move.set(bestMove[0], bestMove[1], userNum, bestMove[2], bestMove[3], 0);
       gameManager.advanceTurn(gameManager.getPlayerHandlers().size());
-      System.out.println("bot turn: " + gameManager.getCurrTurn());
       gameManager.broadcastMove(userNum, move);
 
       int playerCheckedForWin = gameManager.checkWin();
@@ -3,176 +3,142 @@ package org.server.playerHandlers;
 
 import java.io.*;
 import java.net.Socket;
-import org.server.GameManager;
-import org.server.board.utilityHandlers.MaxUserHandler;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.server.network.ConnectionSettings;
+import org.protocol.WireMessage;
+import org.protocol.WireReader;
+import org.server.network.OutboundQueue;
 
 /**
  * Handles communication with a single client in the game.
- * Each instance of this class manages one client connection,
- * including receiving input and sending messages.
+ * Each instance of this class manages one client connection on a blocking socket: its thread
+ * reads lines and passes them on. Writing needs no thread of its own: when the outbound queue
+ * goes non-empty, one task is scheduled on the writers shared by all connections, and it sends
+ * everything queued so far with a single flush.
  */
-public class ClientHandler extends PlayerHandler implements Runnable {
+public class ClientHandler extends RemotePlayerHandler implements Runnable {
+  private static final int WRITE_BUFFER_SIZE = 8192;
+
   private final Socket socket;
-  private final BufferedReader bufferedReader;
-  private final BufferedWriter bufferedWriter;
-  private final GameManager gameManager;
-  //private final int userNum;
-  private boolean setup;
+  private final WireReader reader;
+  private final OutputStream outputStream;
+  private final OutboundQueue outbound;
+  private final Executor writers;
+  private final AtomicBoolean writeScheduled;
+  private boolean readingFrames;
 
   /**
-   * Constructs a ClientHandler with the specified socket, game manager and user number.
+   * Constructs a ClientHandler with the specified socket.
    *
    * @param socket       The socket connected to the client.
-   * @param gameManager  The game manager managing the game state.
-   * @param userNum      The user's position in the game.
+   * @param settings     The settings of the client's outbound queue, threads and protocol.
+   * @param writers      The executor shared by the connections to write their queued messages.
+   * @param listener     The listener receiving the player's messages and disconnection.
    * @throws IOException If an I/O error occurs when creating the input or output streams.
    */
-  public ClientHandler(Socket socket, GameManager gameManager, int userNum) throws IOException {
+  public ClientHandler(Socket socket, ConnectionSettings settings, Executor writers, RemotePlayerListener listener)
+      throws IOException {
+    super(settings.getSlowConsumerPolicy(), settings.isBinaryProtocol(), listener);
     this.socket = socket;
-    this.gameManager = gameManager;
-    setUserNum(userNum);
-    this.userNum = userNum;
-    this.setup = false;
-
-    this.bufferedReader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-    this.bufferedWriter = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
-
-    sendMessage(String.valueOf(userNum));
-
-    if (userNum == 1) {
-      requestMaxPlayers();
-      gameManager.setRandomTurn();
-      sendMessage("Game options correct.");
-    }
-
-    gameManager.addPlayer(this);
-    sendMessage("You have successfully joined.");
 
-    if (gameManager.getMaxUsers() != gameManager.getPlayerHandlers().size()) {
-      gameManager.broadcastNumOfUsers();
-    }
+    this.reader = new WireReader(socket.getInputStream());
+    this.outputStream = new BufferedOutputStream(socket.getOutputStream(), WRITE_BUFFER_SIZE);
+    this.outbound = new OutboundQueue(settings.getOutboundCapacity());
+    this.writers = writers;
+    this.writeScheduled = new AtomicBoolean(false);
   }
 
-
   /**
-   * Requests the maximum number of users from the client.
-   *
-   * @throws IOException If an I/O error occurs when reading from the client.
+   * The main logic for the client handler.
+   * Reads messages from the client and passes them to the listener until the connection is closed.
+   * Once the client switched to the binary protocol, its frames are passed on as decoded messages.
    */
-  void requestMaxPlayers() throws IOException {
-    int maxUsers = 0;
-    int maxBots = 0;
-    String variant = "";
-
+  @Override
+  public void run() {
     try {
-      String[] message = (bufferedReader.readLine()).split(",");
-      if (message[0].equals("DB")) {
-//          gameManager.initFromDatabase(Integer.parseInt(message[1]));
-        gameManager.createFromDatabase(Integer.parseInt(message[1]));
-        //maxUsers = 2;
-      } else {
-        while (isNumOfPlayersInvalid(maxUsers, maxBots)) {
-          maxUsers = Integer.parseInt(message[0]);
-          maxBots = Integer.parseInt(message[1]);
-          variant = message[2];
-          maxUsers = MaxUserHandler.handleMaxUsers(maxUsers, variant);
-          if (isNumOfPlayersInvalid(maxUsers, maxBots)) {
-            sendMessage("Wrong number of players!");
-            message = (bufferedReader.readLine()).split(",");
-          }
+      String line = reader.readLine();
+      while (line != null) {
+        received(line);
+        line = readingFrames ? null : reader.readLine();
+      }
+      if (readingFrames) {
+        WireMessage frame = reader.readFrame();
+        while (frame != null) {
+          receivedFrame(frame);
+          frame = reader.readFrame();
         }
-        gameManager.setMaxUsers(maxUsers);
-        gameManager.setMaxBots(maxBots);
-        gameManager.setVariant(variant);
       }
-    } catch (NumberFormatException e) {
-      sendMessage("Wrong number of players!");
+    } catch (IOException e) {
+      // The connection is closed below.
     }
+    closeEverything();
   }
 
   /**
-   * Checks if the given number of players is invalid.
-   *
-   * @param maxUsers number of users.
-   * @param maxBots number of bots.
-   * @return true if number of players is invalid, false otherwise.
+   * Asks the shared writers to write the queued messages, unless they have been asked already.
    */
-  private boolean isNumOfPlayersInvalid(int maxUsers, int maxBots) {
-    return (maxUsers + maxBots != 2 && maxUsers + maxBots != 3 && maxUsers + maxBots != 4 && maxUsers + maxBots != 6) || maxUsers < 1;
+  private void scheduleWrite() {
+    if (writeScheduled.compareAndSet(false, true)) {
+      writers.execute(this::writeMessages);
+    }
   }
 
   /**
-   * The main logic for the client handler.
-   * Reads messages from the client and processes them.
+   * Writes the queued messages with one flush, so a burst of messages costs one system call.
+   * Runs on a shared writer, never twice at the same time for one connection. Messages queued
+   * after the queue was drained schedule the next write.
    */
-  @Override
-  public void run() {
+  private void writeMessages() {
     try {
-      while (socket.isConnected()) {
-        String message = bufferedReader.readLine();
-        if (message.startsWith("SETUP")) {
-          if (Integer.parseInt(message.split(" ")[1]) == userNum) {
-            this.setup = true;
-            sendMessage("[SETUP]");
-          }
-          continue;
-        }
-        if (gameManager.isGameStarted() && userNum == gameManager.getCurrTurn()) {
-          int flag = gameManager.validateMove(userNum, message);
-          System.out.println(userNum + " " +  message);
-          switch (flag) {
-            case 0:
-              System.out.println(message);
-              System.out.println(userNum);
-              System.out.println("Broadcasting move");
-              gameManager.broadcastMove(userNum, message);
-              System.out.println("advancing turn");
-              gameManager.advanceTurn(gameManager.getPlayerHandlers().size());
-              System.out.println(gameManager.getCurrTurn());
-              break;
-
-
-
-              // Zakomentowane chwilowo
-//              int playerCheckedForWin = gameManager.checkWin();
-//              if (playerCheckedForWin != 0) {
-//                gameManager.broadcastPlayerWon(playerCheckedForWin);
-//                gameManager.addFinishedPlayer(playerCheckedForWin);
-//              }
-//              break;
-
-            case 1:
-              sendMessage("Invalid move!");
-              System.out.println("wrong move dupa");
-              break;
-            case 2:
-              gameManager.advanceTurn(gameManager.getPlayerHandlers().size());
-              gameManager.broadcastSkip(userNum);
-              break;
-            default:
-              System.out.println("Something went wrong");
-          }
-        } else {
-          if (bufferedReader.ready()) {
-            bufferedReader.readLine();
-          }
-        }
+      byte[] line = outbound.poll();
+      while (line != null) {
+        outputStream.write(line);
+        line = outbound.poll();
       }
+      outputStream.flush();
     } catch (IOException e) {
       closeEverything();
+      return;
+    }
+    writeScheduled.set(false);
+    if (!outbound.isEmpty() && !isClosed()) {
+      scheduleWrite();
     }
   }
 
   /**
-   * Sends a message to the client.
+   * Switches to reading frames. Called on this handler's thread, while it handles a line.
+   */
+  @Override
+  protected void switchToFrames() {
+    readingFrames = true;
+  }
+
+  /**
+   * Adds an encoded message to the outbound queue. Never blocks.
    *
-   * @param message The message to send.
-   * @throws IOException If an I/O error occurs when writing to the client.
+   * @param line The encoded message.
+   * @return True if the message was queued or the connection is closed; false if the queue is full.
    */
-  public synchronized void sendMessage(String message) throws IOException {
-    bufferedWriter.write(message);
-    bufferedWriter.newLine();
-    bufferedWriter.flush();
+  @Override
+  protected boolean enqueue(byte[] line) {
+    if (isClosed()) {
+      return true;
+    }
+    if (!outbound.offer(line)) {
+      return false;
+    }
+    scheduleWrite();
+    return true;
+  }
+
+  /**
+   * Discards the messages waiting in the outbound queue.
+   */
+  @Override
+  protected void clearOutbound() {
+    outbound.clear();
   }
 
   /**
@@ -185,26 +151,16 @@ public class ClientHandler extends PlayerHandler implements Runnable {
   }
 
   /**
-   * Closes all the resources (socket, bufferedReader, and bufferedWriter).
+   * Closes all the resources (socket and reader) and discards the unwritten messages.
    */
-  public void closeEverything() {
+  @Override
+  protected void closeConnection() {
+    outbound.clear();
     try {
       socket.close();
-      bufferedReader.close();
-      bufferedWriter.close();
+      reader.close();
     } catch (IOException e) {
       e.printStackTrace();
     }
-    gameManager.removePlayer(this);
   }
-
-  /**
-   * Returns whether the client has completed its setup phase.
-   *
-   * @return true if the client has completed setup; false otherwise.
-   */
-  public boolean getSetup() {
-    return setup;
-  }
-
-}
\ No newline at end of file
+}
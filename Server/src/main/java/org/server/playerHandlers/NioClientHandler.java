@@ -0,0 +1,81 @@
+package org.server.playerHandlers;
+
+import org.protocol.WireMessage;
+
+import org.server.network.ConnectionSettings;
+import org.server.network.NioConnection;
+
+/**
+ * Handles communication with a single client connected over the non-blocking transport.
+ * Unlike {@link ClientHandler} it owns no thread: the server passes it every decoded line,
+ * and messages sent to the client are queued on its {@link NioConnection}.
+ */
+public class NioClientHandler extends RemotePlayerHandler {
+  private final NioConnection connection;
+
+  /**
+   * Constructs a handler for a connection.
+   *
+   * @param connection The connection to the client.
+   * @param settings   The settings of the client's outbound queue and protocol.
+   * @param listener   The listener receiving the player's messages and disconnection.
+   */
+  public NioClientHandler(NioConnection connection, ConnectionSettings settings, RemotePlayerListener listener) {
+    super(settings.getSlowConsumerPolicy(), settings.isBinaryProtocol(), listener);
+    this.connection = connection;
+    connection.attach(this);
+  }
+
+  /**
+   * Handles a line decoded from the connection.
+   *
+   * @param line The received line.
+   */
+  public void onReceived(String line) {
+    received(line);
+  }
+
+  /**
+   * Handles a frame decoded from the connection.
+   *
+   * @param message The received frame.
+   */
+  public void onReceivedFrame(WireMessage message) {
+    receivedFrame(message);
+  }
+
+  /**
+   * Switches the connection to reading frames.
+   */
+  @Override
+  protected void switchToFrames() {
+    connection.switchToFrames();
+  }
+
+  /**
+   * Adds an encoded message to the connection's outbound queue. Never blocks.
+   *
+   * @param line The encoded message.
+   * @return True if the message was queued or the connection is closed; false if the queue is full.
+   */
+  @Override
+  protected boolean enqueue(byte[] line) {
+    return connection.send(line);
+  }
+
+  /**
+   * Discards the messages waiting in the connection's outbound queue.
+   */
+  @Override
+  protected void clearOutbound() {
+    connection.clearOutbound();
+  }
+
+  /**
+   * Closes the connection.
+   */
+  @Override
+  protected void closeConnection() {
+    connection.close();
+  }
+}
@@ -1,6 +1,7 @@
 package org.server.playerHandlers;
 
 import java.io.IOException;
+import org.server.network.OutboundMessage;
 
 /**
  * Abstract class representing a player in the game.
@@ -34,4 +35,16 @@ public abstract class PlayerHandler {
    * @throws InterruptedException If the thread is interrupted.
    */
   public abstract void sendMessage(String message) throws IOException, InterruptedException;
+
+  /**
+   * Sends a message that may be sent to many players, built once for all of them.
+   * Players without a connection receive its text line.
+   *
+   * @param message The message to be sent.
+   * @throws IOException          If an I/O error occurs.
+   * @throws InterruptedException If the thread is interrupted.
+   */
+  public void sendEncoded(OutboundMessage message) throws IOException, InterruptedException {
+    sendMessage(message.getText());
+  }
 }
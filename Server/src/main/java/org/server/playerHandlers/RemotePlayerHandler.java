@@ -0,0 +1,542 @@
+package org.server.playerHandlers;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.server.GameManager;
+import org.server.GameState;
+import org.server.board.moveManagement.MoveCommand;
+import org.server.board.utilityHandlers.MaxUserHandler;
+import org.protocol.MessageType;
+import org.protocol.WireCodec;
+import org.protocol.WireMessage;
+import org.server.network.OutboundMessage;
+import org.server.network.SlowConsumerPolicy;
+
+/**
+ * Base class of players connected over the network.
+ * Interprets the text protocol independently of the transport, so the same game logic
+ * serves clients on blocking sockets ({@link ClientHandler}) and on the non-blocking transport
+ * ({@link NioClientHandler}). Subclasses only deliver received lines and write queued messages.
+ * A player is created when its client connects and is admitted to a game later; from then on
+ * everything it does to the game runs as a command on the game's lane.
+ * Sending never blocks: messages go to the connection's bounded outbound queue, and when a client
+ * reads too slowly to keep up the configured {@link SlowConsumerPolicy} is applied to it alone.
+ * A client may ask for the binary protocol with its first line, see {@link WireCodec}; messages are
+ * then queued as frames, and subclasses switch the connection to reading frames.
+ */
+public abstract class RemotePlayerHandler extends PlayerHandler {
+  protected volatile GameManager gameManager;
+  private final SlowConsumerPolicy slowConsumerPolicy;
+  private final boolean binaryProtocolAllowed;
+  private final RemotePlayerListener listener;
+  private final AtomicLong droppedMessages;
+  private final AtomicLong resyncs;
+  private final AtomicBoolean closed;
+  private volatile boolean setup;
+  private volatile boolean joined;
+  private boolean resuming;
+  private final Object sendLock;
+  private boolean binary;
+  private boolean firstLine;
+  private final MoveCommand move;
+
+  /**
+   * Constructs a remote player handler that has not joined a game yet.
+   *
+   * @param slowConsumerPolicy    What happens when the client's outbound queue is full.
+   * @param binaryProtocolAllowed Whether the client gets the binary protocol if it asks for it.
+   * @param listener              The listener receiving the player's messages and disconnection.
+   */
+  protected RemotePlayerHandler(SlowConsumerPolicy slowConsumerPolicy, boolean binaryProtocolAllowed,
+                                RemotePlayerListener listener) {
+    this.slowConsumerPolicy = slowConsumerPolicy;
+    this.binaryProtocolAllowed = binaryProtocolAllowed;
+    this.listener = listener;
+    this.droppedMessages = new AtomicLong();
+    this.resyncs = new AtomicLong();
+    this.closed = new AtomicBoolean(false);
+    this.setup = false;
+    this.joined = false;
+    this.resuming = false;
+    this.sendLock = new Object();
+    this.binary = false;
+    this.firstLine = true;
+    this.move = new MoveCommand();
+  }
+
+  /**
+   * Admits the player to a game under the given user number. The player is sent its number on the game's
+   * lane; a user admitted while the game still waits for its options joins once it has sent valid ones,
+   * every other user joins right after.
+   *
+   * @param gameManager The game manager of the game.
+   * @param userNum     The user's position in the game.
+   */
+  public void admit(GameManager gameManager, int userNum) {
+    setUserNum(userNum);
+    this.gameManager = gameManager;
+    gameManager.execute(() -> {
+      if (isClosed()) {
+        return;
+      }
+      sendEncoded(new OutboundMessage(new WireMessage(MessageType.USER_NUM, userNum)));
+      if (gameManager.getLifecycle().getState() != GameState.LOBBY) {
+        join();
+      }
+    });
+  }
+
+  /**
+   * Returns the game manager of the player's game.
+   *
+   * @return The game manager, or null if the player has not been admitted to a game.
+   */
+  public GameManager getGameManager() {
+    return gameManager;
+  }
+
+  /**
+   * Handles a line received from the client. Runs on the game's lane.
+   * Valid game options from the first user configure the game, which lets the other users join.
+   * Lines received while a saved game is being loaded are ignored.
+   *
+   * @param line The received line.
+   */
+  public void onLine(String line) {
+    if (isClosed()) {
+      return;
+    }
+    if (!joined) {
+      if (!resuming && handleGameOptions(line)) {
+        configure();
+      }
+      return;
+    }
+    handleMessage(line);
+  }
+
+  /**
+   * Starts the game with the accepted options and adds the player to it. Runs on the game's lane.
+   */
+  private void configure() {
+    gameManager.setRandomTurn();
+    sendText("Game options correct.");
+    join();
+    gameManager.getLifecycle().moveTo(GameState.CONFIGURED);
+  }
+
+  /**
+   * Resumes a saved game without holding the game's lane while it is loaded, and configures the game
+   * once it has been restored. Runs on the game's lane, and so does the completion.
+   *
+   * @param savedGameNum The number of the saved game.
+   */
+  private void resumeSavedGame(int savedGameNum) {
+    resuming = true;
+    gameManager.resumeFromDatabase(savedGameNum).thenAccept(restored -> {
+      resuming = false;
+      if (isClosed() || gameManager.getLifecycle().getState() != GameState.LOBBY) {
+        return;
+      }
+      if (restored) {
+        configure();
+      } else {
+        sendText("No saved game!");
+      }
+    });
+  }
+
+  /**
+   * Handles a frame received from the client. Runs on the game's lane.
+   * Game options are text, so a frame received before the player joined is handled as its text line.
+   *
+   * @param message The received frame.
+   */
+  public void onFrame(WireMessage message) {
+    if (isClosed()) {
+      return;
+    }
+    if (!joined) {
+      onLine(WireCodec.toText(message));
+      return;
+    }
+    handleFrame(message);
+  }
+
+  /**
+   * Adds the player to the game. Runs on the game's lane.
+   */
+  private void join() {
+    joined = true;
+    gameManager.addPlayer(this);
+    sendText("You have successfully joined.");
+
+    if (gameManager.getMaxUsers() != gameManager.getPlayerHandlers().size()) {
+      gameManager.broadcastNumOfUsers();
+    }
+  }
+
+  /**
+   * Returns whether the player has joined the game.
+   *
+   * @return true if the player has joined; false if it is not admitted or the game options are still awaited.
+   */
+  public boolean isJoined() {
+    return joined;
+  }
+
+  /**
+   * Passes a line read from the connection to the listener. Called by subclasses, on the thread reading
+   * the connection. A first line asking for the binary protocol is answered here instead.
+   *
+   * @param line The received line.
+   */
+  protected void received(String line) {
+    if (firstLine) {
+      firstLine = false;
+      if (line.equals(WireCodec.HELLO)) {
+        negotiateProtocol();
+        return;
+      }
+    }
+    listener.onMessage(this, line);
+  }
+
+  /**
+   * Passes a frame read from the connection to the listener. Called by subclasses, on the thread reading
+   * the connection, once the client uses the binary protocol. Free text frames are passed on as lines.
+   *
+   * @param message The received frame.
+   */
+  protected void receivedFrame(WireMessage message) {
+    if (message.getType() == MessageType.TEXT) {
+      listener.onMessage(this, message.getText());
+    } else {
+      listener.onFrame(this, message);
+    }
+  }
+
+  /**
+   * Answers a client asking for the binary protocol. Every message queued before the answer is a text
+   * line and every message queued after it is a frame, whichever thread queues it.
+   */
+  private void negotiateProtocol() {
+    synchronized (sendLock) {
+      if (!binaryProtocolAllowed) {
+        enqueue(new OutboundMessage(WireCodec.ACK_TEXT).line());
+        return;
+      }
+      enqueue(new OutboundMessage(WireCodec.ACK_BINARY).line());
+      binary = true;
+    }
+    switchToFrames();
+  }
+
+  /**
+   * Switches the connection to reading frames, starting with the bytes after the line being handled.
+   * Called on the thread reading the connection.
+   */
+  protected abstract void switchToFrames();
+
+  /**
+   * Returns whether the client uses the binary protocol.
+   *
+   * @return true if messages are sent as frames; false if they are sent as text lines.
+   */
+  public boolean isBinary() {
+    synchronized (sendLock) {
+      return binary;
+    }
+  }
+
+  /**
+   * Queues a message to be sent to the client. Never blocks.
+   *
+   * @param message The message to send.
+   */
+  @Override
+  public void sendMessage(String message) {
+    sendEncoded(new OutboundMessage(message));
+  }
+
+  /**
+   * Queues a free text message, which is never parsed. Never blocks.
+   *
+   * @param text The message.
+   */
+  private void sendText(String text) {
+    sendEncoded(new OutboundMessage(new WireMessage(text)));
+  }
+
+  /**
+   * Queues a message, encoded for the client's protocol. Never blocks.
+   *
+   * @param message The message.
+   * @return The result of {@link #enqueue(byte[])}.
+   */
+  private boolean offer(OutboundMessage message) {
+    synchronized (sendLock) {
+      return enqueue(message.encoded(binary));
+    }
+  }
+
+  /**
+   * Queues the messages bringing the client back to the current state of its game, in place of those it missed.
+   *
+   * @return true if the client was resynchronized; false if it has no started game or its queue is still full.
+   */
+  private boolean resync() {
+    if (gameManager == null) {
+      return false;
+    }
+    List<OutboundMessage> messages = gameManager.resyncMessages();
+    if (messages.isEmpty()) {
+      return false;
+    }
+    for (OutboundMessage message : messages) {
+      if (!offer(message)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Queues a message that may be sent to many clients. Never blocks.
+   * The message is encoded at most once per protocol, whichever clients it is sent to.
+   *
+   * @param message The message.
+   */
+  @Override
+  public void sendEncoded(OutboundMessage message) {
+    if (offer(message)) {
+      return;
+    }
+    switch (slowConsumerPolicy) {
+      case DROP:
+        droppedMessages.incrementAndGet();
+        break;
+      case RESYNC:
+        clearOutbound();
+        if (resync()) {
+          resyncs.incrementAndGet();
+          break;
+        }
+        closeEverything();
+        break;
+      default:
+        closeEverything();
+    }
+  }
+
+  /**
+   * Adds an encoded message to the connection's outbound queue. Never blocks.
+   *
+   * @param line The encoded message.
+   * @return True if the message was queued, or discarded because the connection is closed;
+   *         false if the queue is full.
+   */
+  protected abstract boolean enqueue(byte[] line);
+
+  /**
+   * Discards the messages waiting in the connection's outbound queue.
+   */
+  protected abstract void clearOutbound();
+
+  /**
+   * Returns the number of messages discarded because the client read too slowly.
+   *
+   * @return The number of dropped messages.
+   */
+  public long getDroppedMessages() {
+    return droppedMessages.get();
+  }
+
+  /**
+   * Returns the number of times the client's queue was replaced by the current state of its game.
+   *
+   * @return The number of resynchronizations.
+   */
+  public long getResyncs() {
+    return resyncs.get();
+  }
+
+  /**
+   * Closes the connection, removes the player from its game on the game's lane and notifies the listener, once.
+   */
+  public void closeEverything() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    closeConnection();
+    GameManager game = gameManager;
+    if (game != null) {
+      game.execute(() -> game.removePlayer(this));
+    }
+    listener.onClose(this);
+  }
+
+  /**
+   * Checks whether the player's connection has been closed.
+   *
+   * @return True if the connection is closed; false otherwise.
+   */
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  /**
+   * Closes the underlying connection.
+   */
+  protected abstract void closeConnection();
+
+  /**
+   * Handles the game options sent by the first user: either "DB,gameNum" to resume a saved game,
+   * or "users,bots,variant" to start a new one.
+   *
+   * @param line The options line received from the client.
+   * @return True if the options were accepted; false if the client has to send them again,
+   *     or a saved game is being loaded and the game is configured once it has been restored.
+   */
+  protected boolean handleGameOptions(String line) {
+    try {
+      String[] message = line.split(",");
+      if (message[0].equals("DB")) {
+        resumeSavedGame(Integer.parseInt(message[1]));
+        return false;
+      }
+      int maxUsers = Integer.parseInt(message[0]);
+      int maxBots = Integer.parseInt(message[1]);
+      String variant = message[2];
+      maxUsers = MaxUserHandler.handleMaxUsers(maxUsers, variant);
+      if (isNumOfPlayersInvalid(maxUsers, maxBots)) {
+        sendText("Wrong number of players!");
+        return false;
+      }
+      gameManager.setMaxUsers(maxUsers);
+      gameManager.setMaxBots(maxBots);
+      gameManager.setVariant(variant);
+      return true;
+    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+      sendText("Wrong number of players!");
+      return false;
+    }
+  }
+
+  /**
+   * Checks if the given number of players is invalid.
+   *
+   * @param maxUsers number of users.
+   * @param maxBots number of bots.
+   * @return true if number of players is invalid, false otherwise.
+   */
+  private boolean isNumOfPlayersInvalid(int maxUsers, int maxBots) {
+    return (maxUsers + maxBots != 2 && maxUsers + maxBots != 3 && maxUsers + maxBots != 4 && maxUsers + maxBots != 6) || maxUsers < 1;
+  }
+
+  /**
+   * Handles a line received from the client after it joined: setup acknowledgements, moves and skips.
+   * A move is parsed once into the handler's reusable {@link MoveCommand}, which is then validated,
+   * made, saved and broadcast.
+   *
+   * @param message The received line.
+   * @return False if the message was ignored because it is not the player's turn; true otherwise.
+   */
+  protected boolean handleMessage(String message) {
+    if (message.startsWith("SETUP")) {
+      handleSetup(Integer.parseInt(message.split(" ")[1]));
+      return true;
+    }
+    if (!isMyTurn()) {
+      return false;
+    }
+    if (message.equals("SKIP")) {
+      skip();
+    } else {
+      playMove(move.parse(message));
+    }
+    return true;
+  }
+
+  /**
+   * Handles a frame received from the client after it joined, like {@link #handleMessage(String)}.
+   * A move frame is copied into the handler's reusable {@link MoveCommand} without being parsed.
+   *
+   * @param message The received frame.
+   * @return False if the message was ignored because it is not the player's turn; true otherwise.
+   */
+  protected boolean handleFrame(WireMessage message) {
+    switch (message.getType()) {
+      case TEXT:
+        return handleMessage(message.getText());
+      case SETUP:
+        handleSetup(message.getField(0));
+        return true;
+      default:
+        break;
+    }
+    if (!isMyTurn()) {
+      return false;
+    }
+    if (message.getType() == MessageType.SKIP) {
+      skip();
+    } else {
+      playMove(move.set(message));
+    }
+    return true;
+  }
+
+  /**
+   * Acknowledges the setup of the client and sends it the board once every client is set up.
+   *
+   * @param setupUserNum The user number the client sent with its setup message.
+   */
+  private void handleSetup(int setupUserNum) {
+    if (setupUserNum == userNum) {
+      this.setup = true;
+      sendEncoded(new OutboundMessage(new WireMessage(MessageType.SETUP_DONE)));
+      gameManager.sendBoardWhenSetup();
+    }
+  }
+
+  /**
+   * Returns whether the game has started and it is the player's turn.
+   *
+   * @return True if the player may move.
+   */
+  private boolean isMyTurn() {
+    return gameManager.isGameStarted() && userNum == gameManager.getCurrTurn();
+  }
+
+  /**
+   * Skips the player's turn.
+   */
+  private void skip() {
+    gameManager.advanceTurn(gameManager.getPlayerHandlers().size());
+    gameManager.broadcastSkip(userNum);
+  }
+
+  /**
+   * Makes the move held by the handler's {@link MoveCommand} if it is valid.
+   *
+   * @param parsed Whether the received message was a move.
+   */
+  private void playMove(boolean parsed) {
+    if (parsed && gameManager.validateMove(userNum, move)) {
+      gameManager.broadcastMove(userNum, move);
+      gameManager.advanceTurn(gameManager.getPlayerHandlers().size());
+    } else {
+      sendText("Invalid move!");
+    }
+  }
+
+  /**
+   * Returns whether the client has completed its setup phase.
+   *
+   * @return true if the client has completed setup; false otherwise.
+   */
+  public boolean getSetup() {
+    return setup;
+  }
+}
@@ -0,0 +1,34 @@
+package org.server.playerHandlers;
+
+import org.protocol.WireMessage;
+
+/**
+ * Receives what happens on the connections of remote players, whatever their transport.
+ * Methods are called on the threads reading the connections and must not block.
+ */
+public interface RemotePlayerListener {
+
+  /**
+   * Called for every line received from a player.
+   *
+   * @param player  The player.
+   * @param message The received line, without its terminator.
+   */
+  void onMessage(RemotePlayerHandler player, String message);
+
+  /**
+   * Called for every frame of the binary protocol received from a player, except free text frames,
+   * which are passed to {@link #onMessage(RemotePlayerHandler, String)} as lines.
+   *
+   * @param player  The player.
+   * @param message The decoded frame.
+   */
+  void onFrame(RemotePlayerHandler player, WireMessage message);
+
+  /**
+   * Called once when a player's connection is closed.
+   *
+   * @param player The player.
+   */
+  void onClose(RemotePlayerHandler player);
+}
@@ -82,4 +82,20 @@ class AbstractBoardManagerTest {
     String createString = boardManager.makeCreate(0, 12);
     assertEquals("[CREATE] 0 12 0 6", createString);
   }
+
+  @Test
+  void testMakeBoardSnapshot() {
+    String snapshot = boardManager.makeBoardSnapshot();
+    String header = "[BOARD] 6 17 25 ";
+
+    assertTrue(snapshot.startsWith(header));
+    assertEquals(header.length() + 17 * 25, snapshot.length(), "The snapshot should hold one digit per cell.");
+    for (int row = 0; row < 17; row++) {
+      for (int col = 0; col < 25; col++) {
+        String create = boardManager.makeCreate(row, col);
+        char expected = create.charAt(create.lastIndexOf(' ') - 1);
+        assertEquals(expected, snapshot.charAt(header.length() + row * 25 + col), "Cell " + row + " " + col);
+      }
+    }
+  }
 }
@@ -0,0 +1,68 @@
+package org.server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.server.board.boardManagement.BoardManager;
+import org.server.board.moveManagement.AlphaBetaSearch;
+import org.server.board.moveManagement.BotEvaluator;
+import org.server.board.moveManagement.MoveValidator;
+import org.server.board.moveManagement.TranspositionTable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlphaBetaSearchTest {
+
+  private BoardManager boardManager;
+  private BotEvaluator evaluator;
+
+  @BeforeEach
+  void setUp() {
+    boardManager = new BoardManager(10, 2, 0);
+    evaluator = new BotEvaluator(boardManager, 2);
+  }
+
+  @Test
+  void testReturnsLegalMoveWithinBudget() {
+    AlphaBetaSearch search = new AlphaBetaSearch(boardManager.getCells(), evaluator, 100);
+
+    long start = System.currentTimeMillis();
+    int[] move = search.getBestMoveForBot(1, boardManager.getDestinationPoint(1), boardManager.getDestinationZoneNum(1));
+    long elapsed = System.currentTimeMillis() - start;
+
+    assertEquals(4, move.length);
+    assertTrue(elapsed < 1000, "Search should respect its time budget.");
+    assertTrue(search.getCompletedDepth() >= 1, "At least one iteration should complete.");
+    String input = move[0] + " " + move[1] + " 1 " + move[2] + " " + move[3] + " 0";
+    assertTrue(new MoveValidator(boardManager.getCells()).validateMove(1, input), "Search should return a legal move.");
+  }
+
+  @Test
+  void testMovesTowardsDestination() {
+    AlphaBetaSearch search = new AlphaBetaSearch(boardManager.getCells(), evaluator, 100);
+    int[] destinationPoint = boardManager.getDestinationPoint(1);
+
+    int[] move = search.getBestMoveForBot(1, destinationPoint, boardManager.getDestinationZoneNum(1));
+
+    int before = BotEvaluator.getHexDistance(move[0], move[1], destinationPoint[0], destinationPoint[1]);
+    int after = BotEvaluator.getHexDistance(move[2], move[3], destinationPoint[0], destinationPoint[1]);
+    assertTrue(after < before, "The opening move should bring a pawn closer to the destination.");
+  }
+
+  @Test
+  void testSharedTranspositionTableKeepsMovesLegal() {
+    TranspositionTable table = new TranspositionTable(4);
+    AlphaBetaSearch first = new AlphaBetaSearch(boardManager.getCells(), evaluator, 100, table);
+    AlphaBetaSearch second = new AlphaBetaSearch(boardManager.getCells(), evaluator, 100, table);
+    MoveValidator moveValidator = new MoveValidator(boardManager.getCells());
+
+    for (int turn = 0; turn < 4; turn++) {
+      int playerNum = turn % 2 + 1;
+      AlphaBetaSearch search = playerNum == 1 ? first : second;
+      int[] move = search.getBestMoveForBot(playerNum, boardManager.getDestinationPoint(playerNum),
+          boardManager.getDestinationZoneNum(playerNum));
+      String input = move[0] + " " + move[1] + " " + playerNum + " " + move[2] + " " + move[3] + " 0";
+      assertTrue(moveValidator.validateMove(playerNum, input), "Move " + input + " should be legal.");
+      moveValidator.makeMove(input);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package org.server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.server.board.boardManagement.BoardManager;
+import org.server.board.boardObjects.BitBoard;
+import org.server.board.boardObjects.Cell;
+import org.server.board.boardObjects.Pawn;
+import org.server.board.moveManagement.MoveCommand;
+import org.server.board.moveManagement.MoveValidator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitBoardTest {
+
+  private BoardManager boardManager;
+  private BitBoard bitBoard;
+
+  @BeforeEach
+  void setUp() {
+    boardManager = new BoardManager(10, 2, 0);
+    bitBoard = boardManager.getBitBoard();
+  }
+
+  @Test
+  void testStandardBoardFitsInTwoWords() {
+    assertEquals(121, bitBoard.getSize());
+    assertEquals(2, bitBoard.getWords());
+  }
+
+  @Test
+  void testIdsMapBackToPositions() {
+    int id = bitBoard.getId(0, 12);
+    assertTrue(id >= 0);
+    assertEquals(0, bitBoard.getRow(id));
+    assertEquals(12, bitBoard.getCol(id));
+    assertEquals(-1, bitBoard.getId(0, 0));
+    assertEquals(-1, bitBoard.getId(-1, 12));
+  }
+
+  @Test
+  void testPlayerMasksMatchPawns() {
+    bitBoard.load();
+    assertEquals(10, Long.bitCount(bitBoard.getPlayerMask(1)[0]) + Long.bitCount(bitBoard.getPlayerMask(1)[1]));
+    assertEquals(10, Long.bitCount(bitBoard.getPlayerMask(2)[0]) + Long.bitCount(bitBoard.getPlayerMask(2)[1]));
+    assertEquals(1, bitBoard.getPlayerAt(bitBoard.getId(0, 12)));
+    assertEquals(0, bitBoard.getPlayerAt(bitBoard.getId(8, 12)));
+  }
+
+  @Test
+  void testMovePawnUpdatesMasks() {
+    int from = bitBoard.getId(3, 9);
+    int to = bitBoard.getId(4, 8);
+    bitBoard.movePawn(from, to);
+
+    assertFalse(bitBoard.isOccupied(from));
+    assertTrue(bitBoard.isOccupied(to));
+    assertEquals(1, bitBoard.getPlayerAt(to));
+  }
+
+  @Test
+  void testZobristKeyIsUpdatedIncrementally() {
+    long initialKey = bitBoard.getZobristKey();
+    int from = bitBoard.getId(3, 9);
+    int to = bitBoard.getId(4, 8);
+
+    bitBoard.movePawn(from, to);
+    assertNotEquals(initialKey, bitBoard.getZobristKey());
+    assertEquals(bitBoard.computeZobristKey(), bitBoard.getZobristKey());
+
+    bitBoard.movePawn(to, from);
+    assertEquals(initialKey, bitBoard.getZobristKey());
+  }
+
+  @Test
+  void testWinConditionUsesZoneMasks() {
+    Cell[][] cells = boardManager.getCells();
+    for (Cell[] cellRow : cells) {
+      for (Cell cell : cellRow) {
+        if (cell.isOccupied() && cell.getPawn().getPlayerNum() == 1) {
+          cell.pawnMoveOut();
+        }
+      }
+    }
+    bitBoard.load();
+    assertEquals(0, boardManager.checkWinCondition());
+
+    for (Cell[] cellRow : cells) {
+      for (Cell cell : cellRow) {
+        if (cell.getZoneNum() == 4) {
+          cell.pawnMoveOut();
+          cell.pawnMoveIn(new Pawn(1, cell));
+        }
+      }
+    }
+    bitBoard.load();
+    assertEquals(1, boardManager.checkWinCondition());
+  }
+
+  @Test
+  void testCopyIsIndependentAndReloadsFromTheGameBoard() {
+    BitBoard copy = new BitBoard(bitBoard);
+    int from = bitBoard.getId(3, 9);
+    int to = bitBoard.getId(4, 8);
+
+    copy.movePawn(from, to);
+    assertTrue(bitBoard.isOccupied(from));
+    assertFalse(copy.isOccupied(from));
+
+    copy.loadFrom(bitBoard);
+    assertTrue(copy.isOccupied(from));
+    assertFalse(copy.isOccupied(to));
+    assertEquals(bitBoard.getZobristKey(), copy.getZobristKey());
+  }
+
+  @Test
+  void testSharedValidatorKeepsTheGameBoardInStep() {
+    MoveValidator moveValidator = new MoveValidator(boardManager.getCells(), bitBoard);
+    MoveCommand move = MoveCommand.of("3 9 1 4 8 0");
+
+    assertTrue(moveValidator.validateMove(1, move));
+    moveValidator.makeMove(move);
+    assertEquals(1, bitBoard.getPlayerAt(bitBoard.getId(4, 8)));
+    assertFalse(bitBoard.isOccupied(bitBoard.getId(3, 9)));
+    assertEquals(new BitBoard(boardManager.getCells()).getZobristKey(), bitBoard.getZobristKey());
+  }
+
+  @Test
+  void testBoardsOfTheSameShapeShareTheirGeometry() {
+    BitBoard other = new BoardManager(10, 3, 0).getBitBoard();
+
+    assertSame(bitBoard.getInsideMask(), other.getInsideMask());
+    assertEquals(bitBoard.getNeighbor(bitBoard.getId(4, 12), 0), other.getNeighbor(other.getId(4, 12), 0));
+    assertNotSame(bitBoard.getOccupiedMask(), other.getOccupiedMask(), "Every game should own its position.");
+  }
+}
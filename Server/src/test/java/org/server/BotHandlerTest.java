@@ -0,0 +1,91 @@
+package org.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.protocol.MessageType;
+import org.protocol.WireMessage;
+import org.server.board.moveManagement.IBotStrategy;
+import org.server.board.moveManagement.MoveCommand;
+import org.server.network.OutboundMessage;
+import org.server.playerHandlers.BotHandler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BotHandlerTest {
+
+  private static final int BOT = 2;
+
+  private GameManager gameManager;
+  private IBotStrategy botStrategy;
+  private List<Runnable> searches;
+  private BotHandler bot;
+
+  @BeforeEach
+  void setUp() {
+    gameManager = mock(GameManager.class);
+    // The lane and the timer run commands immediately; searches wait until the test runs them
+    doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(0).run();
+      return null;
+    }).when(gameManager).executeLater(any(), anyLong());
+    doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(0).run();
+      return null;
+    }).when(gameManager).execute(any());
+    when(gameManager.getCurrTurn()).thenReturn(BOT);
+    botStrategy = mock(IBotStrategy.class);
+    when(botStrategy.getBestMoveForBot(eq(BOT), any(), anyInt())).thenReturn(new int[] {13, 9, 12, 8});
+    searches = new ArrayList<>();
+    bot = new BotHandler(BOT, botStrategy, gameManager, new int[] {0, 12}, 1, searches::add);
+  }
+
+  @Test
+  void testSearchRunsOnThePoolAndMoveIsPlayedOnTheLane() {
+    bot.sendMessage("START.2,currTurn," + BOT);
+
+    verify(botStrategy, never()).getBestMoveForBot(anyInt(), any(), anyInt());
+    assertEquals(1, searches.size(), "The search should be handed to the bot pool.");
+    searches.get(0).run();
+
+    verify(gameManager).broadcastMove(eq(BOT), any(MoveCommand.class));
+  }
+
+  @Test
+  void testMoveFoundAfterTurnPassedIsDropped() {
+    bot.sendMessage("START.2,currTurn," + BOT);
+    when(gameManager.getCurrTurn()).thenReturn(1);
+
+    searches.get(0).run();
+
+    verify(gameManager, never()).broadcastMove(anyInt(), any());
+    verify(gameManager, never()).broadcastSkip(anyInt());
+  }
+
+  @Test
+  void testFailedSearchSkipsTheTurn() {
+    when(botStrategy.getBestMoveForBot(eq(BOT), any(), anyInt())).thenThrow(new IllegalStateException("no board"));
+    bot.sendMessage("START.2,currTurn," + BOT);
+
+    searches.get(0).run();
+
+    verify(gameManager).broadcastSkip(BOT);
+    verify(gameManager, never()).broadcastMove(anyInt(), any());
+  }
+
+  @Test
+  void testBotFollowsTurnsFromMessageFields() {
+    bot.sendEncoded(new OutboundMessage(new WireMessage(MessageType.START, 2, 1)));
+    assertTrue(searches.isEmpty(), "The bot should wait for the first player's move.");
+
+    bot.sendEncoded(new OutboundMessage(new WireMessage(MessageType.MOVED, 1, 4, 12, 5, 11)));
+
+    assertEquals(1, searches.size(), "The bot should move after the first player.");
+  }
+}
@@ -0,0 +1,135 @@
+package org.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.server.network.HandlerThreads;
+
+/**
+ * Compares platform and virtual threads serving blocking connections the way {@link Server} does:
+ * one thread per connection, blocked in readLine until the client sends a line.
+ * For every connection count it opens the connections, sends one line on each and waits for every echo,
+ * then reports the time taken, the heap in use and the live thread count.
+ * Not run by the build; start it after {@code mvn test-compile} with
+ * {@code java -cp target/classes:target/test-classes org.server.ConnectionThreadsBenchmark 1000 10000 50000}.
+ * Large counts need a raised open-file limit (two descriptors per connection).
+ */
+public class ConnectionThreadsBenchmark {
+
+  private static final int READ_TIMEOUT_MS = 10_000;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args The connection counts; 1000, 10000 and 50000 if none are given.
+   * @throws Exception If the server socket cannot be opened.
+   */
+  public static void main(String[] args) throws Exception {
+    int[] counts = args.length == 0 ? new int[]{1000, 10000, 50000} : new int[args.length];
+    for (int i = 0; i < args.length; i++) {
+      counts[i] = Integer.parseInt(args[i]);
+    }
+    if (!HandlerThreads.isVirtualSupported()) {
+      System.out.println("Virtual threads need Java 21; running platform threads only");
+    }
+    System.out.printf("%-9s %8s %10s %12s %10s %8s%n", "threads", "target", "connected", "elapsed ms", "heap MB", "live");
+    for (int count : counts) {
+      run(count, false);
+      if (HandlerThreads.isVirtualSupported()) {
+        run(count, true);
+      }
+    }
+  }
+
+  /**
+   * Serves the given number of connections with one thread each.
+   *
+   * @param count   The number of connections.
+   * @param virtual Whether to serve them with virtual threads.
+   * @throws IOException If the server socket cannot be opened.
+   */
+  private static void run(int count, boolean virtual) throws IOException {
+    System.gc();
+    AtomicInteger live = new AtomicInteger();
+    List<Socket> clients = new ArrayList<>(count);
+    int answered = 0;
+    try (ServerSocket serverSocket = new ServerSocket(0, 4096)) {
+      Thread acceptor = new Thread(() -> {
+        while (!serverSocket.isClosed()) {
+          try {
+            Socket socket = serverSocket.accept();
+            HandlerThreads.start(() -> echo(socket, live), virtual);
+          } catch (IOException e) {
+            return;
+          }
+        }
+      });
+      acceptor.start();
+
+      long start = System.nanoTime();
+      try {
+        for (int i = 0; i < count; i++) {
+          Socket client = new Socket("localhost", serverSocket.getLocalPort());
+          client.setSoTimeout(READ_TIMEOUT_MS);
+          clients.add(client);
+        }
+        for (Socket client : clients) {
+          BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(client.getOutputStream()));
+          writer.write("ping");
+          writer.newLine();
+          writer.flush();
+        }
+        for (Socket client : clients) {
+          new BufferedReader(new InputStreamReader(client.getInputStream())).readLine();
+          answered++;
+        }
+      } catch (IOException | OutOfMemoryError e) {
+        System.out.println("Stopped after " + clients.size() + " connections and " + answered + " echoes: " + e);
+      }
+      long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+      Runtime runtime = Runtime.getRuntime();
+      long heapMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+      System.out.printf("%-9s %8d %10d %12d %10d %8d%n", virtual ? "virtual" : "platform", count, clients.size(),
+          elapsedMs, heapMb, live.get());
+    } finally {
+      for (Socket client : clients) {
+        try {
+          client.close();
+        } catch (IOException ignored) {
+          // The connection is discarded anyway.
+        }
+      }
+    }
+  }
+
+  /**
+   * Echoes lines until the client disconnects, like a client handler waiting for moves.
+   *
+   * @param socket The accepted connection.
+   * @param live   The number of running handlers.
+   */
+  private static void echo(Socket socket, AtomicInteger live) {
+    live.incrementAndGet();
+    try (socket) {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+      BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
+      String line;
+      while ((line = reader.readLine()) != null) {
+        writer.write(line);
+        writer.newLine();
+        writer.flush();
+      }
+    } catch (IOException ignored) {
+      // The benchmark closes every connection at the end of a run.
+    } finally {
+      live.decrementAndGet();
+    }
+  }
+}
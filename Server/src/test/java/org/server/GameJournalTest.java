@@ -0,0 +1,180 @@
+package org.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.server.board.BoardSnapshot;
+import org.server.board.BoardSnapshotRepository;
+import org.server.board.GameArchiveRepository;
+import org.server.board.GameJournal;
+import org.server.board.GameRecord;
+import org.server.board.GameRecordRepository;
+import org.server.board.JournalWriter;
+import org.server.board.MoveJournalEntry;
+import org.server.board.MoveJournalRepository;
+import org.server.board.MoveRecord;
+import org.server.board.MoveRecordHistory;
+import org.server.board.MoveRecordRepository;
+import org.server.board.SavedGame;
+import org.server.board.boardManagement.BoardManager;
+import org.server.board.boardObjects.Cell;
+import org.server.board.moveManagement.MoveValidator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class GameJournalTest {
+
+  private JournalWriter journalWriter;
+  private MoveJournalRepository moveJournalRepository;
+  private BoardSnapshotRepository boardSnapshotRepository;
+  private MoveRecordRepository moveRecordRepository;
+  private GameRecordRepository gameRecordRepository;
+  private GameJournal gameJournal;
+  private BoardManager boardManager;
+  private MoveValidator moveValidator;
+
+  @BeforeEach
+  void setUp() {
+    journalWriter = mock(JournalWriter.class);
+    moveJournalRepository = mock(MoveJournalRepository.class);
+    boardSnapshotRepository = mock(BoardSnapshotRepository.class);
+    moveRecordRepository = mock(MoveRecordRepository.class);
+    gameRecordRepository = mock(GameRecordRepository.class);
+    gameJournal = new GameJournal(journalWriter, moveJournalRepository, boardSnapshotRepository,
+        new MoveRecordHistory(moveRecordRepository, mock(GameArchiveRepository.class)),
+        gameRecordRepository, 3);
+    boardManager = new BoardManager(10, 2, 0);
+    moveValidator = new MoveValidator(boardManager.getCells());
+  }
+
+  @Test
+  void testSnapshotIsTakenEveryIntervalMoves() {
+    List<Object> records = playMoves("3 9 1 4 8 0", "13 9 2 12 8 0", "2 10 1 4 12 0", "13 11 2 12 10 0");
+
+    long snapshots = records.stream().filter(record -> record instanceof BoardSnapshot).count();
+    long moves = records.stream().filter(record -> record instanceof MoveJournalEntry).count();
+    assertEquals(4, moves);
+    assertEquals(2, snapshots, "Moves 0 and 3 should be followed by a snapshot.");
+    GameRecord gameRecord = (GameRecord) records.stream().filter(record -> record instanceof GameRecord)
+        .findFirst().orElseThrow();
+    assertEquals(7, gameRecord.getGameNumber());
+    assertEquals("STANDARD", gameRecord.getVariant());
+    assertEquals(2, gameRecord.getNumOfPlayers());
+  }
+
+  @Test
+  void testJumpPathIsRecorded() {
+    List<Object> records = playMoves("3 9 1 4 8 0", "13 9 2 12 8 0", "2 10 1 4 12 0");
+
+    MoveJournalEntry jump = (MoveJournalEntry) records.stream()
+        .filter(record -> record instanceof MoveJournalEntry && ((MoveJournalEntry) record).getMoveNumber() == 2)
+        .findFirst().orElseThrow();
+    assertEquals("2 10;4 12", jump.getJumpPath());
+  }
+
+  @Test
+  void testRestoreReplaysMovesAfterLatestSnapshot() {
+    List<Object> records = playMoves("3 9 1 4 8 0", "13 9 2 12 8 0", "2 10 1 4 12 0");
+    BoardSnapshot snapshot = null;
+    List<MoveJournalEntry> entries = new ArrayList<>();
+    for (Object record : records) {
+      if (record instanceof BoardSnapshot) {
+        snapshot = (BoardSnapshot) record;
+      } else if (record instanceof MoveJournalEntry && ((MoveJournalEntry) record).getMoveNumber() > 0) {
+        entries.add((MoveJournalEntry) record);
+      }
+    }
+    when(gameRecordRepository.findWithLatestSnapshot(7))
+        .thenReturn(List.of(new SavedGame(new GameRecord(7, "STANDARD", 2, 0, 10, 42), snapshot)));
+    when(moveJournalRepository.findMovesAfter(7, 0)).thenReturn(entries);
+
+    BoardManager restored = new BoardManager(10, 2, 0);
+    restored.removePawns();
+    int moveNum = gameJournal.restoreLatestPosition(7, restored.getCells());
+
+    assertEquals(2, moveNum);
+    Cell[][] expected = boardManager.getCells();
+    Cell[][] actual = restored.getCells();
+    for (int row = 0; row < expected.length; row++) {
+      for (int col = 0; col < expected[row].length; col++) {
+        assertEquals(expected[row][col].isOccupied(), actual[row][col].isOccupied(), "Cell " + row + " " + col);
+        if (expected[row][col].isOccupied()) {
+          assertEquals(expected[row][col].getPawn().getPlayerNum(), actual[row][col].getPawn().getPlayerNum());
+        }
+        assertEquals(expected[row][col].getZoneNum(), actual[row][col].getZoneNum());
+      }
+    }
+    verify(moveRecordRepository, never()).findGamesWithMaxMoveByGameNum(anyInt());
+  }
+
+  @Test
+  void testLegacyGamesAreReadFromMoveRecords() {
+    MoveRecord cell = new MoveRecord(12);
+    cell.setGameNumber(3);
+    cell.setCellRowNumber(3);
+    cell.setCellColumnNumber(9);
+    cell.setCellPlayerNumber(1);
+    cell.setVariant("STANDARD");
+    cell.setNumOfPlayers(1);
+    cell.setNumOfBots(1);
+    when(moveRecordRepository.findGamesWithMaxMoveByGameNum(3)).thenReturn(List.of(cell));
+
+    SavedGame savedGame = gameJournal.loadGame(3);
+    assertEquals("STANDARD", savedGame.getGameRecord().getVariant());
+    assertEquals(1, savedGame.getGameRecord().getNumOfBots());
+
+    BoardManager restored = new BoardManager(10, 2, 0);
+    restored.removePawns();
+    assertEquals(12, gameJournal.restorePosition(savedGame, restored.getCells()));
+    assertEquals(1, restored.getCells()[3][9].getPawn().getPlayerNum());
+    verify(moveRecordRepository, times(1)).findGamesWithMaxMoveByGameNum(3);
+  }
+
+  @Test
+  void testLoadedGameKeepsTheSettingsOfItsGameRecord() {
+    List<Object> records = playMoves("3 9 1 4 8 0");
+    BoardSnapshot snapshot = (BoardSnapshot) records.stream().filter(record -> record instanceof BoardSnapshot)
+        .findFirst().orElseThrow();
+    when(gameRecordRepository.findWithLatestSnapshot(7))
+        .thenReturn(List.of(new SavedGame(new GameRecord(7, "STANDARD", 2, 0, 12, 4242), snapshot)));
+
+    SavedGame savedGame = gameJournal.loadGame(7);
+    assertSame(snapshot, savedGame.getSnapshot());
+    assertEquals(4242, savedGame.getGameRecord().getSeed(), "A resumed game should keep its seed.");
+    assertEquals(12, savedGame.getGameRecord().getBoardSize());
+    verify(gameRecordRepository, never()).findById(anyInt());
+    verify(moveRecordRepository, never()).findGamesWithMaxMoveByGameNum(anyInt());
+  }
+
+  @Test
+  void testUnknownGameIsNotLoaded() {
+    when(moveRecordRepository.findGamesWithMaxMoveByGameNum(4)).thenReturn(List.of());
+
+    assertNull(gameJournal.loadGame(4));
+    assertEquals(-1, gameJournal.restoreLatestPosition(4, boardManager.getCells()));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Object> playMoves(String... inputs) {
+    for (int moveNum = 0; moveNum < inputs.length; moveNum++) {
+      String input = inputs[moveNum];
+      int playerNum = Integer.parseInt(input.split(" ")[2]);
+      assertTrue(moveValidator.validateMove(playerNum, input), "Move " + input + " should be legal.");
+      int[] path = moveValidator.findPath(input);
+      moveValidator.makeMove(input);
+      MoveJournalEntry entry = new MoveJournalEntry(7, moveNum, playerNum, path[0], path[1],
+          path[path.length - 2], path[path.length - 1], MoveJournalEntry.encodePath(path));
+      gameJournal.recordMove(entry, boardManager.getCells(), new GameRecord(7, "STANDARD", 2, 0, 10, 42));
+    }
+
+    ArgumentCaptor<List<Object>> captor = ArgumentCaptor.forClass(List.class);
+    verify(journalWriter, times(inputs.length)).enqueue(captor.capture());
+    List<Object> records = new ArrayList<>();
+    captor.getAllValues().forEach(records::addAll);
+    return records;
+  }
+}
@@ -0,0 +1,108 @@
+package org.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLifecycleTest {
+
+  private List<Runnable> scheduled;
+  private List<Long> delays;
+  private List<Future<?>> futures;
+  private List<GameState> timedOut;
+  private LifecycleMetrics metrics;
+  private GameLifecycle lifecycle;
+
+  @BeforeEach
+  void setUp() {
+    scheduled = new ArrayList<>();
+    delays = new ArrayList<>();
+    futures = new ArrayList<>();
+    timedOut = new ArrayList<>();
+    metrics = new LifecycleMetrics();
+    lifecycle = new GameLifecycle((command, delayMs) -> {
+      scheduled.add(command);
+      delays.add(delayMs);
+      futures.add(new CompletableFuture<Void>());
+      return futures.get(futures.size() - 1);
+    }, state -> state == GameState.RUNNING ? 0 : 100 + state.ordinal(), timedOut::add);
+    lifecycle.start(metrics);
+  }
+
+  @Test
+  void testGameMovesThroughEveryState() {
+    for (GameState state : GameState.values()) {
+      if (state != GameState.LOBBY) {
+        assertTrue(lifecycle.moveTo(state));
+      }
+      assertEquals(state, lifecycle.getState());
+      assertTrue(lifecycle.reached(state).isDone());
+      assertEquals(1, metrics.getEntered(state));
+    }
+    assertFalse(lifecycle.moveTo(GameState.ARCHIVED), "Archiving twice should change nothing.");
+  }
+
+  @Test
+  void testStatesCannotBeSkippedOrRevisited() {
+    assertThrows(IllegalStateException.class, () -> lifecycle.moveTo(GameState.RUNNING));
+    lifecycle.moveTo(GameState.CONFIGURED);
+    assertThrows(IllegalStateException.class, () -> lifecycle.moveTo(GameState.LOBBY));
+    assertEquals(GameState.CONFIGURED, lifecycle.getState());
+  }
+
+  @Test
+  void testAbandonedGameCancelsStatesNeverReached() {
+    CompletableFuture<Void> configured = lifecycle.reached(GameState.CONFIGURED);
+    CompletableFuture<Void> archived = lifecycle.reached(GameState.ARCHIVED);
+
+    lifecycle.moveTo(GameState.ARCHIVED);
+
+    assertThrows(CancellationException.class, configured::get);
+    assertTrue(lifecycle.reached(GameState.RUNNING).isCompletedExceptionally());
+    assertTrue(archived.isDone() && !archived.isCompletedExceptionally());
+  }
+
+  @Test
+  void testTimeoutFiresOnlyForTheCurrentState() {
+    assertEquals(List.of(100L), delays, "The timeout of the lobby should be armed when the game starts.");
+    lifecycle.moveTo(GameState.CONFIGURED);
+
+    scheduled.get(0).run();
+    assertTrue(timedOut.isEmpty(), "A timeout of a state the game has left should be ignored.");
+
+    scheduled.get(1).run();
+    assertEquals(List.of(GameState.CONFIGURED), timedOut);
+    assertEquals(1, metrics.getTimeouts(GameState.CONFIGURED));
+  }
+
+  @Test
+  void testArmingTimeoutCancelsThePreviousOne() {
+    lifecycle.refreshTimeout();
+    lifecycle.refreshTimeout();
+    assertEquals(3, futures.size());
+    assertTrue(futures.get(0).isCancelled() && futures.get(1).isCancelled(), "Refreshed timeouts should leave the timer.");
+    assertFalse(futures.get(2).isCancelled());
+
+    lifecycle.moveTo(GameState.ARCHIVED);
+    assertTrue(futures.get(2).isCancelled(), "An archived game should leave no timeout behind.");
+    assertEquals(3, futures.size());
+  }
+
+  @Test
+  void testStateWithoutTimeoutSchedulesNothing() {
+    lifecycle.moveTo(GameState.CONFIGURED);
+    lifecycle.moveTo(GameState.SETUP);
+    int armed = scheduled.size();
+
+    lifecycle.moveTo(GameState.RUNNING);
+    lifecycle.refreshTimeout();
+
+    assertEquals(armed, scheduled.size());
+  }
+}
@@ -0,0 +1,105 @@
+package org.server;
+
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.server.board.GameJournal;
+import org.server.board.GameMetadataCache;
+import org.server.board.GameRecord;
+import org.server.board.GameRecordRepository;
+import org.server.board.GameStore;
+import org.server.board.SavedGame;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GameMetadataCacheTest {
+
+  private GameRecordRepository gameRecordRepository;
+  private GameJournal gameJournal;
+  private GameMetadataCache cache;
+
+  @BeforeEach
+  void setUp() {
+    gameRecordRepository = mock(GameRecordRepository.class);
+    gameJournal = mock(GameJournal.class);
+    cache = new GameMetadataCache(gameRecordRepository, gameJournal, 2);
+  }
+
+  @Test
+  void testSettingsAreReadFromTheDatabaseOnce() {
+    when(gameRecordRepository.findById(5)).thenReturn(Optional.of(new GameRecord(5, "ORDER", 3, 1, 10, 42)));
+
+    for (int i = 0; i < 4; i++) {
+      assertEquals(3, cache.get(5).getNumOfPlayers());
+    }
+    verify(gameRecordRepository, times(1)).findById(5);
+    assertEquals(3L, cache.getMetrics().get("hits"));
+    assertEquals(1L, cache.getMetrics().get("misses"));
+  }
+
+  @Test
+  void testGamesWithoutRecordAreReadFromTheirPosition() {
+    when(gameRecordRepository.findById(4)).thenReturn(Optional.empty());
+    GameRecord saved = new GameRecord(4, "STANDARD", 2, 0, GameRecord.DEFAULT_BOARD_SIZE, 0);
+    when(gameJournal.loadLegacySettings(4)).thenReturn(saved);
+
+    assertEquals("STANDARD", cache.get(4).getVariant());
+    assertNull(cache.get(9), "An unknown game should have no settings.");
+    assertNull(cache.get(9), "An unknown game should not be cached.");
+    verify(gameJournal, times(2)).loadLegacySettings(9);
+    verify(gameJournal, never()).loadGame(anyInt());
+  }
+
+  @Test
+  void testLeastRecentlyUsedGameIsEvictedWhenFull() {
+    for (int gameNum = 1; gameNum <= 3; gameNum++) {
+      when(gameRecordRepository.findById(gameNum)).thenReturn(Optional.of(new GameRecord(gameNum, "STANDARD", 2, 0, 10, 1)));
+    }
+
+    cache.get(1);
+    cache.get(2);
+    cache.get(1);
+    cache.get(3);
+    assertEquals(2, cache.getMetrics().get("size"));
+    cache.get(1);
+    cache.get(3);
+    verify(gameRecordRepository, times(1)).findById(1);
+    verify(gameRecordRepository, times(1)).findById(3);
+    cache.get(2);
+    verify(gameRecordRepository, times(2)).findById(2);
+  }
+
+  @Test
+  void testRunningGamesAreEvictedWhenTheyEnd() {
+    GameManager gameManager = new GameManager();
+    ReflectionTestUtils.setField(gameManager, "gameMetadataCache", cache);
+    gameManager.setGameRecord(new GameRecord(6, "STANDARD", 2, 0, 10, 42));
+
+    assertEquals(42, cache.get(6).getSeed());
+    verify(gameRecordRepository, never()).findById(6);
+    gameManager.getLifecycle().moveTo(GameState.ARCHIVED);
+    assertEquals(0, cache.getMetrics().get("size"));
+  }
+
+  @Test
+  void testResumedGameReadsItsSettingsFromTheCache() throws Exception {
+    GameRecord saved = new GameRecord(5, "STANDARD", 2, 0, GameRecord.DEFAULT_BOARD_SIZE, 42);
+    when(gameRecordRepository.findById(5)).thenReturn(Optional.of(saved));
+    GameStore gameStore = mock(GameStore.class);
+    when(gameStore.loadPosition(saved)).thenReturn(new SavedGame(saved, null));
+    for (int i = 0; i < 2; i++) {
+      GameManager gameManager = new GameManager();
+      ReflectionTestUtils.setField(gameManager, "gameMetadataCache", cache);
+      ReflectionTestUtils.setField(gameManager, "gameStore", gameStore);
+
+      assertTrue(gameManager.resumeFromDatabase(5).get());
+      assertEquals(2, gameManager.getMaxUsers());
+    }
+
+    verify(gameRecordRepository, times(1)).findById(5);
+    verify(gameStore, times(2)).loadPosition(saved);
+    verify(gameStore, never()).loadGame(anyInt());
+  }
+}
@@ -0,0 +1,257 @@
+package org.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.protocol.WireMessage;
+import org.server.board.GameNumberAllocator;
+import org.server.board.GameStore;
+import org.server.network.SlowConsumerPolicy;
+import org.server.playerHandlers.PlayerHandler;
+import org.server.playerHandlers.RemotePlayerHandler;
+import org.server.playerHandlers.RemotePlayerListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GameRegistryTest {
+
+  private GameRegistry registry;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    ObjectProvider<GameManager> gameManagers = mock(ObjectProvider.class);
+    when(gameManagers.getObject()).thenAnswer(invocation -> new GameManager());
+    GameNumberAllocator gameNumberAllocator = mock(GameNumberAllocator.class);
+    AtomicInteger nextGameNum = new AtomicInteger(8);
+    when(gameNumberAllocator.next()).thenAnswer(invocation -> nextGameNum.getAndIncrement());
+    registry = new GameRegistry(gameManagers, gameNumberAllocator, 2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    registry.shutdown();
+  }
+
+  /**
+   * A player recording the messages it is sent.
+   */
+  private static final class RecordingPlayer extends RemotePlayerHandler {
+    private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+    RecordingPlayer() {
+      super(SlowConsumerPolicy.DISCONNECT, false, new RemotePlayerListener() {
+        @Override
+        public void onMessage(RemotePlayerHandler player, String message) {
+        }
+
+        @Override
+        public void onFrame(RemotePlayerHandler player, WireMessage message) {
+        }
+
+        @Override
+        public void onClose(RemotePlayerHandler player) {
+        }
+      });
+    }
+
+    @Override
+    protected boolean enqueue(byte[] line) {
+      received.add(new String(line, StandardCharsets.UTF_8).trim());
+      return true;
+    }
+
+    @Override
+    protected void switchToFrames() {
+    }
+
+    @Override
+    protected void clearOutbound() {
+    }
+
+    @Override
+    protected void closeConnection() {
+    }
+  }
+
+  private RecordingPlayer join(GameSession session) {
+    RecordingPlayer player = new RecordingPlayer();
+    player.admit(session.getGameManager(), session.reserveSeat());
+    return player;
+  }
+
+  private static void awaitLane(GameSession session) throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(1);
+    session.execute(done::countDown);
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testFullSessionOpensNextGame() {
+    GameSession first = registry.openSession();
+    first.setCapacity(2);
+    join(first);
+    assertSame(first, registry.openSession(), "Players should join the open game until it is full.");
+    join(first);
+
+    GameSession second = registry.openSession();
+
+    assertTrue(first.isFull());
+    assertNotSame(first, second);
+    assertNotSame(first.getGameManager(), second.getGameManager(), "Every game should have its own state.");
+    assertEquals(8, first.getGameNum());
+    assertEquals(9, second.getGameNum());
+    assertEquals(2, registry.getSessions().size());
+    assertSame(first, registry.find(8));
+  }
+
+  @Test
+  void testStartingSessionAcceptsNoPlayers() {
+    GameSession session = registry.openSession();
+    join(session);
+    session.markStarting();
+
+    assertNotSame(session, registry.openSession());
+  }
+
+  @Test
+  void testSessionIsRetiredWhenLastPlayerLeaves() throws InterruptedException {
+    GameSession session = registry.openSession();
+    session.setCapacity(2);
+    RecordingPlayer player = join(session);
+    session.execute(() -> player.onLine("2,0,standard"));
+
+    player.closeEverything();
+    awaitLane(session);
+
+    assertTrue(session.isRetired());
+    assertNull(registry.find(session.getGameNum()));
+    assertNotSame(session, registry.openSession(), "A retired game should not accept players.");
+  }
+
+  @Test
+  void testFinishedSessionIsRetiredWhenPlayersLeave() throws InterruptedException {
+    GameSession session = registry.openSession();
+    session.setCapacity(1);
+    RecordingPlayer player = join(session);
+    session.execute(() -> player.onLine("1,1,standard"));
+    session.execute(session::beginGame);
+    session.execute(() -> player.onLine("SETUP 1"));
+    awaitLane(session);
+    assertEquals(GameState.RUNNING, session.getGameManager().getLifecycle().getState());
+
+    session.execute(() -> session.getGameManager().broadcastGameFinished());
+    awaitLane(session);
+    assertTrue(session.getGameManager().isGameFinished());
+    assertSame(session, registry.find(session.getGameNum()), "Players may stay connected to a finished game.");
+
+    player.closeEverything();
+    awaitLane(session);
+    assertEquals(GameState.ARCHIVED, session.getGameManager().getLifecycle().getState());
+    assertNull(registry.find(session.getGameNum()));
+    assertEquals(1, registry.getLifecycleMetrics().getEntered(GameState.FINISHED));
+    assertEquals(1L, registry.getMetrics().get("FINISHED.entered"));
+    assertEquals(0, registry.getMetrics().get("activeGames"));
+  }
+
+  @Test
+  void testPlayersJoinOnTheLaneInAdmissionOrder() throws InterruptedException {
+    GameSession session = registry.openSession();
+    RecordingPlayer first = join(session);
+    session.execute(() -> first.onLine("3,0,standard"));
+    RecordingPlayer second = join(session);
+    RecordingPlayer third = join(session);
+    awaitLane(session);
+
+    assertEquals(List.of(first, second, third), session.getGameManager().getPlayerHandlers());
+    assertEquals("1", first.received.get(0));
+    assertEquals("2", second.received.get(0));
+    assertEquals("3", third.received.get(0));
+    assertTrue(first.isJoined() && second.isJoined() && third.isJoined());
+  }
+
+  @Test
+  void testSeatFreedBeforeTheStartIsTakenAgain() throws InterruptedException {
+    GameSession session = registry.openSession();
+    RecordingPlayer first = join(session);
+    session.execute(() -> first.onLine("3,0,standard"));
+    session.setCapacity(3);
+    RecordingPlayer second = join(session);
+    RecordingPlayer third = join(session);
+    awaitLane(session);
+    assertTrue(session.isFull());
+
+    session.releaseSeat(second.getUserNum());
+    second.closeEverything();
+    assertTrue(session.isAcceptingPlayers());
+    RecordingPlayer fourth = join(session);
+    awaitLane(session);
+
+    assertEquals(2, fourth.getUserNum(), "A new player should take the seat left free.");
+    assertEquals("2", fourth.received.get(0));
+    assertTrue(session.isFull());
+    assertEquals(List.of(1, 3, 2), session.getGameManager().getPlayerHandlers().stream()
+        .map(PlayerHandler::getUserNum).collect(Collectors.toList()));
+    assertEquals(3, third.getUserNum());
+  }
+
+  @Test
+  void testSavedGameIsLoadedOffTheLane() throws InterruptedException {
+    GameSession session = registry.openSession();
+    GameStore gameStore = mock(GameStore.class);
+    CountDownLatch flushing = new CountDownLatch(1);
+    CountDownLatch databaseAnswers = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      flushing.countDown();
+      databaseAnswers.await(5, TimeUnit.SECONDS);
+      return null;
+    }).when(gameStore).flush();
+    ReflectionTestUtils.setField(session.getGameManager(), "gameStore", gameStore);
+    RecordingPlayer player = join(session);
+
+    session.execute(() -> player.onLine("DB,5"));
+    assertTrue(flushing.await(5, TimeUnit.SECONDS));
+    session.execute(() -> player.onLine("2,0,standard"));
+    awaitLane(session);
+    assertFalse(player.isJoined(), "Options sent while the saved game loads should be ignored.");
+    assertEquals(GameState.LOBBY, session.getGameManager().getLifecycle().getState());
+
+    databaseAnswers.countDown();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!player.received.contains("No saved game!") && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals("No saved game!", player.received.get(player.received.size() - 1));
+    assertFalse(player.isJoined());
+  }
+
+  @Test
+  void testLaneRunsTasksInOrder() throws InterruptedException {
+    Executor lane = registry.newLane();
+    List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done = new CountDownLatch(1);
+
+    for (int i = 0; i < 1000; i++) {
+      int task = i;
+      lane.execute(() -> order.add(task));
+    }
+    lane.execute(done::countDown);
+
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, order.get(i));
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package org.server;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.server.board.GameJournal;
+import org.server.board.GameRecord;
+import org.server.board.GameStore;
+import org.server.board.JournalWriter;
+import org.server.board.MappedGameJournal;
+import org.server.board.MoveJournalEntry;
+import org.server.board.SavedGame;
+import org.server.board.boardManagement.BoardManager;
+import org.server.board.moveManagement.MoveValidator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Compares the two {@link GameStore} backends on the moves of a game: the time the game thread spends
+ * recording a move, the time until every move is stored, and for the mapped journal, the time to reopen
+ * the file and resume the game. The "jpa" backend is measured only when a database is given; its tables
+ * must exist, which they do once the server has run against the database.
+ * Not run by the build; start it after {@code mvn test-compile} with
+ * {@code java -cp target/classes:target/test-classes:<dependencies> org.server.GameStoreBenchmark 200000 [jdbcUrl user password]}.
+ */
+public class GameStoreBenchmark {
+
+  private static final GameRecord GAME = new GameRecord(1_000_000, "standard", 2, 0, 10, 42);
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args The number of moves, 200000 if none is given, then optionally the JDBC URL, user and password.
+   * @throws Exception If the journal file cannot be used.
+   */
+  public static void main(String[] args) throws Exception {
+    int count = args.length == 0 ? 200_000 : Integer.parseInt(args[0]);
+
+    Path file = Files.createTempFile("game-journal", ".dat");
+    Files.delete(file);
+    try {
+      MappedGameJournal mapped = new MappedGameJournal(file.toString(), 64, 20);
+      mapped.open();
+      run("mapped", mapped, count);
+      mapped.close();
+
+      long start = System.nanoTime();
+      MappedGameJournal reopened = new MappedGameJournal(file.toString(), 64, 20);
+      reopened.open();
+      long recovered = System.nanoTime();
+      SavedGame savedGame = reopened.loadGame(GAME.getGameNumber());
+      BoardManager board = new BoardManager(10, 2, 0);
+      board.removePawns();
+      reopened.restorePosition(savedGame, board.getCells());
+      long resumed = System.nanoTime();
+      System.out.printf("mapped: recovery of %d bytes %.1f ms, resume %.1f us%n",
+          reopened.getMetrics().get("bytes").longValue(), (recovered - start) / 1e6, (resumed - recovered) / 1e3);
+      reopened.close();
+    } finally {
+      Files.deleteIfExists(file);
+    }
+
+    if (args.length >= 4) {
+      DriverManagerDataSource dataSource = new DriverManagerDataSource(args[1], args[2], args[3]);
+      JournalWriter writer = new JournalWriter(new JdbcTemplate(dataSource), 500, 50, 100000, 3, 100);
+      writer.start();
+      run("jpa", new GameJournal(writer, null, null, null, null, 20), count);
+      writer.stop();
+    } else {
+      System.out.println("jpa: skipped, no database given");
+    }
+  }
+
+  /**
+   * Records the moves of a game moving one pawn back and forth, then waits until they are stored.
+   *
+   * @param name  The backend's name.
+   * @param store The backend.
+   * @param count The number of moves.
+   */
+  private static void run(String name, GameStore store, int count) {
+    BoardManager board = new BoardManager(10, 2, 0);
+    MoveValidator moveValidator = new MoveValidator(board.getCells());
+    String[] moves = {"3 9 1 4 8 0", "4 8 1 3 9 0"};
+    long recordNanos = 0;
+    long maxRecordNanos = 0;
+    long start = System.nanoTime();
+    for (int moveNum = 0; moveNum < count; moveNum++) {
+      String move = moves[moveNum % 2];
+      int[] path = moveValidator.findPath(move);
+      moveValidator.makeMove(move);
+      MoveJournalEntry entry = new MoveJournalEntry(GAME.getGameNumber(), moveNum, 1, path[0], path[1],
+          path[path.length - 2], path[path.length - 1], MoveJournalEntry.encodePath(path));
+      long recordStart = System.nanoTime();
+      store.recordMove(entry, board.getCells(), GAME);
+      long nanos = System.nanoTime() - recordStart;
+      recordNanos += nanos;
+      maxRecordNanos = Math.max(maxRecordNanos, nanos);
+    }
+    store.flush();
+    long stored = System.nanoTime();
+    System.out.printf("%s: record %.2f us/move (max %.1f us), all %d moves stored after %.1f ms%n", name,
+        recordNanos / 1e3 / count, maxRecordNanos / 1e3, count, (stored - start) / 1e6);
+  }
+}
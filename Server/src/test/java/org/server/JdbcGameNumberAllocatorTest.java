@@ -0,0 +1,75 @@
+package org.server;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.server.board.GameJournal;
+import org.server.board.GameNumberAllocator;
+import org.server.board.JdbcGameNumberAllocator;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JdbcGameNumberAllocatorTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private GameJournal gameJournal;
+  private AtomicInteger counter;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    gameJournal = mock(GameJournal.class);
+    when(gameJournal.getCurrentGameNum()).thenReturn(7);
+    counter = new AtomicInteger();
+    // The counter row shared by every process: created once, then advanced by whole blocks
+    when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenAnswer(invocation -> counter.get() == 0 ? 0 : 1);
+    when(jdbcTemplate.update(anyString(), anyInt())).thenAnswer(invocation -> {
+      counter.compareAndSet(0, invocation.getArgument(1));
+      return 1;
+    });
+  }
+
+  /**
+   * Creates an allocator reserving blocks of the given size from the shared counter.
+   */
+  private JdbcGameNumberAllocator allocator(int blockSize) {
+    return new JdbcGameNumberAllocator(jdbcTemplate, gameJournal, blockSize);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testNumbersStartAfterSavedGamesAndComeFromMemory() {
+    when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation -> counter.addAndGet(5));
+    GameNumberAllocator allocator = allocator(5);
+
+    for (int expected = 8; expected < 19; expected++) {
+      assertEquals(expected, allocator.next());
+    }
+    verify(jdbcTemplate, times(3)).execute(any(ConnectionCallback.class));
+    verify(gameJournal, times(1)).getCurrentGameNum();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testProcessesSharingTheCounterNeverCollide() {
+    AtomicInteger blockSize = new AtomicInteger();
+    when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation -> counter.addAndGet(blockSize.get()));
+    GameNumberAllocator first = allocator(3);
+    GameNumberAllocator second = allocator(4);
+
+    Set<Integer> numbers = new HashSet<>();
+    for (int i = 0; i < 20; i++) {
+      blockSize.set(3);
+      assertTrue(numbers.add(first.next()), "Game numbers should be unique.");
+      blockSize.set(4);
+      assertTrue(numbers.add(second.next()), "Game numbers should be unique.");
+    }
+    assertTrue(numbers.stream().allMatch(number -> number > 7), "Saved game numbers should not be reused.");
+  }
+}
@@ -0,0 +1,159 @@
+package org.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.server.board.BoardSnapshot;
+import org.server.board.MoveJournalEntry;
+import org.server.board.JournalWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JournalWriterTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private List<Integer> batchSizes;
+  private JournalWriter writer;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    batchSizes = new CopyOnWriteArrayList<>();
+    when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+        .thenAnswer(invocation -> {
+          Thread.sleep(20);
+          batchSizes.add(((Collection<Object>) invocation.getArgument(1)).size());
+          return new int[0][];
+        });
+    writer = new JournalWriter(jdbcTemplate, 500, 20, 100000, 2, 1);
+    writer.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    writer.stop();
+  }
+
+  @Test
+  void testRecordsAreWrittenInBoundedBatches() {
+    for (int moveNum = 0; moveNum < 10; moveNum++) {
+      writer.enqueue(createRecords(moveNum, 121));
+    }
+    writer.flush();
+
+    assertEquals(1210, batchSizes.stream().mapToInt(Integer::intValue).sum());
+    assertTrue(batchSizes.stream().allMatch(size -> size <= 500), "No batch should exceed the batch size.");
+    assertTrue(batchSizes.size() < 10, "Moves should be grouped into shared batches.");
+    assertEquals(0, writer.getQueueDepth());
+    assertEquals(1210L, writer.getMetrics().get("flushedRecords"));
+  }
+
+  @Test
+  void testEnqueueDoesNotWaitForDatabase() {
+    long start = System.nanoTime();
+    for (int moveNum = 0; moveNum < 50; moveNum++) {
+      writer.enqueue(createRecords(moveNum, 121));
+    }
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    assertTrue(elapsedMillis < 100, "Queueing should not wait on the database.");
+    writer.flush();
+    assertEquals(6050L, writer.getMetrics().get("flushedRecords"));
+    assertTrue(writer.getMetrics().get("maxFlushLatencyMs").doubleValue() >= 20);
+  }
+
+  @Test
+  void testMovesAndSnapshotsAreWrittenSeparately() {
+    writer.enqueue(List.of(new MoveJournalEntry(1, 0, 1, 3, 9, 4, 8, "3 9;4 8"),
+        new BoardSnapshot(1, 0, "10"), new MoveJournalEntry(1, 1, 2, 13, 9, 12, 8, "13 9;12 8")));
+    writer.flush();
+
+    verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT IGNORE INTO move_journal_entry"), anyCollection(), anyInt(),
+        any(ParameterizedPreparedStatementSetter.class));
+    verify(jdbcTemplate).batchUpdate(startsWith("INSERT IGNORE INTO board_snapshot"), anyCollection(), anyInt(),
+        any(ParameterizedPreparedStatementSetter.class));
+    assertEquals(3L, writer.getMetrics().get("flushedRecords"));
+  }
+
+  @Test
+  void testFailedBatchesAreCounted() {
+    reset(jdbcTemplate);
+    when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+        .thenThrow(new RuntimeException("database down"));
+
+    writer.enqueue(createRecords(0, 121));
+    writer.flush();
+
+    assertEquals(121L, writer.getMetrics().get("failedRecords"));
+    assertEquals(2L, writer.getMetrics().get("retriedRuns"));
+    assertEquals(121L, writer.getMetrics().get("deadLetterRecords"));
+    assertEquals(0, writer.getQueueDepth());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testFailedRunIsRetried() {
+    reset(jdbcTemplate);
+    when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+        .thenThrow(new RuntimeException("connection reset"))
+        .thenReturn(new int[0][]);
+
+    writer.enqueue(createRecords(0, 121));
+    writer.flush();
+
+    assertEquals(121L, writer.getMetrics().get("flushedRecords"));
+    assertEquals(1L, writer.getMetrics().get("retriedRuns"));
+    assertEquals(0L, writer.getMetrics().get("failedRecords"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testDeadLettersAreWrittenOnceTheDatabaseAnswers() throws InterruptedException {
+    reset(jdbcTemplate);
+    when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+        .thenThrow(new RuntimeException("database down"));
+    writer.enqueue(createRecords(0, 121));
+    writer.flush();
+    assertEquals(121L, writer.getMetrics().get("deadLetterRecords"));
+
+    reset(jdbcTemplate);
+    when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+        .thenReturn(new int[0][]);
+    long deadline = System.currentTimeMillis() + 5000;
+    while (writer.getMetrics().get("deadLetterRecords").longValue() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    assertEquals(0L, writer.getMetrics().get("deadLetterRecords"));
+    assertEquals(121L, writer.getMetrics().get("flushedRecords"));
+  }
+
+  @Test
+  void testFullQueueRejectsRecords() {
+    JournalWriter stalled = new JournalWriter(jdbcTemplate, 10, 20, 50, 0, 1);
+
+    assertTrue(stalled.enqueue(createRecords(0, 30)));
+    assertFalse(stalled.enqueue(createRecords(1, 30)), "Records that do not fit should be rejected.");
+
+    assertEquals(30, stalled.getQueueDepth());
+    assertEquals(30L, stalled.getMetrics().get("rejectedRecords"));
+    assertEquals(30L, stalled.getMetrics().get("maxQueueDepth"));
+  }
+
+  private List<Object> createRecords(int moveNum, int count) {
+    List<Object> records = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      records.add(new MoveJournalEntry(1, moveNum * count + i, 1, 3, 9, 4, 8, "3 9;4 8"));
+    }
+    return records;
+  }
+}
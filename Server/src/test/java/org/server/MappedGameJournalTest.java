@@ -0,0 +1,179 @@
+package org.server;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.server.board.BoardSnapshot;
+import org.server.board.GameRecord;
+import org.server.board.LocalGameNumberAllocator;
+import org.server.board.MappedGameJournal;
+import org.server.board.MoveJournalEntry;
+import org.server.board.SavedGame;
+import org.server.board.boardManagement.BoardManager;
+import org.server.board.boardObjects.Cell;
+import org.server.board.moveManagement.MoveValidator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedGameJournalTest {
+
+  private static final GameRecord GAME = new GameRecord(7, "standard", 2, 0, 10, 42);
+
+  @TempDir
+  Path directory;
+
+  private Path file;
+  private MappedGameJournal journal;
+  private BoardManager boardManager;
+  private MoveValidator moveValidator;
+  private int moveNum;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    file = directory.resolve("journal.dat");
+    journal = open(1, 3);
+    boardManager = new BoardManager(10, 2, 0);
+    moveValidator = new MoveValidator(boardManager.getCells());
+  }
+
+  @AfterEach
+  void tearDown() {
+    journal.close();
+  }
+
+  /**
+   * Opens the journal file, as a restarted server would.
+   */
+  private MappedGameJournal open(int sizeMb, int snapshotInterval) throws IOException {
+    MappedGameJournal opened = new MappedGameJournal(file.toString(), sizeMb, snapshotInterval);
+    opened.open();
+    return opened;
+  }
+
+  /**
+   * Plays the moves on the board and journals them.
+   */
+  private void playMoves(String... inputs) {
+    for (String input : inputs) {
+      int playerNum = Integer.parseInt(input.split(" ")[2]);
+      int[] path = moveValidator.findPath(input);
+      moveValidator.makeMove(input);
+      journal.recordMove(new MoveJournalEntry(GAME.getGameNumber(), moveNum++, playerNum, path[0], path[1],
+          path[path.length - 2], path[path.length - 1], MoveJournalEntry.encodePath(path)),
+          boardManager.getCells(), GAME);
+    }
+  }
+
+  /**
+   * Restores the latest position of the game from a reopened journal onto an empty board.
+   */
+  private String restore(MappedGameJournal reopened, int expectedMoveNum) {
+    SavedGame savedGame = reopened.loadGame(GAME.getGameNumber());
+    assertEquals(42, savedGame.getGameRecord().getSeed());
+    BoardManager restored = new BoardManager(10, 2, 0);
+    restored.removePawns();
+    assertEquals(expectedMoveNum, reopened.restorePosition(savedGame, restored.getCells()));
+    return BoardSnapshot.encodeCells(restored.getCells());
+  }
+
+  @Test
+  void testGamesAreRestoredAfterRestart() throws IOException {
+    playMoves("3 9 1 4 8 0", "13 9 2 12 8 0", "2 10 1 4 12 0");
+    journal.close();
+
+    journal = open(1, 3);
+    assertEquals(BoardSnapshot.encodeCells(boardManager.getCells()), restore(journal, 2));
+    assertEquals(7, journal.getCurrentGameNum());
+    assertEquals(8, new LocalGameNumberAllocator(journal).next());
+    assertNull(journal.loadGame(8));
+  }
+
+  @Test
+  void testTornTailIsDiscardedOnRecovery() throws IOException {
+    playMoves("3 9 1 4 8 0", "13 9 2 12 8 0");
+    String beforeLastMove = BoardSnapshot.encodeCells(boardManager.getCells());
+    long intactBytes = journal.getMetrics().get("bytes").longValue();
+    playMoves("2 10 1 4 12 0");
+    journal.close();
+    try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+      raf.seek(intactBytes + 12);
+      int corrupted = raf.read() ^ 0xFF;
+      raf.seek(intactBytes + 12);
+      raf.write(corrupted);
+    }
+
+    journal = open(1, 3);
+    assertEquals(beforeLastMove, restore(journal, 1));
+    assertEquals(intactBytes, journal.getMetrics().get("bytes").longValue());
+
+    // Appending continues where the intact records end
+    journal.recordMove(new MoveJournalEntry(7, 2, 1, 2, 10, 4, 12, "2 10;4 12"), boardManager.getCells(), GAME);
+    journal.close();
+    journal = open(1, 3);
+    assertEquals(BoardSnapshot.encodeCells(boardManager.getCells()), restore(journal, 2));
+  }
+
+  @Test
+  void testJournalGrowsPastItsFirstMapping() throws IOException {
+    journal.close();
+    journal = open(1, 1);
+    for (int i = 0; i < 3000; i++) {
+      playMoves("3 9 1 4 8 0", "4 8 1 3 9 0");
+    }
+    assertTrue(journal.getMetrics().get("bytes").longValue() > 1 << 20);
+    journal.close();
+
+    journal = open(1, 1);
+    assertEquals(BoardSnapshot.encodeCells(boardManager.getCells()), restore(journal, 5999));
+    assertEquals(0L, journal.getMetrics().get("failedRecords"));
+  }
+
+  @Test
+  void testFirstMoveOfAGameIsSnapshotted() throws IOException {
+    moveNum = 1;
+    playMoves("3 9 1 4 8 0");
+    journal.close();
+
+    journal = open(1, 3);
+    assertEquals(BoardSnapshot.encodeCells(boardManager.getCells()), restore(journal, 1),
+        "A game whose first journaled move is not due for a snapshot should still be resumable.");
+  }
+
+  @Test
+  void testGamesAppendConcurrently() throws Exception {
+    journal.close();
+    journal = open(1, 1);
+    Cell[][] cells = boardManager.getCells();
+    List<Thread> games = new ArrayList<>();
+    for (int gameNum = 1; gameNum <= 8; gameNum++) {
+      GameRecord gameRecord = new GameRecord(gameNum, "standard", 2, 0, 10, gameNum);
+      games.add(new Thread(() -> {
+        for (int move = 0; move < 500; move++) {
+          journal.recordMove(new MoveJournalEntry(gameRecord.getGameNumber(), move, 1, 3, 9, 4, 8, "3 9;4 8"),
+              cells, gameRecord);
+        }
+      }));
+    }
+    games.forEach(Thread::start);
+    for (Thread game : games) {
+      game.join();
+    }
+    assertTrue(journal.getMetrics().get("bytes").longValue() > 1 << 20, "The mapping should have grown meanwhile.");
+    journal.close();
+
+    journal = open(1, 1);
+    assertEquals(8 * (1 + 500 + 500), journal.getMetrics().get("recoveredRecords").longValue());
+    for (int gameNum = 1; gameNum <= 8; gameNum++) {
+      SavedGame savedGame = journal.loadGame(gameNum);
+      assertEquals(gameNum, savedGame.getGameRecord().getSeed());
+      assertEquals(499, savedGame.getSnapshot().getMoveNumber());
+    }
+    assertEquals(8, journal.getCurrentGameNum());
+  }
+}
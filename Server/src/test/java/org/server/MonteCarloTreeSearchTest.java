@@ -0,0 +1,76 @@
+package org.server;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.server.board.boardManagement.BoardManager;
+import org.server.board.moveManagement.BotEvaluator;
+import org.server.board.moveManagement.MonteCarloTreeSearch;
+import org.server.board.moveManagement.MoveValidator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloTreeSearchTest {
+
+  private ForkJoinPool pool;
+
+  @BeforeEach
+  void setUp() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  void testReturnsLegalMovesWithinBudget() {
+    for (int numOfPlayers : new int[]{3, 6}) {
+      BoardManager boardManager = new BoardManager(10, numOfPlayers, 0);
+      BotEvaluator evaluator = new BotEvaluator(boardManager, numOfPlayers);
+      MoveValidator moveValidator = new MoveValidator(boardManager.getCells());
+
+      for (int playerNum = 1; playerNum <= numOfPlayers; playerNum++) {
+        MonteCarloTreeSearch search = new MonteCarloTreeSearch(boardManager.getCells(), evaluator, 100, 0, pool);
+
+        long start = System.currentTimeMillis();
+        int[] move = search.getBestMoveForBot(playerNum, boardManager.getDestinationPoint(playerNum),
+            boardManager.getDestinationZoneNum(playerNum));
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(elapsed < 1000, "Search should respect its time budget.");
+        assertTrue(search.getLastPlayoutCount() > 0, "Search should run playouts.");
+        String input = move[0] + " " + move[1] + " " + playerNum + " " + move[2] + " " + move[3] + " 0";
+        assertTrue(moveValidator.validateMove(playerNum, input), "Move " + input + " should be legal.");
+        moveValidator.makeMove(input);
+      }
+    }
+  }
+
+  @Test
+  void testStopsAtPlayoutBudget() {
+    BoardManager boardManager = new BoardManager(10, 3, 0);
+    MonteCarloTreeSearch search = new MonteCarloTreeSearch(boardManager.getCells(), new BotEvaluator(boardManager, 3),
+        60_000, 500, pool);
+
+    search.getBestMoveForBot(1, boardManager.getDestinationPoint(1), boardManager.getDestinationZoneNum(1));
+
+    assertEquals(500, search.getLastPlayoutCount());
+  }
+
+  @Test
+  void testMovesTowardsDestination() {
+    BoardManager boardManager = new BoardManager(10, 3, 0);
+    MonteCarloTreeSearch search = new MonteCarloTreeSearch(boardManager.getCells(), new BotEvaluator(boardManager, 3),
+        60_000, 2000, pool);
+    int[] destinationPoint = boardManager.getDestinationPoint(1);
+
+    int[] move = search.getBestMoveForBot(1, destinationPoint, boardManager.getDestinationZoneNum(1));
+
+    int before = BotEvaluator.getHexDistance(move[0], move[1], destinationPoint[0], destinationPoint[1]);
+    int after = BotEvaluator.getHexDistance(move[2], move[3], destinationPoint[0], destinationPoint[1]);
+    assertTrue(after < before, "The opening move should bring a pawn closer to the destination.");
+  }
+}
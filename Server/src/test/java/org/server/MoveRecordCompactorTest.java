@@ -0,0 +1,203 @@
+package org.server;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.server.board.BoardSnapshot;
+import org.server.board.GameArchive;
+import org.server.board.GameArchiveRepository;
+import org.server.board.GameJournal;
+import org.server.board.MoveRecord;
+import org.server.board.MoveRecordCompactor;
+import org.server.board.MoveRecordHistory;
+import org.server.board.MoveRecordRepository;
+import org.server.board.boardManagement.BoardManager;
+import org.server.board.boardObjects.Cell;
+import org.server.board.moveManagement.MoveValidator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class MoveRecordCompactorTest {
+
+  private static final int GAME = 7;
+
+  private JdbcTemplate jdbcTemplate;
+  private GameArchiveRepository gameArchiveRepository;
+  private MoveRecordRepository moveRecordRepository;
+  private List<MoveRecord> rows;
+  private List<String> positions;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    gameArchiveRepository = mock(GameArchiveRepository.class);
+    moveRecordRepository = mock(MoveRecordRepository.class);
+    rows = new ArrayList<>();
+    when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenAnswer(invocation -> (long) rows.size());
+    when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), any(), any(), any())).thenReturn(List.of(GAME));
+
+    // The game's rows are read one at a time through a result set showing the current row
+    MoveRecord[] current = new MoveRecord[1];
+    long[] currentId = new long[1];
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.getLong("id")).thenAnswer(invocation -> currentId[0]);
+    when(resultSet.getString("variant")).thenAnswer(invocation -> current[0].getVariant());
+    when(resultSet.getInt(anyString())).thenAnswer(invocation -> {
+      MoveRecord row = current[0];
+      switch (invocation.<String>getArgument(0)) {
+        case "move_number": return row.getMoveNumber();
+        case "cell_row_number": return row.getCellRowNumber();
+        case "cell_column_number": return row.getCellColumnNumber();
+        case "cell_player_number": return row.getCellPlayerNumber();
+        case "cell_zone_number": return row.getCellZoneNumber();
+        case "num_of_players": return row.getNumOfPlayers();
+        default: return row.getNumOfBots();
+      }
+    });
+    doAnswer(invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(1);
+      for (int i = 0; i < rows.size(); i++) {
+        current[0] = rows.get(i);
+        currentId[0] = i + 1;
+        handler.processRow(resultSet);
+      }
+      return null;
+    }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+  }
+
+  /**
+   * Plays moves on a board, saving the whole board after each one as per-cell rows.
+   */
+  private void playMoves(String... inputs) {
+    BoardManager boardManager = new BoardManager(10, 2, 0);
+    MoveValidator moveValidator = new MoveValidator(boardManager.getCells());
+    positions = new ArrayList<>();
+    for (int moveNum = 0; moveNum < inputs.length; moveNum++) {
+      moveValidator.makeMove(inputs[moveNum]);
+      positions.add(BoardSnapshot.encodeCells(boardManager.getCells()));
+      for (Cell[] cellRow : boardManager.getCells()) {
+        for (Cell cell : cellRow) {
+          MoveRecord row = new MoveRecord(moveNum);
+          row.setGameNumber(GAME);
+          row.setCellRowNumber(cell.getRow());
+          row.setCellColumnNumber(cell.getCol());
+          row.setCellPlayerNumber(cell.getPawn() != null ? cell.getPawn().getPlayerNum() : 0);
+          row.setCellZoneNumber(cell.getZoneNum());
+          row.setVariant("standard");
+          row.setNumOfPlayers(2);
+          rows.add(row);
+        }
+      }
+    }
+  }
+
+  /**
+   * Restores move records onto an empty board and encodes it.
+   */
+  private static String restore(List<MoveRecord> moveRecords) {
+    BoardManager restored = new BoardManager(10, 2, 0);
+    restored.removePawns();
+    GameJournal.restoreFromMoveRecords(moveRecords, restored.getCells());
+    return BoardSnapshot.encodeCells(restored.getCells());
+  }
+
+  /**
+   * Runs the compactor twice, so that the rows written before the first run count as finished,
+   * and returns the archive it stored.
+   */
+  private GameArchive compact(MoveRecordCompactor compactor) {
+    assertEquals(0, compactor.compact());
+    assertEquals(1, compactor.compact());
+    ArgumentCaptor<GameArchive> saved = ArgumentCaptor.forClass(GameArchive.class);
+    verify(gameArchiveRepository, atLeastOnce()).save(saved.capture());
+    return saved.getValue();
+  }
+
+  @Test
+  void testFinishedGameIsArchivedAndItsRowsDeletedInBatches() {
+    playMoves("3 9 1 4 8 0", "13 9 2 12 8 0", "2 10 1 4 12 0");
+    int rowCount = rows.size();
+    when(jdbcTemplate.update(startsWith("DELETE"), any(), any(), any())).thenReturn(500, 500, rowCount - 1000);
+    MoveRecordCompactor compactor = new MoveRecordCompactor(jdbcTemplate, gameArchiveRepository, 0, 10, 100, 500, 0);
+
+    GameArchive archive = compact(compactor);
+    verify(jdbcTemplate).queryForList(anyString(), eq(Integer.class), eq(0), eq((long) rowCount), eq(10));
+    assertEquals(3, archive.getMoveCount());
+    assertEquals(2, archive.getLastMoveNumber());
+    assertEquals(rowCount, archive.getMaxRecordId());
+    assertTrue(archive.getData().length < rowCount, "the archive takes under a byte per row");
+    verify(jdbcTemplate, times(3)).update(startsWith("DELETE"), eq(GAME), eq((long) rowCount), eq(500));
+    assertEquals((long) rowCount, compactor.getMetrics().get("deletedRows"));
+
+    // Once the rows are gone, every move is read from the archive
+    when(gameArchiveRepository.findById(GAME)).thenReturn(Optional.of(archive));
+    MoveRecordHistory history = new MoveRecordHistory(moveRecordRepository, gameArchiveRepository);
+    for (int moveNum = 0; moveNum < 3; moveNum++) {
+      assertEquals(positions.get(moveNum), restore(history.findMove(GAME, moveNum)));
+    }
+    assertEquals(positions.get(2), restore(history.findLatestMove(GAME)));
+    assertTrue(history.findMove(GAME, 3).isEmpty());
+    List<List<MoveRecord>> range = new ArrayList<>(history.findMoves(GAME, 1, 20).values());
+    assertEquals(2, range.size(), "A range should hold the archived moves within it.");
+    assertEquals(positions.get(1), restore(range.get(0)));
+    assertEquals(positions.get(2), restore(range.get(1)));
+  }
+
+  @Test
+  void testRowsAddedAfterCompactionAreMergedIntoTheArchive() {
+    playMoves("3 9 1 4 8 0", "13 9 2 12 8 0", "2 10 1 4 12 0");
+    List<MoveRecord> allRows = new ArrayList<>(rows);
+    List<MoveRecord> lastMove = allRows.subList(allRows.size() * 2 / 3, allRows.size());
+    rows.removeAll(lastMove);
+    MoveRecordCompactor compactor = new MoveRecordCompactor(jdbcTemplate, gameArchiveRepository, 0, 10, 100, 500, 0);
+    GameArchive archive = compact(compactor);
+    assertEquals(1, archive.getLastMoveNumber());
+
+    // The last move is imported after the first two were archived; until it is merged, it is read from its rows
+    rows.clear();
+    rows.addAll(lastMove);
+    when(gameArchiveRepository.findById(GAME)).thenReturn(Optional.of(archive));
+    when(moveRecordRepository.findGamesWithMaxMoveByGameNum(GAME)).thenReturn(lastMove);
+    MoveRecordHistory history = new MoveRecordHistory(moveRecordRepository, gameArchiveRepository);
+    assertEquals(positions.get(2), restore(history.findLatestMove(GAME)));
+    assertEquals(positions.get(0), restore(history.findMove(GAME, 0)));
+
+    assertEquals(1, compactor.compact());
+    ArgumentCaptor<GameArchive> saved = ArgumentCaptor.forClass(GameArchive.class);
+    verify(gameArchiveRepository, times(2)).save(saved.capture());
+    GameArchive merged = saved.getValue();
+    assertEquals(3, merged.getMoveCount());
+    when(gameArchiveRepository.findById(GAME)).thenReturn(Optional.of(merged));
+    when(moveRecordRepository.findGamesWithMaxMoveByGameNum(GAME)).thenReturn(List.of());
+    for (int moveNum = 0; moveNum < 3; moveNum++) {
+      assertEquals(positions.get(moveNum), restore(history.findMove(GAME, moveNum)));
+    }
+    assertEquals(positions.get(2), restore(history.findLatestMove(GAME)));
+  }
+
+  @Test
+  void testGameThatCannotBeArchivedKeepsItsRows() {
+    playMoves("3 9 1 4 8 0", "13 9 2 12 8 0");
+    rows.get(rows.size() - 1).setVariant("order");
+    MoveRecordCompactor compactor = new MoveRecordCompactor(jdbcTemplate, gameArchiveRepository, 0, 10, 100, 500, 0);
+
+    assertEquals(0, compactor.compact());
+    assertEquals(0, compactor.compact());
+    verify(gameArchiveRepository, never()).save(any());
+    verify(jdbcTemplate, never()).update(startsWith("DELETE"), any(), any(), any());
+    assertEquals(1L, compactor.getMetrics().get("failedGames"));
+  }
+}
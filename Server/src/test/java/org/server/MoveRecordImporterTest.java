@@ -0,0 +1,105 @@
+package org.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.server.board.GameNumberAllocator;
+import org.server.board.ImportSummary;
+import org.server.board.MoveRecord;
+import org.server.board.MoveRecordImporter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MoveRecordImporterTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private PlatformTransactionManager transactionManager;
+  private GameNumberAllocator gameNumberAllocator;
+  private MoveRecordImporter importer;
+  private List<Integer> chunkSizes;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    transactionManager = mock(PlatformTransactionManager.class);
+    gameNumberAllocator = mock(GameNumberAllocator.class);
+    importer = new MoveRecordImporter(jdbcTemplate, transactionManager, new ObjectMapper(), gameNumberAllocator, 2, 100);
+    chunkSizes = new ArrayList<>();
+    when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+        .thenAnswer(invocation -> {
+          List<MoveRecord> chunk = invocation.getArgument(1);
+          chunkSizes.add(chunk.size());
+          return new int[0][];
+        });
+  }
+
+  /**
+   * Returns a move record line of the given game and player.
+   */
+  private static String row(int gameNum, int playerNum, String variant) {
+    return "{\"gameNumber\":" + gameNum + ",\"moveNumber\":3,\"cellRowNumber\":4,\"cellColumnNumber\":12,"
+        + "\"cellPlayerNumber\":" + playerNum + ",\"cellZoneNumber\":1,\"variant\":\"" + variant + "\","
+        + "\"numOfPlayers\":2,\"numOfBots\":0}";
+  }
+
+  private ImportSummary importLines(String... lines) throws Exception {
+    byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+    return importer.importRecords(new ByteArrayInputStream(body));
+  }
+
+  @Test
+  void testValidRowsAreWrittenInChunks() throws Exception {
+    ImportSummary summary = importLines(row(4, 1, "standard"), "", row(9, 2, "order"), row(6, 0, "yinyang"));
+
+    assertEquals(3, summary.getAccepted());
+    assertEquals(0, summary.getRejected());
+    assertEquals(2, summary.getChunks());
+    assertEquals(List.of(2, 1), chunkSizes);
+    verify(transactionManager, times(2)).commit(any());
+    verify(gameNumberAllocator).skipTo(9);
+    verify(gameNumberAllocator).skipTo(6);
+  }
+
+  @Test
+  void testInvalidRowsAreRejectedWithTheirLine() throws Exception {
+    ImportSummary summary = importLines(row(4, 1, "standard"), "{not json", row(4, 1, "chess"),
+        row(4, 5, "standard"), "x".repeat(10000), row(-1, 1, "standard"));
+
+    assertEquals(1, summary.getAccepted());
+    assertEquals(5, summary.getRejected());
+    assertEquals(5, summary.getErrors().size());
+    assertTrue(summary.getErrors().get(0).startsWith("line 2: "));
+    assertEquals("line 3: unknown variant chess", summary.getErrors().get(1));
+    assertEquals("line 4: cellPlayerNumber out of range", summary.getErrors().get(2));
+    assertTrue(summary.getErrors().get(3).startsWith("line 5: longer than"));
+    assertEquals("line 6: gameNumber must be positive", summary.getErrors().get(4));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testFailedChunkIsRolledBackAndTheImportGoesOn() throws Exception {
+    when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+        .thenThrow(new DataIntegrityViolationException("duplicate"))
+        .thenReturn(new int[0][]);
+
+    ImportSummary summary = importLines(row(4, 1, "standard"), row(4, 2, "standard"), row(5, 1, "standard"));
+
+    assertEquals(1, summary.getAccepted());
+    assertEquals(2, summary.getRejected());
+    assertEquals("lines 1-2: write failed: duplicate", summary.getErrors().get(0));
+    verify(transactionManager).rollback(any());
+    verify(gameNumberAllocator, never()).skipTo(4);
+    verify(gameNumberAllocator).skipTo(5);
+  }
+}
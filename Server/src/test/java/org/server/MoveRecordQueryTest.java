@@ -0,0 +1,106 @@
+package org.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.server.board.MoveRecordQuery;
+import org.server.board.MoveRecordStreamer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MoveRecordQueryTest {
+
+  @Test
+  void testFirstPageHasNoKeysetCondition() {
+    MoveRecordQuery query = new MoveRecordQuery(null, null, null, null, null, null, null, 100);
+
+    assertFalse(query.toSql().contains("WHERE"));
+    assertTrue(query.toSql().endsWith("ORDER BY game_number, move_number, id LIMIT ?"));
+    assertEquals(List.of(100), query.getArguments());
+  }
+
+  @Test
+  void testArgumentsFollowPlaceholders() {
+    MoveRecordQuery query = new MoveRecordQuery(4, 2, 9, 1, 4, 3, 77L, 50);
+    String sql = query.toSql();
+
+    assertTrue(sql.contains("(game_number > ? OR (game_number = ? AND (move_number > ? OR (move_number = ? AND id > ?))))"));
+    assertTrue(sql.contains("AND game_number = ? AND move_number >= ? AND move_number <= ? AND cell_player_number = ?"));
+    List<Object> arguments = query.getArguments();
+    assertEquals(sql.chars().filter(c -> c == '?').count(), arguments.size());
+    assertEquals(List.of(4, 4, 3, 3, 77L, 4, 2, 9, 1, 50), arguments);
+  }
+
+  @Test
+  void testPartialKeyIsRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new MoveRecordQuery(null, null, null, null, 4, null, null, 10));
+    assertThrows(IllegalArgumentException.class,
+        () -> new MoveRecordQuery(null, null, null, null, null, null, null, 0));
+  }
+
+  @Test
+  void testFullPageIsStreamedWithNextKey() throws Exception {
+    JsonNode page = streamPage(2, 2);
+
+    assertEquals(2, page.get("records").size());
+    assertEquals(1, page.get("records").get(0).get("moveNumber").asInt());
+    assertEquals("STANDARD", page.get("records").get(1).get("variant").asText());
+    assertEquals(5, page.get("next").get("afterGame").asInt());
+    assertEquals(2, page.get("next").get("afterMove").asInt());
+    assertEquals(102, page.get("next").get("afterId").asLong());
+  }
+
+  @Test
+  void testLastPageHasNoNextKey() throws Exception {
+    JsonNode page = streamPage(1, 10);
+
+    assertEquals(1, page.get("records").size());
+    assertTrue(page.get("next").isNull());
+  }
+
+  /**
+   * Streams a page of the given limit over the given number of rows of game 5, numbered from 1.
+   */
+  private JsonNode streamPage(int rows, int limit) throws Exception {
+    JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    when(connection.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY)))
+        .thenReturn(statement);
+    ResultSet resultSet = mock(ResultSet.class);
+    int[] row = new int[1];
+    when(resultSet.getInt(anyString())).thenAnswer(invocation ->
+        "game_number".equals(invocation.getArgument(0)) ? 5 : row[0]);
+    when(resultSet.getLong("id")).thenAnswer(invocation -> 100L + row[0]);
+    when(resultSet.getString("variant")).thenReturn("STANDARD");
+    doAnswer(invocation -> {
+      PreparedStatementCreator creator = invocation.getArgument(0);
+      creator.createPreparedStatement(connection);
+      RowCallbackHandler handler = invocation.getArgument(1);
+      for (row[0] = 1; row[0] <= rows; row[0]++) {
+        handler.processRow(resultSet);
+      }
+      return null;
+    }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new MoveRecordStreamer(jdbcTemplate, 250).writePage(
+        new MoveRecordQuery(5, null, null, null, null, null, null, limit), out);
+
+    verify(statement).setFetchSize(250);
+    verify(statement).setObject(1, 5);
+    verify(statement).setObject(2, limit);
+    return new ObjectMapper().readTree(out.toByteArray());
+  }
+}
@@ -4,10 +4,10 @@ package org.server;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.server.board.boardObjects.Cell;
+import org.server.board.moveManagement.MoveCommand;
 import org.server.board.moveManagement.MoveValidator;
 import org.server.board.boardObjects.Pawn;
 
-import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -38,9 +38,6 @@ public class MoveValidatorTest {
       }
     }
 
-    // Set up neighbors for cells
-    initializeNeighbors();
-
     // Initialize the MoveValidator
     moveValidator = new MoveValidator(cells);
   }
@@ -53,40 +50,6 @@ public class MoveValidatorTest {
     return col >= centerCol - row && col <= centerCol + row && (col - centerCol + row) % 2 == 0;
   }
 
-  private void initializeNeighbors() {
-    int[][] directions = {
-        {-1, -1}, {-1, 1}, // Top-left, Top-right
-        {0, -2}, {0, 2},   // Left, Right
-        {1, -1}, {1, 1}    // Bottom-left, Bottom-right
-    };
-
-    for (int i = 0; i < cells.length; i++) {
-      for (int j = 0; j < cells[i].length; j++) {
-        Cell current = cells[i][j];
-        if (!current.isInsideBoard()) {
-          continue; // Skip invalid positions
-        }
-
-        ArrayList<Cell> neighbors = new ArrayList<>();
-        for (int[] dir : directions) {
-          int ni = i + dir[0];
-          int nj = j + dir[1];
-
-          // Check if the calculated indices are within bounds
-          if (ni >= 0 && ni < cells.length && nj >= 0 && nj < cells[ni].length) {
-            Cell neighbor = cells[ni][nj];
-            if (neighbor.isInsideBoard()) {
-              neighbors.add(neighbor);
-            }
-          }
-        }
-        current.setNeighbors(neighbors);
-      }
-    }
-  }
-
-
-
   @Test
   void testSingleStepMove_valid() {
     // Set up a pawn for player 1
@@ -209,4 +172,82 @@ public class MoveValidatorTest {
     assertEquals("[CMD] 12 14 6 8", moveResult, "Move result should match expected command.");
   }
 
+  @Test
+  void testFindPathFollowsJumpChain() {
+    cells[12][14].pawnMoveIn(new Pawn(1, cells[12][14]));
+    cells[12][12].pawnMoveIn(new Pawn(2, cells[12][12]));
+    cells[11][9].pawnMoveIn(new Pawn(2, cells[11][9]));
+    cells[9][7].pawnMoveIn(new Pawn(2, cells[9][7]));
+    cells[7][7].pawnMoveIn(new Pawn(2, cells[7][7]));
+
+    int[] path = moveValidator.findPath("12 14 1 6 8 0");
+
+    assertArrayEquals(new int[]{12, 14, 12, 10, 10, 8, 8, 6, 6, 8}, path);
+    assertEquals(0, moveValidator.findPath("12 14 1 2 12 0").length, "Unreachable cell should have no path.");
+  }
+
+  @Test
+  void testFindPathReadsTheValidatedSearch() {
+    cells[12][14].pawnMoveIn(new Pawn(1, cells[12][14]));
+    cells[12][12].pawnMoveIn(new Pawn(2, cells[12][12]));
+    cells[11][9].pawnMoveIn(new Pawn(2, cells[11][9]));
+    cells[9][7].pawnMoveIn(new Pawn(2, cells[9][7]));
+    cells[7][7].pawnMoveIn(new Pawn(2, cells[7][7]));
+    MoveCommand move = MoveCommand.of("12 14 1 6 8 0");
+
+    assertTrue(moveValidator.validateMove(1, move));
+    // Without a new search the path does not see a pawn placed after the validation
+    cells[10][8].pawnMoveIn(new Pawn(2, cells[10][8]));
+    assertArrayEquals(new int[]{12, 14, 12, 10, 10, 8, 8, 6, 6, 8}, moveValidator.findPath(move));
+
+    moveValidator.makeMove(MoveCommand.of("9 7 2 8 8 0"));
+    assertEquals(0, moveValidator.findPath(move).length, "A move made since should start a new search.");
+  }
+
+  @Test
+  void testJumpChainAroundRing_validAndTerminates() {
+    // Pawns forming a ring let the jump search return to cells it has already visited
+    Pawn pawn = new Pawn(1, cells[10][12]);
+    cells[10][12].pawnMoveIn(pawn);
+    int[][] ring = {{9, 11}, {7, 11}, {7, 13}, {9, 13}, {8, 12}, {5, 13}};
+    for (int[] position : ring) {
+      cells[position[0]][position[1]].pawnMoveIn(new Pawn(2, cells[position[0]][position[1]]));
+    }
+
+    assertTrue(moveValidator.validateMove(1, "10 12 1 4 14 0"), "Chained jumps should reach the far cell.");
+    assertFalse(moveValidator.validateMove(1, "10 12 1 4 12 0"), "Unreachable cell should be invalid.");
+  }
+
+  @Test
+  void testMoveCommandParsesOnlyWellFormedMoves() {
+    MoveCommand move = new MoveCommand();
+    assertTrue(move.parse("12 14 1 6 8 0"));
+    assertEquals(12, move.getStartRow());
+    assertEquals(14, move.getStartCol());
+    assertEquals(1, move.getStartPlayer());
+    assertEquals(6, move.getEndRow());
+    assertEquals(8, move.getEndCol());
+    assertEquals(0, move.getEndPlayer());
+    assertEquals("12 14 1 6 8 0", move.toString());
+
+    assertFalse(move.parse("12 14 1 6 8"), "A move has six numbers.");
+    assertFalse(move.parse("12 14 1 6 8 0 3"), "A move has six numbers.");
+    assertFalse(move.parse("12  14 1 6 8 0"), "Numbers are separated by single spaces.");
+    assertFalse(move.parse("12 -14 1 6 8 0"), "Numbers are not negative.");
+    assertFalse(move.parse("12 14 1 6 8 9999999999"), "Numbers do not overflow.");
+    assertFalse(move.parse("SKIP"));
+    assertThrows(IllegalArgumentException.class, () -> MoveCommand.of(""));
+  }
+
+  @Test
+  void testMoveCommandIsValidatedAndMadeWithoutReparsing() {
+    cells[12][14].pawnMoveIn(new Pawn(1, cells[12][14]));
+    MoveCommand move = new MoveCommand().set(12, 14, 1, 12, 12, 0);
+
+    assertTrue(moveValidator.validateMove(1, move));
+    assertEquals("[CMD] 12 14 12 12", moveValidator.makeMove(move));
+    assertNull(cells[12][14].getPawn());
+    assertEquals(1, cells[12][12].getPawn().getPlayerNum());
+    assertFalse(moveValidator.validateMove(1, move), "The start cell is empty after the move.");
+  }
 }
@@ -0,0 +1,136 @@
+package org.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.protocol.WireMessage;
+import org.server.network.ConnectionListener;
+import org.server.network.LineDecoder;
+import org.server.network.NioConnection;
+import org.server.network.NioServer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NioServerTest {
+
+  private NioServer server;
+  private CountDownLatch closed;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    closed = new CountDownLatch(1);
+    server = new NioServer(0, 2, 1024, new ConnectionListener() {
+      @Override
+      public void onOpen(NioConnection connection) {
+        connection.send("hello");
+      }
+
+      @Override
+      public void onMessage(NioConnection connection, String message) {
+        if (message.startsWith("big ")) {
+          connection.send("x".repeat(Integer.parseInt(message.substring(4))));
+        } else if (message.equals("bye")) {
+          connection.close();
+        } else {
+          connection.send("echo " + message);
+        }
+      }
+
+      @Override
+      public void onFrame(NioConnection connection, WireMessage message) {
+      }
+
+      @Override
+      public void onClose(NioConnection connection) {
+        closed.countDown();
+      }
+    });
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop();
+  }
+
+  @Test
+  void testDecoderJoinsLinesSplitAcrossReads() throws IOException {
+    LineDecoder decoder = new LineDecoder(64);
+    List<String> lines = new ArrayList<>();
+
+    decoder.decode(ByteBuffer.wrap("1 2 3\r\n4 ".getBytes(StandardCharsets.UTF_8)), lines::add);
+    assertEquals(List.of("1 2 3"), lines);
+    decoder.decode(ByteBuffer.wrap("5 6\nSETUP 1\n".getBytes(StandardCharsets.UTF_8)), lines::add);
+
+    assertEquals(List.of("1 2 3", "4 5 6", "SETUP 1"), lines);
+  }
+
+  @Test
+  void testDecoderRejectsOverlongLine() {
+    LineDecoder decoder = new LineDecoder(8);
+    ByteBuffer buffer = ByteBuffer.wrap("123456789".getBytes(StandardCharsets.UTF_8));
+    assertThrows(IOException.class, () -> decoder.decode(buffer, line -> { }));
+  }
+
+  @Test
+  void testServesManyClientsWithFewThreads() throws IOException {
+    List<Socket> sockets = new ArrayList<>();
+    try {
+      for (int i = 0; i < 50; i++) {
+        sockets.add(new Socket("localhost", server.getPort()));
+      }
+      for (int i = 0; i < sockets.size(); i++) {
+        Socket socket = sockets.get(i);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        PrintWriter writer = new PrintWriter(socket.getOutputStream(), true);
+        assertEquals("hello", reader.readLine());
+        writer.println("move " + i);
+        assertEquals("echo move " + i, reader.readLine());
+      }
+      assertEquals(50, server.getConnectionCount());
+    } finally {
+      for (Socket socket : sockets) {
+        socket.close();
+      }
+    }
+  }
+
+  @Test
+  void testWritesMessagesLargerThanWriteBuffer() throws IOException {
+    try (Socket socket = new Socket("localhost", server.getPort())) {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+      PrintWriter writer = new PrintWriter(socket.getOutputStream(), true);
+      assertEquals("hello", reader.readLine());
+
+      writer.println("big 200000");
+      writer.println("after");
+
+      assertEquals(200000, reader.readLine().length());
+      assertEquals("echo after", reader.readLine());
+    }
+  }
+
+  @Test
+  void testNotifiesListenerWhenConnectionCloses() throws IOException, InterruptedException {
+    try (Socket socket = new Socket("localhost", server.getPort())) {
+      BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+      PrintWriter writer = new PrintWriter(socket.getOutputStream(), true);
+      assertEquals("hello", reader.readLine());
+      writer.println("bye");
+
+      assertTrue(closed.await(5, TimeUnit.SECONDS), "Listener should be told about the closed connection.");
+      assertNull(reader.readLine(), "Server should close the socket.");
+    }
+  }
+}
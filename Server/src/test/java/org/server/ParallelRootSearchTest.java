@@ -0,0 +1,71 @@
+package org.server;
+
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.server.board.boardManagement.BoardManager;
+import org.server.board.moveManagement.AlphaBetaSearch;
+import org.server.board.moveManagement.BotEvaluator;
+import org.server.board.moveManagement.MoveValidator;
+import org.server.board.moveManagement.ParallelRootSearch;
+import org.server.board.moveManagement.TranspositionTable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelRootSearchTest {
+
+  private ForkJoinPool pool;
+
+  @BeforeEach
+  void setUp() {
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  void testPicksSameMoveAsSequentialSearch() {
+    for (int numOfPlayers : new int[]{2, 3}) {
+      BoardManager boardManager = new BoardManager(10, numOfPlayers, 0);
+      BotEvaluator evaluator = new BotEvaluator(boardManager, numOfPlayers);
+      MoveValidator moveValidator = new MoveValidator(boardManager.getCells());
+
+      for (int turn = 0; turn < 2 * numOfPlayers; turn++) {
+        int playerNum = turn % numOfPlayers + 1;
+        AlphaBetaSearch sequential = new AlphaBetaSearch(boardManager.getCells(), evaluator, 60_000);
+        ParallelRootSearch parallel = new ParallelRootSearch(boardManager.getCells(), evaluator, 60_000, null, pool);
+        sequential.setMaxDepth(2);
+        parallel.setMaxDepth(2);
+
+        int[] expected = sequential.getBestMoveForBot(playerNum, boardManager.getDestinationPoint(playerNum),
+            boardManager.getDestinationZoneNum(playerNum));
+        int[] actual = parallel.getBestMoveForBot(playerNum, boardManager.getDestinationPoint(playerNum),
+            boardManager.getDestinationZoneNum(playerNum));
+
+        assertArrayEquals(expected, actual, "Parallel search should choose the sequential move.");
+        assertEquals(2, parallel.getCompletedDepth());
+        moveValidator.makeMove(actual[0] + " " + actual[1] + " " + playerNum + " " + actual[2] + " " + actual[3] + " 0");
+      }
+    }
+  }
+
+  @Test
+  void testReturnsLegalMoveWithinBudget() {
+    BoardManager boardManager = new BoardManager(10, 2, 0);
+    ParallelRootSearch search = new ParallelRootSearch(boardManager.getCells(), new BotEvaluator(boardManager, 2), 100,
+        new TranspositionTable(4), pool);
+
+    long start = System.currentTimeMillis();
+    int[] move = search.getBestMoveForBot(1, boardManager.getDestinationPoint(1), boardManager.getDestinationZoneNum(1));
+    long elapsed = System.currentTimeMillis() - start;
+
+    assertTrue(elapsed < 1000, "Search should respect its time budget.");
+    assertTrue(search.getCompletedDepth() >= 1, "At least one iteration should complete.");
+    String input = move[0] + " " + move[1] + " 1 " + move[2] + " " + move[3] + " 0";
+    assertTrue(new MoveValidator(boardManager.getCells()).validateMove(1, input), "Search should return a legal move.");
+  }
+}
@@ -0,0 +1,172 @@
+package org.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.server.board.BoardPosition;
+import org.server.board.BoardSnapshot;
+import org.server.board.BoardSnapshotRepository;
+import org.server.board.GameMetadataCache;
+import org.server.board.GameRecord;
+import org.server.board.MoveJournalEntry;
+import org.server.board.MoveJournalRepository;
+import org.server.board.MoveRecord;
+import org.server.board.MoveRecordHistory;
+import org.server.board.PositionReplayer;
+import org.server.board.boardManagement.BoardManager;
+import org.server.board.boardObjects.Cell;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PositionReplayerTest {
+
+  private static final int GAME = 7;
+  private static final int LAST_MOVE = 40;
+
+  private GameMetadataCache gameMetadataCache;
+  private BoardSnapshotRepository boardSnapshotRepository;
+  private MoveJournalRepository moveJournalRepository;
+  private MoveRecordHistory moveRecordHistory;
+  private Cell pawnCell;
+  private Cell emptyCell;
+
+  @BeforeEach
+  void setUp() {
+    gameMetadataCache = mock(GameMetadataCache.class);
+    boardSnapshotRepository = mock(BoardSnapshotRepository.class);
+    moveJournalRepository = mock(MoveJournalRepository.class);
+    moveRecordHistory = mock(MoveRecordHistory.class);
+    when(gameMetadataCache.get(GAME)).thenReturn(new GameRecord(GAME, "standard", 2, 0, 10, 1));
+
+    // The game moves one pawn back and forth: odd moves onto an empty cell, even moves back
+    BoardManager boardManager = new BoardManager(10, 2, 1);
+    for (Cell[] cellRow : boardManager.getCells()) {
+      for (Cell cell : cellRow) {
+        if (cell.isInsideBoard() && cell.getPawn() != null && pawnCell == null) {
+          pawnCell = cell;
+        } else if (cell.isInsideBoard() && cell.getPawn() == null && emptyCell == null) {
+          emptyCell = cell;
+        }
+      }
+    }
+    BoardSnapshot initial = new BoardSnapshot(GAME, 0, BoardSnapshot.encodeCells(boardManager.getCells()));
+    when(boardSnapshotRepository.findLatestAtOrBefore(eq(GAME), anyInt())).thenReturn(initial);
+    List<MoveJournalEntry> journal = new ArrayList<>();
+    for (int moveNum = 1; moveNum <= LAST_MOVE; moveNum++) {
+      Cell from = moveNum % 2 == 1 ? pawnCell : emptyCell;
+      Cell to = moveNum % 2 == 1 ? emptyCell : pawnCell;
+      journal.add(new MoveJournalEntry(GAME, moveNum, 1, from.getRow(), from.getCol(), to.getRow(), to.getCol(), ""));
+    }
+    when(moveJournalRepository.findMovesBetween(eq(GAME), anyInt(), anyInt())).thenAnswer(invocation -> {
+      int after = invocation.getArgument(1);
+      int upTo = invocation.getArgument(2);
+      return journal.stream()
+          .filter(entry -> entry.getMoveNumber() > after && entry.getMoveNumber() <= upTo)
+          .collect(Collectors.toList());
+    });
+  }
+
+  /**
+   * Creates a replayer caching the given number of positions.
+   */
+  private PositionReplayer replayer(int capacity, int readAhead) {
+    return new PositionReplayer(gameMetadataCache, boardSnapshotRepository, moveJournalRepository,
+        moveRecordHistory, capacity, readAhead);
+  }
+
+  /**
+   * Returns the character of a cell in a position's rows.
+   */
+  private static char cellAt(BoardPosition position, Cell cell) {
+    return position.getRows().get(cell.getRow()).charAt(cell.getCol());
+  }
+
+  @Test
+  void testPositionIsReplayedFromTheSnapshot() {
+    PositionReplayer replayer = replayer(100, 20);
+
+    BoardPosition odd = replayer.getPosition(GAME, 5);
+    assertEquals(5, odd.getMoveNumber());
+    assertEquals('1', cellAt(odd, emptyCell));
+    assertEquals('.', cellAt(odd, pawnCell));
+    BoardPosition even = replayer.getPosition(GAME, 6);
+    assertEquals('.', cellAt(even, emptyCell));
+    assertEquals('1', cellAt(even, pawnCell));
+    assertEquals('1', cellAt(replayer.getPosition(GAME, 0), pawnCell));
+    verify(moveJournalRepository).findMovesBetween(GAME, 0, 25);
+  }
+
+  @Test
+  void testSteppingThroughAGameQueriesOncePerFewMoves() {
+    PositionReplayer replayer = replayer(100, 20);
+
+    for (int moveNum = 1; moveNum <= LAST_MOVE; moveNum++) {
+      assertEquals(moveNum, replayer.getPosition(GAME, moveNum).getMoveNumber());
+    }
+    verify(boardSnapshotRepository, times(1)).findLatestAtOrBefore(eq(GAME), anyInt());
+    verify(moveJournalRepository, times(2)).findMovesBetween(eq(GAME), anyInt(), anyInt());
+    verify(moveJournalRepository).findMovesBetween(GAME, 21, 42);
+    assertEquals(2L, replayer.getMetrics().get("misses"));
+  }
+
+  @Test
+  void testPerCellGameIsReadAheadInRanges() {
+    int perCellGame = GAME + 2;
+    when(gameMetadataCache.get(perCellGame)).thenReturn(new GameRecord(perCellGame, "standard", 2, 0, 10, 1));
+    when(moveRecordHistory.findMoves(eq(perCellGame), anyInt(), anyInt())).thenAnswer(invocation -> {
+      TreeMap<Integer, List<MoveRecord>> moves = new TreeMap<>();
+      for (int moveNum = invocation.<Integer>getArgument(1); moveNum <= Math.min(LAST_MOVE, invocation.<Integer>getArgument(2)); moveNum++) {
+        moves.put(moveNum, moveRecords(perCellGame, moveNum));
+      }
+      return moves;
+    });
+    PositionReplayer replayer = replayer(100, 20);
+
+    for (int moveNum = 0; moveNum <= LAST_MOVE; moveNum++) {
+      BoardPosition position = replayer.getPosition(perCellGame, moveNum);
+      assertEquals(moveNum, position.getMoveNumber());
+      assertEquals(moveNum % 2 == 1 ? '1' : '.', cellAt(position, emptyCell));
+      assertEquals(moveNum % 2 == 1 ? '.' : '1', cellAt(position, pawnCell));
+    }
+    verify(moveRecordHistory).findMoves(perCellGame, 0, 20);
+    verify(moveRecordHistory).findMoves(perCellGame, 21, 41);
+    verify(moveRecordHistory, never()).findMove(anyInt(), anyInt());
+  }
+
+  /**
+   * Returns the per-cell rows of a move of the game moving one pawn back and forth.
+   */
+  private List<MoveRecord> moveRecords(int gameNum, int moveNum) {
+    List<MoveRecord> moveRecords = new ArrayList<>();
+    for (Cell cell : new Cell[] {pawnCell, emptyCell}) {
+      boolean occupied = (cell == pawnCell) == (moveNum % 2 == 0);
+      MoveRecord moveRecord = new MoveRecord(moveNum);
+      moveRecord.setGameNumber(gameNum);
+      moveRecord.setCellRowNumber(cell.getRow());
+      moveRecord.setCellColumnNumber(cell.getCol());
+      moveRecord.setCellPlayerNumber(occupied ? 1 : 0);
+      moveRecord.setCellZoneNumber(cell.getZoneNum());
+      moveRecords.add(moveRecord);
+    }
+    return moveRecords;
+  }
+
+  @Test
+  void testCacheIsBoundedAndUnknownPositionsAreNotFound() {
+    PositionReplayer replayer = replayer(3, 0);
+
+    for (int moveNum = 1; moveNum <= 10; moveNum++) {
+      assertNotNull(replayer.getPosition(GAME, moveNum));
+    }
+    assertEquals(3, replayer.getMetrics().get("size"));
+    assertNull(replayer.getPosition(GAME, LAST_MOVE + 1), "A move after the last one should not be found.");
+    assertNull(replayer.getPosition(GAME + 1, 1), "A move of an unknown game should not be found.");
+    assertNull(replayer.getPosition(GAME, -1));
+  }
+}
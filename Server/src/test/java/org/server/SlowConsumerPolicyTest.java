@@ -0,0 +1,146 @@
+package org.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.protocol.WireMessage;
+import org.server.board.boardManagement.BoardFactory;
+import org.server.network.OutboundQueue;
+import org.server.network.SlowConsumerPolicy;
+import org.server.playerHandlers.RemotePlayerHandler;
+import org.server.playerHandlers.RemotePlayerListener;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowConsumerPolicyTest {
+
+  /**
+   * A player whose client never reads, so its queue only fills up.
+   */
+  private static final class StalledPlayer extends RemotePlayerHandler {
+    private final OutboundQueue outbound = new OutboundQueue(3);
+    private boolean closed;
+
+    StalledPlayer(GameManager gameManager, SlowConsumerPolicy policy) {
+      super(policy, false, new RemotePlayerListener() {
+        @Override
+        public void onMessage(RemotePlayerHandler player, String message) {
+        }
+
+        @Override
+        public void onFrame(RemotePlayerHandler player, WireMessage message) {
+        }
+
+        @Override
+        public void onClose(RemotePlayerHandler player) {
+        }
+      });
+      setUserNum(1);
+      this.gameManager = gameManager;
+    }
+
+    @Override
+    protected boolean enqueue(byte[] line) {
+      return closed || outbound.offer(line);
+    }
+
+    @Override
+    protected void switchToFrames() {
+    }
+
+    @Override
+    protected void clearOutbound() {
+      outbound.clear();
+    }
+
+    @Override
+    protected void closeConnection() {
+      closed = true;
+    }
+
+    List<String> queued() {
+      List<String> lines = new ArrayList<>();
+      byte[] line;
+      while ((line = outbound.poll()) != null) {
+        lines.add(new String(line, StandardCharsets.UTF_8).trim());
+      }
+      return lines;
+    }
+  }
+
+  private GameManager startedGame() {
+    GameManager gameManager = new GameManager();
+    gameManager.setBoard(BoardFactory.createBoard(10, 2, "standard", 0));
+    gameManager.getLifecycle().moveTo(GameState.CONFIGURED);
+    gameManager.startGame();
+    return gameManager;
+  }
+
+  private static void sendMessages(StalledPlayer player, int count) {
+    for (int i = 0; i < count; i++) {
+      player.sendMessage("message " + i);
+    }
+  }
+
+  @Test
+  void testDropKeepsQueuedMessagesAndDiscardsNewOnes() {
+    StalledPlayer player = new StalledPlayer(startedGame(), SlowConsumerPolicy.DROP);
+
+    sendMessages(player, 5);
+
+    assertEquals(List.of("message 0", "message 1", "message 2"), player.queued());
+    assertEquals(2, player.getDroppedMessages());
+    assertFalse(player.closed);
+  }
+
+  @Test
+  void testResyncReplacesQueueWithGameState() {
+    GameManager gameManager = startedGame();
+    gameManager.addFinishedPlayer(2);
+    StalledPlayer player = new StalledPlayer(gameManager, SlowConsumerPolicy.RESYNC);
+
+    sendMessages(player, 4);
+
+    List<String> queued = player.queued();
+    assertEquals(3, queued.size());
+    assertEquals("START." + (gameManager.getMaxUsers() + gameManager.getMaxBots()) + ",currTurn," + gameManager.getCurrTurn(), queued.get(0),
+        "The client should receive the current turn.");
+    assertTrue(queued.get(1).startsWith("[BOARD] 2 17 25 "), "The client should receive the whole board instead.");
+    assertEquals("WIN.2", queued.get(2), "The client should receive the players who have won.");
+    assertEquals(1, player.getResyncs());
+    assertFalse(player.closed);
+  }
+
+  @Test
+  void testResyncDisconnectsWithoutGame() {
+    StalledPlayer player = new StalledPlayer(null, SlowConsumerPolicy.RESYNC);
+
+    sendMessages(player, 4);
+
+    assertTrue(player.closed);
+  }
+
+  @Test
+  void testResyncDisconnectsBeforeBoardExists() {
+    StalledPlayer player = new StalledPlayer(new GameManager(), SlowConsumerPolicy.RESYNC);
+
+    sendMessages(player, 4);
+
+    assertTrue(player.closed);
+  }
+
+  @Test
+  void testDisconnectClosesOnlyTheSlowClient() {
+    GameManager gameManager = startedGame();
+    StalledPlayer slow = new StalledPlayer(gameManager, SlowConsumerPolicy.DISCONNECT);
+    gameManager.addPlayer(slow);
+
+    sendMessages(slow, 2);
+    assertFalse(slow.closed);
+    gameManager.broadcastPlayerWon(1);
+
+    assertTrue(slow.closed);
+    assertTrue(gameManager.getPlayerHandlers().isEmpty());
+  }
+}
@@ -0,0 +1,68 @@
+package org.server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.server.board.moveManagement.TranspositionTable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+  private TranspositionTable table;
+
+  @BeforeEach
+  void setUp() {
+    table = new TranspositionTable(1);
+    table.newSearch();
+  }
+
+  @Test
+  void testCapacityIsPowerOfTwo() {
+    assertEquals(65536, table.getCapacity());
+  }
+
+  @Test
+  void testStoreAndProbe() {
+    long key = 0x123456789ABCDEFL;
+    table.store(key, -4321, 5, TranspositionTable.FLAG_EXACT, 17, 42);
+
+    long data = table.probe(key);
+    assertNotEquals(0, data);
+    assertEquals(-4321, TranspositionTable.getValue(data));
+    assertEquals(5, TranspositionTable.getDepth(data));
+    assertEquals(TranspositionTable.FLAG_EXACT, TranspositionTable.getFlag(data));
+    assertEquals(17, TranspositionTable.getMoveFrom(data));
+    assertEquals(42, TranspositionTable.getMoveTo(data));
+  }
+
+  @Test
+  void testProbeMissesOtherKeys() {
+    table.store(1L, 10, 3, TranspositionTable.FLAG_LOWER, 1, 2);
+    assertEquals(0, table.probe(2L));
+    // Same slot, different key
+    assertEquals(0, table.probe(1L + ((long) table.getCapacity() << 32)));
+  }
+
+  @Test
+  void testDeeperEntryIsKeptWithinOneSearch() {
+    long first = 7L;
+    long second = first + ((long) table.getCapacity() << 32) + table.getCapacity();
+    table.store(first, 1, 6, TranspositionTable.FLAG_EXACT, 1, 2);
+    table.store(second, 2, 2, TranspositionTable.FLAG_EXACT, 3, 4);
+
+    assertNotEquals(0, table.probe(first));
+    assertEquals(0, table.probe(second));
+  }
+
+  @Test
+  void testOlderSearchEntriesAreReplaced() {
+    long first = 7L;
+    long second = first + ((long) table.getCapacity() << 32) + table.getCapacity();
+    table.store(first, 1, 6, TranspositionTable.FLAG_EXACT, 1, 2);
+    table.newSearch();
+    table.store(second, 2, 2, TranspositionTable.FLAG_EXACT, 3, 4);
+
+    assertEquals(0, table.probe(first));
+    assertNotEquals(0, table.probe(second));
+  }
+}
@@ -0,0 +1,83 @@
+package org.server;
+
+import java.nio.charset.StandardCharsets;
+import org.protocol.WireCodec;
+import org.protocol.WireMessage;
+
+/**
+ * Compares the text protocol with the binary protocol on the messages of a game in progress:
+ * moves sent by clients, the moves broadcast back and the commands moving the pawns.
+ * Reports the bytes sent per message and the time to turn a received message into its numbers,
+ * splitting and parsing the text line the way the boards do, or decoding the frame.
+ * Not run by the build; start it after {@code mvn test-compile} with
+ * {@code java -cp target/classes:target/test-classes:../Protocol/target/classes org.server.WireCodecBenchmark 2000000}.
+ */
+public class WireCodecBenchmark {
+
+  private static final String[] MESSAGES = {
+      "4 5 2 10 11 0",
+      "User number 2 moved: 4 5 2 10 11",
+      "[CMD] 4 5 10 11",
+      "You just moved",
+      "SKIP",
+      "Turn skipped by user: 3",
+  };
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args The number of messages to parse; 2000000 if none is given.
+   */
+  public static void main(String[] args) {
+    int count = args.length == 0 ? 2_000_000 : Integer.parseInt(args[0]);
+    byte[][] lines = new byte[MESSAGES.length][];
+    byte[][] frames = new byte[MESSAGES.length][];
+    long lineBytes = 0;
+    long frameBytes = 0;
+    for (int i = 0; i < MESSAGES.length; i++) {
+      lines[i] = (MESSAGES[i] + "\n").getBytes(StandardCharsets.UTF_8);
+      frames[i] = WireCodec.encode(MESSAGES[i]);
+      lineBytes += lines[i].length;
+      frameBytes += frames[i].length;
+    }
+    System.out.printf("bytes per message: text %.1f, binary %.1f%n",
+        (double) lineBytes / MESSAGES.length, (double) frameBytes / MESSAGES.length);
+
+    for (int round = 0; round < 3; round++) {
+      long sink = 0;
+      long start = System.nanoTime();
+      for (int i = 0; i < count; i++) {
+        sink += parseLine(lines[i % lines.length]);
+      }
+      long textNanos = System.nanoTime() - start;
+      start = System.nanoTime();
+      for (int i = 0; i < count; i++) {
+        byte[] frame = frames[i % frames.length];
+        WireMessage message = WireCodec.decode(frame, 2, frame.length - 2);
+        for (int f = 0; f < message.getFieldCount(); f++) {
+          sink += message.getField(f);
+        }
+      }
+      long binaryNanos = System.nanoTime() - start;
+      System.out.printf("round %d: text %.1f ns/message, binary %.1f ns/message (%d)%n", round + 1,
+          (double) textNanos / count, (double) binaryNanos / count, sink);
+    }
+  }
+
+  /**
+   * Decodes a line and parses its numbers, the way a received text message is handled.
+   *
+   * @param line The encoded line, with its terminator.
+   * @return The sum of the numbers in the line.
+   */
+  private static long parseLine(byte[] line) {
+    String text = new String(line, 0, line.length - 1, StandardCharsets.UTF_8);
+    long sum = 0;
+    for (String token : text.split(" ")) {
+      if (!token.isEmpty() && Character.isDigit(token.charAt(0))) {
+        sum += Integer.parseInt(token);
+      }
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,190 @@
+package org.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.protocol.MessageType;
+import org.protocol.WireCodec;
+import org.protocol.WireMessage;
+import org.protocol.WireReader;
+import org.server.board.moveManagement.MoveCommand;
+import org.server.network.ConnectionSettings;
+import org.server.network.FrameDecoder;
+import org.server.network.SlowConsumerPolicy;
+import org.server.playerHandlers.ClientHandler;
+import org.server.playerHandlers.RemotePlayerHandler;
+import org.server.playerHandlers.RemotePlayerListener;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireProtocolTest {
+
+  private static final String BOARD = "[BOARD] 2 3 4 " + "012000000210";
+
+  private static final List<String> MESSAGES = List.of("3", "4 12 1 5 11 0", "SKIP", "SETUP 2", "[SETUP]",
+      "[CMD] 4 12 5 11", "[CREATE] 4 12 1 2", BOARD, "User number 2 moved: [CMD] 4 12 5 11", "You just moved",
+      "Turn skipped by user: 3", "You just skipped", "START.2,currTurn,1", "WIN.2", "GAME FINISHED!");
+
+  @Test
+  void testFrameDecoderJoinsFramesSplitAcrossReads() throws IOException {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    for (String line : MESSAGES) {
+      stream.write(WireCodec.encode(line));
+    }
+    byte[] bytes = stream.toByteArray();
+    FrameDecoder decoder = new FrameDecoder(WireCodec.MAX_FRAME_LENGTH);
+    List<String> decoded = new ArrayList<>();
+
+    for (int i = 0; i < bytes.length; i += 3) {
+      ByteBuffer chunk = ByteBuffer.wrap(bytes, i, Math.min(3, bytes.length - i));
+      decoder.decode(chunk, message -> decoded.add(WireCodec.toText(message)));
+    }
+
+    assertEquals(MESSAGES, decoded);
+  }
+
+  @Test
+  void testClientHandlerNegotiatesBinaryProtocol() throws Exception {
+    BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    BlockingQueue<WireMessage> frames = new LinkedBlockingQueue<>();
+    RemotePlayerListener listener = new RemotePlayerListener() {
+      @Override
+      public void onMessage(RemotePlayerHandler player, String message) {
+        received.add(message);
+      }
+
+      @Override
+      public void onFrame(RemotePlayerHandler player, WireMessage message) {
+        frames.add(message);
+      }
+
+      @Override
+      public void onClose(RemotePlayerHandler player) {
+      }
+    };
+    ConnectionSettings settings = new ConnectionSettings(16, SlowConsumerPolicy.DISCONNECT, false, true);
+
+    try (ServerSocket serverSocket = new ServerSocket(0);
+         Socket client = new Socket("localhost", serverSocket.getLocalPort());
+         Socket accepted = serverSocket.accept()) {
+      ClientHandler handler = new ClientHandler(accepted, settings, ForkJoinPool.commonPool(), listener);
+      new Thread(handler).start();
+      handler.sendMessage("1");
+
+      OutputStream out = client.getOutputStream();
+      out.write((WireCodec.HELLO + "\n").getBytes(StandardCharsets.UTF_8));
+      out.write(WireCodec.encode("4 12 1 5 11 0"));
+      out.write(WireCodec.encode("VARIANT order"));
+      out.flush();
+      WireReader reader = new WireReader(client.getInputStream());
+
+      assertEquals("1", reader.readLine());
+      assertEquals(WireCodec.ACK_BINARY, reader.readLine());
+      WireMessage frame = frames.poll(5, TimeUnit.SECONDS);
+      assertEquals(new WireMessage(MessageType.MOVE, 4, 12, 1, 5, 11, 0), frame, "Frames should reach the game decoded.");
+      MoveCommand move = new MoveCommand();
+      assertTrue(move.set(frame));
+      assertEquals("4 12 1 5 11 0", move.toString());
+      assertEquals("VARIANT order", received.poll(5, TimeUnit.SECONDS), "Text frames should reach the game as lines.");
+      assertTrue(handler.isBinary());
+
+      handler.sendMessage("[CMD] 4 12 5 11");
+      assertEquals(new WireMessage(MessageType.CMD, 4, 12, 5, 11), reader.readFrame());
+      handler.closeEverything();
+    }
+  }
+
+  @Test
+  void testClientWithoutHelloKeepsTextProtocol() throws Exception {
+    BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    BlockingQueue<WireMessage> frames = new LinkedBlockingQueue<>();
+    RemotePlayerListener listener = new RemotePlayerListener() {
+      @Override
+      public void onMessage(RemotePlayerHandler player, String message) {
+        received.add(message);
+      }
+
+      @Override
+      public void onFrame(RemotePlayerHandler player, WireMessage message) {
+        frames.add(message);
+      }
+
+      @Override
+      public void onClose(RemotePlayerHandler player) {
+      }
+    };
+    ConnectionSettings settings = new ConnectionSettings(16, SlowConsumerPolicy.DISCONNECT, false, true);
+
+    try (ServerSocket serverSocket = new ServerSocket(0);
+         Socket client = new Socket("localhost", serverSocket.getLocalPort());
+         Socket accepted = serverSocket.accept()) {
+      ClientHandler handler = new ClientHandler(accepted, settings, ForkJoinPool.commonPool(), listener);
+      new Thread(handler).start();
+
+      client.getOutputStream().write("2,0,standard\n".getBytes(StandardCharsets.UTF_8));
+      client.getOutputStream().flush();
+      assertEquals("2,0,standard", received.poll(5, TimeUnit.SECONDS));
+
+      handler.sendMessage("[CMD] 4 12 5 11");
+      assertEquals("[CMD] 4 12 5 11", new WireReader(client.getInputStream()).readLine());
+      assertFalse(handler.isBinary());
+      handler.closeEverything();
+    }
+  }
+
+  @Test
+  void testConnectionsShareOneWriter() throws Exception {
+    RemotePlayerListener listener = new RemotePlayerListener() {
+      @Override
+      public void onMessage(RemotePlayerHandler player, String message) {
+      }
+
+      @Override
+      public void onFrame(RemotePlayerHandler player, WireMessage message) {
+      }
+
+      @Override
+      public void onClose(RemotePlayerHandler player) {
+      }
+    };
+    ConnectionSettings settings = new ConnectionSettings(1024, SlowConsumerPolicy.DISCONNECT, false, true);
+    ExecutorService writer = Executors.newSingleThreadExecutor();
+
+    try (ServerSocket serverSocket = new ServerSocket(0);
+         Socket firstClient = new Socket("localhost", serverSocket.getLocalPort());
+         Socket firstAccepted = serverSocket.accept();
+         Socket secondClient = new Socket("localhost", serverSocket.getLocalPort());
+         Socket secondAccepted = serverSocket.accept()) {
+      ClientHandler first = new ClientHandler(firstAccepted, settings, writer, listener);
+      ClientHandler second = new ClientHandler(secondAccepted, settings, writer, listener);
+      for (int i = 0; i < 500; i++) {
+        first.sendMessage("first " + i);
+        second.sendMessage("second " + i);
+      }
+
+      WireReader firstReader = new WireReader(firstClient.getInputStream());
+      WireReader secondReader = new WireReader(secondClient.getInputStream());
+      for (int i = 0; i < 500; i++) {
+        assertEquals("first " + i, firstReader.readLine());
+        assertEquals("second " + i, secondReader.readLine());
+      }
+      first.closeEverything();
+      second.closeEverything();
+    } finally {
+      writer.shutdownNow();
+    }
+  }
+}